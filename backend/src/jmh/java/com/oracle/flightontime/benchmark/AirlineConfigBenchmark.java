@@ -0,0 +1,42 @@
+package com.oracle.flightontime.benchmark;
+
+import com.oracle.flightontime.config.AirlineConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de aeropuertos por aerolínea, con códigos operados y con
+ * códigos que la aerolínea no opera.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AirlineConfigBenchmark {
+
+    private Rutas rutas;
+    private String[] aerolineasCruzadas;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        rutas = new Rutas();
+        // La otra aerolínea: parte de los aeropuertos no serán válidos
+        aerolineasCruzadas = new String[Rutas.CANTIDAD];
+        for (int i = 0; i < Rutas.CANTIDAD; i++) {
+            aerolineasCruzadas[i] = "1".equals(rutas.aerolineas[i]) ? "2" : "1";
+        }
+    }
+
+    @Benchmark
+    public boolean esAeropuertoValido() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        return AirlineConfig.esAeropuertoValido(rutas.aerolineas[i], rutas.origenes[i]);
+    }
+
+    @Benchmark
+    public boolean esAeropuertoValidoMixto() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        return AirlineConfig.esAeropuertoValido(aerolineasCruzadas[i], rutas.origenes[i]);
+    }
+}
@@ -0,0 +1,126 @@
+package com.oracle.flightontime.benchmark;
+
+import com.oracle.flightontime.util.AirportSpatialIndex;
+import com.oracle.flightontime.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aeropuertos cercanos: índice espacial frente al recorrido lineal con
+ * haversine contra todos los aeropuertos. "datos" usa los aeropuertos de
+ * referencia; los demás tamaños son aeropuertos sintéticos repartidos
+ * sobre la superficie terrestre.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AirportSpatialIndexBenchmark {
+
+    private static final int CONSULTAS = 1024;
+    private static final int K = 5;
+    private static final double RADIO_KM = 150.0;
+
+    @Param({"datos", "20000"})
+    public String aeropuertos;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private AirportSpatialIndex indice;
+    private double[] consultaLat;
+    private double[] consultaLon;
+    private int i;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom random = new SplittableRandom(42);
+        if ("datos".equals(aeropuertos)) {
+            int n = GeoUtils.getNumeroAeropuertos();
+            latitudes = new double[n];
+            longitudes = new double[n];
+            for (int o = 0; o < n; o++) {
+                double[] coordenadas = GeoUtils.getCoordinates(GeoUtils.getCodigoIATA(o));
+                latitudes[o] = coordenadas[0];
+                longitudes[o] = coordenadas[1];
+            }
+        } else {
+            int n = Integer.parseInt(aeropuertos);
+            latitudes = new double[n];
+            longitudes = new double[n];
+            for (int o = 0; o < n; o++) {
+                latitudes[o] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+                longitudes[o] = random.nextDouble() * 360 - 180;
+            }
+        }
+        indice = AirportSpatialIndex.deTodos(latitudes, longitudes);
+
+        // Consultas cerca de aeropuertos existentes
+        consultaLat = new double[CONSULTAS];
+        consultaLon = new double[CONSULTAS];
+        for (int q = 0; q < CONSULTAS; q++) {
+            int o = random.nextInt(latitudes.length);
+            consultaLat[q] = latitudes[o] + random.nextDouble() - 0.5;
+            consultaLon[q] = longitudes[o] + random.nextDouble() - 0.5;
+        }
+    }
+
+    @Benchmark
+    public List<AirportSpatialIndex.Vecino> cercanosIndice() {
+        int q = i = (i + 1) & (CONSULTAS - 1);
+        return indice.cercanos(consultaLat[q], consultaLon[q], K, -1);
+    }
+
+    @Benchmark
+    public List<AirportSpatialIndex.Vecino> cercanosLineal() {
+        int q = i = (i + 1) & (CONSULTAS - 1);
+        double lat = consultaLat[q];
+        double lon = consultaLon[q];
+        int[] mejores = new int[K];
+        double[] distancias = new double[K];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        for (int o = 0; o < latitudes.length; o++) {
+            double d = GeoUtils.calcularDistanciaHaversine(lat, lon, latitudes[o], longitudes[o]);
+            if (d < distancias[K - 1]) {
+                int j = K - 1;
+                while (j > 0 && distancias[j - 1] > d) {
+                    distancias[j] = distancias[j - 1];
+                    mejores[j] = mejores[j - 1];
+                    j--;
+                }
+                distancias[j] = d;
+                mejores[j] = o;
+            }
+        }
+        List<AirportSpatialIndex.Vecino> vecinos = new ArrayList<>(K);
+        for (int j = 0; j < K; j++) {
+            vecinos.add(new AirportSpatialIndex.Vecino(mejores[j], distancias[j]));
+        }
+        return vecinos;
+    }
+
+    @Benchmark
+    public List<AirportSpatialIndex.Vecino> radioIndice() {
+        int q = i = (i + 1) & (CONSULTAS - 1);
+        return indice.dentroDeRadio(consultaLat[q], consultaLon[q], RADIO_KM);
+    }
+
+    @Benchmark
+    public List<AirportSpatialIndex.Vecino> radioLineal() {
+        int q = i = (i + 1) & (CONSULTAS - 1);
+        double lat = consultaLat[q];
+        double lon = consultaLon[q];
+        List<AirportSpatialIndex.Vecino> vecinos = new ArrayList<>();
+        for (int o = 0; o < latitudes.length; o++) {
+            double d = GeoUtils.calcularDistanciaHaversine(lat, lon, latitudes[o], longitudes[o]);
+            if (d <= RADIO_KM) {
+                vecinos.add(new AirportSpatialIndex.Vecino(o, d));
+            }
+        }
+        vecinos.sort((a, b) -> Double.compare(a.distanciaKm(), b.distanciaKm()));
+        return vecinos;
+    }
+}
@@ -0,0 +1,99 @@
+package com.oracle.flightontime.benchmark;
+
+import com.oracle.flightontime.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de distancias: consulta por código IATA y por ordinal sobre la
+ * matriz precalculada, y haversine directo sobre coordenadas.
+ *
+ * calcularDistanciaOriginal es la línea base: la implementación anterior a
+ * la matriz (HashMap por código IATA en mayúsculas y haversine en cada
+ * llamada), con las mismas coordenadas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoUtilsBenchmark {
+
+    private Rutas rutas;
+    private double[][] coordenadasOrigen;
+    private double[][] coordenadasDestino;
+    private Map<String, double[]> coordenadasPorCodigo;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        rutas = new Rutas();
+        coordenadasPorCodigo = new HashMap<>();
+        for (int ordinal = 0; ordinal < GeoUtils.getNumeroAeropuertos(); ordinal++) {
+            String codigo = GeoUtils.getCodigoIATA(ordinal);
+            coordenadasPorCodigo.put(codigo, GeoUtils.getCoordinates(codigo));
+        }
+        coordenadasOrigen = new double[Rutas.CANTIDAD][];
+        coordenadasDestino = new double[Rutas.CANTIDAD][];
+        for (int i = 0; i < Rutas.CANTIDAD; i++) {
+            coordenadasOrigen[i] = GeoUtils.getCoordinates(rutas.origenes[i]);
+            coordenadasDestino[i] = GeoUtils.getCoordinates(rutas.destinos[i]);
+        }
+    }
+
+    @Benchmark
+    public Double calcularDistanciaPorCodigo() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        return GeoUtils.calcularDistancia(rutas.origenes[i], rutas.destinos[i]);
+    }
+
+    @Benchmark
+    public double calcularDistanciaPorOrdinal() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        return GeoUtils.calcularDistancia(rutas.origenesOrdinal[i], rutas.destinosOrdinal[i]);
+    }
+
+    @Benchmark
+    public double calcularDistanciaHaversine() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        double[] origen = coordenadasOrigen[i];
+        double[] destino = coordenadasDestino[i];
+        return GeoUtils.calcularDistanciaHaversine(origen[0], origen[1], destino[0], destino[1]);
+    }
+
+    @Benchmark
+    public Double calcularDistanciaOriginal() {
+        int i = indice = (indice + 1) & Rutas.MASCARA;
+        double[] origen = coordenadasPorCodigo.get(rutas.origenes[i].toUpperCase());
+        double[] destino = coordenadasPorCodigo.get(rutas.destinos[i].toUpperCase());
+        if (origen == null || destino == null) {
+            return null;
+        }
+        return haversineOriginal(origen[0], origen[1], destino[0], destino[1]);
+    }
+
+    /**
+     * Haversine tal como estaba antes de la matriz: conversión a radianes,
+     * atan2 y redondeo a 2 decimales en cada llamada.
+     */
+    private static double haversineOriginal(double lat1, double lon1, double lat2, double lon2) {
+        final double R = 6371.0;
+
+        double lat1Rad = Math.toRadians(lat1);
+        double lon1Rad = Math.toRadians(lon1);
+        double lat2Rad = Math.toRadians(lat2);
+        double lon2Rad = Math.toRadians(lon2);
+
+        double dlat = lat2Rad - lat1Rad;
+        double dlon = lon2Rad - lon1Rad;
+
+        double a = Math.sin(dlat / 2) * Math.sin(dlat / 2) +
+                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
+                        Math.sin(dlon / 2) * Math.sin(dlon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return Math.round(R * c * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.oracle.flightontime.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.oracle.flightontime.dto.PredictionMetadata;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialización JSON de los DTOs de predicción con un ObjectMapper
+ * configurado como el de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JacksonBenchmark {
+
+    private ObjectReader lectorSolicitud;
+    private ObjectWriter escritorSolicitud;
+    private ObjectReader lectorRespuesta;
+    private ObjectWriter escritorRespuesta;
+
+    private PredictionRequestDTO solicitud;
+    private PredictionResponseDTO respuesta;
+    private byte[] solicitudJson;
+    private byte[] respuestaJson;
+
+    @Setup
+    public void preparar() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        lectorSolicitud = objectMapper.readerFor(PredictionRequestDTO.class);
+        escritorSolicitud = objectMapper.writerFor(PredictionRequestDTO.class);
+        lectorRespuesta = objectMapper.readerFor(PredictionResponseDTO.class);
+        escritorRespuesta = objectMapper.writerFor(PredictionResponseDTO.class);
+
+        solicitud = new PredictionRequestDTO();
+        solicitud.setAerolinea("1");
+        solicitud.setOrigen("ATL");
+        solicitud.setDestino("LAX");
+        solicitud.setFechaPartida("2026-05-01T10:00:00");
+
+        PredictionMetadata metadata = PredictionMetadata.builder()
+                .aerolinea("1")
+                .ruta("ATL → LAX")
+                .origenNombre("Hartsfield-Jackson Atlanta International")
+                .destinoNombre("Los Angeles International")
+                .fechaPartida("2026-05-01T10:00:00")
+                .timestampPrediccion("2026-05-01T09:00:00.123456")
+                .modo("MOCK_LOCAL")
+                .mensaje("Predicción simulada (sin servicio ML)")
+                .tiempoRespuestaMs(0L)
+                .build();
+
+        respuesta = new PredictionResponseDTO(0, 0.2137, 0.7863, 3108.76,
+                clima(24.3, 55, 8200, 4.1), clima(19.8, 72, 6100, 9.6), metadata, true);
+
+        solicitudJson = escritorSolicitud.writeValueAsBytes(solicitud);
+        respuestaJson = escritorRespuesta.writeValueAsBytes(respuesta);
+    }
+
+    @Benchmark
+    public PredictionRequestDTO deserializarSolicitud() throws Exception {
+        return lectorSolicitud.readValue(solicitudJson);
+    }
+
+    @Benchmark
+    public byte[] serializarSolicitud() throws Exception {
+        return escritorSolicitud.writeValueAsBytes(solicitud);
+    }
+
+    @Benchmark
+    public PredictionResponseDTO deserializarRespuesta() throws Exception {
+        return lectorRespuesta.readValue(respuestaJson);
+    }
+
+    @Benchmark
+    public byte[] serializarRespuesta() throws Exception {
+        return escritorRespuesta.writeValueAsBytes(respuesta);
+    }
+
+    private static WeatherDataDTO clima(double temperatura, int humedad, int visibilidad, double viento) {
+        return WeatherDataDTO.builder()
+                .temperatura(temperatura)
+                .humedad(humedad)
+                .presion(1013)
+                .visibilidad(visibilidad)
+                .vientoVelocidad(viento)
+                .condicion(humedad > 70 ? "Clouds" : "Clear")
+                .descripcion(humedad > 70 ? "nublado" : "cielo claro")
+                .build();
+    }
+}
@@ -0,0 +1,173 @@
+package com.oracle.flightontime.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.inference.RandomForestModel;
+import com.oracle.flightontime.util.FechaUtils;
+import com.oracle.flightontime.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de la inferencia local (modo LOCAL) por predicción:
+ * predecirProbabilidad recorre el camino servido (features desde la
+ * solicitud, distancia y random forest) y predictProbability solo los
+ * árboles sobre vectores ya construidos.
+ *
+ * Con -Dlocal.model=ruta/al/modelo.json usa un modelo exportado por
+ * ml-service/export_model.py (y verifica sus fixtures al cargarlo); sin
+ * ella, un bosque sintético con las features de preparar_features_modelo
+ * (local.trees árboles de profundidad local.depth, 100 y 12 por defecto).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocalInferenceBenchmark {
+
+    private static final String[] FEATURES = {
+            "distancia_km", "temperatura", "humedad", "presion", "visibilidad", "viento_velocidad",
+            "hora", "dia_semana", "mes", "aerolinea_1", "aerolinea_2"};
+
+    /** Rango de valores de cada feature para los umbrales sintéticos */
+    private static final double[][] RANGOS = {
+            {50, 8000}, {19, 21}, {49, 51}, {1012, 1014}, {9999, 10001}, {9, 11},
+            {0, 23}, {0, 6}, {1, 12}, {0, 1}, {0, 1}};
+
+    private LocalModelService localModelService;
+    private RandomForestModel modelo;
+    private Rutas rutas;
+    private LocalDateTime[] fechas;
+    private double[][] vectores;
+    private Path archivo;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int indice;
+    }
+
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ruta = System.getProperty("local.model");
+        if (ruta == null) {
+            archivo = Files.createTempFile("flightontime-modelo", ".json");
+            objectMapper.writeValue(archivo.toFile(), bosqueSintetico(
+                    Integer.getInteger("local.trees", 100), Integer.getInteger("local.depth", 12)));
+            ruta = archivo.toString();
+        }
+
+        localModelService = new LocalModelService(objectMapper);
+        ReflectionTestUtils.setField(localModelService, "enabled", true);
+        ReflectionTestUtils.setField(localModelService, "modelPath", ruta);
+        ReflectionTestUtils.setField(localModelService, "parityTolerance", 1e-9);
+        localModelService.revisarArchivo();
+        if (!localModelService.isDisponible()) {
+            throw new IllegalStateException("No se pudo cargar el modelo " + ruta);
+        }
+        modelo = RandomForestModel.from(objectMapper.readValue(Path.of(ruta).toFile(),
+                RandomForestModel.ExportedModel.class));
+
+        rutas = new Rutas();
+        Random random = new Random(42);
+        fechas = new LocalDateTime[Rutas.CANTIDAD];
+        vectores = new double[Rutas.CANTIDAD][];
+        for (int i = 0; i < Rutas.CANTIDAD; i++) {
+            fechas[i] = FechaUtils.parsearFechaPartida(String.format("2026-%02d-%02dT%02d:%02d:00",
+                    1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60)));
+            vectores[i] = vector(modelo.getFeatureNames(), rutas.aerolineas[i],
+                    GeoUtils.calcularDistanciaModelo(rutas.origenesOrdinal[i], rutas.destinosOrdinal[i]), fechas[i]);
+        }
+    }
+
+    @TearDown
+    public void limpiar() throws IOException {
+        if (archivo != null) {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Benchmark
+    public double predecirProbabilidad(Cursor cursor) {
+        int i = cursor.indice = (cursor.indice + 1) & Rutas.MASCARA;
+        return localModelService.predecirProbabilidad(rutas.aerolineas[i], rutas.origenesOrdinal[i],
+                rutas.destinosOrdinal[i], fechas[i]);
+    }
+
+    @Benchmark
+    public double predictProbability(Cursor cursor) {
+        int i = cursor.indice = (cursor.indice + 1) & Rutas.MASCARA;
+        return modelo.predictProbability(vectores[i]);
+    }
+
+    /**
+     * Vector de features como preparar_features_modelo (clima neutro).
+     */
+    private static double[] vector(String[] nombres, String aerolinea, double distanciaKm, LocalDateTime fecha) {
+        double[] x = new double[nombres.length];
+        for (int j = 0; j < nombres.length; j++) {
+            x[j] = switch (nombres[j]) {
+                case "distancia_km" -> distanciaKm;
+                case "temperatura" -> 20.0;
+                case "humedad" -> 50;
+                case "presion" -> 1013;
+                case "visibilidad" -> 10000;
+                case "viento_velocidad" -> 10.0;
+                case "hora" -> fecha.getHour();
+                case "dia_semana" -> fecha.getDayOfWeek().getValue() - 1;
+                case "mes" -> fecha.getMonthValue();
+                default -> nombres[j].equals("aerolinea_" + aerolinea) ? 1.0 : 0.0;
+            };
+        }
+        return x;
+    }
+
+    /**
+     * Bosque de árboles completos con features y umbrales aleatorios
+     * (semilla fija), en el formato de export_model.py.
+     */
+    private static RandomForestModel.ExportedModel bosqueSintetico(int arboles, int profundidad) {
+        Random random = new Random(7);
+        RandomForestModel.ExportedModel exportado = new RandomForestModel.ExportedModel();
+        exportado.formato = RandomForestModel.FORMATO;
+        exportado.version = "sintetico";
+        exportado.features = List.of(FEATURES);
+        exportado.arboles = new ArrayList<>(arboles);
+
+        int nodos = (1 << (profundidad + 1)) - 1;
+        int internos = (1 << profundidad) - 1;
+        for (int a = 0; a < arboles; a++) {
+            RandomForestModel.ExportedTree arbol = new RandomForestModel.ExportedTree();
+            arbol.feature = new int[nodos];
+            arbol.threshold = new double[nodos];
+            arbol.izquierdo = new int[nodos];
+            arbol.derecho = new int[nodos];
+            arbol.valor = new double[nodos];
+            for (int n = 0; n < nodos; n++) {
+                if (n < internos) {
+                    int f = random.nextInt(FEATURES.length);
+                    arbol.feature[n] = f;
+                    arbol.threshold[n] = RANGOS[f][0] + random.nextDouble() * (RANGOS[f][1] - RANGOS[f][0]);
+                    arbol.izquierdo[n] = 2 * n + 1;
+                    arbol.derecho[n] = 2 * n + 2;
+                } else {
+                    arbol.feature[n] = -2;
+                    arbol.threshold[n] = -2;
+                    arbol.izquierdo[n] = -1;
+                    arbol.derecho[n] = -1;
+                }
+                arbol.valor[n] = random.nextDouble();
+            }
+            exportado.arboles.add(arbol);
+        }
+        return exportado;
+    }
+}
@@ -0,0 +1,105 @@
+package com.oracle.flightontime.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.oracle.flightontime.audit.PredictionAuditLog;
+import com.oracle.flightontime.cache.PersistentPredictionCache;
+import com.oracle.flightontime.cache.PredictionCache;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.metrics.PredictionMetrics;
+import com.oracle.flightontime.mock.MockPredictionEngine;
+import com.oracle.flightontime.resilience.AdaptiveConcurrencyLimiter;
+import com.oracle.flightontime.resilience.CircuitBreaker;
+import com.oracle.flightontime.service.PredictionService;
+import com.oracle.flightontime.weather.StubWeatherProvider;
+import com.oracle.flightontime.weather.WeatherService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicción mock de extremo a extremo en el servicio (validación,
+ * distancia, clima simulado, metadata y métricas), sin la capa HTTP.
+ * predictMockJson además escribe la respuesta con un ObjectMapper
+ * configurado como el de Spring Boot, como hace el codec de WebFlux.
+ * El servicio se construye a mano con las mismas dependencias que inyecta
+ * Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PredictMockBenchmark {
+
+    private PredictionService predictionService;
+    private PredictionRequestDTO[] solicitudes;
+    private ObjectWriter escritor;
+
+    /** Destino que descarta los bytes (writeValue cierra el flujo en cada llamada) */
+    private final OutputStream salida = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int indice;
+    }
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PredictionMetrics metrics = new PredictionMetrics(new SimpleMeterRegistry(), 200, false);
+        predictionService = new PredictionService(
+                WebClient.create(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new PredictionCache(false, 0, 0, false, objectMapper),
+                new PersistentPredictionCache(false, "target/prediction-cache.bin", 0, 0, 0, "benchmark"),
+                new LocalModelService(objectMapper),
+                new CircuitBreaker("benchmark", 20, 10, 50, 3000, 80, 5000, 60000, 3),
+                new AdaptiveConcurrencyLimiter("benchmark", false, 20, 4, 500, 2.0, 0.9, 500, 500),
+                metrics,
+                new WeatherService(new StubWeatherProvider()),
+                objectMapper,
+                new PredictionAuditLog(false, 1.0, true, 1024, "target/audit.ndjson", 50, 5, 1000,
+                        new SimpleMeterRegistry()),
+                new MockPredictionEngine(metrics, "none", 0, 0, 0));
+
+        escritor = Jackson2ObjectMapperBuilder.json().build().writerFor(PredictionResponseDTO.class);
+
+        Rutas rutas = new Rutas();
+        solicitudes = new PredictionRequestDTO[Rutas.CANTIDAD];
+        for (int i = 0; i < Rutas.CANTIDAD; i++) {
+            PredictionRequestDTO solicitud = new PredictionRequestDTO();
+            solicitud.setAerolinea(rutas.aerolineas[i]);
+            solicitud.setOrigen(rutas.origenes[i]);
+            solicitud.setDestino(rutas.destinos[i]);
+            solicitud.setFechaPartida("2026-05-01T10:00:00");
+            solicitudes[i] = solicitud;
+        }
+    }
+
+    @Benchmark
+    public PredictionResponseDTO predictMock(Cursor cursor) {
+        int i = cursor.indice = (cursor.indice + 1) & Rutas.MASCARA;
+        return predictionService.predictMock(solicitudes[i]).block();
+    }
+
+    @Benchmark
+    public void predictMockJson(Cursor cursor) throws IOException {
+        int i = cursor.indice = (cursor.indice + 1) & Rutas.MASCARA;
+        escritor.writeValue(salida, predictionService.predictMock(solicitudes[i]).block());
+    }
+}
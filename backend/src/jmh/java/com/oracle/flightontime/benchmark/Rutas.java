@@ -0,0 +1,51 @@
+package com.oracle.flightontime.benchmark;
+
+import com.oracle.flightontime.config.AirlineConfig;
+import com.oracle.flightontime.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rutas de prueba compartidas por los benchmarks: pares origen/destino
+ * válidos para una aerolínea, generados con semilla fija para que los
+ * resultados sean comparables entre ejecuciones.
+ */
+final class Rutas {
+
+    /** Potencia de dos, para recorrer las rutas con una máscara. */
+    static final int CANTIDAD = 1024;
+    static final int MASCARA = CANTIDAD - 1;
+
+    final String[] aerolineas = new String[CANTIDAD];
+    final String[] origenes = new String[CANTIDAD];
+    final String[] destinos = new String[CANTIDAD];
+    final int[] origenesOrdinal = new int[CANTIDAD];
+    final int[] destinosOrdinal = new int[CANTIDAD];
+
+    Rutas() {
+        Random random = new Random(42);
+        List<String> codigos = new ArrayList<>(AirlineConfig.getAerolineasDisponibles());
+        codigos.sort(null);
+
+        for (int i = 0; i < CANTIDAD; i++) {
+            String aerolinea = codigos.get(random.nextInt(codigos.size()));
+            List<String> aeropuertos = new ArrayList<>(AirlineConfig.getAeropuertos(aerolinea));
+            aeropuertos.sort(null);
+
+            String origen = aeropuertos.get(random.nextInt(aeropuertos.size()));
+            String destino;
+            do {
+                destino = aeropuertos.get(random.nextInt(aeropuertos.size()));
+            } while (destino.equals(origen));
+
+            // Copias nuevas, como las que produce la deserialización de una solicitud
+            aerolineas[i] = new String(aerolinea);
+            origenes[i] = new String(origen);
+            destinos[i] = new String(destino);
+            origenesOrdinal[i] = GeoUtils.getOrdinal(origen);
+            destinosOrdinal[i] = GeoUtils.getOrdinal(destino);
+        }
+    }
+}
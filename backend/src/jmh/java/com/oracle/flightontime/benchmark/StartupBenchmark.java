@@ -0,0 +1,187 @@
+package com.oracle.flightontime.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Arranque en frío del backend: lanza el jar como proceso nuevo y mide el
+ * tiempo hasta la primera respuesta 200 de POST /api/predict y la memoria
+ * residente (VmRSS) del proceso en ese momento. Compara el build por
+ * defecto con el del perfil fast-startup (AOT + CDS).
+ * No es un benchmark JMH: cada muestra es un proceso nuevo.
+ *
+ * Uso (desde backend/):
+ *   mvn package -DskipTests
+ *   mvn -P fast-startup package -DskipTests
+ *   mvn -P benchmark test-compile
+ *   java -cp target/jmh/test-classes com.oracle.flightontime.benchmark.StartupBenchmark
+ *
+ * Propiedades: -Dstartup.runs (5), -Dstartup.port (18080),
+ * -Dstartup.jvm-args (opciones JVM comunes, p. ej. "-Xmx256m"),
+ * -Dstartup.query (mock=true: no requiere el servicio ML),
+ * -Dstartup.default-jar, -Dstartup.fast-dir.
+ */
+public class StartupBenchmark {
+
+    private static final String CUERPO =
+            "{\"aerolinea\":\"1\",\"origen\":\"ATL\",\"destino\":\"LAX\",\"fecha_partida\":\"2026-05-01T10:00:00\"}";
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    private record Variante(String nombre, List<String> argumentos) {
+    }
+
+    private record Muestra(double primeraPrediccionMs, long rssKb) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ejecuciones = Integer.getInteger("startup.runs", 5);
+        int puerto = Integer.getInteger("startup.port", 18080);
+        String query = System.getProperty("startup.query", "mock=true");
+        List<String> jvm = separar(System.getProperty("startup.jvm-args", ""));
+        Path jarDefecto = Path.of(System.getProperty("startup.default-jar", "target/backend-1.0.0.jar"))
+                .toAbsolutePath();
+        Path dirRapido = Path.of(System.getProperty("startup.fast-dir", "target/fast-startup"))
+                .toAbsolutePath();
+
+        List<Variante> variantes = new ArrayList<>();
+        variantes.add(new Variante("default", List.of("-jar", jarDefecto.toString())));
+        variantes.add(new Variante("aot+cds", List.of(
+                "-XX:SharedArchiveFile=" + dirRapido.resolve("app.jsa"),
+                "-Xlog:cds=error",
+                "-Dspring.aot.enabled=true",
+                "-jar", dirRapido.resolve("backend-1.0.0-thin.jar").toString())));
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        HttpRequest solicitud = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + puerto + "/api/predict?" + query))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .POST(HttpRequest.BodyPublishers.ofString(CUERPO))
+                .build();
+
+        System.out.printf("Arranque hasta la primera predicción (%d ejecuciones por variante, %s)%n",
+                ejecuciones, query);
+        List<String> resumen = new ArrayList<>();
+        for (Variante variante : variantes) {
+            List<Muestra> muestras = new ArrayList<>();
+            for (int i = 0; i < ejecuciones; i++) {
+                Muestra muestra = medir(variante, jvm, puerto, cliente, solicitud);
+                System.out.printf(Locale.ROOT, "  %-8s #%d  %8.0f ms  %6.1f MB%n", variante.nombre(), i + 1,
+                        muestra.primeraPrediccionMs(), muestra.rssKb() / 1024.0);
+                muestras.add(muestra);
+            }
+            double[] tiempos = muestras.stream().mapToDouble(Muestra::primeraPrediccionMs).sorted().toArray();
+            double[] rss = muestras.stream().mapToDouble(m -> m.rssKb() / 1024.0).sorted().toArray();
+            resumen.add(String.format(Locale.ROOT, "%-8s  %8.0f  %8.0f  %8.0f  %10.1f  %8.1f",
+                    variante.nombre(), mediana(tiempos), tiempos[0], tiempos[tiempos.length - 1],
+                    mediana(rss), rss[rss.length - 1]));
+        }
+
+        System.out.println();
+        System.out.println("variante  med (ms)  min (ms)  max (ms)  RSS med (MB)  RSS max (MB)");
+        resumen.forEach(System.out::println);
+    }
+
+    /**
+     * Lanza la variante en un directorio temporal (la caché persistente y la
+     * auditoría no se comparten entre ejecuciones) y sondea /api/predict.
+     */
+    private static Muestra medir(Variante variante, List<String> jvm, int puerto, HttpClient cliente,
+                                 HttpRequest solicitud) throws IOException, InterruptedException {
+        Path directorio = Files.createTempDirectory("flightontime-startup");
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(jvm);
+        comando.addAll(variante.argumentos());
+        comando.add("--server.port=" + puerto);
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .directory(directorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(directorio.resolve("backend.log").toFile())
+                .start();
+        boolean correcta = false;
+        try {
+            while (System.nanoTime() - inicio < TIMEOUT_NANOS) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("El backend terminó al arrancar (código "
+                            + proceso.exitValue() + "), ver " + directorio.resolve("backend.log"));
+                }
+                try {
+                    if (cliente.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        double ms = (System.nanoTime() - inicio) / 1_000_000.0;
+                        correcta = true;
+                        return new Muestra(ms, rssKb(proceso.pid()));
+                    }
+                } catch (IOException e) {
+                    // Puerto aún cerrado
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Sin respuesta 200 de /api/predict en 120 s, ver "
+                    + directorio.resolve("backend.log"));
+        } finally {
+            detener(proceso);
+            // Si falla se conserva el directorio con el log
+            if (correcta) {
+                borrar(directorio);
+            }
+        }
+    }
+
+    /**
+     * VmRSS de /proc (Linux); 0 si no está disponible.
+     */
+    private static long rssKb(long pid) {
+        try {
+            for (String linea : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (linea.startsWith("VmRSS:")) {
+                    return Long.parseLong(linea.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sin /proc
+        }
+        return 0;
+    }
+
+    private static void detener(Process proceso) throws InterruptedException {
+        proceso.destroy();
+        if (!proceso.waitFor(10, TimeUnit.SECONDS)) {
+            proceso.destroyForcibly().waitFor();
+        }
+    }
+
+    private static void borrar(Path directorio) throws IOException {
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            for (Path ruta : rutas.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(ruta);
+            }
+        }
+    }
+
+    private static List<String> separar(String opciones) {
+        return opciones.isBlank() ? List.of() : Arrays.asList(opciones.trim().split("\\s+"));
+    }
+
+    private static double mediana(double[] ordenados) {
+        int n = ordenados.length;
+        return n % 2 == 1 ? ordenados[n / 2] : (ordenados[n / 2 - 1] + ordenados[n / 2]) / 2;
+    }
+}
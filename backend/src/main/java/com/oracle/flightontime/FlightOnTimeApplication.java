@@ -2,6 +2,7 @@ package com.oracle.flightontime;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * ============================================================================
@@ -15,6 +16,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *          ============================================================================
  */
 @SpringBootApplication
+@EnableScheduling
 public class FlightOnTimeApplication {
 
     public static void main(String[] args) {
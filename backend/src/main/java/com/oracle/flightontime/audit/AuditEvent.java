@@ -0,0 +1,39 @@
+package com.oracle.flightontime.audit;
+
+/**
+ * Evento de auditoría de una predicción. Se construye en el hilo de la
+ * solicitud solo con referencias y primitivos; el formateo a JSON lo hace
+ * el hilo escritor.
+ *
+ * @param timestampMs   Momento de finalización (epoch ms)
+ * @param correlacionId Identificador de correlación (cabecera X-Correlation-Id o id de la solicitud HTTP)
+ * @param aerolinea     Código de aerolínea solicitado
+ * @param origen        Código IATA de origen
+ * @param destino       Código IATA de destino
+ * @param modo          Modo solicitado (mock, real, local)
+ * @param modoEfectivo  metadata.modo de la respuesta, o null si no hubo respuesta
+ * @param resultado     ok | error | cancelado
+ * @param status        Código HTTP del error, o 0
+ * @param latenciaNanos Duración total de la predicción
+ * @param cacheHit      La respuesta se sirvió desde la caché
+ * @param fallback      Se pidió real o local y se respondió en modo mock
+ * @param prediccion    0 = puntual, 1 = retrasado, -1 sin respuesta
+ * @param probabilidad  Probabilidad de retraso, o -1 sin respuesta
+ * @param error         Mensaje del error, o null
+ */
+public record AuditEvent(long timestampMs,
+                         String correlacionId,
+                         String aerolinea,
+                         String origen,
+                         String destino,
+                         String modo,
+                         String modoEfectivo,
+                         String resultado,
+                         int status,
+                         long latenciaNanos,
+                         boolean cacheHit,
+                         boolean fallback,
+                         int prediccion,
+                         double probabilidad,
+                         String error) {
+}
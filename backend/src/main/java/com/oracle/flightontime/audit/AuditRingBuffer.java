@@ -0,0 +1,88 @@
+package com.oracle.flightontime.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ============================================================================
+ * BUFFER CIRCULAR SIN BLOQUEOS (VARIOS PRODUCTORES, UN CONSUMIDOR)
+ * ============================================================================
+ * Capacidad fija (potencia de 2). Cada celda lleva un número de secuencia
+ * que indica si está libre para el productor de la vuelta actual o lista
+ * para el consumidor, de modo que los productores solo compiten por un CAS
+ * sobre la posición de escritura y nunca esperan: si el buffer está lleno,
+ * {@link #ofrecer} devuelve false y el llamador descarta el elemento.
+ *
+ * {@link #tomar} solo puede llamarse desde un único hilo consumidor.
+ * ============================================================================
+ */
+final class AuditRingBuffer<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong escritura = new AtomicLong();
+    private volatile long lectura;
+
+    AuditRingBuffer(int capacidadMinima) {
+        int capacidad = Integer.highestOneBit(Math.max(2, capacidadMinima - 1)) << 1;
+        this.mascara = capacidad - 1;
+        this.elementos = new AtomicReferenceArray<>(capacidad);
+        this.secuencias = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    int capacidad() {
+        return mascara + 1;
+    }
+
+    /**
+     * Inserta un elemento sin bloquear.
+     *
+     * @return false si el buffer está lleno
+     */
+    boolean ofrecer(T elemento) {
+        while (true) {
+            long posicion = escritura.get();
+            int celda = (int) posicion & mascara;
+            long diferencia = secuencias.get(celda) - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    elementos.lazySet(celda, elemento);
+                    secuencias.set(celda, posicion + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                return false;
+            }
+            // Otro productor tomó la posición: reintentar con la siguiente
+        }
+    }
+
+    /**
+     * Extrae el elemento más antiguo (solo desde el hilo consumidor).
+     *
+     * @return El elemento, o null si no hay ninguno listo
+     */
+    T tomar() {
+        int celda = (int) lectura & mascara;
+        if (secuencias.get(celda) != lectura + 1) {
+            return null;
+        }
+        T elemento = elementos.get(celda);
+        elementos.lazySet(celda, null);
+        secuencias.set(celda, lectura + mascara + 1);
+        lectura++;
+        return elemento;
+    }
+
+    /**
+     * Elementos pendientes aproximados (para estadísticas).
+     */
+    int pendientes() {
+        return (int) Math.max(0, Math.min(capacidad(), escritura.get() - lectura));
+    }
+}
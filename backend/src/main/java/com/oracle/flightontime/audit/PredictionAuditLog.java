@@ -0,0 +1,403 @@
+package com.oracle.flightontime.audit;
+
+import com.oracle.flightontime.dto.PredictionMetadata;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ============================================================================
+ * REGISTRO DE AUDITORÍA DE PREDICCIONES
+ * ============================================================================
+ * Un evento estructurado por predicción (ruta, aerolínea, modo, latencia,
+ * caché, fallback e id de correlación) en lugar de varias líneas de log
+ * por solicitud.
+ *
+ * - El hilo de la solicitud solo construye un {@link AuditEvent} y lo
+ *   inserta en un {@link AuditRingBuffer} sin bloqueos. Si el buffer está
+ *   lleno el evento se descarta y se cuenta: la auditoría nunca frena una
+ *   predicción.
+ * - Un hilo escritor en segundo plano vacía el buffer a un archivo NDJSON
+ *   (audit.file.path) que rota al superar audit.file.max-size-mb,
+ *   conservando audit.file.max-files archivos anteriores (.1 el más
+ *   reciente).
+ * - Muestreo: se registra la fracción audit.sample-rate de las
+ *   predicciones correctas; errores y fallbacks se registran siempre
+ *   (audit.always-log-failures).
+ *
+ * Contadores en /api/health (auditoria) y en Micrometer
+ * (flightontime.audit.events por estado).
+ * ============================================================================
+ */
+@Component
+public class PredictionAuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionAuditLog.class);
+
+    /** Clave del id de correlación en el contexto de Reactor */
+    public static final String CORRELACION = "flightontime.correlacion";
+
+    /** Cabecera HTTP del id de correlación */
+    public static final String CABECERA_CORRELACION = "X-Correlation-Id";
+
+    private static final int MAX_LOTE = 512;
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final boolean alwaysLogFailures;
+    private final Path archivo;
+    private final long maxBytes;
+    private final int maxArchivos;
+    private final long flushIntervalNanos;
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final Thread escritor;
+    private volatile boolean detenido;
+
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong omitidos = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong erroresEscritura = new AtomicLong();
+    private final AtomicLong rotaciones = new AtomicLong();
+
+    /** Estado del hilo escritor */
+    private Writer salida;
+    private long bytesArchivo;
+    private final StringBuilder linea = new StringBuilder(512);
+
+    public PredictionAuditLog(
+            @Value("${audit.enabled:false}") boolean enabled,
+            @Value("${audit.sample-rate:0.01}") double sampleRate,
+            @Value("${audit.always-log-failures:true}") boolean alwaysLogFailures,
+            @Value("${audit.buffer-size:16384}") int bufferSize,
+            @Value("${audit.file.path:logs/prediction-audit.ndjson}") String path,
+            @Value("${audit.file.max-size-mb:50}") long maxSizeMb,
+            @Value("${audit.file.max-files:5}") int maxFiles,
+            @Value("${audit.flush-interval-ms:1000}") long flushIntervalMs,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        this.alwaysLogFailures = alwaysLogFailures;
+        this.archivo = Path.of(path);
+        this.maxBytes = maxSizeMb * 1024L * 1024L;
+        this.maxArchivos = Math.max(0, maxFiles);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, flushIntervalMs));
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+
+        registrarContador(registry, "encolado", encolados);
+        registrarContador(registry, "descartado", descartados);
+        registrarContador(registry, "omitido", omitidos);
+        registrarContador(registry, "escrito", escritos);
+
+        if (enabled) {
+            this.escritor = new Thread(this::ejecutarEscritor, "audit-writer");
+            this.escritor.setDaemon(true);
+            this.escritor.start();
+            logger.info("📝 Auditoría de predicciones: {} (muestreo {}, buffer {})",
+                    archivo.toAbsolutePath(), this.sampleRate, buffer.capacidad());
+        } else {
+            this.escritor = null;
+        }
+    }
+
+    private void registrarContador(MeterRegistry registry, String estado, AtomicLong contador) {
+        FunctionCounter.builder("flightontime.audit.events", contador, AtomicLong::get)
+                .tag("estado", estado)
+                .description("Eventos de auditoría de predicciones")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra el desenlace de una predicción. No bloquea: aplica el
+     * muestreo y, si corresponde, encola el evento.
+     *
+     * @param respuesta Respuesta emitida, o null si terminó con error o cancelación
+     * @param error     Error emitido, o null
+     */
+    public void registrar(String correlacionId, PredictionRequestDTO request, String modo,
+                          PredictionResponseDTO respuesta, Throwable error, String resultado, long latenciaNanos) {
+        if (!enabled) {
+            return;
+        }
+
+        boolean fallback = respuesta != null && !"mock".equals(modo) && respuesta.isModoMock();
+        boolean fallo = respuesta == null || fallback;
+        if (!(fallo && alwaysLogFailures) && sampleRate < 1.0
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            omitidos.incrementAndGet();
+            return;
+        }
+
+        PredictionMetadata metadata = respuesta != null ? respuesta.getMetadata() : null;
+        AuditEvent evento = new AuditEvent(
+                System.currentTimeMillis(),
+                correlacionId,
+                request.getAerolinea(),
+                request.getOrigen(),
+                request.getDestino(),
+                modo,
+                metadata != null ? metadata.getModo() : null,
+                resultado,
+                error instanceof ResponseStatusException e ? e.getStatusCode().value() : (error != null ? 500 : 0),
+                latenciaNanos,
+                metadata != null && Boolean.TRUE.equals(metadata.getCacheHit()),
+                fallback,
+                respuesta != null ? respuesta.getPrediccion() : -1,
+                respuesta != null ? respuesta.getProbabilidadRetraso() : -1,
+                error != null ? (error instanceof ResponseStatusException e ? e.getReason() : error.getMessage()) : null);
+
+        if (buffer.ofrecer(evento)) {
+            encolados.incrementAndGet();
+        } else {
+            descartados.incrementAndGet();
+        }
+    }
+
+    /**
+     * Estadísticas para /api/health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("habilitada", enabled);
+        stats.put("archivo", archivo.toString());
+        stats.put("muestreo", sampleRate);
+        stats.put("capacidad_buffer", buffer.capacidad());
+        stats.put("pendientes", buffer.pendientes());
+        stats.put("encolados", encolados.get());
+        stats.put("escritos", escritos.get());
+        stats.put("descartados", descartados.get());
+        stats.put("omitidos_muestreo", omitidos.get());
+        stats.put("errores_escritura", erroresEscritura.get());
+        stats.put("rotaciones", rotaciones.get());
+        return stats;
+    }
+
+    /**
+     * ========================================================================
+     * HILO ESCRITOR
+     * ========================================================================
+     * Vacía el buffer en lotes; cuando no hay eventos hace flush y espera
+     * audit.flush-interval-ms (o hasta el cierre).
+     * ========================================================================
+     */
+    private void ejecutarEscritor() {
+        while (!detenido) {
+            int escritosLote = vaciar();
+            if (escritosLote < MAX_LOTE) {
+                flush();
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        vaciar();
+        flush();
+        cerrar();
+    }
+
+    private int vaciar() {
+        int n = 0;
+        AuditEvent evento;
+        while (n < MAX_LOTE && (evento = buffer.tomar()) != null) {
+            escribir(evento);
+            n++;
+        }
+        return n;
+    }
+
+    private void escribir(AuditEvent evento) {
+        linea.setLength(0);
+        formatear(evento, linea);
+        try {
+            if (salida == null) {
+                abrir();
+            }
+            salida.write(linea.toString());
+            bytesArchivo += bytesUtf8(linea);
+            escritos.incrementAndGet();
+            if (maxBytes > 0 && bytesArchivo >= maxBytes) {
+                rotar();
+            }
+        } catch (IOException e) {
+            if (erroresEscritura.getAndIncrement() == 0) {
+                logger.error("❌ No se pudo escribir la auditoría en {}: {}", archivo, e.getMessage());
+            }
+            cerrar();
+        }
+    }
+
+    private void abrir() throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        salida = new BufferedWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        bytesArchivo = Files.size(archivo);
+    }
+
+    /**
+     * Rota el archivo actual: archivo.N-1 → archivo.N, ..., archivo → archivo.1.
+     */
+    private void rotar() throws IOException {
+        cerrar();
+        if (maxArchivos == 0) {
+            Files.deleteIfExists(archivo);
+        } else {
+            for (int i = maxArchivos - 1; i >= 1; i--) {
+                Path anterior = Path.of(archivo + "." + i);
+                if (Files.exists(anterior)) {
+                    Files.move(anterior, Path.of(archivo + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(archivo, Path.of(archivo + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        rotaciones.incrementAndGet();
+    }
+
+    private void flush() {
+        if (salida == null) {
+            return;
+        }
+        try {
+            salida.flush();
+        } catch (IOException e) {
+            erroresEscritura.incrementAndGet();
+            cerrar();
+        }
+    }
+
+    private void cerrar() {
+        if (salida == null) {
+            return;
+        }
+        try {
+            salida.close();
+        } catch (IOException e) {
+            erroresEscritura.incrementAndGet();
+        }
+        salida = null;
+    }
+
+    /**
+     * Detiene el escritor tras vaciar los eventos pendientes.
+     */
+    @PreDestroy
+    public void detener() {
+        if (escritor == null) {
+            return;
+        }
+        detenido = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * ========================================================================
+     * FORMATO NDJSON
+     * ========================================================================
+     */
+    static void formatear(AuditEvent evento, StringBuilder sb) {
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(evento.timestampMs())).append('"');
+        campo(sb, "id", evento.correlacionId());
+        campo(sb, "aerolinea", evento.aerolinea());
+        campo(sb, "origen", evento.origen());
+        campo(sb, "destino", evento.destino());
+        campo(sb, "modo", evento.modo());
+        campo(sb, "modo_efectivo", evento.modoEfectivo());
+        campo(sb, "resultado", evento.resultado());
+        if (evento.status() != 0) {
+            sb.append(",\"status\":").append(evento.status());
+        }
+        sb.append(",\"latencia_ms\":").append(evento.latenciaNanos() / 1000 / 1000.0);
+        sb.append(",\"cache_hit\":").append(evento.cacheHit());
+        sb.append(",\"fallback\":").append(evento.fallback());
+        if (evento.prediccion() >= 0) {
+            sb.append(",\"prediccion\":").append(evento.prediccion());
+            sb.append(",\"probabilidad\":").append(evento.probabilidad());
+        }
+        campo(sb, "error", evento.error());
+        sb.append("}\n");
+    }
+
+    /**
+     * Longitud en bytes de la línea codificada en UTF-8, como se escribe en
+     * el archivo, sin codificarla.
+     */
+    private static int bytesUtf8(CharSequence texto) {
+        int bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Sustituto suelto: el codificador escribe '?'
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static void campo(StringBuilder sb, String nombre, String valor) {
+        if (valor == null) {
+            return;
+        }
+        sb.append(",\"").append(nombre).append("\":\"");
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
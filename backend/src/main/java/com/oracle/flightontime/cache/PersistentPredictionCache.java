@@ -0,0 +1,778 @@
+package com.oracle.flightontime.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * ============================================================================
+ * CACHÉ PERSISTENTE DE PREDICCIONES (SEGUNDO NIVEL)
+ * ============================================================================
+ * Segundo nivel detrás de {@link PredictionCache}: registro de solo
+ * anexado, mapeado en memoria, de (aerolínea, ruta, hora de partida,
+ * versión del modelo) → predicción compacta. Sobrevive a reinicios y
+ * redespliegues, así que una instancia recién arrancada responde las rutas
+ * ya consultadas sin volver a llamar al servicio ML.
+ *
+ * - Solo guarda los números de la predicción; clima y metadata se
+ *   reconstruyen al servirla, como en las respuestas del protocolo binario.
+ * - Índice hash de direccionamiento abierto fuera del heap (buffer
+ *   directo), reconstruido al arrancar recorriendo el archivo. Una clave
+ *   repetida apunta a su registro más reciente.
+ * - Un único hilo escritor (prediction-cache-writer) anexa los registros y
+ *   compacta: put solo encola la escritura, así que el hilo de la solicitud
+ *   (event loop de Netty) nunca espera al disco. Si la cola
+ *   (ml.cache.persistent.write-queue) está llena la escritura se descarta y
+ *   se cuenta. get solo comparte el monitor con el anexado de un registro y
+ *   con el cambio de archivo al final de la compactación, no con la copia
+ *   ni con el fsync.
+ * - Cada registro lleva su CRC32: el recorrido se detiene en el primer
+ *   registro inválido (escritura interrumpida por una caída).
+ * - Compactación al llenarse el archivo (o al arrancar si más de la mitad
+ *   está obsoleto), en el hilo escritor: se reescriben los registros
+ *   vigentes en un archivo nuevo que reemplaza al anterior con un
+ *   movimiento atómico. Si aun así no caben, se conservan los más
+ *   recientes.
+ * - Invalidación por versión: los registros de otra versión del modelo no
+ *   se indexan y desaparecen al compactar. La versión vigente es la que
+ *   informa el servicio ML en cada respuesta (metadata.modelo_version o la
+ *   cabecera X-Model-Version; main.py la deriva del hash del modelo, así
+ *   que reentrenar la cambia). Se guarda completa en la cabecera del
+ *   archivo y se compara por igualdad para seguir sirviendo sus registros
+ *   tras un reinicio; hasta la primera respuesta, o si cambia
+ *   ml.service.model-version, vale esa propiedad. Al cambiar de versión se
+ *   descartan todos los registros, no solo los de otro hash.
+ * - Expiración de cada registro ml.cache.persistent.ttl-seconds después de
+ *   guardarse.
+ *
+ * Formato (big-endian). Cabecera de 544 bytes:
+ *   'F' 'O' 'T' 'C' | u16 versión (2) | u16 tamaño de registro
+ *   | i32 capacidad (registros) | i64 creado (epoch ms)
+ *   | u16 longitud + 256 bytes UTF-8 de ml.service.model-version
+ *   | u16 longitud + 256 bytes UTF-8 de la versión vigente | 8 reservados
+ *   (longitud 0 = desconocida; las versiones más largas no se guardan)
+ * Registro de 72 bytes:
+ *   i32 CRC32 de los 68 bytes siguientes | i32 hash de la versión del modelo
+ *   | i32 hora de partida (horas desde epoch) | 3 × 8 bytes aerolínea, origen
+ *   y destino en ASCII | i32 predicción | f64 probabilidad | f64 confianza
+ *   | f64 distancia | i64 guardado (epoch ms)
+ * Los bytes 4..36 forman la clave.
+ * ============================================================================
+ */
+@Component
+public class PersistentPredictionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentPredictionCache.class);
+
+    static final byte[] MAGIC = {'F', 'O', 'T', 'C'};
+    static final int VERSION = 2;
+    static final int TAMANO_CABECERA = 544;
+    static final int TAMANO_REGISTRO = 72;
+
+    private static final int CABECERA_CREADO = 12;
+    private static final int CABECERA_VERSION_CONFIGURADA = 20;
+    private static final int CABECERA_VERSION_VIGENTE = 278;
+    private static final int MAX_BYTES_VERSION = 256;
+
+    private static final int INICIO_CLAVE = 4;
+    private static final int TAMANO_CODIGO = 8;
+    private static final int OFFSET_PREDICCION = 36;
+    private static final int OFFSET_PROBABILIDAD = 40;
+    private static final int OFFSET_CONFIANZA = 48;
+    private static final int OFFSET_DISTANCIA = 56;
+    private static final int OFFSET_GUARDADO = 64;
+
+    /**
+     * Predicción almacenada.
+     */
+    public record Registro(int prediccion, double probabilidadRetraso, double confianza,
+                           double distanciaKm, long guardadoMs) {
+    }
+
+    private final boolean enabled;
+    private final Path archivo;
+    private final int capacidad;
+    private final long ttlMillis;
+    private final String versionConfigurada;
+
+    /** Registros conservados al compactar un archivo lleno de registros vigentes */
+    private final int conservarAlCompactar;
+
+    /**
+     * Escritura pendiente para el hilo escritor.
+     */
+    private record Escritura(PredictionCacheKey key, String modeloVersion, int prediccion,
+                             double probabilidadRetraso, double confianza, double distanciaKm) {
+    }
+
+    private final BlockingQueue<Escritura> pendientes;
+    private final Thread escritor;
+    private volatile boolean detenido;
+    private final AtomicLong descartadas = new AtomicLong();
+
+    // Estado modificado solo por el hilo escritor (y el constructor) dentro
+    // del monitor de la instancia; el escritor lo lee sin el monitor
+    private MappedByteBuffer registros;
+    private Indice indice;
+    private int posicion;
+    private String modeloVersion;
+    private int modeloHash;
+
+    // Contadores protegidos por el monitor de la instancia
+    private long aciertos;
+    private long fallos;
+    private long expirados;
+    private long escrituras;
+    private long omitidos;
+    private long compactaciones;
+    private long invalidaciones;
+    private int cargadosAlArrancar;
+    private String ultimoError;
+
+    public PersistentPredictionCache(
+            @Value("${ml.cache.persistent.enabled:false}") boolean enabled,
+            @Value("${ml.cache.persistent.path:data/prediction-cache.bin}") String path,
+            @Value("${ml.cache.persistent.max-entries:100000}") int maxEntries,
+            @Value("${ml.cache.persistent.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${ml.cache.persistent.write-queue:4096}") int writeQueue,
+            @Value("${ml.service.model-version:random_forest_v1}") String modeloVersion) {
+        this.archivo = Path.of(path).toAbsolutePath();
+        this.capacidad = Math.max(16, maxEntries);
+        this.conservarAlCompactar = capacidad - capacidad / 4;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.versionConfigurada = modeloVersion;
+        this.modeloVersion = modeloVersion;
+        this.modeloHash = modeloVersion.hashCode();
+
+        boolean abierta = false;
+        if (enabled) {
+            try {
+                abrir();
+                abierta = true;
+            } catch (IOException | RuntimeException e) {
+                ultimoError = e.getMessage();
+                logger.error("❌ Caché persistente deshabilitada: no se pudo abrir {}: {}", archivo, e.getMessage());
+            }
+        }
+        this.enabled = abierta;
+        this.pendientes = new ArrayBlockingQueue<>(Math.max(1, writeQueue));
+
+        if (abierta) {
+            this.escritor = new Thread(this::ejecutarEscritor, "prediction-cache-writer");
+            this.escritor.setDaemon(true);
+            this.escritor.start();
+        } else {
+            this.escritor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * ========================================================================
+     * APERTURA Y RECONSTRUCCIÓN DEL ÍNDICE
+     * ========================================================================
+     */
+    private void abrir() throws IOException {
+        Path directorio = archivo.getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+
+        int capacidadArchivo = capacidadDelArchivo();
+        if (capacidadArchivo < 0) {
+            if (Files.exists(archivo)) {
+                logger.warn("⚠️ {} no es una caché de predicciones válida; se reemplaza", archivo);
+            }
+            registros = crearArchivo(archivo);
+            indice = new Indice(capacidad);
+            logger.info("💾 Caché persistente creada en {} ({} registros)", archivo, capacidad);
+            return;
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            registros = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    TAMANO_CABECERA + (long) capacidadArchivo * TAMANO_REGISTRO);
+        }
+        boolean versionVigente = adoptarVersionDelArchivo();
+        indice = new Indice(Math.max(capacidad, capacidadArchivo));
+
+        long ahora = System.currentTimeMillis();
+        CRC32 crc = new CRC32();
+        int n = 0;
+        while (n < capacidadArchivo && registroValido(n, crc)) {
+            int offset = offsetRegistro(n);
+            if (!versionVigente || registros.getInt(offset + INICIO_CLAVE) != modeloHash
+                    || expirado(offset, ahora)) {
+                indice.obsoletos++;
+            } else {
+                indice.indexar(registros, n);
+            }
+            n++;
+        }
+        posicion = n;
+        cargadosAlArrancar = indice.claves;
+
+        logger.info("💾 Caché persistente {}: {} predicciones vigentes de {} registros",
+                archivo, indice.claves, posicion);
+
+        if (capacidadArchivo != capacidad || indice.obsoletos > posicion / 2) {
+            compactar();
+        }
+    }
+
+    /**
+     * Si la propiedad no cambió desde que se escribió el archivo, la versión
+     * vigente es la última que informó el servicio ML (guardada en la
+     * cabecera). Si no, vale la propiedad y la cabecera se actualiza.
+     *
+     * @return true si los registros del archivo son de la versión vigente
+     */
+    private boolean adoptarVersionDelArchivo() {
+        String configurada = leerVersion(registros, CABECERA_VERSION_CONFIGURADA);
+        String vigente = leerVersion(registros, CABECERA_VERSION_VIGENTE);
+        if (versionConfigurada.equals(configurada) && vigente != null) {
+            if (!vigente.equals(modeloVersion)) {
+                modeloVersion = vigente;
+                modeloHash = vigente.hashCode();
+                logger.info("💾 Caché persistente: se conserva la versión del modelo {} informada por el servicio ML",
+                        vigente);
+            }
+            return true;
+        }
+        escribirVersion(registros, CABECERA_VERSION_CONFIGURADA, versionConfigurada);
+        escribirVersion(registros, CABECERA_VERSION_VIGENTE, modeloVersion);
+        return modeloVersion.equals(vigente);
+    }
+
+    /**
+     * Versión guardada en la cabecera, o null si es desconocida.
+     */
+    private static String leerVersion(ByteBuffer cabecera, int offset) {
+        int longitud = cabecera.getShort(offset) & 0xFFFF;
+        if (longitud == 0 || longitud > MAX_BYTES_VERSION) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        cabecera.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Guarda la versión en la cabecera; si no cabe queda como desconocida y
+     * sus registros no se conservan tras un reinicio.
+     */
+    private static void escribirVersion(ByteBuffer cabecera, int offset, String version) {
+        byte[] bytes = version.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_BYTES_VERSION) {
+            logger.warn("⚠️ Versión del modelo de {} bytes: la caché persistente no la conserva tras reiniciar",
+                    bytes.length);
+            bytes = new byte[0];
+        }
+        cabecera.putShort(offset, (short) bytes.length);
+        cabecera.put(offset + Short.BYTES, bytes);
+    }
+
+    /**
+     * Capacidad declarada en la cabecera, o -1 si el archivo no existe o no
+     * es una caché de este formato.
+     */
+    private int capacidadDelArchivo() throws IOException {
+        if (!Files.isRegularFile(archivo) || Files.size(archivo) < TAMANO_CABECERA) {
+            return -1;
+        }
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                // leer la cabecera completa
+            }
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (cabecera.get(i) != MAGIC[i]) {
+                    return -1;
+                }
+            }
+            int capacidadArchivo = cabecera.getInt(8);
+            if (cabecera.getShort(4) != VERSION || cabecera.getShort(6) != TAMANO_REGISTRO
+                    || capacidadArchivo <= 0
+                    || canal.size() < TAMANO_CABECERA + (long) capacidadArchivo * TAMANO_REGISTRO) {
+                return -1;
+            }
+            return capacidadArchivo;
+        }
+    }
+
+    /**
+     * Crea un archivo vacío de la capacidad configurada y lo mapea.
+     */
+    private MappedByteBuffer crearArchivo(Path destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                    TAMANO_CABECERA + (long) capacidad * TAMANO_REGISTRO);
+            mapa.put(0, MAGIC);
+            mapa.putShort(4, (short) VERSION);
+            mapa.putShort(6, (short) TAMANO_REGISTRO);
+            mapa.putInt(8, capacidad);
+            mapa.putLong(CABECERA_CREADO, System.currentTimeMillis());
+            escribirVersion(mapa, CABECERA_VERSION_CONFIGURADA, versionConfigurada);
+            escribirVersion(mapa, CABECERA_VERSION_VIGENTE, modeloVersion);
+            return mapa;
+        }
+    }
+
+    /**
+     * ========================================================================
+     * CONSULTA Y ESCRITURA
+     * ========================================================================
+     */
+
+    /**
+     * Busca una predicción vigente del modelo actual.
+     *
+     * @return Predicción almacenada, o null si no hay una vigente
+     */
+    public synchronized Registro get(PredictionCacheKey key) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        byte[] clave = clave(key);
+        if (clave == null) {
+            fallos++;
+            return null;
+        }
+        int n = indice.buscar(registros, clave, hash(ByteBuffer.wrap(clave), 0));
+        if (n < 0) {
+            fallos++;
+            return null;
+        }
+        int offset = offsetRegistro(n);
+        if (expirado(offset, System.currentTimeMillis())) {
+            expirados++;
+            return null;
+        }
+        aciertos++;
+        return new Registro(
+                registros.getInt(offset + OFFSET_PREDICCION),
+                registros.getDouble(offset + OFFSET_PROBABILIDAD),
+                registros.getDouble(offset + OFFSET_CONFIANZA),
+                registros.getDouble(offset + OFFSET_DISTANCIA),
+                registros.getLong(offset + OFFSET_GUARDADO));
+    }
+
+    /**
+     * Encola una predicción del servicio ML para que el hilo escritor la
+     * anexe. No bloquea: si la cola está llena la escritura se descarta.
+     *
+     * @param modeloVersion Versión del modelo que la calculó (null = la vigente)
+     */
+    public void put(PredictionCacheKey key, String modeloVersion, int prediccion, double probabilidadRetraso,
+                    double confianza, double distanciaKm) {
+        if (!enabled || key == null) {
+            return;
+        }
+        if (!pendientes.offer(new Escritura(key, modeloVersion, prediccion, probabilidadRetraso,
+                confianza, distanciaKm))) {
+            descartadas.incrementAndGet();
+        }
+    }
+
+    /**
+     * ========================================================================
+     * HILO ESCRITOR
+     * ========================================================================
+     */
+    private void ejecutarEscritor() {
+        while (!detenido || !pendientes.isEmpty()) {
+            try {
+                Escritura escritura = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                if (escritura != null) {
+                    comprobarModelo(escritura.modeloVersion());
+                    anexar(escritura);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    ultimoError = e.getMessage();
+                }
+                logger.error("❌ Error al escribir en la caché persistente {}: {}", archivo, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Anexa un registro; si el archivo está lleno se compacta antes.
+     */
+    private void anexar(Escritura escritura) {
+        if (posicion >= capacidadMapeada()) {
+            compactar();
+        }
+        synchronized (this) {
+            byte[] clave = clave(escritura.key());
+            if (clave == null || posicion >= capacidadMapeada()) {
+                omitidos++;
+                return;
+            }
+            int offset = offsetRegistro(posicion);
+            registros.put(offset + INICIO_CLAVE, clave);
+            registros.putInt(offset + OFFSET_PREDICCION, escritura.prediccion());
+            registros.putDouble(offset + OFFSET_PROBABILIDAD, escritura.probabilidadRetraso());
+            registros.putDouble(offset + OFFSET_CONFIANZA, escritura.confianza());
+            registros.putDouble(offset + OFFSET_DISTANCIA, escritura.distanciaKm());
+            registros.putLong(offset + OFFSET_GUARDADO, System.currentTimeMillis());
+            registros.putInt(offset, crc(offset, new CRC32()));
+            indice.indexar(registros, posicion);
+            posicion++;
+            escrituras++;
+        }
+    }
+
+    /**
+     * Cambia la versión del modelo vigente. Si es distinta, todas las
+     * predicciones guardadas dejan de servirse (aunque su hash coincida con
+     * el de la versión nueva) y el archivo se compacta vacío.
+     */
+    private void comprobarModelo(String version) {
+        if (version == null || version.equals(modeloVersion)) {
+            return;
+        }
+        logger.info("🔁 Versión del modelo {} → {}: se invalidan {} predicciones persistidas",
+                modeloVersion, version, indice.claves);
+        synchronized (this) {
+            modeloVersion = version;
+            modeloHash = version.hashCode();
+            escribirVersion(registros, CABECERA_VERSION_VIGENTE, version);
+            indice = new Indice(capacidad);
+            invalidaciones++;
+        }
+        compactar();
+    }
+
+    /**
+     * Versión del modelo de las predicciones que se sirven.
+     */
+    public synchronized String getModeloVersion() {
+        return modeloVersion;
+    }
+
+    /**
+     * ========================================================================
+     * COMPACTACIÓN
+     * ========================================================================
+     * Reescribe los registros vigentes del modelo actual (los más recientes
+     * si no caben todos) en un archivo nuevo y lo coloca en lugar del
+     * anterior con un movimiento atómico. Si falla, se conserva el archivo
+     * actual. Solo la corre el hilo escritor (o el constructor): la copia,
+     * el fsync y el índice nuevo se hacen sin el monitor, que se toma solo
+     * para cambiar de archivo.
+     * ========================================================================
+     */
+    private void compactar() {
+        long inicio = System.currentTimeMillis();
+        int[] vigentes = new int[indice.claves];
+        long[] guardados = new long[indice.claves];
+        int total = 0;
+        for (int i = 0; i <= indice.mascara; i++) {
+            long posicionIndice = indice.posiciones.getLong(i * Long.BYTES);
+            if (posicionIndice == 0) {
+                continue;
+            }
+            int n = (int) posicionIndice - 1;
+            int offset = offsetRegistro(n);
+            if (registros.getInt(offset + INICIO_CLAVE) == modeloHash && !expirado(offset, inicio)) {
+                vigentes[total] = n;
+                guardados[total] = registros.getLong(offset + OFFSET_GUARDADO);
+                total++;
+            }
+        }
+        if (total > conservarAlCompactar) {
+            // Conservar los más recientes
+            long[] orden = new long[total];
+            for (int i = 0; i < total; i++) {
+                orden[i] = guardados[i];
+            }
+            Arrays.sort(orden);
+            long minimo = orden[total - conservarAlCompactar];
+            int conservados = 0;
+            for (int i = 0; i < total && conservados < conservarAlCompactar; i++) {
+                if (guardados[i] >= minimo) {
+                    vigentes[conservados++] = vigentes[i];
+                }
+            }
+            total = conservados;
+        }
+        Arrays.sort(vigentes, 0, total);
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".compact");
+        try {
+            MappedByteBuffer nuevo = crearArchivo(temporal);
+            for (int i = 0; i < total; i++) {
+                nuevo.put(offsetRegistro(i), registros, offsetRegistro(vigentes[i]), TAMANO_REGISTRO);
+            }
+            nuevo.force();
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Indice nuevoIndice = new Indice(capacidad);
+            for (int i = 0; i < total; i++) {
+                nuevoIndice.indexar(nuevo, i);
+            }
+            int anteriores = posicion;
+            synchronized (this) {
+                registros = nuevo;
+                indice = nuevoIndice;
+                posicion = total;
+                compactaciones++;
+                ultimoError = null;
+            }
+            logger.info("🗜️ Caché persistente compactada: {} → {} registros en {} ms",
+                    anteriores, total, System.currentTimeMillis() - inicio);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                ultimoError = e.getMessage();
+            }
+            logger.error("❌ No se pudo compactar la caché persistente {}: {}", archivo, e.getMessage());
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignorada) {
+                // el temporal se sobrescribe en la siguiente compactación
+            }
+        }
+    }
+
+    /**
+     * ========================================================================
+     * ÍNDICE
+     * ========================================================================
+     * Al menos el doble de posiciones que registros (factor de carga ≤ 0,5).
+     * Cada posición es un i64: 32 bits altos de huella del hash y número de
+     * registro + 1 en los bajos (0 = vacía). La compactación construye uno
+     * nuevo sobre el archivo nuevo mientras get sigue usando el actual.
+     * ========================================================================
+     */
+    private static final class Indice {
+
+        final ByteBuffer posiciones;
+        final int mascara;
+        int claves;
+        int obsoletos;
+
+        Indice(int registrosMaximos) {
+            int tamano = Integer.highestOneBit(Math.max(2, registrosMaximos) * 2 - 1) << 1;
+            this.posiciones = ByteBuffer.allocateDirect(tamano * Long.BYTES);
+            this.mascara = tamano - 1;
+        }
+
+        /**
+         * Indexa el registro n; si la clave ya estaba, la posición pasa a
+         * apuntar al registro nuevo y el anterior queda obsoleto.
+         */
+        void indexar(ByteBuffer registros, int n) {
+            int offset = offsetRegistro(n);
+            long h = hash(registros, offset + INICIO_CLAVE);
+            long huella = h & 0xFFFFFFFF00000000L;
+            long valor = huella | (n + 1L);
+            int i = (int) h & mascara;
+            while (true) {
+                long actual = posiciones.getLong(i * Long.BYTES);
+                if (actual == 0) {
+                    posiciones.putLong(i * Long.BYTES, valor);
+                    claves++;
+                    return;
+                }
+                if ((actual & 0xFFFFFFFF00000000L) == huella
+                        && mismaClave(registros, offsetRegistro((int) actual - 1), offset)) {
+                    posiciones.putLong(i * Long.BYTES, valor);
+                    obsoletos++;
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+        }
+
+        /**
+         * @return Número del registro con la clave, o -1
+         */
+        int buscar(ByteBuffer registros, byte[] clave, long h) {
+            long huella = h & 0xFFFFFFFF00000000L;
+            int i = (int) h & mascara;
+            while (true) {
+                long actual = posiciones.getLong(i * Long.BYTES);
+                if (actual == 0) {
+                    return -1;
+                }
+                if ((actual & 0xFFFFFFFF00000000L) == huella) {
+                    int n = (int) actual - 1;
+                    if (mismaClave(registros, offsetRegistro(n), clave)) {
+                        return n;
+                    }
+                }
+                i = (i + 1) & mascara;
+            }
+        }
+    }
+
+    private static boolean mismaClave(ByteBuffer registros, int offset, byte[] clave) {
+        for (int k = 0; k < clave.length; k++) {
+            if (registros.get(offset + INICIO_CLAVE + k) != clave[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean mismaClave(ByteBuffer registros, int offsetA, int offsetB) {
+        for (int k = INICIO_CLAVE; k < OFFSET_PREDICCION; k += Long.BYTES) {
+            if (registros.getLong(offsetA + k) != registros.getLong(offsetB + k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash de los 32 bytes de clave que empiezan en offset.
+     */
+    private static long hash(ByteBuffer datos, int offset) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int k = 0; k < OFFSET_PREDICCION - INICIO_CLAVE; k += Long.BYTES) {
+            h = (h ^ datos.getLong(offset + k)) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+
+    /**
+     * ========================================================================
+     * REGISTROS
+     * ========================================================================
+     */
+
+    /**
+     * Clave binaria (bytes 4..36 del registro), o null si algún código no
+     * cabe en 8 bytes ASCII.
+     */
+    private byte[] clave(PredictionCacheKey key) {
+        ByteBuffer clave = ByteBuffer.allocate(OFFSET_PREDICCION - INICIO_CLAVE);
+        clave.putInt(modeloHash);
+        clave.putInt((int) (key.horaPartida().toEpochSecond(ZoneOffset.UTC) / 3600));
+        if (!codigo(clave, key.aerolinea()) || !codigo(clave, key.origen()) || !codigo(clave, key.destino())) {
+            return null;
+        }
+        return clave.array();
+    }
+
+    private static boolean codigo(ByteBuffer clave, String codigo) {
+        if (codigo == null || codigo.length() > TAMANO_CODIGO) {
+            return false;
+        }
+        int inicio = clave.position();
+        for (int i = 0; i < codigo.length(); i++) {
+            char c = codigo.charAt(i);
+            if (c > 0x7F) {
+                return false;
+            }
+            clave.put((byte) c);
+        }
+        clave.position(inicio + TAMANO_CODIGO);
+        return true;
+    }
+
+    private boolean registroValido(int n, CRC32 crc) {
+        int offset = offsetRegistro(n);
+        return registros.getInt(offset) == crc(offset, crc);
+    }
+
+    private int crc(int offset, CRC32 crc) {
+        crc.reset();
+        crc.update(registros.slice(offset + 4, TAMANO_REGISTRO - 4));
+        return (int) crc.getValue();
+    }
+
+    private boolean expirado(int offset, long ahora) {
+        return registros.getLong(offset + OFFSET_GUARDADO) + ttlMillis <= ahora;
+    }
+
+    private int capacidadMapeada() {
+        return (registros.capacity() - TAMANO_CABECERA) / TAMANO_REGISTRO;
+    }
+
+    private static int offsetRegistro(int n) {
+        return TAMANO_CABECERA + n * TAMANO_REGISTRO;
+    }
+
+    /**
+     * Estadísticas para /api/health.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("habilitada", enabled);
+        stats.put("archivo", archivo.toString());
+        if (ultimoError != null) {
+            stats.put("ultimo_error", ultimoError);
+        }
+        if (!enabled) {
+            return stats;
+        }
+        stats.put("modelo_version", modeloVersion);
+        stats.put("capacidad", capacidad);
+        stats.put("registros", posicion);
+        stats.put("claves", indice.claves);
+        stats.put("escrituras_en_cola", pendientes.size());
+        stats.put("escrituras_descartadas", descartadas.get());
+        stats.put("cargadas_al_arrancar", cargadosAlArrancar);
+        stats.put("ttl_segundos", ttlMillis / 1000L);
+        stats.put("aciertos", aciertos);
+        stats.put("fallos", fallos);
+        stats.put("expiraciones", expirados);
+        stats.put("escrituras", escrituras);
+        stats.put("omitidas", omitidos);
+        stats.put("compactaciones", compactaciones);
+        stats.put("invalidaciones_modelo", invalidaciones);
+        return stats;
+    }
+
+    /**
+     * Espera a que el hilo escritor vacíe la cola y vuelca al disco las
+     * páginas modificadas.
+     */
+    @PreDestroy
+    public void cerrar() {
+        if (!enabled) {
+            return;
+        }
+        // Sin interrupt: interrumpiría los FileChannel de una compactación en curso
+        detenido = true;
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            registros.force();
+        }
+    }
+}
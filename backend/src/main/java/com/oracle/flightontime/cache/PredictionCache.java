@@ -0,0 +1,199 @@
+package com.oracle.flightontime.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * CACHÉ DE PREDICCIONES REALES (TTL + TAMAÑO MÁXIMO)
+ * ============================================================================
+ * Caché en memoria delante de PredictionService.predictReal.
+ * - Desalojo LRU al superar ml.cache.max-size entradas.
+ * - Expiración de cada entrada ml.cache.ttl-seconds después de almacenarse.
+ * - Contadores de aciertos, fallos, desalojos y expiraciones.
+ * - Modo serializado (ml.cache.serialized=true): la entrada guarda el JSON
+ *   ya generado y los aciertos se escriben tal cual, sin serializar campos.
+ *   En este modo la metadata queda congelada al almacenarse.
+ * Solo almacena respuestas del servicio ML (modo_mock = false). Las
+ * respuestas son inmutables: cada entrada guarda una sola instancia con
+ * metadata.cache_hit = true y los aciertos la devuelven sin copiarla.
+ * ============================================================================
+ */
+@Component
+public class PredictionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionCache.class);
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final boolean serialized;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Mapa en orden de acceso: el primer elemento es el menos usado recientemente.
+     * Todos los accesos se sincronizan sobre el propio mapa.
+     */
+    private final LinkedHashMap<PredictionCacheKey, Entry> entries;
+
+    public PredictionCache(
+            @Value("${ml.cache.enabled:true}") boolean enabled,
+            @Value("${ml.cache.max-size:10000}") int maxSize,
+            @Value("${ml.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${ml.cache.serialized:false}") boolean serialized,
+            ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.serialized = serialized;
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PredictionCacheKey, Entry> eldest) {
+                if (size() > PredictionCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * En modo serializado la metadata de los aciertos no se puede modificar.
+     */
+    public boolean isSerialized() {
+        return serialized;
+    }
+
+    /**
+     * Busca una predicción vigente para la clave.
+     *
+     * @return Respuesta almacenada (metadata.cache_hit = true), o null si no hay entrada vigente
+     */
+    public PredictionResponseDTO get(PredictionCacheKey key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry.response;
+    }
+
+    /**
+     * Almacena una respuesta real del servicio ML. Las respuestas mock
+     * (incluidos los fallbacks) se ignoran.
+     */
+    public void put(PredictionCacheKey key, PredictionResponseDTO response) {
+        if (!enabled || response == null || response.isModoMock()) {
+            return;
+        }
+
+        PredictionResponseDTO almacenada = response.comoRespuestaReal(true);
+        if (serialized) {
+            try {
+                SerializedString json = new SerializedString(
+                        new String(objectMapper.writeValueAsBytes(almacenada), StandardCharsets.UTF_8));
+                almacenada = new SerializedPredictionResponse(almacenada, json);
+            } catch (JsonProcessingException e) {
+                logger.warn("⚠️ No se pudo serializar la predicción para caché: {}", e.getMessage());
+                return;
+            }
+        }
+
+        Entry entry = new Entry(almacenada, System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Elimina todas las entradas (los contadores se conservan).
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Estadísticas para /api/health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("habilitada", enabled);
+        stats.put("serializada", serialized);
+        synchronized (entries) {
+            stats.put("entradas", entries.size());
+        }
+        stats.put("max_entradas", maxSize);
+        stats.put("ttl_segundos", ttlMillis / 1000L);
+        stats.put("aciertos", hits.get());
+        stats.put("fallos", misses.get());
+        stats.put("desalojos", evictions.get());
+        stats.put("expiraciones", expirations.get());
+        return stats;
+    }
+
+    private record Entry(PredictionResponseDTO response, long expiresAt) {
+    }
+
+    /**
+     * Respuesta servida desde el modo serializado: los getters devuelven los
+     * valores almacenados y el serializador escribe directamente el JSON
+     * guardado.
+     */
+    static class SerializedPredictionResponse extends PredictionResponseDTO {
+
+        private final SerializedString json;
+
+        SerializedPredictionResponse(PredictionResponseDTO response, SerializedString json) {
+            super(response.getPrediccion(), response.getProbabilidadRetraso(), response.getConfianza(),
+                    response.getDistanciaKm(), response.getClimaOrigen(), response.getClimaDestino(),
+                    response.getMetadata(), response.isModoMock());
+            this.json = json;
+        }
+
+        @Override
+        protected SerializableString jsonPrecalculado() {
+            return json;
+        }
+    }
+}
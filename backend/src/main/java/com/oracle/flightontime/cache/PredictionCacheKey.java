@@ -0,0 +1,38 @@
+package com.oracle.flightontime.cache;
+
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.util.FechaUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * ============================================================================
+ * CLAVE DE CACHÉ DE PREDICCIONES
+ * ============================================================================
+ * Identifica predicciones equivalentes: el modelo solo usa aerolínea,
+ * distancia (derivada de la ruta), hora, día de la semana y mes, por lo que
+ * la fecha de partida truncada a la hora determina completamente el resultado.
+ * ============================================================================
+ */
+public record PredictionCacheKey(String aerolinea, String origen, String destino, LocalDateTime horaPartida) {
+
+    /**
+     * Construye la clave de una solicitud ya validada.
+     * Interpreta fecha_partida igual que el servicio ML (ver FechaUtils).
+     */
+    public static PredictionCacheKey of(PredictionRequestDTO request) {
+        return new PredictionCacheKey(
+                request.getAerolinea(),
+                request.getOrigen(),
+                request.getDestino(),
+                bucketHora(request.getFechaPartida()));
+    }
+
+    /**
+     * Trunca la fecha de partida a la hora.
+     */
+    static LocalDateTime bucketHora(String fechaPartida) {
+        return FechaUtils.parsearFechaPartida(fechaPartida).truncatedTo(ChronoUnit.HOURS);
+    }
+}
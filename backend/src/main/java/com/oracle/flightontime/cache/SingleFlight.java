@@ -0,0 +1,83 @@
+package com.oracle.flightontime.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * ============================================================================
+ * COALESCENCIA DE LLAMADAS EN VUELO (SINGLE-FLIGHT)
+ * ============================================================================
+ * Las solicitudes concurrentes con la misma clave comparten una única
+ * llamada: la primera la inicia y las demás se suscriben a su resultado
+ * mientras siga en vuelo. Al terminar (éxito o error) la clave se libera y
+ * la siguiente solicitud inicia una llamada nueva.
+ *
+ * La llamada compartida cuenta sus suscriptores (share()): si quien la
+ * inició se desconecta o abandona por su propio timeout, la llamada continúa
+ * mientras quede algún otro suscrito. Cuando se cancelan todos, la llamada
+ * se cancela y la clave se libera, y la siguiente solicitud inicia una
+ * llamada nueva. Cada suscriptor aplica su propio fallback ante un error.
+ * ============================================================================
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> enVuelo = new ConcurrentHashMap<>();
+    private final AtomicLong realizadas = new AtomicLong();
+    private final AtomicLong ahorradas = new AtomicLong();
+
+    /**
+     * Ejecuta la llamada para la clave, o se une a la que ya está en vuelo.
+     *
+     * @param clave   Clave de coalescencia
+     * @param llamada Proveedor de la llamada; solo se invoca si no hay una en vuelo
+     * @return Mono con el resultado compartido
+     */
+    public Mono<V> ejecutar(K clave, Supplier<Mono<V>> llamada) {
+        return Mono.defer(() -> {
+            boolean[] iniciada = {false};
+            Mono<V> compartida = enVuelo.computeIfAbsent(clave, k -> {
+                iniciada[0] = true;
+                return crear(k, llamada);
+            });
+            if (iniciada[0]) {
+                realizadas.incrementAndGet();
+            } else {
+                ahorradas.incrementAndGet();
+            }
+            return compartida;
+        });
+    }
+
+    private Mono<V> crear(K clave, Supplier<Mono<V>> llamada) {
+        AtomicReference<Mono<V>> referencia = new AtomicReference<>();
+        Mono<V> compartida = Mono.defer(llamada)
+                .doFinally(senal -> enVuelo.remove(clave, referencia.get()))
+                .share();
+        referencia.set(compartida);
+        return compartida;
+    }
+
+    /**
+     * Llamadas evitadas por unirse a una llamada en vuelo.
+     */
+    public long getAhorradas() {
+        return ahorradas.get();
+    }
+
+    /**
+     * Estado actual y contadores.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("en_vuelo", enVuelo.size());
+        stats.put("llamadas_realizadas", realizadas.get());
+        stats.put("llamadas_ahorradas", ahorradas.get());
+        return stats;
+    }
+}
@@ -1,6 +1,11 @@
 package com.oracle.flightontime.config;
 
-import java.util.*;
+import com.oracle.flightontime.reference.ReferenceData;
+import com.oracle.flightontime.util.AirportBitSet;
+import com.oracle.flightontime.util.IataCode;
+
+import java.util.Collections;
+import java.util.Set;
 
 /**
  * ===========================================================================
@@ -8,98 +13,100 @@ import java.util.*;
  * ===========================================================================
  * Define las aerolíneas soportadas y sus aeropuertos disponibles.
  * Basado en los requerimientos del proyecto FlightOnTime v1.1
+ *
+ * Las redes de cada aerolínea vienen de los datos de referencia
+ * (src/main/resources/reference/aerolineas.csv, recargables en caliente);
+ * cada consulta lee la instantánea vigente de {@link ReferenceData} una
+ * sola vez.
  * ===========================================================================
  */
 public class AirlineConfig {
 
     /**
-     * Mapa de aerolíneas y sus aeropuertos disponibles
-     * Key: Código de aerolínea ("1" = Delta, "2" = Southwest)
-     * Value: Set de códigos IATA de aeropuertos
+     * Bitset de aeropuertos de una aerolínea, o null si no existe
      */
-    public static final Map<String, Set<String>> AEROLINEAS_AEROPUERTOS;
+    private static AirportBitSet bitsDe(ReferenceData datos, String aerolinea) {
+        ReferenceData.Aerolinea encontrada = datos.getAerolinea(aerolinea);
+        return encontrada != null ? encontrada.bits() : null;
+    }
 
     /**
-     * Nombres de las aerolíneas
+     * Verifica si una aerolínea es válida
      */
-    public static final Map<String, String> NOMBRES_AEROLINEAS;
+    public static boolean esAerolineaValida(String codigo) {
+        return ReferenceData.actual().getAerolinea(codigo) != null;
+    }
 
-    static {
-        AEROLINEAS_AEROPUERTOS = new HashMap<>();
-        NOMBRES_AEROLINEAS = new HashMap<>();
+    /**
+     * Verifica si un aeropuerto está disponible para una aerolínea
+     */
+    public static boolean esAeropuertoValido(String aerolinea, String aeropuerto) {
+        ReferenceData datos = ReferenceData.actual();
+        AirportBitSet aeropuertos = bitsDe(datos, aerolinea);
+        return aeropuertos != null
+                && aeropuertos.contiene(datos.getOrdinalEmpaquetado(IataCode.pack(aeropuerto)));
+    }
 
-        // ====================================================================
-        // DELTA AIR LINES (DL) - Código: "1"
-        // ====================================================================
-        NOMBRES_AEROLINEAS.put("1", "Delta Air Lines (DL)");
-        
-        Set<String> deltaAirports = new HashSet<>(Arrays.asList(
-            "ABQ","AGS","ALB","ANC","ATL","ATW","AUS","AVL","BDL","BGR","BHM","BIL","BIS",
-            "BNA","BOI","BOS","BTR","BTV","BUF","BUR","BWI","BZN","CAE","CHA","CHO","CHS",
-            "CID","CLE","CLT","CMH","COS","CVG","DAB","DAL","DAY","DCA","DEN","DFW","DLH",
-            "DSM","DTW","ECP","EGE","ELP","EWR","EYW","FAI","FAR","FAT","FAY","FCA","FLL",
-            "FSD","GEG","GNV","GPT","GRB","GRR","GSO","GSP","HDN","HNL","HOU","HPN","HRL",
-            "HSV","IAD","IAH","ICT","IDA","ILM","IND","JAC","JAN","JAX","JFK","JNU","KOA",
-            "LAS","LAX","LEX","LGA","LGB","LIH","LIT","MCI","MCO","MDT","MDW","MEM","MIA",
-            "MKE","MLB","MOB","MSN","MSO","MSP","MSY","MTJ","MYR","OAK","OGG","OKC","OMA",
-            "ONT","ORD","ORF","PBI","PDX","PHL","PHX","PIT","PNS","PSC","PSP","PVD","PWM",
-            "RAP","RDU","RIC","RNO","ROA","ROC","RSW","SAN","SAT","SAV","SBA","SBN","SDF",
-            "SEA","SFO","SGF","SHV","SJC","SJU","SLC","SMF","SNA","SRQ","STL","STT","STX",
-            "SYR","TLH","TPA","TRI","TUL","TUS","TVC","TYS","VPS","XNA"
-        ));
-        AEROLINEAS_AEROPUERTOS.put("1", deltaAirports);
+    /**
+     * Verifica si una aerolínea opera ambos aeropuertos de una ruta
+     */
+    public static boolean esRutaValida(String aerolinea, int origenOrdinal, int destinoOrdinal) {
+        AirportBitSet aeropuertos = bitsDe(ReferenceData.actual(), aerolinea);
+        return aeropuertos != null && origenOrdinal != destinoOrdinal
+                && aeropuertos.contiene(origenOrdinal) && aeropuertos.contiene(destinoOrdinal);
+    }
 
-        // ====================================================================
-        // SOUTHWEST AIRLINES (WN) - Código: "2"
-        // ====================================================================
-        NOMBRES_AEROLINEAS.put("2", "Southwest Airlines (WN)");
-        
-        Set<String> southwestAirports = new HashSet<>(Arrays.asList(
-            "ABQ","ALB","AMA","ATL","AUS","BDL","BHM","BNA","BOI","BOS","BUF","BUR","BWI",
-            "BZN","CHS","CLE","CLT","CMH","COS","CRP","CVG","DAL","DCA","DEN","DSM","DTW",
-            "ECP","ELP","EUG","FAT","FLL","GEG","GRR","GSP","HDN","HNL","HOU","HRL","IAD",
-            "ICT","IND","ISP","ITO","JAN","JAX","KOA","LAS","LAX","LBB","LGA","LGB","LIH",
-            "LIT","MAF","MCI","MCO","MDW","MEM","MHT","MIA","MKE","MSP","MSY","MTJ","MYR",
-            "OAK","OGG","OKC","OMA","ONT","ORD","ORF","PBI","PDX","PHL","PHX","PIT","PNS",
-            "PSP","PVD","PWM","RDU","RIC","RNO","ROC","RSW","SAN","SAT","SAV","SBA","SDF",
-            "SEA","SFO","SJC","SJU","SLC","SMF","SNA","SRQ","STL","TPA","TUL","TUS","VPS"
-        ));
-        AEROLINEAS_AEROPUERTOS.put("2", southwestAirports);
+    /**
+     * Verifica si un aeropuerto es operado por ambas aerolíneas
+     */
+    public static boolean esAeropuertoComun(String aerolinea1, String aerolinea2, String aeropuerto) {
+        ReferenceData datos = ReferenceData.actual();
+        AirportBitSet aeropuertos1 = bitsDe(datos, aerolinea1);
+        AirportBitSet aeropuertos2 = bitsDe(datos, aerolinea2);
+        return aeropuertos1 != null && aeropuertos2 != null
+                && aeropuertos1.contieneAmbos(aeropuertos2, datos.getOrdinalEmpaquetado(IataCode.pack(aeropuerto)));
     }
 
     /**
-     * Verifica si una aerolínea es válida
+     * Cuenta los aeropuertos operados por ambas aerolíneas
      */
-    public static boolean esAerolineaValida(String codigo) {
-        return AEROLINEAS_AEROPUERTOS.containsKey(codigo);
+    public static int contarAeropuertosComunes(String aerolinea1, String aerolinea2) {
+        ReferenceData datos = ReferenceData.actual();
+        AirportBitSet aeropuertos1 = bitsDe(datos, aerolinea1);
+        AirportBitSet aeropuertos2 = bitsDe(datos, aerolinea2);
+        return aeropuertos1 != null && aeropuertos2 != null ? aeropuertos1.contarComunes(aeropuertos2) : 0;
     }
 
     /**
-     * Verifica si un aeropuerto está disponible para una aerolínea
+     * Obtiene los aeropuertos de una aerolínea como bitset sobre los ordinales
+     * de GeoUtils (vacío si la aerolínea no existe). Recorrer las rutas válidas
+     * de una aerolínea es un doble bucle sobre {@link AirportBitSet#siguiente(int)}.
      */
-    public static boolean esAeropuertoValido(String aerolinea, String aeropuerto) {
-        Set<String> aeropuertos = AEROLINEAS_AEROPUERTOS.get(aerolinea);
-        return aeropuertos != null && aeropuertos.contains(aeropuerto.toUpperCase());
+    public static AirportBitSet getAeropuertosBits(String aerolinea) {
+        AirportBitSet aeropuertos = bitsDe(ReferenceData.actual(), aerolinea);
+        return aeropuertos != null ? aeropuertos : AirportBitSet.VACIO;
     }
 
     /**
      * Obtiene el nombre de una aerolínea
      */
     public static String getNombreAerolinea(String codigo) {
-        return NOMBRES_AEROLINEAS.getOrDefault(codigo, "Aerolínea Desconocida");
+        ReferenceData.Aerolinea aerolinea = ReferenceData.actual().getAerolinea(codigo);
+        return aerolinea != null ? aerolinea.nombre() : "Aerolínea Desconocida";
     }
 
     /**
      * Obtiene todos los aeropuertos de una aerolínea
      */
     public static Set<String> getAeropuertos(String aerolinea) {
-        return AEROLINEAS_AEROPUERTOS.getOrDefault(aerolinea, Collections.emptySet());
+        ReferenceData.Aerolinea encontrada = ReferenceData.actual().getAerolinea(aerolinea);
+        return encontrada != null ? encontrada.aeropuertos() : Collections.emptySet();
     }
 
     /**
      * Obtiene todas las aerolíneas disponibles
      */
     public static Set<String> getAerolineasDisponibles() {
-        return AEROLINEAS_AEROPUERTOS.keySet();
+        return ReferenceData.actual().getAerolineas().keySet();
     }
 }
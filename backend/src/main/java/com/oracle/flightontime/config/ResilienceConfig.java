@@ -0,0 +1,73 @@
+package com.oracle.flightontime.config;
+
+import com.oracle.flightontime.resilience.AdaptiveConcurrencyLimiter;
+import com.oracle.flightontime.resilience.AdmissionControl;
+import com.oracle.flightontime.resilience.CircuitBreaker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ============================================================================
+ * CONFIGURACIÓN DE RESILIENCIA
+ * ============================================================================
+ * Componentes que protegen las llamadas al servicio ML
+ * (propiedades ml.circuit-breaker.* y ml.limiter.*) y el control de admisión de
+ * /api/predict (propiedades admission.*).
+ * ============================================================================
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker mlServiceCircuitBreaker(
+            @Value("${ml.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${ml.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${ml.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${ml.circuit-breaker.slow-call-duration-ms:3000}") long slowCallDurationMs,
+            @Value("${ml.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${ml.circuit-breaker.open-wait-ms:5000}") long openWaitMs,
+            @Value("${ml.circuit-breaker.open-wait-max-ms:60000}") long openWaitMaxMs,
+            @Value("${ml.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+
+        return new CircuitBreaker("ml-service", windowSize, minimumCalls, failureRateThreshold,
+                slowCallDurationMs, slowCallRateThreshold, openWaitMs, openWaitMaxMs, halfOpenProbes);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter mlConcurrencyLimiter(
+            @Value("${ml.limiter.enabled:true}") boolean enabled,
+            @Value("${ml.limiter.initial-limit:20}") int initialLimit,
+            @Value("${ml.limiter.min-limit:4}") int minLimit,
+            @Value("${ml.limiter.max-limit:500}") int maxLimit,
+            @Value("${ml.limiter.rtt-tolerance:2.0}") double rttTolerance,
+            @Value("${ml.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${ml.limiter.max-queue:500}") int maxQueue,
+            @Value("${ml.limiter.queue-timeout-ms:500}") long queueTimeoutMs,
+            MeterRegistry registry) {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("ml-service", enabled, initialLimit,
+                minLimit, maxLimit, rttTolerance, backoffRatio, maxQueue, queueTimeoutMs);
+        limiter.registrarMetricas(registry);
+        return limiter;
+    }
+
+    @Bean
+    public AdmissionControl admissionControl(
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.policy:reject}") String policy,
+            @Value("${admission.client.rate-per-second:200}") double ratePerSecond,
+            @Value("${admission.client.burst:400}") int burst,
+            @Value("${admission.client.stripes:8192}") int stripes,
+            @Value("${admission.max-in-flight:1000}") int maxInFlight,
+            @Value("${admission.shed-threshold:800}") int shedThreshold,
+            MeterRegistry registry) {
+
+        AdmissionControl admissionControl = new AdmissionControl(enabled, policy, ratePerSecond, burst, stripes,
+                maxInFlight, shedThreshold);
+        admissionControl.registrarMetricas(registry);
+        return admissionControl;
+    }
+}
@@ -1,21 +1,121 @@
 package com.oracle.flightontime.config;
 
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 /**
  * ============================================================================
  * CONFIGURACIÓN DE WEBCLIENT
  * ============================================================================
- * Configura el cliente HTTP reactivo para llamadas al servicio ML
+ * Configura el cliente HTTP reactivo para llamadas al servicio ML.
+ * El cliente ML usa un pool de conexiones Reactor Netty dedicado, ajustable
+ * desde application.properties (propiedades ml.client.*).
  * ============================================================================
  */
 @Configuration
 public class WebClientConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
+
     @Bean
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    /**
+     * ========================================================================
+     * POOL DE CONEXIONES HACIA EL SERVICIO ML
+     * ========================================================================
+     * Límite de conexiones, cola de adquisición acotada y desalojo de
+     * conexiones inactivas o demasiado antiguas en segundo plano.
+     * ========================================================================
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider mlConnectionProvider(
+            @Value("${ml.client.max-connections:500}") int maxConnections,
+            @Value("${ml.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${ml.client.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${ml.client.max-idle-time-seconds:30}") long maxIdleTimeSeconds,
+            @Value("${ml.client.max-life-time-seconds:300}") long maxLifeTimeSeconds,
+            @Value("${ml.client.evict-interval-seconds:30}") long evictIntervalSeconds,
+            @Value("${ml.client.metrics:true}") boolean metrics) {
+
+        logger.info("🔌 Pool ML: {} conexiones, cola {} (timeout {}ms), inactividad {}s, vida {}s",
+                maxConnections, pendingAcquireMaxCount, pendingAcquireTimeoutMs,
+                maxIdleTimeSeconds, maxLifeTimeSeconds);
+
+        return ConnectionProvider.builder("ml-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(maxIdleTimeSeconds))
+                .maxLifeTime(Duration.ofSeconds(maxLifeTimeSeconds))
+                .evictInBackground(Duration.ofSeconds(evictIntervalSeconds))
+                .metrics(metrics)
+                .build();
+    }
+
+    /**
+     * ========================================================================
+     * CLIENTE HTTP NETTY DEL SERVICIO ML
+     * ========================================================================
+     * Timeouts de conexión y de respuesta a nivel Netty, keep-alive,
+     * compresión opcional y HTTP/2 en texto plano (h2c) opcional con
+     * fallback a HTTP/1.1.
+     * ========================================================================
+     */
+    @Bean
+    public HttpClient mlHttpClient(
+            @Qualifier("mlConnectionProvider") ConnectionProvider connectionProvider,
+            @Value("${ml.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${ml.client.read-timeout-seconds:10}") long readTimeoutSeconds,
+            @Value("${ml.client.compress:true}") boolean compress,
+            @Value("${ml.client.h2c:false}") boolean h2c) {
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofSeconds(readTimeoutSeconds))
+                .compress(compress);
+
+        if (h2c) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        return httpClient;
+    }
+
+    /**
+     * ========================================================================
+     * WEBCLIENT DEL SERVICIO ML
+     * ========================================================================
+     * WebClient usado por PredictionService, construido sobre el cliente
+     * Netty dedicado.
+     * ========================================================================
+     */
+    @Bean
+    public WebClient mlWebClient(
+            WebClient.Builder webClientBuilder,
+            @Qualifier("mlHttpClient") HttpClient mlHttpClient,
+            @Value("${ml.client.max-in-memory-size-kb:2048}") int maxInMemorySizeKb) {
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(mlHttpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySizeKb * 1024))
+                .build();
+    }
 }
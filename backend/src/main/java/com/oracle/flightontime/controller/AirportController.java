@@ -0,0 +1,237 @@
+package com.oracle.flightontime.controller;
+
+import com.oracle.flightontime.dto.NearbyAirportDTO;
+import com.oracle.flightontime.dto.NearbyAirportsResponseDTO;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.resilience.AdmissionControl;
+import com.oracle.flightontime.service.PredictionMode;
+import com.oracle.flightontime.service.PredictionService;
+import com.oracle.flightontime.util.AirportSpatialIndex;
+import com.oracle.flightontime.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * CONTROLADOR REST - AEROPUERTOS CERCANOS
+ * ============================================================================
+ * Aeropuertos alternativos alrededor de un aeropuerto o de unas
+ * coordenadas, resueltos con el índice espacial de GeoUtils. Con
+ * ?destino= cada alternativa lleva la predicción de retraso del vuelo
+ * desde ella al destino. Cada una de esas predicciones pasa por el control
+ * de admisión como una solicitud de /api/predict del mismo cliente.
+ * ============================================================================
+ */
+@RestController
+@RequestMapping("/api/airports")
+@CrossOrigin(origins = "*")
+public class AirportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AirportController.class);
+
+    /** Aeropuertos devueltos si no se indica limite */
+    private static final int LIMITE_POR_DEFECTO = 10;
+
+    private final PredictionService predictionService;
+    private final AdmissionControl admissionControl;
+    private final String cabeceraCliente;
+    private final int maxResults;
+    private final int predictionConcurrency;
+
+    public AirportController(PredictionService predictionService, AdmissionControl admissionControl,
+                             @Value("${admission.client.header:}") String cabeceraCliente,
+                             @Value("${airports.nearby.max-results:100}") int maxResults,
+                             @Value("${airports.nearby.prediction-concurrency:8}") int predictionConcurrency) {
+        this.predictionService = predictionService;
+        this.admissionControl = admissionControl;
+        this.cabeceraCliente = cabeceraCliente;
+        this.maxResults = Math.max(1, maxResults);
+        this.predictionConcurrency = Math.max(1, predictionConcurrency);
+    }
+
+    /**
+     * GET /api/airports/nearby?origen=ATL&radio_km=150
+     * GET /api/airports/nearby?lat=33.64&lon=-84.43&limite=5
+     * GET /api/airports/nearby?origen=ATL&radio_km=300&aerolinea=1&destino=LAX&fecha_partida=2026-01-15T10:00:00
+     *
+     * Sin radio_km devuelve los limite aeropuertos más cercanos; con
+     * radio_km, los que están dentro del radio (hasta limite). El aeropuerto
+     * de origen no se incluye. Con destino y aerolinea adjunta la predicción
+     * de cada alternativa (mismos parámetros mock y modo que /api/predict).
+     * Cada predicción consume un permiso del control de admisión: las
+     * rechazadas quedan con el motivo en error y las degradadas se
+     * predicen en modo mock.
+     */
+    @GetMapping("/nearby")
+    public Mono<ResponseEntity<NearbyAirportsResponseDTO>> nearby(
+            @RequestParam(value = "origen", required = false) String origen,
+            @RequestParam(value = "lat", required = false) Double lat,
+            @RequestParam(value = "lon", required = false) Double lon,
+            @RequestParam(value = "radio_km", required = false) Double radioKm,
+            @RequestParam(value = "limite", required = false) Integer limite,
+            @RequestParam(value = "aerolinea", required = false) String aerolinea,
+            @RequestParam(value = "destino", required = false) String destino,
+            @RequestParam(value = "fecha_partida", required = false) String fechaPartida,
+            @RequestParam(value = "mock", defaultValue = "false") boolean useMock,
+            @RequestParam(value = "modo", required = false) String modo,
+            ServerHttpRequest httpRequest) {
+
+        long inicio = System.currentTimeMillis();
+        int maximo = limite != null ? limite : LIMITE_POR_DEFECTO;
+        if (maximo < 1 || maximo > maxResults) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("limite debe estar entre 1 y %d", maxResults));
+        }
+        if (radioKm != null && !(radioKm >= 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "radio_km no puede ser negativo");
+        }
+        if (destino != null && (aerolinea == null || aerolinea.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Para adjuntar predicciones indique aerolinea y destino");
+        }
+        if (destino != null) {
+            destino = destino.trim().toUpperCase(Locale.ROOT);
+        }
+        PredictionMode modoPrediccion = useMock ? PredictionMode.MOCK
+                : modo != null ? PredictionMode.desdeParametro(modo) : null;
+
+        // ====================================================================
+        // PUNTO DE CONSULTA
+        // ====================================================================
+        int origenOrdinal = -1;
+        if (origen != null) {
+            origenOrdinal = GeoUtils.getOrdinal(origen);
+            if (origenOrdinal < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Aeropuerto desconocido: " + origen);
+            }
+            double[] coordenadas = GeoUtils.getCoordinates(origen);
+            lat = coordenadas[0];
+            lon = coordenadas[1];
+        } else if (lat == null || lon == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indique origen o lat y lon");
+        } else if (!(lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordenadas fuera de rango");
+        }
+
+        List<AirportSpatialIndex.Vecino> vecinos;
+        if (radioKm == null) {
+            vecinos = origenOrdinal >= 0
+                    ? GeoUtils.nearest(origen, maximo)
+                    : GeoUtils.nearest(lat, lon, maximo);
+        } else {
+            vecinos = new ArrayList<>(GeoUtils.withinRadius(lat, lon, radioKm));
+            int excluir = origenOrdinal;
+            vecinos.removeIf(vecino -> vecino.ordinal() == excluir);
+        }
+        if (vecinos.size() > maximo) {
+            vecinos = vecinos.subList(0, maximo);
+        }
+
+        List<NearbyAirportDTO> aeropuertos = new ArrayList<>(vecinos.size());
+        for (AirportSpatialIndex.Vecino vecino : vecinos) {
+            String codigo = GeoUtils.getCodigoIATA(vecino.ordinal());
+            double[] coordenadas = GeoUtils.getCoordinates(codigo);
+            aeropuertos.add(NearbyAirportDTO.builder()
+                    .codigo(codigo)
+                    .nombre(GeoUtils.getAirportName(vecino.ordinal()))
+                    .latitud(coordenadas[0])
+                    .longitud(coordenadas[1])
+                    .distanciaKm(vecino.distanciaKm())
+                    .build());
+        }
+
+        NearbyAirportsResponseDTO respuesta = NearbyAirportsResponseDTO.builder()
+                .origen(origenOrdinal >= 0 ? GeoUtils.getCodigoIATA(origenOrdinal) : null)
+                .latitud(lat)
+                .longitud(lon)
+                .radioKm(radioKm)
+                .destino(destino)
+                .total(aeropuertos.size())
+                .aeropuertos(aeropuertos)
+                .build();
+
+        Mono<Void> predicciones = destino == null ? Mono.empty()
+                : adjuntarPredicciones(aeropuertos, aerolinea, destino, fechaPartida, modoPrediccion,
+                IdentificadorCliente.identificar(httpRequest, cabeceraCliente));
+
+        return predicciones.then(Mono.fromCallable(() -> {
+            respuesta.setTiempoRespuestaMs(System.currentTimeMillis() - inicio);
+            return ResponseEntity.ok(respuesta);
+        }));
+    }
+
+    /**
+     * Predice el vuelo de cada alternativa al destino, con un máximo de
+     * airports.nearby.prediction-concurrency predicciones en vuelo. Los
+     * errores (p. ej. la aerolínea no opera esa alternativa) quedan en el
+     * campo error del aeropuerto, igual que las rechazadas por el control
+     * de admisión.
+     */
+    private Mono<Void> adjuntarPredicciones(List<NearbyAirportDTO> aeropuertos, String aerolinea,
+                                            String destino, String fechaPartida, PredictionMode modo,
+                                            String cliente) {
+        return Flux.fromIterable(aeropuertos)
+                .flatMap(aeropuerto -> Mono.defer(() -> {
+                    if (aeropuerto.getCodigo().equals(destino)) {
+                        aeropuerto.setError("El aeropuerto es el destino");
+                        return Mono.empty();
+                    }
+                    AdmissionControl.Decision admision = admissionControl.admitir(cliente);
+                    if (admision.isRechazada()) {
+                        aeropuerto.setError(admision.motivo());
+                        return Mono.empty();
+                    }
+                    PredictionRequestDTO request = PredictionRequestDTO.builder()
+                            .aerolinea(aerolinea)
+                            .origen(aeropuerto.getCodigo())
+                            .destino(destino)
+                            .fechaPartida(fechaPartida)
+                            .build();
+                    Mono<PredictionResponseDTO> prediccion = admision.isDegradada()
+                            ? predictionService.predict(request, PredictionMode.MOCK)
+                            : modo != null
+                            ? predictionService.predict(request, modo)
+                            : predictionService.predict(request, false);
+                    return prediccion
+                            .doFinally(senal -> admissionControl.liberar())
+                            .doOnNext(aeropuerto::setPrediccion)
+                            .onErrorResume(e -> {
+                                aeropuerto.setError(e instanceof ResponseStatusException rse
+                                        ? rse.getReason() : e.getMessage());
+                                return Mono.empty();
+                            });
+                }), predictionConcurrency)
+                .then();
+    }
+
+    /**
+     * ========================================================================
+     * MANEJO DE ERRORES
+     * ========================================================================
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", ex.getReason());
+        error.put("status", ex.getStatusCode().value());
+
+        logger.warn("⚠️ Consulta de aeropuertos cercanos rechazada: {}", ex.getReason());
+
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+}
@@ -0,0 +1,34 @@
+package com.oracle.flightontime.controller;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Cliente de una solicitud para el control de admisión, compartido por los
+ * endpoints que predicen.
+ */
+final class IdentificadorCliente {
+
+    private IdentificadorCliente() {
+    }
+
+    /**
+     * La cabecera admission.client.header si está configurada y presente
+     * (p. ej. X-Forwarded-For detrás de un proxy; se usa la primera
+     * dirección), o la dirección remota.
+     *
+     * @param cabecera Cabecera configurada (vacía = dirección remota)
+     */
+    static String identificar(ServerHttpRequest httpRequest, String cabecera) {
+        if (!cabecera.isEmpty()) {
+            String valor = httpRequest.getHeaders().getFirst(cabecera);
+            if (valor != null && !valor.isBlank()) {
+                int coma = valor.indexOf(',');
+                return (coma >= 0 ? valor.substring(0, coma) : valor).trim();
+            }
+        }
+        InetSocketAddress remota = httpRequest.getRemoteAddress();
+        return remota != null && remota.getAddress() != null ? remota.getAddress().getHostAddress() : "";
+    }
+}
@@ -0,0 +1,112 @@
+package com.oracle.flightontime.controller;
+
+import com.oracle.flightontime.dto.NetworkForecastResultDTO;
+import com.oracle.flightontime.dto.NetworkForecastStatusDTO;
+import com.oracle.flightontime.forecast.NetworkForecastService;
+import com.oracle.flightontime.service.PredictionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * CONTROLADOR REST - PRONÓSTICO DE RED
+ * ============================================================================
+ * Pronóstico de todas las rutas de una aerolínea para un día, como trabajo
+ * asíncrono: se inicia con POST, se consulta el progreso con GET y se
+ * descarga la matriz de resultados al completarse.
+ * ============================================================================
+ */
+@RestController
+@RequestMapping("/api/network-forecast")
+@CrossOrigin(origins = "*")
+public class NetworkForecastController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkForecastController.class);
+
+    private final NetworkForecastService networkForecastService;
+
+    public NetworkForecastController(NetworkForecastService networkForecastService) {
+        this.networkForecastService = networkForecastService;
+    }
+
+    /**
+     * POST /api/network-forecast?aerolinea=2&fecha=2026-01-15&horas=6-22&modo=local
+     *
+     * fecha por defecto es mañana, horas por defecto 0-23 y modo por defecto
+     * local si hay modelo cargado (si no, real). Responde 202 con el estado
+     * inicial y la cabecera Location del trabajo.
+     */
+    @PostMapping
+    public ResponseEntity<NetworkForecastStatusDTO> iniciar(
+            @RequestParam("aerolinea") String aerolinea,
+            @RequestParam(value = "fecha", required = false) String fecha,
+            @RequestParam(value = "horas", required = false) String horas,
+            @RequestParam(value = "modo", required = false) String modo) {
+
+        LocalDate dia;
+        try {
+            dia = fecha == null || fecha.isBlank() ? LocalDate.now().plusDays(1) : LocalDate.parse(fecha);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fecha no válida. Use el formato yyyy-MM-dd");
+        }
+        PredictionMode modoPronostico = modo == null ? null : PredictionMode.desdeParametro(modo);
+
+        NetworkForecastStatusDTO estado = networkForecastService.iniciar(aerolinea, dia,
+                NetworkForecastService.parsearHoras(horas), modoPronostico);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/network-forecast/" + estado.getId()))
+                .body(estado);
+    }
+
+    /**
+     * GET /api/network-forecast/{id} - estado y progreso del trabajo
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<NetworkForecastStatusDTO> estado(@PathVariable("id") String id) {
+        return ResponseEntity.ok(networkForecastService.getEstado(id));
+    }
+
+    /**
+     * GET /api/network-forecast/{id}/resultado - matriz ruta × hora
+     * (409 mientras el trabajo no esté completado)
+     */
+    @GetMapping("/{id}/resultado")
+    public ResponseEntity<NetworkForecastResultDTO> resultado(@PathVariable("id") String id) {
+        return ResponseEntity.ok(networkForecastService.getResultado(id));
+    }
+
+    /**
+     * DELETE /api/network-forecast/{id} - cancela un trabajo en curso
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<NetworkForecastStatusDTO> cancelar(@PathVariable("id") String id) {
+        return ResponseEntity.ok(networkForecastService.cancelar(id));
+    }
+
+    /**
+     * ========================================================================
+     * MANEJO DE ERRORES
+     * ========================================================================
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", ex.getReason());
+        error.put("status", ex.getStatusCode().value());
+
+        logger.warn("⚠️ Pronóstico de red rechazado: {}", ex.getReason());
+
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+}
@@ -1,16 +1,40 @@
 package com.oracle.flightontime.controller;
 
+import com.oracle.flightontime.audit.PredictionAuditLog;
+import com.oracle.flightontime.cache.PersistentPredictionCache;
+import com.oracle.flightontime.cache.PredictionCache;
+import com.oracle.flightontime.dto.BatchPredictionItemDTO;
+import com.oracle.flightontime.dto.BatchPredictionResponseDTO;
 import com.oracle.flightontime.dto.PredictionRequestDTO;
 import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.metrics.PredictionMetrics;
+import com.oracle.flightontime.reference.ReferenceDataWatcher;
+import com.oracle.flightontime.resilience.AdmissionControl;
+import com.oracle.flightontime.resilience.CircuitBreaker;
+import com.oracle.flightontime.schedule.ScheduleService;
+import com.oracle.flightontime.service.PredictionMode;
 import com.oracle.flightontime.service.PredictionService;
+import com.oracle.flightontime.weather.WeatherService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,8 +54,49 @@ public class PredictionController {
 
     private final PredictionService predictionService;
 
-    public PredictionController(PredictionService predictionService) {
+    private final PredictionCache predictionCache;
+
+    private final PersistentPredictionCache persistentCache;
+
+    private final LocalModelService localModelService;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final PredictionMetrics metrics;
+
+    private final WeatherService weatherService;
+
+    private final PredictionAuditLog auditLog;
+
+    private final ReferenceDataWatcher referenceData;
+
+    private final AdmissionControl admissionControl;
+
+    private final ScheduleService scheduleService;
+
+    /** Cabecera que identifica al cliente (vacía = dirección remota) */
+    private final String cabeceraCliente;
+
+    public PredictionController(PredictionService predictionService, PredictionCache predictionCache,
+                                PersistentPredictionCache persistentCache,
+                                LocalModelService localModelService,
+                                @Qualifier("mlServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+                                PredictionMetrics metrics, WeatherService weatherService,
+                                PredictionAuditLog auditLog, ReferenceDataWatcher referenceData,
+                                AdmissionControl admissionControl, ScheduleService scheduleService,
+                                @Value("${admission.client.header:}") String cabeceraCliente) {
         this.predictionService = predictionService;
+        this.predictionCache = predictionCache;
+        this.persistentCache = persistentCache;
+        this.localModelService = localModelService;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.weatherService = weatherService;
+        this.auditLog = auditLog;
+        this.referenceData = referenceData;
+        this.admissionControl = admissionControl;
+        this.scheduleService = scheduleService;
+        this.cabeceraCliente = cabeceraCliente;
     }
 
     /**
@@ -41,56 +106,154 @@ public class PredictionController {
      * POST /api/predict
      * 
      * Acepta parámetro opcional ?mock=true para usar modo mock
-     * Por defecto usa el modo real con integración ML
+     * y ?modo=mock|real|local para elegir el modo explícitamente.
+     * Por defecto usa el modo configurado en ml.service.default-mode
+     *
+     * Pasa por el control de admisión (admission.*): con el cliente por
+     * encima de su tasa o el servicio sobrecargado responde 429 con
+     * Retry-After o degrada la predicción a mock, según admission.policy.
      * ========================================================================
      */
     @PostMapping("/predict")
-    public ResponseEntity<PredictionResponseDTO> predict(
+    public Mono<ResponseEntity<PredictionResponseDTO>> predict(
             @Valid @RequestBody PredictionRequestDTO request,
-            @RequestParam(value = "mock", defaultValue = "false") boolean useMock) {
+            @RequestParam(value = "mock", defaultValue = "false") boolean useMock,
+            @RequestParam(value = "modo", required = false) String modo,
+            ServerHttpRequest httpRequest) {
 
-        try {
-            logger.info(" Recibida solicitud de predicción: {} {} → {}",
-                    request.getAerolinea(),
-                    request.getOrigen(),
-                    request.getDestino());
-
-            // Validación adicional de negocio
-            if (request.getOrigen().equals(request.getDestino())) {
-                logger.warn("Origen y destino son iguales: {}", request.getOrigen());
-                return ResponseEntity.badRequest().build();
-            }
-
-            // Ejecutar predicción
-            PredictionResponseDTO response = predictionService.predict(request, useMock);
-
-            logger.info("📤 Respuesta enviada: {} (confianza: {}%)",
-                    response.getPrediccion(),
-                    response.getConfianza() * 100);
-
-            return ResponseEntity.ok(response);
-
-        } catch (org.springframework.web.server.ResponseStatusException e) {
-            // Error de validación de datos
-            logger.warn("⚠️ Error de validación: {}", e.getReason());
-
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", e.getReason());
-            errorResponse.put("status", e.getStatusCode().value());
-
-            return ResponseEntity.status(e.getStatusCode()).body(
-                    PredictionResponseDTO.builder()
-                            .prediccion(-1)  // -1 indica error
-                            .probabilidadRetraso(0.0)
-                            .confianza(0.0)
-                            .distanciaKm(0.0)
-                            .metadata(errorResponse)
-                            .modoMock(false)
-                            .build());
-        } catch (Exception e) {
-            logger.error("❌ Error en endpoint /predict: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        String correlacion = obtenerCorrelacion(httpRequest);
+
+        // Validación adicional de negocio
+        if (request.getOrigen().equals(request.getDestino())) {
+            logger.warn("Origen y destino son iguales: {}", request.getOrigen());
+            metrics.registrarRechazoValidacion("origen_igual_destino");
+            return Mono.just(ResponseEntity.badRequest()
+                    .header(PredictionAuditLog.CABECERA_CORRELACION, correlacion).build());
+        }
+
+        // Control de admisión
+        AdmissionControl.Decision admision = admissionControl.admitir(
+                IdentificadorCliente.identificar(httpRequest, cabeceraCliente));
+        if (admision.isRechazada()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(admision.reintentarEnSegundos()))
+                    .header(PredictionAuditLog.CABECERA_CORRELACION, correlacion)
+                    .body(PredictionResponseDTO.deError(admision.motivo(), HttpStatus.TOO_MANY_REQUESTS.value())));
         }
+
+        // Ejecutar predicción
+        Mono<PredictionResponseDTO> prediccion = Mono.defer(() -> admision.isDegradada()
+                ? predictionService.predict(request, PredictionMode.MOCK)
+                : useMock || modo == null
+                ? predictionService.predict(request, useMock)
+                : predictionService.predict(request, PredictionMode.desdeParametro(modo)));
+
+        return prediccion
+                .doFinally(senal -> admissionControl.liberar())
+                .map(response -> ResponseEntity.ok()
+                        .header(PredictionAuditLog.CABECERA_CORRELACION, correlacion)
+                        .body(response))
+                .onErrorResume(ResponseStatusException.class, e -> {
+                    // Error de validación de datos
+                    logger.warn("⚠️ Error de validación: {}", e.getReason());
+                    return Mono.just(construirRespuestaError(e, correlacion));
+                })
+                .onErrorResume(e -> {
+                    logger.error("❌ Error en endpoint /predict: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .header(PredictionAuditLog.CABECERA_CORRELACION, correlacion)
+                            .build());
+                })
+                .contextWrite(Context.of(PredictionAuditLog.CORRELACION, correlacion));
+    }
+
+    /**
+     * Id de correlación de la solicitud: la cabecera X-Correlation-Id si el
+     * cliente la envía, o el id que Netty asigna a la solicitud HTTP.
+     */
+    private static String obtenerCorrelacion(ServerHttpRequest httpRequest) {
+        String cabecera = httpRequest.getHeaders().getFirst(PredictionAuditLog.CABECERA_CORRELACION);
+        return cabecera != null && !cabecera.isBlank() ? cabecera : httpRequest.getId();
+    }
+
+    /**
+     * ========================================================================
+     * ENDPOINT DE PREDICCIÓN POR LOTES
+     * ========================================================================
+     * POST /api/predict/batch
+     *
+     * Acepta una lista de solicitudes y devuelve un resultado por elemento
+     * (predicción o error de validación) en el mismo orden de entrada.
+     * Acepta el mismo parámetro opcional ?mock=true que /api/predict.
+     * ========================================================================
+     */
+    @PostMapping("/predict/batch")
+    public Mono<ResponseEntity<BatchPredictionResponseDTO>> predictBatch(
+            @RequestBody List<PredictionRequestDTO> requests,
+            @RequestParam(value = "mock", defaultValue = "false") boolean useMock) {
+
+        return predictionService.predictBatch(requests, useMock)
+                .map(ResponseEntity::ok)
+                .onErrorResume(ResponseStatusException.class, e -> {
+                    logger.warn("⚠️ Lote rechazado: {}", e.getReason());
+
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("error", e.getReason());
+                    errorResponse.put("status", e.getStatusCode().value());
+
+                    return Mono.just(ResponseEntity.status(e.getStatusCode()).body(
+                            BatchPredictionResponseDTO.builder()
+                                    .total(requests != null ? requests.size() : 0)
+                                    .exitosos(0)
+                                    .fallidos(requests != null ? requests.size() : 0)
+                                    .resultados(List.of())
+                                    .metadata(errorResponse)
+                                    .build()));
+                })
+                .onErrorResume(e -> {
+                    logger.error("❌ Error en endpoint /predict/batch: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
+
+    /**
+     * ========================================================================
+     * ENDPOINT DE PREDICCIÓN EN FLUJO
+     * ========================================================================
+     * POST /api/predict/stream
+     *
+     * Recibe una solicitud JSON por línea (application/x-ndjson) y responde
+     * con un resultado por línea a medida que se completan, en NDJSON o como
+     * Server-Sent Events según el encabezado Accept. Los errores de cada
+     * línea se informan en su resultado sin cortar el flujo.
+     * Acepta los mismos parámetros ?mock=true y ?modo= que /api/predict.
+     * ========================================================================
+     */
+    @PostMapping(value = "/predict/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BatchPredictionItemDTO> predictStream(
+            @RequestBody Flux<String> lineas,
+            @RequestParam(value = "mock", defaultValue = "false") boolean useMock,
+            @RequestParam(value = "modo", required = false) String modo,
+            ServerHttpRequest httpRequest) {
+
+        PredictionMode modoStream = useMock ? PredictionMode.MOCK
+                : modo != null ? PredictionMode.desdeParametro(modo) : null;
+
+        return predictionService.predictStream(lineas, modoStream)
+                .contextWrite(Context.of(PredictionAuditLog.CORRELACION, obtenerCorrelacion(httpRequest)));
+    }
+
+    /**
+     * Construye la respuesta de error de negocio (prediccion = -1) a partir de
+     * una excepción de validación, con el id de correlación de la auditoría.
+     */
+    private ResponseEntity<PredictionResponseDTO> construirRespuestaError(ResponseStatusException e,
+                                                                          String correlacion) {
+        return ResponseEntity.status(e.getStatusCode())
+                .header(PredictionAuditLog.CABECERA_CORRELACION, correlacion)
+                .body(PredictionResponseDTO.deError(e.getReason(), e.getStatusCode().value()));
     }
 
     /**
@@ -108,6 +271,17 @@ public class PredictionController {
         health.put("service", "FlightOnTime Backend");
         health.put("version", "1.0.0");
         health.put("timestamp", System.currentTimeMillis());
+        health.put("cache", predictionCache.getStats());
+        health.put("cache_persistente", persistentCache.getStats());
+        health.put("modelo_local", localModelService.getStats());
+        health.put("circuito_ml", circuitBreaker.getStats());
+        health.put("clima", weatherService.getStats());
+        health.put("coalescencia_ml", predictionService.getCoalescenciaStats());
+        health.put("limite_concurrencia_ml", predictionService.getLimiteConcurrenciaStats());
+        health.put("auditoria", auditLog.getStats());
+        health.put("datos_referencia", referenceData.getStats());
+        health.put("admision", admissionControl.getStats());
+        health.put("horario", scheduleService.getStats());
 
         return ResponseEntity.ok(health);
     }
@@ -134,7 +308,8 @@ public class PredictionController {
         predictEndpoint.put("url", "/api/predict");
         predictEndpoint.put("descripcion", "Predice si un vuelo será puntual o retrasado");
         predictEndpoint.put("parametros", Map.of(
-                "mock", "boolean (opcional) - Usar modo mock si es true"));
+                "mock", "boolean (opcional) - Usar modo mock si es true",
+                "modo", "string (opcional) - mock, real o local (modelo evaluado en el backend)"));
         predictEndpoint.put("body_ejemplo", Map.of(
                 "aerolinea", "LATAM",
                 "origen", "GRU",
@@ -143,6 +318,83 @@ public class PredictionController {
 
         endpoints.put("predict", predictEndpoint);
 
+        // Documentar endpoint de predicción por lotes
+        Map<String, Object> batchEndpoint = new HashMap<>();
+        batchEndpoint.put("metodo", "POST");
+        batchEndpoint.put("url", "/api/predict/batch");
+        batchEndpoint.put("descripcion", "Predice una lista de vuelos; devuelve un resultado por elemento en el orden de entrada");
+        batchEndpoint.put("parametros", Map.of(
+                "mock", "boolean (opcional) - Usar modo mock si es true"));
+        batchEndpoint.put("body_ejemplo", List.of(
+                Map.of("aerolinea", "1", "origen", "ATL", "destino", "LGA",
+                        "fecha_partida", "2026-01-15T14:30:00"),
+                Map.of("aerolinea", "2", "origen", "DAL", "destino", "HOU",
+                        "fecha_partida", "2026-01-15T08:00:00")));
+
+        endpoints.put("predict_batch", batchEndpoint);
+
+        // Documentar endpoint de predicción en flujo
+        Map<String, Object> streamEndpoint = new HashMap<>();
+        streamEndpoint.put("metodo", "POST");
+        streamEndpoint.put("url", "/api/predict/stream");
+        streamEndpoint.put("descripcion", "Predicción en flujo: una solicitud JSON por línea (application/x-ndjson); "
+                + "emite un resultado por línea a medida que se completa (NDJSON o text/event-stream)");
+        streamEndpoint.put("parametros", Map.of(
+                "mock", "boolean (opcional) - Usar modo mock si es true",
+                "modo", "string (opcional) - mock, real o local"));
+        streamEndpoint.put("body_ejemplo",
+                "{\"aerolinea\":\"1\",\"origen\":\"ATL\",\"destino\":\"LGA\",\"fecha_partida\":\"2026-01-15T14:30:00\"}\n"
+                        + "{\"aerolinea\":\"2\",\"origen\":\"DAL\",\"destino\":\"HOU\",\"fecha_partida\":\"2026-01-15T08:00:00\"}\n");
+
+        endpoints.put("predict_stream", streamEndpoint);
+
+        // Documentar endpoint de pronóstico de red
+        Map<String, Object> networkEndpoint = new HashMap<>();
+        networkEndpoint.put("metodo", "POST");
+        networkEndpoint.put("url", "/api/network-forecast");
+        networkEndpoint.put("descripcion", "Pronóstico asíncrono de todas las rutas de una aerolínea para un día; "
+                + "consultar progreso en GET /api/network-forecast/{id} y la matriz ruta × hora en "
+                + "GET /api/network-forecast/{id}/resultado (DELETE cancela)");
+        networkEndpoint.put("parametros", Map.of(
+                "aerolinea", "string - 1 o 2",
+                "fecha", "string (opcional) - yyyy-MM-dd, por defecto mañana",
+                "horas", "string (opcional) - rango (6-22) o lista (6,12,18), por defecto 0-23",
+                "modo", "string (opcional) - mock, real o local (por defecto local si hay modelo)"));
+
+        endpoints.put("network_forecast", networkEndpoint);
+
+        // Documentar endpoint de aeropuertos cercanos
+        Map<String, Object> nearbyEndpoint = new HashMap<>();
+        nearbyEndpoint.put("metodo", "GET");
+        nearbyEndpoint.put("url", "/api/airports/nearby");
+        nearbyEndpoint.put("descripcion", "Aeropuertos alternativos cercanos a un aeropuerto o a unas coordenadas, "
+                + "opcionalmente con la predicción de cada alternativa al destino");
+        nearbyEndpoint.put("parametros", Map.of(
+                "origen", "string (opcional) - código IATA de referencia (o lat y lon)",
+                "lat, lon", "number (opcional) - coordenadas de referencia",
+                "radio_km", "number (opcional) - radio de búsqueda; sin él, los más cercanos",
+                "limite", "int (opcional) - máximo de aeropuertos, por defecto 10",
+                "aerolinea, destino", "string (opcional) - adjunta la predicción de cada alternativa al destino",
+                "fecha_partida", "string (opcional) - ISO-8601",
+                "modo", "string (opcional) - mock, real o local"));
+
+        endpoints.put("airports_nearby", nearbyEndpoint);
+
+        // Documentar endpoints del horario publicado
+        Map<String, Object> scheduleEndpoint = new HashMap<>();
+        scheduleEndpoint.put("metodo", "GET");
+        scheduleEndpoint.put("url", "/api/schedule/flights");
+        scheduleEndpoint.put("descripcion", "Predicciones materializadas del horario importado para un aeropuerto "
+                + "y una ventana de partida; el horario se importa con POST /api/schedule/import (NDJSON, una fila "
+                + "por vuelo con \"vuelo\" opcional) y el estado en GET /api/schedule/status");
+        scheduleEndpoint.put("parametros", Map.of(
+                "aeropuerto", "string - código IATA",
+                "desde, hasta", "string (opcional) - yyyy-MM-ddTHH:mm:ss, por defecto la hora en curso y 24 h después",
+                "sentido", "string (opcional) - salidas (por defecto), llegadas o todos",
+                "limite", "int (opcional) - máximo de vuelos, por defecto 200"));
+
+        endpoints.put("schedule_flights", scheduleEndpoint);
+
         // Documentar endpoint de salud
         Map<String, Object> healthEndpoint = new HashMap<>();
         healthEndpoint.put("metodo", "GET");
@@ -161,20 +413,20 @@ public class PredictionController {
      * MANEJO DE ERRORES DE VALIDACIÓN
      * ========================================================================
      */
-    @ExceptionHandler(org.springframework.web.bind.MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, Object>> handleValidationErrors(
-            org.springframework.web.bind.MethodArgumentNotValidException ex) {
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleValidationErrors(WebExchangeBindException ex) {
 
         Map<String, Object> errors = new HashMap<>();
         errors.put("error", "Validación fallida");
 
         Map<String, String> fieldErrors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors()
+        ex.getFieldErrors()
                 .forEach(error -> fieldErrors.put(error.getField(), error.getDefaultMessage()));
 
         errors.put("campos", fieldErrors);
 
         logger.warn("⚠️ Error de validación: {}", fieldErrors);
+        metrics.registrarRechazoValidacion("campos");
 
         return ResponseEntity.badRequest().body(errors);
     }
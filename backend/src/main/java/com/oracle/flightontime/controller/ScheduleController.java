@@ -0,0 +1,150 @@
+package com.oracle.flightontime.controller;
+
+import com.oracle.flightontime.dto.ScheduleImportResultDTO;
+import com.oracle.flightontime.dto.ScheduleQueryResponseDTO;
+import com.oracle.flightontime.schedule.ScheduleService;
+import com.oracle.flightontime.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * CONTROLADOR REST - HORARIO PUBLICADO
+ * ============================================================================
+ * Importación del horario (una fila JSON por vuelo) y consulta de las
+ * predicciones materializadas por aeropuerto y ventana de partida. Las
+ * predicciones se mantienen al día en segundo plano (ver ScheduleService).
+ * ============================================================================
+ */
+@RestController
+@RequestMapping("/api/schedule")
+@CrossOrigin(origins = "*")
+public class ScheduleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleController.class);
+
+    /** Vuelos devueltos si no se indica limite */
+    private static final int LIMITE_POR_DEFECTO = 200;
+
+    private final ScheduleService scheduleService;
+    private final int maxResults;
+
+    public ScheduleController(ScheduleService scheduleService,
+                              @Value("${schedule.max-results:1000}") int maxResults) {
+        this.scheduleService = scheduleService;
+        this.maxResults = Math.max(1, maxResults);
+    }
+
+    /**
+     * POST /api/schedule/import?reemplazar=true
+     *
+     * Cuerpo NDJSON: una fila por vuelo con los campos de /api/predict y un
+     * "vuelo" opcional (número de vuelo). Con reemplazar=true (por defecto)
+     * el cuerpo es el horario completo y los vuelos ausentes se eliminan;
+     * con false solo se agregan o actualizan. Solo los vuelos nuevos o con
+     * otra ruta u hora de partida se recalculan.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ScheduleImportResultDTO>> importar(
+            @RequestBody Flux<String> lineas,
+            @RequestParam(value = "reemplazar", defaultValue = "true") boolean reemplazar) {
+
+        return lineas.collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(filas -> ResponseEntity.ok(scheduleService.importarLineas(filas, reemplazar, "api")));
+    }
+
+    /**
+     * GET /api/schedule/flights?aeropuerto=ATL&desde=2026-01-15T06:00:00&hasta=2026-01-15T12:00:00&sentido=salidas
+     *
+     * Vuelos con partida en [desde, hasta). desde por defecto es la hora en
+     * curso y hasta, 24 horas después. sentido: salidas (por defecto),
+     * llegadas o todos.
+     */
+    @GetMapping("/flights")
+    public ResponseEntity<ScheduleQueryResponseDTO> flights(
+            @RequestParam("aeropuerto") String aeropuerto,
+            @RequestParam(value = "desde", required = false) String desde,
+            @RequestParam(value = "hasta", required = false) String hasta,
+            @RequestParam(value = "sentido", defaultValue = "salidas") String sentido,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+
+        long inicio = System.currentTimeMillis();
+        String codigo = aeropuerto.trim().toUpperCase(Locale.ROOT);
+        if (GeoUtils.getOrdinal(codigo) < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Aeropuerto desconocido: " + aeropuerto);
+        }
+        String sentidoConsulta = sentido.trim().toLowerCase(Locale.ROOT);
+        if (!sentidoConsulta.equals("salidas") && !sentidoConsulta.equals("llegadas")
+                && !sentidoConsulta.equals("todos")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "sentido no válido. Use: salidas, llegadas o todos");
+        }
+        int maximo = limite != null ? limite : LIMITE_POR_DEFECTO;
+        if (maximo < 1 || maximo > maxResults) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("limite debe estar entre 1 y %d", maxResults));
+        }
+
+        LocalDateTime inicioVentana = desde != null
+                ? parsearFecha(desde, "desde") : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime finVentana = hasta != null ? parsearFecha(hasta, "hasta") : inicioVentana.plusHours(24);
+        if (!finVentana.isAfter(inicioVentana)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "hasta debe ser posterior a desde");
+        }
+
+        ScheduleQueryResponseDTO respuesta = scheduleService.consultar(codigo, sentidoConsulta,
+                inicioVentana, finVentana, maximo);
+        respuesta.setTiempoRespuestaMs(System.currentTimeMillis() - inicio);
+        return ResponseEntity.ok(respuesta);
+    }
+
+    /**
+     * GET /api/schedule/status - tamaño del horario, pendientes y recálculos por motivo
+     */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(scheduleService.getStats());
+    }
+
+    private static LocalDateTime parsearFecha(String valor, String parametro) {
+        try {
+            return LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    parametro + " no válido. Use el formato yyyy-MM-ddTHH:mm:ss");
+        }
+    }
+
+    /**
+     * ========================================================================
+     * MANEJO DE ERRORES
+     * ========================================================================
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", ex.getReason());
+        error.put("status", ex.getStatusCode().value());
+
+        logger.warn("⚠️ Solicitud de horario rechazada: {}", ex.getReason());
+
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+}
@@ -0,0 +1,53 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ============================================================================
+ * DTO - RESULTADO INDIVIDUAL DE UN LOTE
+ * ============================================================================
+ * Resultado de un elemento de una predicción por lotes o de una línea del
+ * flujo NDJSON. Contiene la predicción o el error del elemento, nunca ambos.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchPredictionItemDTO {
+
+    /**
+     * Posición del elemento en la lista de entrada, o número de línea en el
+     * flujo (base 0). Null en el error que interrumpe un flujo.
+     */
+    @JsonProperty("indice")
+    private Integer indice;
+
+    /**
+     * Predicción calculada (null si el elemento no pasó la validación)
+     */
+    @JsonProperty("resultado")
+    private PredictionResponseDTO resultado;
+
+    /**
+     * Mensaje de error del elemento (null si la predicción fue exitosa)
+     */
+    @JsonProperty("error")
+    private String error;
+
+    // Getters
+    public Integer getIndice() { return indice; }
+    public PredictionResponseDTO getResultado() { return resultado; }
+    public String getError() { return error; }
+
+    // Setters
+    public void setIndice(Integer indice) { this.indice = indice; }
+    public void setResultado(PredictionResponseDTO resultado) { this.resultado = resultado; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,69 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * DTO DE SALIDA - RESPUESTA DE PREDICCIÓN POR LOTES
+ * ============================================================================
+ * Agrupa los resultados de POST /api/predict/batch en el mismo orden que
+ * la lista de entrada, junto con contadores y metadata del lote.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPredictionResponseDTO {
+
+    /**
+     * Número de elementos recibidos
+     */
+    @JsonProperty("total")
+    private Integer total;
+
+    /**
+     * Número de elementos con predicción
+     */
+    @JsonProperty("exitosos")
+    private Integer exitosos;
+
+    /**
+     * Número de elementos rechazados por validación
+     */
+    @JsonProperty("fallidos")
+    private Integer fallidos;
+
+    /**
+     * Resultados individuales, en el orden de entrada
+     */
+    @JsonProperty("resultados")
+    private List<BatchPredictionItemDTO> resultados;
+
+    /**
+     * Metadata del lote (modo, tamaño de bloque, tiempos, etc.)
+     */
+    @JsonProperty("metadata")
+    private Map<String, Object> metadata;
+
+    // Getters
+    public Integer getTotal() { return total; }
+    public Integer getExitosos() { return exitosos; }
+    public Integer getFallidos() { return fallidos; }
+    public List<BatchPredictionItemDTO> getResultados() { return resultados; }
+    public Map<String, Object> getMetadata() { return metadata; }
+
+    // Setters
+    public void setTotal(Integer total) { this.total = total; }
+    public void setExitosos(Integer exitosos) { this.exitosos = exitosos; }
+    public void setFallidos(Integer fallidos) { this.fallidos = fallidos; }
+    public void setResultados(List<BatchPredictionItemDTO> resultados) { this.resultados = resultados; }
+    public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
+}
@@ -0,0 +1,55 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ============================================================================
+ * DTO - AEROPUERTO CERCANO
+ * ============================================================================
+ * Aeropuerto alternativo devuelto por GET /api/airports/nearby, con su
+ * distancia al punto de consulta y, si se pidió, la predicción del vuelo
+ * desde este aeropuerto al destino indicado (o el error de validación).
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NearbyAirportDTO {
+
+    @JsonProperty("codigo")
+    private String codigo;
+
+    @JsonProperty("nombre")
+    private String nombre;
+
+    @JsonProperty("latitud")
+    private Double latitud;
+
+    @JsonProperty("longitud")
+    private Double longitud;
+
+    /**
+     * Distancia al punto de consulta en kilómetros
+     */
+    @JsonProperty("distancia_km")
+    private Double distanciaKm;
+
+    /**
+     * Predicción desde este aeropuerto al destino (solo con ?destino=)
+     */
+    @JsonProperty("prediccion")
+    private PredictionResponseDTO prediccion;
+
+    /**
+     * Motivo por el que no hay predicción (p. ej. la aerolínea no opera el aeropuerto)
+     */
+    @JsonProperty("error")
+    private String error;
+}
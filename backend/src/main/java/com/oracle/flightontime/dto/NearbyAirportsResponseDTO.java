@@ -0,0 +1,59 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ============================================================================
+ * DTO DE SALIDA - AEROPUERTOS CERCANOS
+ * ============================================================================
+ * Respuesta de GET /api/airports/nearby: el punto de consulta y los
+ * aeropuertos encontrados, del más cercano al más lejano.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NearbyAirportsResponseDTO {
+
+    /**
+     * Aeropuerto de referencia (null si se consultó por coordenadas)
+     */
+    @JsonProperty("origen")
+    private String origen;
+
+    @JsonProperty("latitud")
+    private Double latitud;
+
+    @JsonProperty("longitud")
+    private Double longitud;
+
+    /**
+     * Radio de búsqueda (null en la consulta de los k más cercanos)
+     */
+    @JsonProperty("radio_km")
+    private Double radioKm;
+
+    /**
+     * Destino de las predicciones adjuntas (null si no se pidieron)
+     */
+    @JsonProperty("destino")
+    private String destino;
+
+    @JsonProperty("total")
+    private Integer total;
+
+    @JsonProperty("aeropuertos")
+    private List<NearbyAirportDTO> aeropuertos;
+
+    @JsonProperty("tiempo_respuesta_ms")
+    private Long tiempoRespuestaMs;
+}
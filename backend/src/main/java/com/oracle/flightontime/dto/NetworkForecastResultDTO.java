@@ -0,0 +1,77 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ============================================================================
+ * DTO - RESULTADO DE UN PRONÓSTICO DE RED
+ * ============================================================================
+ * Formato compacto de matriz ruta × hora:
+ * - aeropuertos: códigos IATA de la red de la aerolínea
+ * - ruta_origen / ruta_destino: índices en aeropuertos de cada ruta
+ * - distancias_km: distancia de cada ruta
+ * - probabilidades: probabilidad de retraso por ruta y hora, fila por ruta
+ *   (índice = ruta * horas.length + hora), como entero escalado por
+ *   "escala" (10000 = 100%); -1 si no hay dato
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkForecastResultDTO {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("aerolinea")
+    private String aerolinea;
+
+    @JsonProperty("fecha")
+    private String fecha;
+
+    @JsonProperty("modo")
+    private String modo;
+
+    @JsonProperty("modelo_version")
+    private String modeloVersion;
+
+    @JsonProperty("horas")
+    private int[] horas;
+
+    @JsonProperty("aeropuertos")
+    private String[] aeropuertos;
+
+    @JsonProperty("ruta_origen")
+    private int[] rutaOrigen;
+
+    @JsonProperty("ruta_destino")
+    private int[] rutaDestino;
+
+    @JsonProperty("distancias_km")
+    private double[] distanciasKm;
+
+    @JsonProperty("escala")
+    private Integer escala;
+
+    @JsonProperty("probabilidades")
+    private int[] probabilidades;
+
+    // Getters
+    public String getId() { return id; }
+    public String getAerolinea() { return aerolinea; }
+    public String getFecha() { return fecha; }
+    public String getModo() { return modo; }
+    public String getModeloVersion() { return modeloVersion; }
+    public int[] getHoras() { return horas; }
+    public String[] getAeropuertos() { return aeropuertos; }
+    public int[] getRutaOrigen() { return rutaOrigen; }
+    public int[] getRutaDestino() { return rutaDestino; }
+    public double[] getDistanciasKm() { return distanciasKm; }
+    public Integer getEscala() { return escala; }
+    public int[] getProbabilidades() { return probabilidades; }
+}
@@ -0,0 +1,101 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ============================================================================
+ * DTO - ESTADO DE UN PRONÓSTICO DE RED
+ * ============================================================================
+ * Estado y progreso de un trabajo de pronóstico de toda la red de una
+ * aerolínea (todas las rutas × horas de partida de un día).
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NetworkForecastStatusDTO {
+
+    @JsonProperty("id")
+    private String id;
+
+    /**
+     * EN_CURSO, COMPLETADO, FALLIDO o CANCELADO
+     */
+    @JsonProperty("estado")
+    private String estado;
+
+    @JsonProperty("aerolinea")
+    private String aerolinea;
+
+    @JsonProperty("fecha")
+    private String fecha;
+
+    @JsonProperty("horas")
+    private List<Integer> horas;
+
+    @JsonProperty("modo")
+    private String modo;
+
+    @JsonProperty("rutas")
+    private Integer rutas;
+
+    @JsonProperty("total_predicciones")
+    private Integer totalPredicciones;
+
+    @JsonProperty("completadas")
+    private Integer completadas;
+
+    @JsonProperty("progreso_pct")
+    private Double progresoPct;
+
+    /**
+     * Bloques resueltos con el fallback mock (solo modo real)
+     */
+    @JsonProperty("bloques_fallback")
+    private Integer bloquesFallback;
+
+    @JsonProperty("inicio")
+    private String inicio;
+
+    @JsonProperty("fin")
+    private String fin;
+
+    @JsonProperty("duracion_ms")
+    private Long duracionMs;
+
+    @JsonProperty("error")
+    private String error;
+
+    /**
+     * URL del resultado, presente cuando el trabajo está COMPLETADO
+     */
+    @JsonProperty("resultado_url")
+    private String resultadoUrl;
+
+    // Getters
+    public String getId() { return id; }
+    public String getEstado() { return estado; }
+    public String getAerolinea() { return aerolinea; }
+    public String getFecha() { return fecha; }
+    public List<Integer> getHoras() { return horas; }
+    public String getModo() { return modo; }
+    public Integer getRutas() { return rutas; }
+    public Integer getTotalPredicciones() { return totalPredicciones; }
+    public Integer getCompletadas() { return completadas; }
+    public Double getProgresoPct() { return progresoPct; }
+    public Integer getBloquesFallback() { return bloquesFallback; }
+    public String getInicio() { return inicio; }
+    public String getFin() { return fin; }
+    public Long getDuracionMs() { return duracionMs; }
+    public String getError() { return error; }
+    public String getResultadoUrl() { return resultadoUrl; }
+}
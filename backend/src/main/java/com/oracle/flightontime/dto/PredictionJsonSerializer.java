@@ -0,0 +1,262 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * SERIALIZADORES JSON DE LA RESPUESTA DE PREDICCIÓN
+ * ============================================================================
+ * Escriben PredictionResponseDTO, su clima y su metadata directamente en el
+ * JsonGenerator, campo a campo, sin introspección de propiedades ni mapas
+ * intermedios. Los nombres de campo están precodificados (SerializedString)
+ * y el JSON resultante es el mismo que producía la serialización por
+ * reflexión: mismas claves y mismo orden en la respuesta y el clima; en la
+ * metadata se omiten los campos ausentes.
+ * Los decimales con hasta 4 cifras decimales (probabilidades, distancias,
+ * clima) se escriben en punto fijo desde un buffer por hilo, sin crear el
+ * String de Double.toString; el número leído es el mismo double.
+ *
+ * Al agregar un campo a PredictionResponseDTO, WeatherDataDTO o
+ * PredictionMetadata hay que escribirlo también aquí.
+ * ============================================================================
+ */
+public final class PredictionJsonSerializer {
+
+    private PredictionJsonSerializer() {
+    }
+
+    /** Escala de los decimales escritos en punto fijo (4 cifras decimales) */
+    private static final double ESCALA = 10000.0;
+
+    /** Buffer de caracteres de escribirDecimal (un número por llamada) */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[24]);
+
+    // Respuesta
+    private static final SerializedString PREDICCION = new SerializedString("prediccion");
+    private static final SerializedString PROBABILIDAD_RETRASO = new SerializedString("probabilidad_retraso");
+    private static final SerializedString CONFIANZA = new SerializedString("confianza");
+    private static final SerializedString DISTANCIA_KM = new SerializedString("distancia_km");
+    private static final SerializedString CLIMA_ORIGEN = new SerializedString("clima_origen");
+    private static final SerializedString CLIMA_DESTINO = new SerializedString("clima_destino");
+    private static final SerializedString METADATA = new SerializedString("metadata");
+    private static final SerializedString MODO_MOCK = new SerializedString("modo_mock");
+
+    // Clima
+    private static final SerializedString TEMPERATURA = new SerializedString("temperatura");
+    private static final SerializedString HUMEDAD = new SerializedString("humedad");
+    private static final SerializedString PRESION = new SerializedString("presion");
+    private static final SerializedString VISIBILIDAD = new SerializedString("visibilidad");
+    private static final SerializedString VIENTO_VELOCIDAD = new SerializedString("viento_velocidad");
+    private static final SerializedString CONDICION = new SerializedString("condicion");
+    private static final SerializedString DESCRIPCION = new SerializedString("descripcion");
+
+    // Metadata
+    private static final SerializedString AEROLINEA = new SerializedString("aerolinea");
+    private static final SerializedString RUTA = new SerializedString("ruta");
+    private static final SerializedString ORIGEN_NOMBRE = new SerializedString("origen_nombre");
+    private static final SerializedString DESTINO_NOMBRE = new SerializedString("destino_nombre");
+    private static final SerializedString FECHA_PARTIDA = new SerializedString("fecha_partida");
+    private static final SerializedString TIMESTAMP_PREDICCION = new SerializedString("timestamp_prediccion");
+    private static final SerializedString MODO = new SerializedString("modo");
+    private static final SerializedString MENSAJE = new SerializedString("mensaje");
+    private static final SerializedString MODELO_VERSION = new SerializedString("modelo_version");
+    private static final SerializedString CLIMA_FUENTE = new SerializedString("clima_fuente");
+    private static final SerializedString CLIMA_ANTIGUEDAD_S = new SerializedString("clima_antiguedad_s");
+    private static final SerializedString TIEMPO_RESPUESTA_MS = new SerializedString("tiempo_respuesta_ms");
+    private static final SerializedString CACHE_HIT = new SerializedString("cache_hit");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString STATUS = new SerializedString("status");
+
+    /**
+     * Serializador de PredictionResponseDTO. Si la respuesta trae su JSON ya
+     * generado (caché en modo serializado), lo escribe tal cual.
+     */
+    public static final class ResponseSerializer extends StdSerializer<PredictionResponseDTO> {
+
+        public ResponseSerializer() {
+            super(PredictionResponseDTO.class);
+        }
+
+        @Override
+        public void serialize(PredictionResponseDTO value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            SerializableString json = value.jsonPrecalculado();
+            if (json != null) {
+                gen.writeRawValue(json);
+                return;
+            }
+
+            gen.writeStartObject(value);
+            gen.writeFieldName(PREDICCION);
+            gen.writeNumber(value.getPrediccion());
+            gen.writeFieldName(PROBABILIDAD_RETRASO);
+            escribirDecimal(value.getProbabilidadRetraso(), gen);
+            gen.writeFieldName(CONFIANZA);
+            escribirDecimal(value.getConfianza(), gen);
+            gen.writeFieldName(DISTANCIA_KM);
+            escribirDecimal(value.getDistanciaKm(), gen);
+            gen.writeFieldName(CLIMA_ORIGEN);
+            escribirClima(value.getClimaOrigen(), gen);
+            gen.writeFieldName(CLIMA_DESTINO);
+            escribirClima(value.getClimaDestino(), gen);
+            gen.writeFieldName(METADATA);
+            if (value.getMetadata() != null) {
+                escribirMetadata(value.getMetadata(), gen, provider);
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(MODO_MOCK);
+            gen.writeBoolean(value.isModoMock());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Serializador de PredictionMetadata cuando se escribe fuera de una
+     * respuesta.
+     */
+    public static final class MetadataSerializer extends StdSerializer<PredictionMetadata> {
+
+        public MetadataSerializer() {
+            super(PredictionMetadata.class);
+        }
+
+        @Override
+        public void serialize(PredictionMetadata value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            escribirMetadata(value, gen, provider);
+        }
+    }
+
+    private static void escribirClima(WeatherDataDTO clima, JsonGenerator gen) throws IOException {
+        if (clima == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject(clima);
+        gen.writeFieldName(TEMPERATURA);
+        escribirNumero(clima.getTemperatura(), gen);
+        gen.writeFieldName(HUMEDAD);
+        escribirNumero(clima.getHumedad(), gen);
+        gen.writeFieldName(PRESION);
+        escribirNumero(clima.getPresion(), gen);
+        gen.writeFieldName(VISIBILIDAD);
+        escribirNumero(clima.getVisibilidad(), gen);
+        gen.writeFieldName(VIENTO_VELOCIDAD);
+        escribirNumero(clima.getVientoVelocidad(), gen);
+        gen.writeFieldName(CONDICION);
+        gen.writeString(clima.getCondicion());
+        gen.writeFieldName(DESCRIPCION);
+        gen.writeString(clima.getDescripcion());
+        gen.writeEndObject();
+    }
+
+    private static void escribirMetadata(PredictionMetadata metadata, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(metadata);
+        escribirTexto(AEROLINEA, metadata.getAerolinea(), gen);
+        escribirTexto(RUTA, metadata.getRuta(), gen);
+        escribirTexto(ORIGEN_NOMBRE, metadata.getOrigenNombre(), gen);
+        escribirTexto(DESTINO_NOMBRE, metadata.getDestinoNombre(), gen);
+        escribirTexto(FECHA_PARTIDA, metadata.getFechaPartida(), gen);
+        escribirTexto(TIMESTAMP_PREDICCION, metadata.getTimestampPrediccion(), gen);
+        escribirTexto(MODO, metadata.getModo(), gen);
+        escribirTexto(MENSAJE, metadata.getMensaje(), gen);
+        escribirTexto(MODELO_VERSION, metadata.getModeloVersion(), gen);
+        escribirTexto(CLIMA_FUENTE, metadata.getClimaFuente(), gen);
+        if (metadata.getClimaAntiguedadS() != PredictionMetadata.SIN_VALOR) {
+            gen.writeFieldName(CLIMA_ANTIGUEDAD_S);
+            gen.writeNumber(metadata.getClimaAntiguedadS());
+        }
+        if (metadata.getTiempoRespuestaMs() != PredictionMetadata.SIN_VALOR) {
+            gen.writeFieldName(TIEMPO_RESPUESTA_MS);
+            gen.writeNumber(metadata.getTiempoRespuestaMs());
+        }
+        if (metadata.getCacheHit() != null) {
+            gen.writeFieldName(CACHE_HIT);
+            gen.writeBoolean(metadata.getCacheHit());
+        }
+        escribirTexto(ERROR, metadata.getError(), gen);
+        if (metadata.getStatus() != 0) {
+            gen.writeFieldName(STATUS);
+            gen.writeNumber(metadata.getStatus());
+        }
+        for (Map.Entry<String, Object> entrada : metadata.getExtra().entrySet()) {
+            provider.defaultSerializeField(entrada.getKey(), entrada.getValue(), gen);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void escribirTexto(SerializedString campo, String valor, JsonGenerator gen) throws IOException {
+        if (valor != null) {
+            gen.writeFieldName(campo);
+            gen.writeString(valor);
+        }
+    }
+
+    private static void escribirNumero(Double valor, JsonGenerator gen) throws IOException {
+        if (valor != null) {
+            escribirDecimal(valor, gen);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void escribirNumero(Integer valor, JsonGenerator gen) throws IOException {
+        if (valor != null) {
+            gen.writeNumber(valor);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    /**
+     * Escribe un double en punto fijo si es exactamente el double más
+     * cercano a un número con hasta 4 cifras decimales y está en el rango
+     * en que Double.toString no usa notación científica; en otro caso
+     * delega en el generador.
+     */
+    static void escribirDecimal(double valor, JsonGenerator gen) throws IOException {
+        double absoluto = Math.abs(valor);
+        long escalado = Math.round(absoluto * ESCALA);
+        if (!(absoluto >= 1e-3 && absoluto < 1e7 || absoluto == 0.0) || escalado / ESCALA != absoluto) {
+            gen.writeNumber(valor);
+            return;
+        }
+
+        char[] buffer = BUFFER.get();
+        int fin = buffer.length;
+
+        // Parte decimal sin ceros finales (al menos una cifra)
+        int decimales = (int) (escalado % 10000);
+        int cifras = 4;
+        while (cifras > 1 && decimales % 10 == 0) {
+            decimales /= 10;
+            cifras--;
+        }
+        for (int i = 0; i < cifras; i++) {
+            buffer[--fin] = (char) ('0' + decimales % 10);
+            decimales /= 10;
+        }
+        buffer[--fin] = '.';
+
+        // Parte entera
+        long entero = escalado / 10000;
+        do {
+            buffer[--fin] = (char) ('0' + entero % 10);
+            entero /= 10;
+        } while (entero > 0);
+        if (valor < 0) {
+            buffer[--fin] = '-';
+        }
+
+        gen.writeNumber(buffer, fin, buffer.length - fin);
+    }
+}
@@ -0,0 +1,222 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * METADATA TIPADA DE UNA PREDICCIÓN
+ * ============================================================================
+ * Campos conocidos de la metadata de PredictionResponseDTO (aerolínea, ruta,
+ * nombres, timestamps, modo, clima, tiempo de respuesta, caché y error).
+ * Es inmutable: los cambios posteriores a la predicción (cache_hit,
+ * tiempo_respuesta_ms) crean una copia con conCacheHit / conTiempoRespuesta.
+ *
+ * - Los textos ausentes son null y los numéricos ausentes SIN_VALOR; el
+ *   JSON omite ambos, así que cada respuesta conserva las mismas claves
+ *   que antes.
+ * - Las claves desconocidas que envíe el servicio ML se conservan en
+ *   extra y se escriben al final.
+ * - Se serializa con {@link PredictionJsonSerializer}.
+ * ============================================================================
+ */
+@JsonSerialize(using = PredictionJsonSerializer.MetadataSerializer.class)
+public final class PredictionMetadata {
+
+    /** Valor de los campos numéricos ausentes */
+    public static final long SIN_VALOR = -1L;
+
+    private final String aerolinea;
+    private final String ruta;
+    private final String origenNombre;
+    private final String destinoNombre;
+    private final String fechaPartida;
+    private final String timestampPrediccion;
+    private final String modo;
+    private final String mensaje;
+    private final String modeloVersion;
+    private final String climaFuente;
+    private final long climaAntiguedadS;
+    private final long tiempoRespuestaMs;
+    private final Boolean cacheHit;
+    private final String error;
+    private final int status;
+    private final Map<String, Object> extra;
+
+    private PredictionMetadata(Builder b) {
+        this.aerolinea = b.aerolinea;
+        this.ruta = b.ruta;
+        this.origenNombre = b.origenNombre;
+        this.destinoNombre = b.destinoNombre;
+        this.fechaPartida = b.fechaPartida;
+        this.timestampPrediccion = b.timestampPrediccion;
+        this.modo = b.modo;
+        this.mensaje = b.mensaje;
+        this.modeloVersion = b.modeloVersion;
+        this.climaFuente = b.climaFuente;
+        this.climaAntiguedadS = b.climaAntiguedadS;
+        this.tiempoRespuestaMs = b.tiempoRespuestaMs;
+        this.cacheHit = b.cacheHit;
+        this.error = b.error;
+        this.status = b.status;
+        this.extra = b.extra != null && !b.extra.isEmpty() ? Collections.unmodifiableMap(b.extra) : Map.of();
+    }
+
+    /**
+     * Copia campo a campo, sin pasar por el builder.
+     */
+    private PredictionMetadata(PredictionMetadata o, long tiempoRespuestaMs, Boolean cacheHit) {
+        this.aerolinea = o.aerolinea;
+        this.ruta = o.ruta;
+        this.origenNombre = o.origenNombre;
+        this.destinoNombre = o.destinoNombre;
+        this.fechaPartida = o.fechaPartida;
+        this.timestampPrediccion = o.timestampPrediccion;
+        this.modo = o.modo;
+        this.mensaje = o.mensaje;
+        this.modeloVersion = o.modeloVersion;
+        this.climaFuente = o.climaFuente;
+        this.climaAntiguedadS = o.climaAntiguedadS;
+        this.tiempoRespuestaMs = tiempoRespuestaMs;
+        this.cacheHit = cacheHit;
+        this.error = o.error;
+        this.status = o.status;
+        this.extra = o.extra;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Metadata sin campos (respuestas del servicio ML que no la incluyen).
+     */
+    public static final PredictionMetadata VACIA = builder().build();
+
+    /**
+     * Metadata de una respuesta de error de negocio.
+     */
+    public static PredictionMetadata deError(String error, int status) {
+        return builder().error(error).status(status).build();
+    }
+
+    /**
+     * Construye la metadata a partir del objeto JSON recibido del servicio ML.
+     * Las claves que no corresponden a un campo tipado van a extra.
+     */
+    @JsonCreator
+    public static PredictionMetadata desdeMapa(Map<String, Object> mapa) {
+        Builder builder = builder();
+        Map<String, Object> extra = null;
+        for (Map.Entry<String, Object> entrada : mapa.entrySet()) {
+            Object valor = entrada.getValue();
+            switch (entrada.getKey()) {
+                case "aerolinea" -> builder.aerolinea(texto(valor));
+                case "ruta" -> builder.ruta(texto(valor));
+                case "origen_nombre" -> builder.origenNombre(texto(valor));
+                case "destino_nombre" -> builder.destinoNombre(texto(valor));
+                case "fecha_partida" -> builder.fechaPartida(texto(valor));
+                case "timestamp_prediccion" -> builder.timestampPrediccion(texto(valor));
+                case "modo" -> builder.modo(texto(valor));
+                case "mensaje" -> builder.mensaje(texto(valor));
+                case "modelo_version" -> builder.modeloVersion(texto(valor));
+                case "clima_fuente" -> builder.climaFuente(texto(valor));
+                case "clima_antiguedad_s" -> builder.climaAntiguedadS(
+                        valor instanceof Number n ? n.longValue() : SIN_VALOR);
+                case "tiempo_respuesta_ms" -> builder.tiempoRespuestaMs(
+                        valor instanceof Number n ? n.longValue() : SIN_VALOR);
+                case "cache_hit" -> builder.cacheHit(valor instanceof Boolean b ? b : null);
+                case "error" -> builder.error(texto(valor));
+                case "status" -> builder.status(valor instanceof Number n ? n.intValue() : 0);
+                default -> {
+                    if (extra == null) {
+                        extra = new LinkedHashMap<>();
+                    }
+                    extra.put(entrada.getKey(), valor);
+                }
+            }
+        }
+        return builder.extra(extra).build();
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString() : null;
+    }
+
+    public PredictionMetadata conCacheHit(boolean cacheHit) {
+        return new PredictionMetadata(this, tiempoRespuestaMs, cacheHit);
+    }
+
+    public PredictionMetadata conTiempoRespuesta(long tiempoRespuestaMs) {
+        return new PredictionMetadata(this, tiempoRespuestaMs, cacheHit);
+    }
+
+    // Getters
+    public String getAerolinea() { return aerolinea; }
+    public String getRuta() { return ruta; }
+    public String getOrigenNombre() { return origenNombre; }
+    public String getDestinoNombre() { return destinoNombre; }
+    public String getFechaPartida() { return fechaPartida; }
+    public String getTimestampPrediccion() { return timestampPrediccion; }
+    public String getModo() { return modo; }
+    public String getMensaje() { return mensaje; }
+    public String getModeloVersion() { return modeloVersion; }
+    public String getClimaFuente() { return climaFuente; }
+    public long getClimaAntiguedadS() { return climaAntiguedadS; }
+    public long getTiempoRespuestaMs() { return tiempoRespuestaMs; }
+    public Boolean getCacheHit() { return cacheHit; }
+    public String getError() { return error; }
+    public int getStatus() { return status; }
+    public Map<String, Object> getExtra() { return extra; }
+
+    /**
+     * Builder con campos primitivos: construir la metadata no crea objetos
+     * intermedios además del propio builder.
+     */
+    public static final class Builder {
+        private String aerolinea;
+        private String ruta;
+        private String origenNombre;
+        private String destinoNombre;
+        private String fechaPartida;
+        private String timestampPrediccion;
+        private String modo;
+        private String mensaje;
+        private String modeloVersion;
+        private String climaFuente;
+        private long climaAntiguedadS = SIN_VALOR;
+        private long tiempoRespuestaMs = SIN_VALOR;
+        private Boolean cacheHit;
+        private String error;
+        private int status;
+        private Map<String, Object> extra;
+
+        private Builder() {
+        }
+
+        public Builder aerolinea(String aerolinea) { this.aerolinea = aerolinea; return this; }
+        public Builder ruta(String ruta) { this.ruta = ruta; return this; }
+        public Builder origenNombre(String origenNombre) { this.origenNombre = origenNombre; return this; }
+        public Builder destinoNombre(String destinoNombre) { this.destinoNombre = destinoNombre; return this; }
+        public Builder fechaPartida(String fechaPartida) { this.fechaPartida = fechaPartida; return this; }
+        public Builder timestampPrediccion(String timestampPrediccion) { this.timestampPrediccion = timestampPrediccion; return this; }
+        public Builder modo(String modo) { this.modo = modo; return this; }
+        public Builder mensaje(String mensaje) { this.mensaje = mensaje; return this; }
+        public Builder modeloVersion(String modeloVersion) { this.modeloVersion = modeloVersion; return this; }
+        public Builder climaFuente(String climaFuente) { this.climaFuente = climaFuente; return this; }
+        public Builder climaAntiguedadS(long climaAntiguedadS) { this.climaAntiguedadS = climaAntiguedadS; return this; }
+        public Builder tiempoRespuestaMs(long tiempoRespuestaMs) { this.tiempoRespuestaMs = tiempoRespuestaMs; return this; }
+        public Builder cacheHit(Boolean cacheHit) { this.cacheHit = cacheHit; return this; }
+        public Builder error(String error) { this.error = error; return this; }
+        public Builder status(int status) { this.status = status; return this; }
+        public Builder extra(Map<String, Object> extra) { this.extra = extra; return this; }
+
+        public PredictionMetadata build() {
+            return new PredictionMetadata(this);
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.oracle.flightontime.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.util.Map;
 
 /**
  * ============================================================================
@@ -14,80 +12,117 @@ import java.util.Map;
  * ============================================================================
  * Contrato de integración para respuestas de predicción.
  * Incluye predicción, probabilidades, clima y metadata.
+ * Es inmutable y con campos primitivos; se serializa con
+ * {@link PredictionJsonSerializer} y se deserializa (respuestas del servicio
+ * ML) por el constructor.
  * ============================================================================
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@JsonSerialize(using = PredictionJsonSerializer.ResponseSerializer.class)
 public class PredictionResponseDTO {
 
     /**
      * Predicción numérica: 0 = Puntual, 1 = Retrasado
      * Según alcance sugerido del proyecto y contrato de integración
      */
-    @JsonProperty("prediccion")
-    private Integer prediccion;
+    private final int prediccion;
 
     /**
      * Probabilidad de retraso (0.0 a 1.0)
      */
-    @JsonProperty("probabilidad_retraso")
-    private Double probabilidadRetraso;
+    private final double probabilidadRetraso;
 
     /**
      * Nivel de confianza de la predicción (0.0 a 1.0)
      */
-    @JsonProperty("confianza")
-    private Double confianza;
+    private final double confianza;
 
     /**
      * Distancia del vuelo en kilómetros (calculada automáticamente)
      */
-    @JsonProperty("distancia_km")
-    private Double distanciaKm;
+    private final double distanciaKm;
 
     /**
      * Datos meteorológicos del aeropuerto de origen
      */
-    @JsonProperty("clima_origen")
-    private WeatherDataDTO climaOrigen;
+    private final WeatherDataDTO climaOrigen;
 
     /**
      * Datos meteorológicos del aeropuerto de destino
      */
-    @JsonProperty("clima_destino")
-    private WeatherDataDTO climaDestino;
+    private final WeatherDataDTO climaDestino;
 
     /**
      * Metadata adicional (aerolínea, ruta, timestamps, etc.)
      */
-    @JsonProperty("metadata")
-    private Map<String, Object> metadata;
+    private final PredictionMetadata metadata;
 
     /**
      * Indicador de si se usó el modo mock
      */
-    @JsonProperty("modo_mock")
-    private Boolean modoMock;
+    private final boolean modoMock;
+
+    @Builder
+    @JsonCreator
+    public PredictionResponseDTO(@JsonProperty("prediccion") int prediccion,
+                                 @JsonProperty("probabilidad_retraso") double probabilidadRetraso,
+                                 @JsonProperty("confianza") double confianza,
+                                 @JsonProperty("distancia_km") double distanciaKm,
+                                 @JsonProperty("clima_origen") WeatherDataDTO climaOrigen,
+                                 @JsonProperty("clima_destino") WeatherDataDTO climaDestino,
+                                 @JsonProperty("metadata") PredictionMetadata metadata,
+                                 @JsonProperty("modo_mock") boolean modoMock) {
+        this.prediccion = prediccion;
+        this.probabilidadRetraso = probabilidadRetraso;
+        this.confianza = confianza;
+        this.distanciaKm = distanciaKm;
+        this.climaOrigen = climaOrigen;
+        this.climaDestino = climaDestino;
+        this.metadata = metadata;
+        this.modoMock = modoMock;
+    }
+
+    /**
+     * Respuesta de error de negocio (prediccion = -1) con el mensaje y el
+     * código HTTP en la metadata.
+     */
+    public static PredictionResponseDTO deError(String error, int status) {
+        return new PredictionResponseDTO(-1, 0.0, 0.0, 0.0, null, null,
+                PredictionMetadata.deError(error, status), false);
+    }
+
+    /**
+     * Copia con otra metadata.
+     */
+    public PredictionResponseDTO conMetadata(PredictionMetadata metadata) {
+        return new PredictionResponseDTO(prediccion, probabilidadRetraso, confianza, distanciaKm,
+                climaOrigen, climaDestino, metadata, modoMock);
+    }
+
+    /**
+     * Copia marcada como respuesta real del servicio ML (modo_mock = false)
+     * con metadata.cache_hit.
+     */
+    public PredictionResponseDTO comoRespuestaReal(boolean cacheHit) {
+        PredictionMetadata base = metadata != null ? metadata : PredictionMetadata.VACIA;
+        return new PredictionResponseDTO(prediccion, probabilidadRetraso, confianza, distanciaKm,
+                climaOrigen, climaDestino, base.conCacheHit(cacheHit), false);
+    }
+
+    /**
+     * JSON ya generado de la respuesta, o null. Lo redefinen las respuestas
+     * servidas desde la caché serializada.
+     */
+    protected SerializableString jsonPrecalculado() {
+        return null;
+    }
 
     // Getters
-    public Integer getPrediccion() { return prediccion; }
-    public Double getProbabilidadRetraso() { return probabilidadRetraso; }
-    public Double getConfianza() { return confianza; }
-    public Double getDistanciaKm() { return distanciaKm; }
+    public int getPrediccion() { return prediccion; }
+    public double getProbabilidadRetraso() { return probabilidadRetraso; }
+    public double getConfianza() { return confianza; }
+    public double getDistanciaKm() { return distanciaKm; }
     public WeatherDataDTO getClimaOrigen() { return climaOrigen; }
     public WeatherDataDTO getClimaDestino() { return climaDestino; }
-    public Map<String, Object> getMetadata() { return metadata; }
-    public Boolean getModoMock() { return modoMock; }
-
-    // Setters
-    public void setPrediccion(Integer prediccion) { this.prediccion = prediccion; }
-    public void setProbabilidadRetraso(Double probabilidadRetraso) { this.probabilidadRetraso = probabilidadRetraso; }
-    public void setConfianza(Double confianza) { this.confianza = confianza; }
-    public void setDistanciaKm(Double distanciaKm) { this.distanciaKm = distanciaKm; }
-    public void setClimaOrigen(WeatherDataDTO climaOrigen) { this.climaOrigen = climaOrigen; }
-    public void setClimaDestino(WeatherDataDTO climaDestino) { this.climaDestino = climaDestino; }
-    public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
-    public void setModoMock(Boolean modoMock) { this.modoMock = modoMock; }
+    public PredictionMetadata getMetadata() { return metadata; }
+    public boolean isModoMock() { return modoMock; }
 }
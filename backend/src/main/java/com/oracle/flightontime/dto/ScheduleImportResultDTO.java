@@ -0,0 +1,66 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ============================================================================
+ * DTO DE SALIDA - IMPORTACIÓN DEL HORARIO
+ * ============================================================================
+ * Resultado de importar un horario: cuántas filas se leyeron y cómo se
+ * compararon con el horario vigente. Solo las nuevas y las modificadas
+ * (ruta u hora de partida) quedan pendientes de cálculo.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduleImportResultDTO {
+
+    /**
+     * Archivo importado, o "api" si llegó por POST /api/schedule/import
+     */
+    @JsonProperty("fuente")
+    private String fuente;
+
+    @JsonProperty("filas")
+    private Integer filas;
+
+    @JsonProperty("rechazadas")
+    private Integer rechazadas;
+
+    /**
+     * Primeros errores de validación ("línea N: mensaje")
+     */
+    @JsonProperty("errores")
+    private List<String> errores;
+
+    @JsonProperty("nuevas")
+    private Integer nuevas;
+
+    @JsonProperty("modificadas")
+    private Integer modificadas;
+
+    @JsonProperty("sin_cambios")
+    private Integer sinCambios;
+
+    @JsonProperty("eliminadas")
+    private Integer eliminadas;
+
+    @JsonProperty("vuelos")
+    private Integer vuelos;
+
+    @JsonProperty("pendientes")
+    private Integer pendientes;
+
+    @JsonProperty("duracion_ms")
+    private Long duracionMs;
+}
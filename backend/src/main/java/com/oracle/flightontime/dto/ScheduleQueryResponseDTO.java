@@ -0,0 +1,57 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ============================================================================
+ * DTO DE SALIDA - CONSULTA DEL HORARIO
+ * ============================================================================
+ * Respuesta de GET /api/schedule/flights: vuelos de un aeropuerto con
+ * partida dentro de la ventana [desde, hasta), ordenados por hora de
+ * partida.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduleQueryResponseDTO {
+
+    @JsonProperty("aeropuerto")
+    private String aeropuerto;
+
+    /**
+     * salidas, llegadas o todos
+     */
+    @JsonProperty("sentido")
+    private String sentido;
+
+    @JsonProperty("desde")
+    private String desde;
+
+    @JsonProperty("hasta")
+    private String hasta;
+
+    /**
+     * Vuelos en la ventana (puede superar a los devueltos si se alcanzó el límite)
+     */
+    @JsonProperty("total")
+    private Integer total;
+
+    @JsonProperty("pendientes")
+    private Integer pendientes;
+
+    @JsonProperty("vuelos")
+    private List<ScheduledFlightDTO> vuelos;
+
+    @JsonProperty("tiempo_respuesta_ms")
+    private Long tiempoRespuestaMs;
+}
@@ -0,0 +1,87 @@
+package com.oracle.flightontime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ============================================================================
+ * DTO DE SALIDA - VUELO DEL HORARIO
+ * ============================================================================
+ * Vuelo del horario publicado con su predicción materializada y las
+ * entradas de las que depende (clima del origen, versión del modelo y hora
+ * de partida). Mientras un vuelo está pendiente de recálculo conserva la
+ * predicción anterior, si la tiene.
+ * ============================================================================
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduledFlightDTO {
+
+    /**
+     * Número de vuelo de la fila importada (null si no lo trae)
+     */
+    @JsonProperty("vuelo")
+    private String vuelo;
+
+    @JsonProperty("aerolinea")
+    private String aerolinea;
+
+    @JsonProperty("origen")
+    private String origen;
+
+    @JsonProperty("destino")
+    private String destino;
+
+    @JsonProperty("fecha_partida")
+    private String fechaPartida;
+
+    /**
+     * 0 = puntual, 1 = retrasado; null si aún no se ha calculado
+     */
+    @JsonProperty("prediccion")
+    private Integer prediccion;
+
+    @JsonProperty("probabilidad_retraso")
+    private Double probabilidadRetraso;
+
+    @JsonProperty("confianza")
+    private Double confianza;
+
+    /**
+     * Clima del origen con el que se calculó la predicción
+     */
+    @JsonProperty("clima_origen")
+    private WeatherDataDTO climaOrigen;
+
+    @JsonProperty("modelo_version")
+    private String modeloVersion;
+
+    /**
+     * Modo con el que se calculó (LOCAL, REAL o MOCK; MOCK también si el
+     * servicio ML no respondió y se usó el fallback)
+     */
+    @JsonProperty("modo")
+    private String modo;
+
+    /**
+     * Motivo del último cálculo: nuevo, ruta, salida, clima o modelo
+     */
+    @JsonProperty("motivo")
+    private String motivo;
+
+    @JsonProperty("calculado")
+    private String calculado;
+
+    @JsonProperty("recalculos")
+    private Integer recalculos;
+
+    @JsonProperty("pendiente")
+    private Boolean pendiente;
+}
@@ -1,44 +1,62 @@
 package com.oracle.flightontime.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * ============================================================================
  * DTO - DATOS METEOROLÓGICOS
  * ============================================================================
- * Información del clima en el aeropuerto de origen
+ * Información del clima en el aeropuerto de origen.
+ * Es inmutable: la misma instancia se comparte entre la instantánea de
+ * clima, el motor mock, las respuestas y los vuelos programados.
  * ============================================================================
  */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
 public class WeatherDataDTO {
 
     @JsonProperty("temperatura")
-    private Double temperatura;
+    private final Double temperatura;
 
     @JsonProperty("humedad")
-    private Integer humedad;
+    private final Integer humedad;
 
     @JsonProperty("presion")
-    private Integer presion;
+    private final Integer presion;
 
     @JsonProperty("visibilidad")
-    private Integer visibilidad;
+    private final Integer visibilidad;
 
     @JsonProperty("viento_velocidad")
-    private Double vientoVelocidad;
+    private final Double vientoVelocidad;
 
     @JsonProperty("condicion")
-    private String condicion;
+    private final String condicion;
 
     @JsonProperty("descripcion")
-    private String descripcion;
+    private final String descripcion;
+
+    @Builder
+    @JsonCreator
+    public WeatherDataDTO(@JsonProperty("temperatura") Double temperatura,
+                          @JsonProperty("humedad") Integer humedad,
+                          @JsonProperty("presion") Integer presion,
+                          @JsonProperty("visibilidad") Integer visibilidad,
+                          @JsonProperty("viento_velocidad") Double vientoVelocidad,
+                          @JsonProperty("condicion") String condicion,
+                          @JsonProperty("descripcion") String descripcion) {
+        this.temperatura = temperatura;
+        this.humedad = humedad;
+        this.presion = presion;
+        this.visibilidad = visibilidad;
+        this.vientoVelocidad = vientoVelocidad;
+        this.condicion = condicion;
+        this.descripcion = descripcion;
+    }
 
     // Getters
     public Double getTemperatura() { return temperatura; }
@@ -48,13 +66,4 @@ public class WeatherDataDTO {
     public Double getVientoVelocidad() { return vientoVelocidad; }
     public String getCondicion() { return condicion; }
     public String getDescripcion() { return descripcion; }
-
-    // Setters
-    public void setTemperatura(Double temperatura) { this.temperatura = temperatura; }
-    public void setHumedad(Integer humedad) { this.humedad = humedad; }
-    public void setPresion(Integer presion) { this.presion = presion; }
-    public void setVisibilidad(Integer visibilidad) { this.visibilidad = visibilidad; }
-    public void setVientoVelocidad(Double vientoVelocidad) { this.vientoVelocidad = vientoVelocidad; }
-    public void setCondicion(String condicion) { this.condicion = condicion; }
-    public void setDescripcion(String descripcion) { this.descripcion = descripcion; }
 }
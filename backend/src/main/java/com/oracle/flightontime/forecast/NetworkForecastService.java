@@ -0,0 +1,413 @@
+package com.oracle.flightontime.forecast;
+
+import com.oracle.flightontime.config.AirlineConfig;
+import com.oracle.flightontime.dto.NetworkForecastResultDTO;
+import com.oracle.flightontime.dto.NetworkForecastStatusDTO;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.service.PredictionMode;
+import com.oracle.flightontime.service.PredictionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================================================
+ * SERVICIO DE PRONÓSTICO DE RED
+ * ============================================================================
+ * Calcula la probabilidad de retraso de todas las rutas de una aerolínea
+ * (pares ordenados de aeropuertos de AirlineConfig) para las horas de
+ * partida indicadas de un día, como trabajo en segundo plano con progreso
+ * consultable.
+ *
+ * - Modo LOCAL: el modelo en la JVM evalúa bloques de rutas en paralelo
+ *   sobre Schedulers.parallel() (un hilo por núcleo).
+ * - Modos REAL y MOCK: las predicciones se agrupan en bloques de
+ *   ml.batch.chunk-size y se envían con el mismo camino que
+ *   /api/predict/batch (ml.batch.concurrency bloques en vuelo, fallback
+ *   mock por bloque).
+ *
+ * El resultado es una matriz ruta × hora de enteros (ver
+ * {@link NetworkForecastResultDTO}). Se limitan los trabajos simultáneos y
+ * se conservan solo los últimos trabajos terminados.
+ * ============================================================================
+ */
+@Service
+public class NetworkForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkForecastService.class);
+
+    public static final int ESCALA = 10000;
+
+    private final PredictionService predictionService;
+    private final LocalModelService localModelService;
+
+    @Value("${ml.forecast.max-running-jobs:2}")
+    private int maxRunningJobs;
+
+    @Value("${ml.forecast.retained-jobs:20}")
+    private int retainedJobs;
+
+    @Value("${ml.forecast.max-predictions:1000000}")
+    private int maxPredictions;
+
+    @Value("${ml.forecast.local-routes-per-task:256}")
+    private int localRoutesPerTask;
+
+    @Value("${ml.batch.chunk-size:50}")
+    private int batchChunkSize;
+
+    @Value("${ml.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+    public NetworkForecastService(PredictionService predictionService, LocalModelService localModelService) {
+        this.predictionService = predictionService;
+        this.localModelService = localModelService;
+    }
+
+    /**
+     * Inicia un pronóstico de red.
+     *
+     * @param aerolinea Código de aerolínea
+     * @param fecha     Día de partida
+     * @param horas     Horas de partida (0-23), sin repetir y ordenadas
+     * @param modo      Modo de predicción, o null para LOCAL si hay modelo y
+     *                  REAL en caso contrario
+     * @throws ResponseStatusException 400 si los parámetros no son válidos,
+     *                                 429 si ya hay demasiados trabajos en curso
+     */
+    public NetworkForecastStatusDTO iniciar(String aerolinea, LocalDate fecha, int[] horas, PredictionMode modo) {
+        if (!AirlineConfig.esAerolineaValida(aerolinea)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Aerolínea no válida. Use: 1 (Delta Air Lines) o 2 (Southwest Airlines)");
+        }
+        if (modo == null || modo == PredictionMode.LOCAL) {
+            modo = localModelService.isDisponible() ? PredictionMode.LOCAL : PredictionMode.REAL;
+        }
+
+        RedRutas red = RedRutas.de(aerolinea);
+        long total = (long) red.size() * horas.length;
+        if (total > maxPredictions) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                    "El pronóstico requiere %d predicciones; el máximo es %d", total, maxPredictions));
+        }
+
+        Trabajo trabajo;
+        synchronized (trabajos) {
+            long enCurso = trabajos.values().stream().filter(t -> t.estado.equals("EN_CURSO")).count();
+            if (enCurso >= maxRunningJobs) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Demasiados pronósticos en curso; intente más tarde");
+            }
+            depurar();
+            trabajo = new Trabajo(UUID.randomUUID().toString(), aerolinea, fecha, horas, modo, red);
+            trabajos.put(trabajo.id, trabajo);
+        }
+
+        logger.info("🗺️ Pronóstico de red {} iniciado: aerolínea {}, {} rutas × {} horas, modo {}",
+                trabajo.id, aerolinea, red.size(), horas.length, modo);
+
+        Mono<Void> ejecucion = modo == PredictionMode.LOCAL ? puntuarLocal(trabajo) : puntuarPorBloques(trabajo);
+        Trabajo actual = trabajo;
+        trabajo.suscripcion = ejecucion.subscribe(
+                null,
+                error -> actual.terminar("FALLIDO", error.getMessage()),
+                () -> actual.terminar("COMPLETADO", null));
+
+        return trabajo.estado();
+    }
+
+    public NetworkForecastStatusDTO getEstado(String id) {
+        return buscar(id).estado();
+    }
+
+    /**
+     * Resultado de un trabajo completado.
+     *
+     * @throws ResponseStatusException 404 si no existe, 409 si no está completado
+     */
+    public NetworkForecastResultDTO getResultado(String id) {
+        Trabajo trabajo = buscar(id);
+        if (!trabajo.estado.equals("COMPLETADO")) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "El pronóstico " + id + " no está completado (estado " + trabajo.estado + ")");
+        }
+        return trabajo.resultado();
+    }
+
+    /**
+     * Cancela un trabajo en curso. Un trabajo ya terminado no cambia.
+     */
+    public NetworkForecastStatusDTO cancelar(String id) {
+        Trabajo trabajo = buscar(id);
+        Disposable suscripcion = trabajo.suscripcion;
+        if (suscripcion != null && trabajo.terminar("CANCELADO", null)) {
+            suscripcion.dispose();
+        }
+        return trabajo.estado();
+    }
+
+    /**
+     * Horas de partida del parámetro ?horas=: rango "6-22", lista "6,12,18"
+     * o combinación de ambos. Sin valor, las 24 horas.
+     *
+     * @throws ResponseStatusException 400 si el formato o alguna hora no son válidos
+     */
+    public static int[] parsearHoras(String horas) {
+        if (horas == null || horas.isBlank()) {
+            return java.util.stream.IntStream.range(0, 24).toArray();
+        }
+        TreeSet<Integer> valores = new TreeSet<>();
+        try {
+            for (String parte : horas.split(",")) {
+                String[] rango = parte.trim().split("-");
+                int desde = Integer.parseInt(rango[0].trim());
+                int hasta = rango.length > 1 ? Integer.parseInt(rango[1].trim()) : desde;
+                if (rango.length > 2 || desde < 0 || hasta > 23 || desde > hasta) {
+                    throw new NumberFormatException(parte);
+                }
+                for (int h = desde; h <= hasta; h++) {
+                    valores.add(h);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Horas no válidas. Use un rango (6-22) o una lista (6,12,18) entre 0 y 23");
+        }
+        return valores.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Trabajo buscar(String id) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pronóstico no encontrado: " + id);
+        }
+        return trabajo;
+    }
+
+    /**
+     * Elimina los trabajos terminados más antiguos por encima de
+     * ml.forecast.retained-jobs.
+     */
+    private void depurar() {
+        List<Trabajo> terminados = new ArrayList<>();
+        for (Trabajo trabajo : trabajos.values()) {
+            if (!trabajo.estado.equals("EN_CURSO")) {
+                terminados.add(trabajo);
+            }
+        }
+        if (terminados.size() < retainedJobs) {
+            return;
+        }
+        terminados.sort(Comparator.comparing(t -> t.inicio));
+        for (int i = 0; i <= terminados.size() - retainedJobs; i++) {
+            trabajos.remove(terminados.get(i).id);
+        }
+    }
+
+    /**
+     * ========================================================================
+     * PUNTUACIÓN LOCAL EN PARALELO
+     * ========================================================================
+     */
+    private Mono<Void> puntuarLocal(Trabajo trabajo) {
+        int rutas = trabajo.red.size();
+        int tareas = (rutas + localRoutesPerTask - 1) / localRoutesPerTask;
+        LocalDateTime[] fechas = new LocalDateTime[trabajo.horas.length];
+        for (int h = 0; h < fechas.length; h++) {
+            fechas[h] = trabajo.fecha.atTime(trabajo.horas[h], 0);
+        }
+
+        return Flux.range(0, tareas)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .doOnNext(tarea -> {
+                    int desde = tarea * localRoutesPerTask;
+                    int hasta = Math.min(rutas, desde + localRoutesPerTask);
+                    puntuarRutasLocal(trabajo, fechas, desde, hasta);
+                })
+                .sequential()
+                .then();
+    }
+
+    private void puntuarRutasLocal(Trabajo trabajo, LocalDateTime[] fechas, int desde, int hasta) {
+        RedRutas red = trabajo.red;
+        int numHoras = fechas.length;
+        for (int r = desde; r < hasta; r++) {
+            int base = r * numHoras;
+            for (int h = 0; h < numHoras; h++) {
+                double probabilidad = localModelService.predecirProbabilidad(trabajo.aerolinea,
+                        red.origenOrdinal[r], red.destinoOrdinal[r], fechas[h]);
+                trabajo.probabilidades[base + h] = (int) Math.round(probabilidad * ESCALA);
+            }
+        }
+        trabajo.completadas.addAndGet((hasta - desde) * numHoras);
+    }
+
+    /**
+     * ========================================================================
+     * PUNTUACIÓN POR BLOQUES (MODOS REAL Y MOCK)
+     * ========================================================================
+     * Las solicitudes de cada bloque se construyen al momento de enviarlo,
+     * así que solo existen las de los bloques en vuelo.
+     * ========================================================================
+     */
+    private Mono<Void> puntuarPorBloques(Trabajo trabajo) {
+        int total = trabajo.probabilidades.length;
+        int bloques = (total + batchChunkSize - 1) / batchChunkSize;
+        String[] fechas = new String[trabajo.horas.length];
+        for (int h = 0; h < fechas.length; h++) {
+            fechas[h] = trabajo.fecha.atTime(trabajo.horas[h], 0).toString() + ":00";
+        }
+        boolean useMock = trabajo.modo == PredictionMode.MOCK;
+
+        return Flux.range(0, bloques)
+                .flatMap(bloque -> {
+                    int desde = bloque * batchChunkSize;
+                    int hasta = Math.min(total, desde + batchChunkSize);
+                    List<PredictionRequestDTO> solicitudes = construirSolicitudes(trabajo, fechas, desde, hasta);
+                    return predictionService.predecirBloque(solicitudes, useMock, trabajo.bloquesFallback)
+                            .doOnNext(respuestas -> registrarRespuestas(trabajo, desde, respuestas));
+                }, batchConcurrency)
+                .then();
+    }
+
+    private List<PredictionRequestDTO> construirSolicitudes(Trabajo trabajo, String[] fechas, int desde, int hasta) {
+        RedRutas red = trabajo.red;
+        int numHoras = fechas.length;
+        List<PredictionRequestDTO> solicitudes = new ArrayList<>(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            int r = i / numHoras;
+            PredictionRequestDTO solicitud = new PredictionRequestDTO();
+            solicitud.setAerolinea(trabajo.aerolinea);
+            solicitud.setOrigen(red.aeropuertos[red.origen[r]]);
+            solicitud.setDestino(red.aeropuertos[red.destino[r]]);
+            solicitud.setFechaPartida(fechas[i % numHoras]);
+            solicitudes.add(solicitud);
+        }
+        return solicitudes;
+    }
+
+    private void registrarRespuestas(Trabajo trabajo, int desde, List<PredictionResponseDTO> respuestas) {
+        for (int j = 0; j < respuestas.size(); j++) {
+            trabajo.probabilidades[desde + j] = (int) Math.round(respuestas.get(j).getProbabilidadRetraso() * ESCALA);
+        }
+        trabajo.completadas.addAndGet(respuestas.size());
+    }
+
+    /**
+     * Trabajo de pronóstico: parámetros, progreso y matriz de resultados.
+     */
+    private final class Trabajo {
+        final String id;
+        final String aerolinea;
+        final LocalDate fecha;
+        final int[] horas;
+        final PredictionMode modo;
+        final RedRutas red;
+        final int[] probabilidades;
+        final AtomicInteger completadas = new AtomicInteger();
+        final AtomicInteger bloquesFallback = new AtomicInteger();
+        final Instant inicio = Instant.now();
+        final String modeloVersion;
+
+        volatile String estado = "EN_CURSO";
+        volatile Instant fin;
+        volatile String error;
+        volatile Disposable suscripcion;
+
+        Trabajo(String id, String aerolinea, LocalDate fecha, int[] horas, PredictionMode modo, RedRutas red) {
+            this.id = id;
+            this.aerolinea = aerolinea;
+            this.fecha = fecha;
+            this.horas = horas;
+            this.modo = modo;
+            this.red = red;
+            this.probabilidades = new int[red.size() * horas.length];
+            this.modeloVersion = modo == PredictionMode.LOCAL ? localModelService.getVersion() : null;
+            Arrays.fill(probabilidades, -1);
+        }
+
+        /**
+         * Pasa a un estado final si el trabajo sigue en curso.
+         *
+         * @return true si el estado cambió
+         */
+        synchronized boolean terminar(String estadoFinal, String mensajeError) {
+            if (!estado.equals("EN_CURSO")) {
+                return false;
+            }
+            fin = Instant.now();
+            error = mensajeError;
+            estado = estadoFinal;
+            logger.info("🗺️ Pronóstico de red {} {}: {} de {} predicciones en {}ms{}", id, estadoFinal,
+                    completadas.get(), probabilidades.length, fin.toEpochMilli() - inicio.toEpochMilli(),
+                    mensajeError != null ? " - " + mensajeError : "");
+            return true;
+        }
+
+        NetworkForecastStatusDTO estado() {
+            int hechas = completadas.get();
+            Instant terminado = fin;
+            long duracion = (terminado != null ? terminado : Instant.now()).toEpochMilli() - inicio.toEpochMilli();
+            return NetworkForecastStatusDTO.builder()
+                    .id(id)
+                    .estado(estado)
+                    .aerolinea(aerolinea)
+                    .fecha(fecha.toString())
+                    .horas(Arrays.stream(horas).boxed().toList())
+                    .modo(modo.name())
+                    .rutas(red.size())
+                    .totalPredicciones(probabilidades.length)
+                    .completadas(hechas)
+                    .progresoPct(Math.round(hechas * 10000.0 / probabilidades.length) / 100.0)
+                    .bloquesFallback(modo == PredictionMode.REAL ? bloquesFallback.get() : null)
+                    .inicio(inicio.toString())
+                    .fin(terminado != null ? terminado.toString() : null)
+                    .duracionMs(duracion)
+                    .error(error)
+                    .resultadoUrl(estado.equals("COMPLETADO") ? "/api/network-forecast/" + id + "/resultado" : null)
+                    .build();
+        }
+
+        NetworkForecastResultDTO resultado() {
+            return NetworkForecastResultDTO.builder()
+                    .id(id)
+                    .aerolinea(aerolinea)
+                    .fecha(fecha.toString())
+                    .modo(modo.name())
+                    .modeloVersion(modeloVersion)
+                    .horas(horas)
+                    .aeropuertos(red.aeropuertos)
+                    .rutaOrigen(red.origen)
+                    .rutaDestino(red.destino)
+                    .distanciasKm(red.distanciasKm)
+                    .escala(ESCALA)
+                    .probabilidades(probabilidades)
+                    .build();
+        }
+    }
+}
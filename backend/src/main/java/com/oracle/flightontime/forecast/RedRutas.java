@@ -0,0 +1,74 @@
+package com.oracle.flightontime.forecast;
+
+import com.oracle.flightontime.config.AirlineConfig;
+import com.oracle.flightontime.util.AirportBitSet;
+import com.oracle.flightontime.util.GeoUtils;
+
+/**
+ * Conjunto de rutas de una aerolínea: todos los pares ordenados de
+ * aeropuertos distintos de su red, en orden de ordinal de GeoUtils.
+ */
+final class RedRutas {
+
+    /** Códigos IATA de la red, en orden de ordinal */
+    final String[] aeropuertos;
+    /** Índice en aeropuertos del origen y destino de cada ruta */
+    final int[] origen;
+    final int[] destino;
+    /** Ordinales de GeoUtils del origen y destino de cada ruta */
+    final int[] origenOrdinal;
+    final int[] destinoOrdinal;
+    final double[] distanciasKm;
+
+    private RedRutas(String[] aeropuertos, int[] origen, int[] destino,
+                     int[] origenOrdinal, int[] destinoOrdinal, double[] distanciasKm) {
+        this.aeropuertos = aeropuertos;
+        this.origen = origen;
+        this.destino = destino;
+        this.origenOrdinal = origenOrdinal;
+        this.destinoOrdinal = destinoOrdinal;
+        this.distanciasKm = distanciasKm;
+    }
+
+    int size() {
+        return origen.length;
+    }
+
+    static RedRutas de(String aerolinea) {
+        AirportBitSet red = AirlineConfig.getAeropuertosBits(aerolinea);
+        int n = red.cardinalidad();
+
+        int[] ordinales = new int[n];
+        String[] codigos = new String[n];
+        int k = 0;
+        for (int o = red.siguiente(0); o >= 0; o = red.siguiente(o + 1)) {
+            ordinales[k] = o;
+            codigos[k] = GeoUtils.getCodigoIATA(o);
+            k++;
+        }
+
+        int rutas = n * (n - 1);
+        int[] origen = new int[rutas];
+        int[] destino = new int[rutas];
+        int[] origenOrdinal = new int[rutas];
+        int[] destinoOrdinal = new int[rutas];
+        double[] distancias = new double[rutas];
+
+        int r = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) {
+                    continue;
+                }
+                origen[r] = i;
+                destino[r] = j;
+                origenOrdinal[r] = ordinales[i];
+                destinoOrdinal[r] = ordinales[j];
+                distancias[r] = GeoUtils.calcularDistancia(ordinales[i], ordinales[j]);
+                r++;
+            }
+        }
+
+        return new RedRutas(codigos, origen, destino, origenOrdinal, destinoOrdinal, distancias);
+    }
+}
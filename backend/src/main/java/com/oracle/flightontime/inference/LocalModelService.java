@@ -0,0 +1,346 @@
+package com.oracle.flightontime.inference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.util.FechaUtils;
+import com.oracle.flightontime.util.GeoUtils;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ============================================================================
+ * SERVICIO DE INFERENCIA LOCAL (MODO LOCAL)
+ * ============================================================================
+ * Carga el random forest exportado por ml-service/export_model.py y lo
+ * evalúa dentro de la JVM, con las mismas features que construye
+ * preparar_features_modelo en el servicio ML (clima neutro).
+ *
+ * - El modelo se verifica contra sus fixtures antes de activarse: la
+ *   evaluación de los árboles con el vector de features del servicio ML
+ *   y, si la fixture trae la solicitud original, la construcción de
+ *   features de este servicio (distancia, fecha, aerolínea) a partir de
+ *   ella, igual que en predecirProbabilidad.
+ * - El archivo se revisa periódicamente; si cambia, el nuevo modelo se
+ *   carga, se verifica y se intercambia de forma atómica. Si la carga
+ *   falla, se mantiene el modelo anterior.
+ * ============================================================================
+ */
+@Service
+public class LocalModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalModelService.class);
+
+    // Valores neutros de clima usados por el servicio ML en la inferencia
+    private static final double TEMPERATURA_NEUTRAL = 20.0;
+    private static final double HUMEDAD_NEUTRAL = 50;
+    private static final double PRESION_NEUTRAL = 1013;
+    private static final double VISIBILIDAD_NEUTRAL = 10000;
+    private static final double VIENTO_NEUTRAL = 10.0;
+
+    private static final String PREFIJO_AEROLINEA = "aerolinea_";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${ml.inference.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ml.inference.model-path:model/random_forest_v1.json}")
+    private String modelPath;
+
+    @Value("${ml.inference.parity-tolerance:1e-9}")
+    private double parityTolerance;
+
+    private final AtomicReference<ModeloCargado> modelo = new AtomicReference<>();
+
+    /**
+     * Fecha de modificación del último archivo rechazado, para no reintentar
+     * la carga del mismo archivo en cada revisión
+     */
+    private volatile FileTime ultimoRechazo;
+
+    private final AtomicLong cargas = new AtomicLong();
+    private final AtomicLong erroresCarga = new AtomicLong();
+
+    /**
+     * Vector de features reutilizado por hilo (sin asignación por predicción)
+     */
+    private final ThreadLocal<double[]> featuresPorHilo = ThreadLocal.withInitial(() -> new double[16]);
+
+    public LocalModelService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void inicializar() {
+        if (enabled) {
+            revisarArchivo();
+        }
+    }
+
+    /**
+     * Revisa si el archivo del modelo cambió y, en ese caso, lo recarga.
+     */
+    @Scheduled(fixedDelayString = "${ml.inference.reload-check-ms:30000}",
+            initialDelayString = "${ml.inference.reload-check-ms:30000}")
+    public void revisarArchivo() {
+        if (!enabled) {
+            return;
+        }
+
+        Path ruta = Path.of(modelPath);
+        if (!Files.isRegularFile(ruta)) {
+            if (modelo.get() == null) {
+                logger.debug("Modelo local no encontrado en {}", ruta.toAbsolutePath());
+            }
+            return;
+        }
+
+        try {
+            FileTime modificado = Files.getLastModifiedTime(ruta);
+            ModeloCargado actual = modelo.get();
+            if ((actual != null && actual.modificado.equals(modificado)) || modificado.equals(ultimoRechazo)) {
+                return;
+            }
+            recargar(ruta, modificado);
+        } catch (IOException e) {
+            erroresCarga.incrementAndGet();
+            logger.error("❌ Error al leer el modelo local {}: {}", ruta, e.getMessage());
+        }
+    }
+
+    /**
+     * Carga, verifica e intercambia el modelo.
+     */
+    private void recargar(Path ruta, FileTime modificado) {
+        try (InputStream in = Files.newInputStream(ruta)) {
+            RandomForestModel.ExportedModel exportado =
+                    objectMapper.readValue(in, RandomForestModel.ExportedModel.class);
+            RandomForestModel nuevo = RandomForestModel.from(exportado);
+            FeatureLayout layout = FeatureLayout.of(nuevo.getFeatureNames());
+
+            int verificadas = verificarFixtures(nuevo, layout, exportado);
+
+            ModeloCargado anterior = modelo.getAndSet(new ModeloCargado(nuevo, layout, modificado));
+            cargas.incrementAndGet();
+
+            logger.info("🧠 Modelo local {} activo: {} árboles, {} nodos, {} fixtures verificadas{}",
+                    nuevo.getVersion(), nuevo.getNumeroArboles(), nuevo.getNumeroNodos(), verificadas,
+                    anterior != null ? " (reemplaza a " + anterior.modelo.getVersion() + ")" : "");
+        } catch (Exception e) {
+            ultimoRechazo = modificado;
+            erroresCarga.incrementAndGet();
+            logger.error("❌ Modelo local {} rechazado: {}", ruta, e.getMessage());
+        }
+    }
+
+    /**
+     * Compara la predicción del modelo aplanado con la de scikit-learn en
+     * cada fixture del archivo. Si la fixture incluye la solicitud
+     * (aerolínea, origen, destino, fecha_partida), además construye las
+     * features como predecirProbabilidad y exige el mismo vector y la
+     * misma probabilidad.
+     *
+     * @return Número de fixtures verificadas
+     * @throws IllegalStateException si alguna fixture no coincide
+     */
+    private int verificarFixtures(RandomForestModel modelo, FeatureLayout layout,
+                                  RandomForestModel.ExportedModel exportado) {
+        if (exportado.fixtures == null) {
+            return 0;
+        }
+        double[] construida = new double[modelo.getNumeroFeatures()];
+        for (int i = 0; i < exportado.fixtures.size(); i++) {
+            RandomForestModel.ExportedFixture fixture = exportado.fixtures.get(i);
+            if (fixture.x == null || fixture.x.length != modelo.getNumeroFeatures()) {
+                throw new IllegalStateException("Fixture " + i + " con número de features incorrecto");
+            }
+            comprobarProbabilidad(i, "features del servicio ML", fixture.probabilidad,
+                    modelo.predictProbability(fixture.x));
+
+            if (fixture.origen == null) {
+                continue;
+            }
+            int origen = GeoUtils.getOrdinal(fixture.origen);
+            int destino = GeoUtils.getOrdinal(fixture.destino);
+            LocalDateTime fecha = FechaUtils.intentarParsear(fixture.fechaPartida);
+            if (origen < 0 || destino < 0 || fecha == null) {
+                throw new IllegalStateException(String.format("Fixture %d con solicitud no válida: %s %s → %s, %s",
+                        i, fixture.aerolinea, fixture.origen, fixture.destino, fixture.fechaPartida));
+            }
+            layout.llenar(construida, fixture.aerolinea,
+                    GeoUtils.calcularDistanciaModelo(origen, destino), fecha);
+            for (int j = 0; j < construida.length; j++) {
+                if (Math.abs(construida[j] - fixture.x[j]) > parityTolerance * Math.max(1.0, Math.abs(fixture.x[j]))) {
+                    throw new IllegalStateException(String.format(
+                            "Fixture %d: la feature %s construida desde la solicitud no coincide: esperado %s, obtenido %s",
+                            i, modelo.getFeatureNames()[j], fixture.x[j], construida[j]));
+                }
+            }
+            comprobarProbabilidad(i, "features construidas", fixture.probabilidad,
+                    modelo.predictProbability(construida));
+        }
+        return exportado.fixtures.size();
+    }
+
+    private void comprobarProbabilidad(int fixture, String origen, double esperada, double obtenida) {
+        if (Math.abs(obtenida - esperada) > parityTolerance) {
+            throw new IllegalStateException(String.format(
+                    "Fixture %d no coincide (%s): esperado %.12f, obtenido %.12f",
+                    fixture, origen, esperada, obtenida));
+        }
+    }
+
+    /**
+     * Indica si hay un modelo local activo.
+     */
+    public boolean isDisponible() {
+        return modelo.get() != null;
+    }
+
+    /**
+     * Versión del modelo activo, o null si no hay modelo.
+     */
+    public String getVersion() {
+        ModeloCargado actual = modelo.get();
+        return actual != null ? actual.modelo.getVersion() : null;
+    }
+
+    /**
+     * Probabilidad de retraso para una ruta ya validada.
+     *
+     * @param aerolinea      Código de aerolínea
+     * @param origenOrdinal  Ordinal GeoUtils del aeropuerto de origen
+     * @param destinoOrdinal Ordinal GeoUtils del aeropuerto de destino
+     * @param fechaPartida   Fecha de partida interpretada
+     * @return Probabilidad de retraso (0.0 a 1.0)
+     * @throws IllegalStateException si no hay modelo activo
+     */
+    public double predecirProbabilidad(String aerolinea, int origenOrdinal, int destinoOrdinal,
+                                       LocalDateTime fechaPartida) {
+        ModeloCargado actual = modelo.get();
+        if (actual == null) {
+            throw new IllegalStateException("No hay modelo local cargado");
+        }
+
+        RandomForestModel modeloActual = actual.modelo;
+        double[] x = featuresPorHilo.get();
+        if (x.length < modeloActual.getNumeroFeatures()) {
+            x = new double[modeloActual.getNumeroFeatures()];
+            featuresPorHilo.set(x);
+        }
+
+        actual.layout.llenar(x, aerolinea,
+                GeoUtils.calcularDistanciaModelo(origenOrdinal, destinoOrdinal), fechaPartida);
+
+        return modeloActual.predictProbability(x);
+    }
+
+    /**
+     * Estado del modo local para /api/health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        ModeloCargado actual = modelo.get();
+        stats.put("habilitado", enabled);
+        stats.put("disponible", actual != null);
+        stats.put("ruta", modelPath);
+        stats.put("cargas", cargas.get());
+        stats.put("errores_carga", erroresCarga.get());
+        if (actual != null) {
+            stats.put("version", actual.modelo.getVersion());
+            stats.put("arboles", actual.modelo.getNumeroArboles());
+            stats.put("nodos", actual.modelo.getNumeroNodos());
+        }
+        return stats;
+    }
+
+    private record ModeloCargado(RandomForestModel modelo, FeatureLayout layout, FileTime modificado) {
+    }
+
+    /**
+     * ========================================================================
+     * CORRESPONDENCIA ENTRE FEATURES DEL MODELO Y DATOS DE LA SOLICITUD
+     * ========================================================================
+     * Resuelve una vez, al cargar el modelo, de dónde sale cada feature.
+     * ========================================================================
+     */
+    private static final class FeatureLayout {
+
+        private static final int DISTANCIA = 0;
+        private static final int TEMPERATURA = 1;
+        private static final int HUMEDAD = 2;
+        private static final int PRESION = 3;
+        private static final int VISIBILIDAD = 4;
+        private static final int VIENTO = 5;
+        private static final int HORA = 6;
+        private static final int DIA_SEMANA = 7;
+        private static final int MES = 8;
+        private static final int AEROLINEA = 9;
+
+        private final int[] fuente;
+        private final String[] aerolinea;
+
+        private FeatureLayout(int[] fuente, String[] aerolinea) {
+            this.fuente = fuente;
+            this.aerolinea = aerolinea;
+        }
+
+        static FeatureLayout of(String[] nombres) {
+            int[] fuente = new int[nombres.length];
+            String[] aerolinea = new String[nombres.length];
+            for (int i = 0; i < nombres.length; i++) {
+                String nombre = nombres[i];
+                fuente[i] = switch (nombre) {
+                    case "distancia_km" -> DISTANCIA;
+                    case "temperatura" -> TEMPERATURA;
+                    case "humedad" -> HUMEDAD;
+                    case "presion" -> PRESION;
+                    case "visibilidad" -> VISIBILIDAD;
+                    case "viento_velocidad" -> VIENTO;
+                    case "hora" -> HORA;
+                    case "dia_semana" -> DIA_SEMANA;
+                    case "mes" -> MES;
+                    default -> {
+                        if (!nombre.startsWith(PREFIJO_AEROLINEA)) {
+                            throw new IllegalArgumentException("Feature desconocida: " + nombre);
+                        }
+                        aerolinea[i] = nombre.substring(PREFIJO_AEROLINEA.length());
+                        yield AEROLINEA;
+                    }
+                };
+            }
+            return new FeatureLayout(fuente, aerolinea);
+        }
+
+        void llenar(double[] x, String codigoAerolinea, double distanciaKm, LocalDateTime fecha) {
+            for (int i = 0; i < fuente.length; i++) {
+                x[i] = switch (fuente[i]) {
+                    case DISTANCIA -> distanciaKm;
+                    case TEMPERATURA -> TEMPERATURA_NEUTRAL;
+                    case HUMEDAD -> HUMEDAD_NEUTRAL;
+                    case PRESION -> PRESION_NEUTRAL;
+                    case VISIBILIDAD -> VISIBILIDAD_NEUTRAL;
+                    case VIENTO -> VIENTO_NEUTRAL;
+                    case HORA -> fecha.getHour();
+                    case DIA_SEMANA -> fecha.getDayOfWeek().getValue() - 1; // 0 = lunes, como weekday()
+                    case MES -> fecha.getMonthValue();
+                    default -> aerolinea[i].equals(codigoAerolinea) ? 1.0 : 0.0;
+                };
+            }
+        }
+    }
+}
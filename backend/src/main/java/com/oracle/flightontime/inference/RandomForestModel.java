@@ -0,0 +1,214 @@
+package com.oracle.flightontime.inference;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * ============================================================================
+ * RANDOM FOREST APLANADO EN ARRAYS PRIMITIVOS
+ * ============================================================================
+ * Representación inmutable del modelo exportado por ml-service/export_model.py.
+ * Todos los nodos de todos los árboles se concatenan en arrays paralelos:
+ * - feature[n]:   índice de la feature del split (-1 en hojas)
+ * - threshold[n]: umbral del split (se va a la izquierda si x <= umbral)
+ * - left[n], right[n]: índices globales de los hijos
+ * - value[n]:     probabilidad de retraso (clase 1) en hojas
+ * La evaluación recorre los árboles sin asignar memoria.
+ * ============================================================================
+ */
+public final class RandomForestModel {
+
+    /**
+     * Identificador del formato de exportación soportado
+     */
+    public static final String FORMATO = "flightontime-rf/1";
+
+    private final String version;
+    private final String[] featureNames;
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+
+    private RandomForestModel(String version, String[] featureNames, int[] roots, int[] feature,
+                              double[] threshold, int[] left, int[] right, double[] value) {
+        this.version = version;
+        this.featureNames = featureNames;
+        this.roots = roots;
+        this.feature = feature;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    /**
+     * Aplana los árboles del archivo exportado, convirtiendo los índices de
+     * hijos de cada árbol en índices globales.
+     *
+     * @throws IllegalArgumentException si el archivo no es coherente
+     */
+    public static RandomForestModel from(ExportedModel exportado) {
+        if (!FORMATO.equals(exportado.formato)) {
+            throw new IllegalArgumentException("Formato de modelo no soportado: " + exportado.formato);
+        }
+        if (exportado.features == null || exportado.features.isEmpty()) {
+            throw new IllegalArgumentException("El modelo no declara features");
+        }
+        if (exportado.arboles == null || exportado.arboles.isEmpty()) {
+            throw new IllegalArgumentException("El modelo no contiene árboles");
+        }
+
+        int totalNodos = 0;
+        for (ExportedTree arbol : exportado.arboles) {
+            arbol.validar(exportado.features.size());
+            totalNodos += arbol.feature.length;
+        }
+
+        int[] roots = new int[exportado.arboles.size()];
+        int[] feature = new int[totalNodos];
+        double[] threshold = new double[totalNodos];
+        int[] left = new int[totalNodos];
+        int[] right = new int[totalNodos];
+        double[] value = new double[totalNodos];
+
+        int offset = 0;
+        for (int t = 0; t < roots.length; t++) {
+            ExportedTree arbol = exportado.arboles.get(t);
+            roots[t] = offset;
+            for (int i = 0; i < arbol.feature.length; i++) {
+                boolean hoja = arbol.feature[i] < 0;
+                feature[offset + i] = hoja ? -1 : arbol.feature[i];
+                threshold[offset + i] = arbol.threshold[i];
+                left[offset + i] = hoja ? -1 : offset + arbol.izquierdo[i];
+                right[offset + i] = hoja ? -1 : offset + arbol.derecho[i];
+                value[offset + i] = arbol.valor[i];
+            }
+            offset += arbol.feature.length;
+        }
+
+        return new RandomForestModel(exportado.version, exportado.features.toArray(new String[0]),
+                roots, feature, threshold, left, right, value);
+    }
+
+    /**
+     * Probabilidad de retraso: media de la probabilidad de la hoja alcanzada
+     * en cada árbol (equivalente a predict_proba(X)[0][1] de scikit-learn).
+     * Como scikit-learn, compara las features convertidas a float32.
+     *
+     * @param x Vector de features en el orden de {@link #getFeatureNames()}
+     */
+    public double predictProbability(double[] x) {
+        double suma = 0.0;
+        for (int root : roots) {
+            int n = root;
+            while (feature[n] >= 0) {
+                n = (double) (float) x[feature[n]] <= threshold[n] ? left[n] : right[n];
+            }
+            suma += value[n];
+        }
+        return suma / roots.length;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String[] getFeatureNames() {
+        return featureNames.clone();
+    }
+
+    public int getNumeroFeatures() {
+        return featureNames.length;
+    }
+
+    public int getNumeroArboles() {
+        return roots.length;
+    }
+
+    public int getNumeroNodos() {
+        return feature.length;
+    }
+
+    /**
+     * ========================================================================
+     * FORMATO DE EXPORTACIÓN (JSON)
+     * ========================================================================
+     */
+    public static class ExportedModel {
+        @JsonProperty("formato")
+        public String formato;
+
+        @JsonProperty("version")
+        public String version;
+
+        @JsonProperty("features")
+        public List<String> features;
+
+        @JsonProperty("arboles")
+        public List<ExportedTree> arboles;
+
+        /**
+         * Filas de comprobación: entradas de la solicitud, features y
+         * probabilidad calculadas por el servicio ML al exportar
+         */
+        @JsonProperty("fixtures")
+        public List<ExportedFixture> fixtures;
+    }
+
+    public static class ExportedTree {
+        @JsonProperty("feature")
+        public int[] feature;
+
+        @JsonProperty("threshold")
+        public double[] threshold;
+
+        @JsonProperty("izquierdo")
+        public int[] izquierdo;
+
+        @JsonProperty("derecho")
+        public int[] derecho;
+
+        @JsonProperty("valor")
+        public double[] valor;
+
+        void validar(int numeroFeatures) {
+            int n = feature != null ? feature.length : 0;
+            if (n == 0 || threshold == null || threshold.length != n || izquierdo == null || izquierdo.length != n
+                    || derecho == null || derecho.length != n || valor == null || valor.length != n) {
+                throw new IllegalArgumentException("Árbol con arrays vacíos o de distinta longitud");
+            }
+            for (int i = 0; i < n; i++) {
+                if (feature[i] >= numeroFeatures) {
+                    throw new IllegalArgumentException("Índice de feature fuera de rango: " + feature[i]);
+                }
+                if (feature[i] >= 0 && (izquierdo[i] <= i || izquierdo[i] >= n || derecho[i] <= i || derecho[i] >= n)) {
+                    throw new IllegalArgumentException("Índices de hijos no válidos en el nodo " + i);
+                }
+            }
+        }
+    }
+
+    public static class ExportedFixture {
+        @JsonProperty("aerolinea")
+        public String aerolinea;
+
+        @JsonProperty("origen")
+        public String origen;
+
+        @JsonProperty("destino")
+        public String destino;
+
+        @JsonProperty("fecha_partida")
+        public String fechaPartida;
+
+        @JsonProperty("x")
+        public double[] x;
+
+        @JsonProperty("probabilidad")
+        public double probabilidad;
+    }
+}
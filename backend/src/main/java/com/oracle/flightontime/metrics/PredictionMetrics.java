@@ -0,0 +1,189 @@
+package com.oracle.flightontime.metrics;
+
+import com.oracle.flightontime.config.AirlineConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ============================================================================
+ * MÉTRICAS DE PREDICCIÓN (MICROMETER)
+ * ============================================================================
+ * Temporizadores por etapa (validación, distancia, llamada ML y total) con
+ * percentiles p50/p95/p99 e histograma opcional para Prometheus, y
+ * contadores de fallbacks, rechazos de validación y solicitudes por
+ * aerolínea/ruta.
+ *
+ * La cardinalidad de las etiquetas está acotada: la aerolínea solo toma los
+ * códigos configurados y la ruta solo se etiqueta para las primeras
+ * ml.metrics.max-route-tags rutas válidas observadas; el resto se agrupa
+ * como "otras".
+ * ============================================================================
+ */
+@Component
+public class PredictionMetrics {
+
+    public static final String PREFIJO = "flightontime.prediction";
+
+    private static final String SIN_VALOR = "desconocida";
+    private static final String RUTA_OTRAS = "otras";
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final int maxRutas;
+    private final boolean histograma;
+
+    private final Timer validacion;
+    private final Timer distancia;
+
+    private final Map<String, Timer> temporizadores = new ConcurrentHashMap<>();
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+    private final Set<String> rutasEtiquetadas = ConcurrentHashMap.newKeySet();
+
+    public PredictionMetrics(MeterRegistry registry,
+                             @Value("${ml.metrics.max-route-tags:200}") int maxRutas,
+                             @Value("${ml.metrics.histogram:true}") boolean histograma) {
+        this.registry = registry;
+        this.maxRutas = maxRutas;
+        this.histograma = histograma;
+        this.validacion = crearTimer(PREFIJO + ".validation", "Validación de reglas de negocio");
+        this.distancia = crearTimer(PREFIJO + ".distance", "Consulta de distancia entre aeropuertos");
+    }
+
+    /**
+     * Duración de la validación de negocio de una solicitud.
+     */
+    public void registrarValidacion(long nanos) {
+        validacion.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Duración de la consulta de distancia.
+     */
+    public void registrarDistancia(long nanos) {
+        distancia.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Duración de una llamada HTTP al servicio ML.
+     *
+     * @param tipo      individual | lote
+     * @param resultado exito | error
+     */
+    public void registrarLlamadaMl(String tipo, String resultado, long nanos) {
+        temporizadores.computeIfAbsent("ml|" + tipo + "|" + resultado, clave -> Timer.builder(PREFIJO + ".ml.call")
+                        .description("Llamada HTTP al servicio ML")
+                        .tag("tipo", tipo)
+                        .tag("resultado", resultado)
+                        .publishPercentiles(PERCENTILES)
+                        .publishPercentileHistogram(histograma)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Duración total de una predicción, desde la entrada al servicio hasta la
+     * emisión de la respuesta.
+     *
+     * @param modo      mock | real | local | lote
+     * @param resultado ok | error | cancelado
+     */
+    public void registrarTotal(String modo, String resultado, long nanos) {
+        temporizadores.computeIfAbsent("total|" + modo + "|" + resultado, clave -> Timer.builder(PREFIJO + ".total")
+                        .description("Duración total de la predicción")
+                        .tag("modo", modo)
+                        .tag("resultado", resultado)
+                        .publishPercentiles(PERCENTILES)
+                        .publishPercentileHistogram(histograma)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Fallback de un modo a otro.
+     *
+     * @param desde  real | lote | local
+     * @param motivo circuito_abierto | timeout | error | modelo_no_disponible
+     */
+    public void registrarFallback(String desde, String motivo) {
+        contador(PREFIJO + ".fallback", "Fallbacks a un modo alternativo", "desde", desde, "motivo", motivo)
+                .increment();
+    }
+
+    /**
+     * Solicitud rechazada por validación.
+     *
+     * @param motivo Código corto del motivo (p. ej. aerolinea_invalida)
+     */
+    public void registrarRechazoValidacion(String motivo) {
+        contador(PREFIJO + ".validation.failures", "Solicitudes rechazadas por validación", "motivo", motivo)
+                .increment();
+    }
+
+    /**
+     * Contador de llamadas al servicio ML evitadas por coalescencia, leído
+     * de la función indicada.
+     */
+    public <T> void registrarLlamadasAhorradas(T fuente, ToDoubleFunction<T> valor) {
+        FunctionCounter.builder(PREFIJO + ".ml.coalesced", fuente, valor)
+                .description("Llamadas al servicio ML evitadas por coalescencia")
+                .register(registry);
+    }
+
+    /**
+     * Solicitud de predicción etiquetada por aerolínea y ruta.
+     */
+    public void registrarSolicitud(String aerolinea, String origen, String destino) {
+        String etiquetaAerolinea = SIN_VALOR;
+        String etiquetaRuta = SIN_VALOR;
+
+        if (AirlineConfig.esAerolineaValida(aerolinea)) {
+            etiquetaAerolinea = aerolinea;
+            if (AirlineConfig.esAeropuertoValido(aerolinea, origen)
+                    && AirlineConfig.esAeropuertoValido(aerolinea, destino)) {
+                etiquetaRuta = etiquetarRuta(origen.toUpperCase() + "-" + destino.toUpperCase());
+            }
+        }
+
+        contador(PREFIJO + ".requests", "Solicitudes de predicción",
+                "aerolinea", etiquetaAerolinea, "ruta", etiquetaRuta).increment();
+    }
+
+    private String etiquetarRuta(String ruta) {
+        if (rutasEtiquetadas.contains(ruta)) {
+            return ruta;
+        }
+        if (rutasEtiquetadas.size() < maxRutas && rutasEtiquetadas.add(ruta)) {
+            return ruta;
+        }
+        return RUTA_OTRAS;
+    }
+
+    private Counter contador(String nombre, String descripcion, String... etiquetas) {
+        StringBuilder clave = new StringBuilder(nombre);
+        for (String etiqueta : etiquetas) {
+            clave.append('|').append(etiqueta);
+        }
+        return contadores.computeIfAbsent(clave.toString(), k -> Counter.builder(nombre)
+                .description(descripcion)
+                .tags(etiquetas)
+                .register(registry));
+    }
+
+    private Timer crearTimer(String nombre, String descripcion) {
+        return Timer.builder(nombre)
+                .description(descripcion)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram(histograma)
+                .register(registry);
+    }
+}
@@ -0,0 +1,262 @@
+package com.oracle.flightontime.mock;
+
+import com.oracle.flightontime.dto.PredictionMetadata;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import com.oracle.flightontime.metrics.PredictionMetrics;
+import com.oracle.flightontime.util.GeoUtils;
+import com.oracle.flightontime.weather.WeatherSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ============================================================================
+ * MOTOR DE PREDICCIÓN SIMULADA (MODO MOCK)
+ * ============================================================================
+ * Predicción simulada determinista: la misma aerolínea, ruta y hora de
+ * partida producen siempre la misma respuesta, por lo que el modo mock
+ * sirve como sustituto estable del servicio ML en pruebas de carga.
+ *
+ * - La variación aleatoria sale de un hash SplitMix64 de la clave de la
+ *   solicitud (aerolínea, ordinales de origen y destino, fecha truncada a
+ *   la hora): no hay estado compartido ni instancias de Random.
+ * - El clima simulado de cada aeropuerto (cuando la instantánea de clima
+ *   no tiene datos) se calcula una vez; los nombres de aeropuerto y los
+ *   textos de ruta salen de las tablas de GeoUtils. Todos se comparten
+ *   entre respuestas: por llamada solo se crean la respuesta y su metadata
+ *   tipada.
+ * - Latencia sintética opcional (ml.mock.latency.*) para emular el tiempo
+ *   de respuesta del servicio ML: none, fixed, uniform o lognormal.
+ * ============================================================================
+ */
+@Component
+public class MockPredictionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MockPredictionEngine.class);
+
+    /** Cuantil 0.99 de la normal estándar */
+    private static final double Z_P99 = 2.3263478740408408;
+
+    private static final double DISTANCIA_POR_DEFECTO = 1000.0;
+
+    public enum TipoLatencia {
+        NONE, FIXED, UNIFORM, LOGNORMAL
+    }
+
+    private final PredictionMetrics metrics;
+
+    private final TipoLatencia tipoLatencia;
+    private final double minimoMs;
+    private final double medianaMs;
+    private final double sigma;
+
+    private final WeatherDataDTO[] climas;
+
+    /** Texto de timestamp_prediccion del segundo en curso */
+    private volatile MarcaTiempo marcaTiempo = new MarcaTiempo(-1, null);
+
+    public MockPredictionEngine(PredictionMetrics metrics,
+                                @Value("${ml.mock.latency.type:none}") String tipoLatencia,
+                                @Value("${ml.mock.latency.min-ms:0}") double minimoMs,
+                                @Value("${ml.mock.latency.median-ms:20}") double medianaMs,
+                                @Value("${ml.mock.latency.p99-ms:100}") double p99Ms) {
+        this.metrics = metrics;
+        this.tipoLatencia = TipoLatencia.valueOf(tipoLatencia.trim().toUpperCase(Locale.ROOT));
+        this.minimoMs = Math.max(0.0, minimoMs);
+        this.medianaMs = Math.max(this.minimoMs, medianaMs);
+        double escalaMediana = this.medianaMs - this.minimoMs;
+        double escalaP99 = Math.max(p99Ms, this.medianaMs) - this.minimoMs;
+        this.sigma = escalaMediana > 0 && escalaP99 > escalaMediana
+                ? Math.log(escalaP99 / escalaMediana) / Z_P99 : 0.0;
+
+        int numAeropuertos = GeoUtils.getNumeroAeropuertos();
+        this.climas = new WeatherDataDTO[numAeropuertos];
+        for (int i = 0; i < numAeropuertos; i++) {
+            climas[i] = climaSimulado(i);
+        }
+
+        if (this.tipoLatencia != TipoLatencia.NONE) {
+            logger.info("🎲 Latencia sintética del modo mock: {} (mínimo {}ms, mediana {}ms, p99 {}ms)",
+                    this.tipoLatencia, this.minimoMs, this.medianaMs, p99Ms);
+        }
+    }
+
+    /**
+     * Genera la predicción simulada de una solicitud ya validada.
+     *
+     * @param snapshot Instantánea de clima vigente; los aeropuertos sin datos
+     *                 usan su clima simulado fijo
+     */
+    public PredictionResponseDTO predecir(PredictionRequestDTO request, WeatherSnapshot snapshot) {
+        long startTime = System.currentTimeMillis();
+        String origen = request.getOrigen();
+        String destino = request.getDestino();
+
+        long inicioDistancia = System.nanoTime();
+        int origenOrdinal = GeoUtils.getOrdinal(origen);
+        int destinoOrdinal = GeoUtils.getOrdinal(destino);
+        boolean conocidos = origenOrdinal >= 0 && destinoOrdinal >= 0;
+        double distanciaKm = conocidos
+                ? GeoUtils.calcularDistancia(origenOrdinal, destinoOrdinal) : DISTANCIA_POR_DEFECTO;
+        metrics.registrarDistancia(System.nanoTime() - inicioDistancia);
+        if (!conocidos) {
+            logger.warn("⚠️ No se pudo calcular distancia para {} → {}, usando valor por defecto", origen, destino);
+        }
+
+        // Variación determinista en [0, 1) a partir de la clave de la solicitud
+        long semilla = semilla(request.getAerolinea(), origenOrdinal, destinoOrdinal, request.getFechaPartida());
+        double variacion = (mezclar(semilla) >>> 11) * 0x1.0p-53;
+
+        // CÁLCULO DE PROBABILIDAD (SIMULADO)
+        double probabilidadRetraso = 0.15; // Probabilidad base
+
+        // Factor: Distancia (vuelos largos tienen más probabilidad de retraso)
+        if (distanciaKm > 5000) {
+            probabilidadRetraso += 0.15;
+        } else if (distanciaKm > 2000) {
+            probabilidadRetraso += 0.05;
+        }
+
+        // Variación ±5%
+        probabilidadRetraso += variacion * 0.10 - 0.05;
+        probabilidadRetraso = Math.max(0.0, Math.min(1.0, probabilidadRetraso));
+
+        // Determinar predicción binaria: 0 = Puntual, 1 = Retrasado
+        int prediccion = probabilidadRetraso > 0.5 ? 1 : 0;
+        double confianza = Math.round(Math.max(probabilidadRetraso, 1.0 - probabilidadRetraso) * 10000.0) / 10000.0;
+        probabilidadRetraso = Math.round(probabilidadRetraso * 10000.0) / 10000.0;
+
+        WeatherDataDTO climaOrigen = conocidos ? snapshot.get(origenOrdinal) : null;
+        WeatherDataDTO climaDestino = conocidos ? snapshot.get(destinoOrdinal) : null;
+        boolean climaReal = climaOrigen != null && climaDestino != null;
+        if (climaOrigen == null) {
+            climaOrigen = origenOrdinal >= 0 ? climaFijo(origenOrdinal) : generarClimaSimulado(semilla);
+        }
+        if (climaDestino == null) {
+            climaDestino = destinoOrdinal >= 0 ? climaFijo(destinoOrdinal) : generarClimaSimulado(~semilla);
+        }
+
+        // Metadata
+        PredictionMetadata.Builder metadata = PredictionMetadata.builder()
+                .aerolinea(request.getAerolinea())
+                .ruta(conocidos ? GeoUtils.getRuta(origenOrdinal, destinoOrdinal) : origen + " → " + destino)
+                .origenNombre(origenOrdinal >= 0 ? GeoUtils.getAirportName(origenOrdinal) : origen)
+                .destinoNombre(destinoOrdinal >= 0 ? GeoUtils.getAirportName(destinoOrdinal) : destino)
+                .fechaPartida(request.getFechaPartida())
+                .timestampPrediccion(timestamp(startTime))
+                .modo("MOCK_LOCAL")
+                .mensaje("Predicción simulada (sin servicio ML)");
+        if (climaReal) {
+            long ahora = System.currentTimeMillis();
+            metadata.climaFuente(snapshot.getFuente())
+                    .climaAntiguedadS(Math.max(snapshot.antiguedadSegundos(origenOrdinal, ahora),
+                            snapshot.antiguedadSegundos(destinoOrdinal, ahora)));
+        } else {
+            metadata.climaFuente("SIMULADO_LOCAL");
+        }
+        metadata.tiempoRespuestaMs(System.currentTimeMillis() - startTime);
+
+        return new PredictionResponseDTO(prediccion, probabilidadRetraso, confianza, distanciaKm,
+                climaOrigen, climaDestino, metadata.build(), true);
+    }
+
+    /**
+     * Latencia sintética para una respuesta (Duration.ZERO si está desactivada).
+     * Usa el generador aleatorio del hilo: la latencia no es determinista.
+     */
+    public Duration latenciaSintetica() {
+        double ms = switch (tipoLatencia) {
+            case NONE -> 0.0;
+            case FIXED -> medianaMs;
+            case UNIFORM -> minimoMs + ThreadLocalRandom.current().nextDouble() * 2 * (medianaMs - minimoMs);
+            case LOGNORMAL -> minimoMs
+                    + (medianaMs - minimoMs) * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        };
+        return ms > 0 ? Duration.ofNanos((long) (ms * 1_000_000)) : Duration.ZERO;
+    }
+
+    public TipoLatencia getTipoLatencia() {
+        return tipoLatencia;
+    }
+
+    private String timestamp(long ahoraMs) {
+        long segundo = ahoraMs / 1000;
+        MarcaTiempo actual = marcaTiempo;
+        if (actual.segundo != segundo) {
+            String texto = LocalDateTime.now().withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            actual = new MarcaTiempo(segundo, texto);
+            marcaTiempo = actual;
+        }
+        return actual.texto;
+    }
+
+    /**
+     * Semilla de la solicitud. La fecha se reduce a sus primeros 13
+     * caracteres (yyyy-MM-ddTHH en ISO-8601), igual que la clave de caché
+     * trunca a la hora, sin interpretarla.
+     */
+    static long semilla(String aerolinea, int origenOrdinal, int destinoOrdinal, String fechaPartida) {
+        long h = aerolinea != null ? aerolinea.hashCode() : 0;
+        h = h * 0x100000001B3L + origenOrdinal;
+        h = h * 0x100000001B3L + destinoOrdinal;
+        if (fechaPartida != null) {
+            int fin = Math.min(13, fechaPartida.length());
+            for (int i = 0; i < fin; i++) {
+                h = h * 31 + fechaPartida.charAt(i);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Finalizador de SplitMix64: distribuye uniformemente los bits de x.
+     */
+    static long mezclar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Clima simulado fijo de un aeropuerto. Los aeropuertos agregados por una
+     * recarga de datos de referencia no están en la tabla precalculada y lo
+     * generan en cada llamada, con la misma semilla.
+     */
+    private WeatherDataDTO climaFijo(int ordinal) {
+        return ordinal < climas.length ? climas[ordinal] : climaSimulado(ordinal);
+    }
+
+    private static WeatherDataDTO climaSimulado(int ordinal) {
+        return generarClimaSimulado(mezclar(0x9E3779B97F4A7C15L * (ordinal + 1)));
+    }
+
+    private static WeatherDataDTO generarClimaSimulado(long semilla) {
+        long bits = mezclar(semilla);
+        double temperatura = 15.0 + ((bits & 0xFFFF) / 65536.0) * 20.0; // 15-35°C
+        int humedad = 40 + (int) ((bits >>> 16) & 0xFFFF) % 50; // 40-90%
+        double vientoVelocidad = 2.0 + (((bits >>> 32) & 0xFFFF) / 65536.0) * 15.0; // 2-17 m/s
+        int visibilidad = 5000 + (int) ((bits >>> 48) & 0xFFFF) % 5000; // 5-10 km
+
+        return WeatherDataDTO.builder()
+                .temperatura(Math.round(temperatura * 10.0) / 10.0)
+                .humedad(humedad)
+                .presion(1013)
+                .visibilidad(visibilidad)
+                .vientoVelocidad(Math.round(vientoVelocidad * 10.0) / 10.0)
+                .condicion(humedad > 70 ? "Clouds" : "Clear")
+                .descripcion(humedad > 70 ? "nublado" : "cielo claro")
+                .build();
+    }
+
+    private record MarcaTiempo(long segundo, String texto) {
+    }
+}
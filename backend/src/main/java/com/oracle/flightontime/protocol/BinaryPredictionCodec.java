@@ -0,0 +1,177 @@
+package com.oracle.flightontime.protocol;
+
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.util.FechaUtils;
+import com.oracle.flightontime.util.IataCode;
+import io.netty.buffer.ByteBuf;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * PROTOCOLO BINARIO BACKEND ↔ SERVICIO ML
+ * ============================================================================
+ * Codificación opcional de /predict_internal y /predict_internal_batch
+ * (Content-Type application/x-flightontime-bin). Todos los enteros y
+ * dobles en big-endian.
+ *
+ * Cabecera (8 bytes), igual en solicitud y respuesta:
+ *   'F' 'O' 'T' | u8 versión (1) | u32 número de registros
+ *
+ * Registro de solicitud (16 bytes):
+ *   u8 aerolínea | u8 flags (bit 0: hay fecha) | u16 origen | u16 destino
+ *   | u16 reservado | i64 fecha de partida
+ *   - origen/destino: código IATA empaquetado en base 26 ({@link IataCode})
+ *   - fecha: segundos desde epoch de la fecha local de partida leída como
+ *     UTC (el modelo solo usa hora, día de la semana y mes)
+ *
+ * Registro de respuesta (28 bytes):
+ *   u8 predicción | u8 reservado | u16 reservado | f64 probabilidad_retraso
+ *   | f64 confianza | f64 distancia_km
+ *
+ * La respuesta no incluye clima ni metadata: el backend los completa con
+ * su instantánea de clima y sus tablas de aeropuertos. La versión del
+ * modelo llega en la cabecera X-Model-Version. Las respuestas de error
+ * (4xx/5xx) siguen siendo JSON.
+ * ============================================================================
+ */
+public final class BinaryPredictionCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-flightontime-bin";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    /** Cabecera HTTP con la versión del modelo que calculó la respuesta */
+    public static final String CABECERA_VERSION_MODELO = "X-Model-Version";
+
+    public static final int VERSION = 1;
+    public static final int TAMANO_CABECERA = 8;
+    public static final int TAMANO_SOLICITUD = 16;
+    public static final int TAMANO_RESPUESTA = 28;
+
+    private static final int FLAG_FECHA = 1;
+
+    private BinaryPredictionCodec() {
+    }
+
+    /**
+     * Codifica solicitudes ya validadas.
+     *
+     * @throws IllegalArgumentException si una aerolínea no es numérica o un
+     *                                  código IATA no es de 3 letras
+     */
+    public static byte[] codificarSolicitudes(List<PredictionRequestDTO> solicitudes) {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_CABECERA + solicitudes.size() * TAMANO_SOLICITUD);
+        escribirCabecera(buffer, solicitudes.size());
+        for (PredictionRequestDTO solicitud : solicitudes) {
+            String fecha = solicitud.getFechaPartida();
+            buffer.put((byte) aerolinea(solicitud.getAerolinea()));
+            buffer.put((byte) (fecha != null ? FLAG_FECHA : 0));
+            buffer.putShort((short) iata(solicitud.getOrigen()));
+            buffer.putShort((short) iata(solicitud.getDestino()));
+            buffer.putShort((short) 0);
+            buffer.putLong(fecha != null
+                    ? FechaUtils.parsearFechaPartida(fecha).toEpochSecond(ZoneOffset.UTC) : 0L);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodifica una respuesta binaria. Si el buffer es de Netty se leen los
+     * campos directamente del ByteBuf recibido, sin copiarlo. El buffer no
+     * se libera aquí.
+     *
+     * @param esperadas Número de respuestas esperadas
+     * @throws IllegalStateException si la cabecera, la versión o el tamaño no coinciden
+     */
+    public static RespuestasBinarias decodificarRespuestas(DataBuffer datos, int esperadas) {
+        if (datos.readableByteCount() < TAMANO_CABECERA) {
+            throw new IllegalStateException("Respuesta binaria incompleta: " + datos.readableByteCount() + " bytes");
+        }
+        if (datos instanceof NettyDataBuffer netty) {
+            ByteBuf buf = netty.getNativeBuffer();
+            return decodificar(buf, buf.readerIndex(), buf.readableBytes(), esperadas);
+        }
+        byte[] bytes = new byte[datos.readableByteCount()];
+        datos.read(bytes);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return decodificar(buffer, esperadas);
+    }
+
+    private static RespuestasBinarias decodificar(ByteBuf buf, int inicio, int longitud, int esperadas) {
+        int registros = validarCabecera(buf.getByte(inicio), buf.getByte(inicio + 1), buf.getByte(inicio + 2),
+                buf.getUnsignedByte(inicio + 3), buf.getInt(inicio + 4), longitud, esperadas);
+
+        int[] prediccion = new int[registros];
+        double[] probabilidad = new double[registros];
+        double[] confianza = new double[registros];
+        double[] distancia = new double[registros];
+        int posicion = inicio + TAMANO_CABECERA;
+        for (int i = 0; i < registros; i++, posicion += TAMANO_RESPUESTA) {
+            prediccion[i] = buf.getUnsignedByte(posicion);
+            probabilidad[i] = buf.getDouble(posicion + 4);
+            confianza[i] = buf.getDouble(posicion + 12);
+            distancia[i] = buf.getDouble(posicion + 20);
+        }
+        return new RespuestasBinarias(prediccion, probabilidad, confianza, distancia);
+    }
+
+    private static RespuestasBinarias decodificar(ByteBuffer buffer, int esperadas) {
+        int registros = validarCabecera(buffer.get(0), buffer.get(1), buffer.get(2),
+                buffer.get(3) & 0xFF, buffer.getInt(4), buffer.remaining(), esperadas);
+
+        int[] prediccion = new int[registros];
+        double[] probabilidad = new double[registros];
+        double[] confianza = new double[registros];
+        double[] distancia = new double[registros];
+        int posicion = TAMANO_CABECERA;
+        for (int i = 0; i < registros; i++, posicion += TAMANO_RESPUESTA) {
+            prediccion[i] = buffer.get(posicion) & 0xFF;
+            probabilidad[i] = buffer.getDouble(posicion + 4);
+            confianza[i] = buffer.getDouble(posicion + 12);
+            distancia[i] = buffer.getDouble(posicion + 20);
+        }
+        return new RespuestasBinarias(prediccion, probabilidad, confianza, distancia);
+    }
+
+    private static int validarCabecera(byte f, byte o, byte t, int version, int registros,
+                                       int longitud, int esperadas) {
+        if (f != 'F' || o != 'O' || t != 'T') {
+            throw new IllegalStateException("Respuesta binaria sin cabecera FOT");
+        }
+        if (version != VERSION) {
+            throw new IllegalStateException("Versión de protocolo binario no soportada: " + version);
+        }
+        if (registros != esperadas || longitud != TAMANO_CABECERA + registros * TAMANO_RESPUESTA) {
+            throw new IllegalStateException(String.format(
+                    "Respuesta binaria con %d registros (%d bytes) para %d solicitudes",
+                    registros, longitud, esperadas));
+        }
+        return registros;
+    }
+
+    private static void escribirCabecera(ByteBuffer buffer, int registros) {
+        buffer.put((byte) 'F').put((byte) 'O').put((byte) 'T').put((byte) VERSION);
+        buffer.putInt(registros);
+    }
+
+    private static int aerolinea(String codigo) {
+        int valor = Integer.parseInt(codigo);
+        if (valor < 0 || valor > 255) {
+            throw new IllegalArgumentException("Aerolínea fuera de rango para el protocolo binario: " + codigo);
+        }
+        return valor;
+    }
+
+    private static int iata(String codigo) {
+        int empaquetado = IataCode.pack(codigo);
+        if (empaquetado == IataCode.INVALIDO) {
+            throw new IllegalArgumentException("Código IATA no válido: " + codigo);
+        }
+        return empaquetado;
+    }
+}
@@ -0,0 +1,13 @@
+package com.oracle.flightontime.protocol;
+
+/**
+ * Respuestas decodificadas del protocolo binario, por columnas: la
+ * posición i corresponde a la solicitud i del mensaje.
+ */
+public record RespuestasBinarias(int[] prediccion, double[] probabilidadRetraso,
+                                 double[] confianza, double[] distanciaKm) {
+
+    public int size() {
+        return prediccion.length;
+    }
+}
@@ -0,0 +1,333 @@
+package com.oracle.flightontime.reference;
+
+import com.oracle.flightontime.util.AirportBitSet;
+import com.oracle.flightontime.util.AirportSpatialIndex;
+import com.oracle.flightontime.util.GeoUtils;
+import com.oracle.flightontime.util.IataCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ============================================================================
+ * INSTANTÁNEA DE DATOS DE REFERENCIA (AEROPUERTOS Y AEROLÍNEAS)
+ * ============================================================================
+ * Aeropuertos (código, coordenadas, nombre) y aerolíneas (nombre y red de
+ * aeropuertos) leídos de reference-data.bin ({@link ReferenceDataFormat}).
+ * Es inmutable: cada recarga construye una instantánea nueva y la publica
+ * con una sola escritura volátil, así que las lecturas no usan locks.
+ * GeoUtils y AirlineConfig leen siempre la instantánea vigente.
+ *
+ * - Ordinales estables: una recarga conserva el ordinal de cada aeropuerto
+ *   ya conocido y agrega los nuevos al final, por lo que los arreglos
+ *   indexados por ordinal (clima, bitsets, matrices) siguen siendo válidos.
+ *   Los aeropuertos que desaparecen del archivo conservan su ordinal y
+ *   coordenadas hasta el reinicio, pero salen de las redes de aerolíneas.
+ * - Los nombres se decodifican desde el archivo (mapeado en memoria cuando
+ *   es externo) la primera vez que se piden.
+ * - El índice espacial (aeropuertos cercanos) se construye la primera vez
+ *   que se consulta e incluye solo los aeropuertos presentes en el archivo.
+ * - La matriz de distancias y los textos de ruta solo se precalculan hasta
+ *   MAX_AEROPUERTOS_MATRIZ aeropuertos; por encima la distancia se calcula
+ *   al vuelo con la misma fórmula y el mismo redondeo.
+ *
+ * Al iniciar se cargan los datos empaquetados en el classpath
+ * (/reference/reference-data.bin, generado en el build). Si el binario no
+ * está, por ejemplo al ejecutar desde un IDE sin la fase process-classes,
+ * se compila en memoria desde los CSV fuente.
+ * ============================================================================
+ */
+public final class ReferenceData {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceData.class);
+
+    /** Recurso empaquetado generado por ReferenceDataCompiler */
+    public static final String RECURSO = "/reference/reference-data.bin";
+
+    /** Número máximo de aeropuertos con matriz de distancias precalculada (8 MB) */
+    static final int MAX_AEROPUERTOS_MATRIZ = 1024;
+
+    /**
+     * Red de aeropuertos de una aerolínea.
+     *
+     * @param aeropuertos Códigos IATA (inmutable)
+     * @param bits        Mismos aeropuertos como bitset sobre los ordinales
+     */
+    public record Aerolinea(String codigo, String nombre, Set<String> aeropuertos, AirportBitSet bits) {
+    }
+
+    private static volatile ReferenceData actual = cargarEmpaquetados();
+
+    private final long version;
+    private final String origen;
+    private final long generadoMs;
+    private final int numAeropuertos;
+    private final int eliminados;
+
+    private final String[] codigos;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /** Archivo leído; los nombres se decodifican desde aquí */
+    private final ByteBuffer datos;
+    /** Offset del nombre en datos, o -1 si el nombre ya está en nombres */
+    private final int[] offsetNombre;
+    /** Nombres decodificados (una carrera entre hilos solo decodifica dos veces) */
+    private final String[] nombres;
+
+    private final int[] ordinalPorCodigo;
+    private final double[] distancias;
+    private final String[] rutas;
+
+    private final Map<String, Aerolinea> aerolineas;
+    private final Aerolinea[] aerolineaPorDigito;
+
+    /** Índice espacial, creado en la primera consulta */
+    private volatile AirportSpatialIndex indiceEspacial;
+
+    ReferenceData(long version, String origen, long generadoMs, int eliminados,
+                  String[] codigos, double[] latitudes, double[] longitudes,
+                  ByteBuffer datos, int[] offsetNombre, String[] nombres,
+                  Map<String, Aerolinea> aerolineas) {
+        this.version = version;
+        this.origen = origen;
+        this.generadoMs = generadoMs;
+        this.numAeropuertos = codigos.length;
+        this.eliminados = eliminados;
+        this.codigos = codigos;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.datos = datos;
+        this.offsetNombre = offsetNombre;
+        this.nombres = nombres;
+        this.aerolineas = Collections.unmodifiableMap(aerolineas);
+
+        this.ordinalPorCodigo = new int[IataCode.CARDINALIDAD];
+        Arrays.fill(ordinalPorCodigo, -1);
+        for (int i = 0; i < numAeropuertos; i++) {
+            ordinalPorCodigo[IataCode.pack(codigos[i])] = i;
+        }
+
+        if (numAeropuertos <= MAX_AEROPUERTOS_MATRIZ) {
+            this.distancias = new double[numAeropuertos * numAeropuertos];
+            for (int i = 0; i < numAeropuertos; i++) {
+                for (int j = i + 1; j < numAeropuertos; j++) {
+                    double distancia = GeoUtils.calcularDistanciaHaversine(
+                            latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+                    distancias[i * numAeropuertos + j] = distancia;
+                    distancias[j * numAeropuertos + i] = distancia;
+                }
+            }
+            this.rutas = new String[numAeropuertos * numAeropuertos];
+        } else {
+            this.distancias = null;
+            this.rutas = null;
+        }
+
+        this.aerolineaPorDigito = new Aerolinea[10];
+        aerolineas.forEach((codigo, aerolinea) -> {
+            if (codigo.length() == 1 && Character.isDigit(codigo.charAt(0))) {
+                aerolineaPorDigito[codigo.charAt(0) - '0'] = aerolinea;
+            }
+        });
+    }
+
+    /**
+     * Instantánea vigente.
+     */
+    public static ReferenceData actual() {
+        return actual;
+    }
+
+    /**
+     * Publica una instantánea nueva; las lecturas posteriores la ven completa.
+     */
+    static void publicar(ReferenceData nueva) {
+        actual = nueva;
+    }
+
+    private static ReferenceData cargarEmpaquetados() {
+        try (InputStream binario = ReferenceData.class.getResourceAsStream(RECURSO)) {
+            if (binario != null) {
+                return ReferenceDataFormat.leer(ByteBuffer.wrap(binario.readAllBytes()),
+                        "classpath:" + RECURSO, null);
+            }
+            logger.warn("⚠️ {} no está en el classpath; compilando datos de referencia desde los CSV", RECURSO);
+            try (Reader aeropuertos = recursoTexto(ReferenceDataCompiler.RECURSO_AEROPUERTOS);
+                 Reader aerolineas = recursoTexto(ReferenceDataCompiler.RECURSO_AEROLINEAS)) {
+                byte[] compilado = ReferenceDataCompiler.compilar(aeropuertos, aerolineas);
+                return ReferenceDataFormat.leer(ByteBuffer.wrap(compilado),
+                        "classpath:" + ReferenceDataCompiler.RECURSO_AEROPUERTOS, null);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron cargar los datos de referencia empaquetados", e);
+        }
+    }
+
+    private static Reader recursoTexto(String recurso) throws IOException {
+        InputStream entrada = ReferenceData.class.getResourceAsStream(recurso);
+        if (entrada == null) {
+            throw new IOException("Recurso no encontrado: " + recurso);
+        }
+        return new InputStreamReader(entrada, StandardCharsets.UTF_8);
+    }
+
+    // ========================================================================
+    // AEROPUERTOS
+    // ========================================================================
+
+    /**
+     * Número de ordinales asignados (0..N-1), incluidos los aeropuertos que
+     * ya no están en el archivo.
+     */
+    public int getNumeroAeropuertos() {
+        return numAeropuertos;
+    }
+
+    /**
+     * Ordinal de un código IATA empaquetado, o -1 si no es un aeropuerto conocido.
+     */
+    public int getOrdinalEmpaquetado(int codigoEmpaquetado) {
+        if (codigoEmpaquetado < 0 || codigoEmpaquetado >= IataCode.CARDINALIDAD) {
+            return -1;
+        }
+        return ordinalPorCodigo[codigoEmpaquetado];
+    }
+
+    public String getCodigo(int ordinal) {
+        return codigos[ordinal];
+    }
+
+    public double getLatitud(int ordinal) {
+        return latitudes[ordinal];
+    }
+
+    public double getLongitud(int ordinal) {
+        return longitudes[ordinal];
+    }
+
+    /**
+     * Nombre de un aeropuerto, decodificado del archivo la primera vez.
+     */
+    public String getNombre(int ordinal) {
+        String nombre = nombres[ordinal];
+        if (nombre == null) {
+            nombre = ReferenceDataFormat.leerTexto(datos, offsetNombre[ordinal]);
+            nombres[ordinal] = nombre;
+        }
+        return nombre;
+    }
+
+    /**
+     * Indica si el aeropuerto ya no está en el archivo (se conserva solo
+     * para que su ordinal siga siendo válido).
+     */
+    public boolean isRetirado(int ordinal) {
+        return offsetNombre[ordinal] < 0;
+    }
+
+    /**
+     * Índice espacial de los aeropuertos no retirados. Una carrera entre
+     * hilos en la primera consulta solo puede construirlo dos veces.
+     */
+    public AirportSpatialIndex getIndiceEspacial() {
+        AirportSpatialIndex indice = indiceEspacial;
+        if (indice == null) {
+            int[] incluidos = new int[numAeropuertos - eliminados];
+            int n = 0;
+            for (int o = 0; o < numAeropuertos; o++) {
+                if (!isRetirado(o)) {
+                    incluidos[n++] = o;
+                }
+            }
+            indice = new AirportSpatialIndex(latitudes, longitudes, incluidos);
+            indiceEspacial = indice;
+        }
+        return indice;
+    }
+
+    /**
+     * Distancia redondeada a 2 decimales entre dos ordinales válidos.
+     */
+    public double getDistancia(int origenOrdinal, int destinoOrdinal) {
+        if (distancias != null) {
+            return distancias[origenOrdinal * numAeropuertos + destinoOrdinal];
+        }
+        if (origenOrdinal == destinoOrdinal) {
+            return 0.0;
+        }
+        return GeoUtils.calcularDistanciaHaversine(latitudes[origenOrdinal], longitudes[origenOrdinal],
+                latitudes[destinoOrdinal], longitudes[destinoOrdinal]);
+    }
+
+    /**
+     * Texto "ORIGEN → DESTINO" de una ruta; la instancia se reutiliza si hay
+     * matriz de rutas.
+     */
+    public String getRuta(int origenOrdinal, int destinoOrdinal) {
+        if (rutas == null) {
+            return codigos[origenOrdinal] + " → " + codigos[destinoOrdinal];
+        }
+        int indice = origenOrdinal * numAeropuertos + destinoOrdinal;
+        String ruta = rutas[indice];
+        if (ruta == null) {
+            ruta = codigos[origenOrdinal] + " → " + codigos[destinoOrdinal];
+            rutas[indice] = ruta;
+        }
+        return ruta;
+    }
+
+    // ========================================================================
+    // AEROLÍNEAS
+    // ========================================================================
+
+    /**
+     * Aerolínea por código, o null si no existe. Los códigos de un dígito
+     * se resuelven sin calcular hash.
+     */
+    public Aerolinea getAerolinea(String codigo) {
+        if (codigo != null && codigo.length() == 1) {
+            int digito = codigo.charAt(0) - '0';
+            return digito >= 0 && digito < 10 ? aerolineaPorDigito[digito] : null;
+        }
+        return codigo != null ? aerolineas.get(codigo) : null;
+    }
+
+    public Map<String, Aerolinea> getAerolineas() {
+        return aerolineas;
+    }
+
+    // ========================================================================
+    // METADATOS DE LA CARGA
+    // ========================================================================
+
+    /** Número de carga (1 = datos iniciales) */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Archivo o recurso del que se leyó */
+    public String getOrigen() {
+        return origen;
+    }
+
+    /** Fecha de compilación del archivo (epoch ms) */
+    public long getGeneradoMs() {
+        return generadoMs;
+    }
+
+    /** Aeropuertos conservados de cargas anteriores que ya no están en el archivo */
+    public int getEliminados() {
+        return eliminados;
+    }
+}
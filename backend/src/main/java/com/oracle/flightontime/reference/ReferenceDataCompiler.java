@@ -0,0 +1,266 @@
+package com.oracle.flightontime.reference;
+
+import com.oracle.flightontime.util.IataCode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * ============================================================================
+ * COMPILADOR DE DATOS DE REFERENCIA (CSV → reference-data.bin)
+ * ============================================================================
+ * Convierte aeropuertos.csv y aerolineas.csv en el formato binario de
+ * {@link ReferenceDataFormat}. Se ejecuta en el build (fase process-classes)
+ * para empaquetar los datos en el jar, y también a mano para generar un
+ * archivo que el servicio en ejecución recarga sin reiniciar (solo depende
+ * de IataCode, basta con las clases compiladas):
+ *
+ *   java -cp target/classes com.oracle.flightontime.reference.ReferenceDataCompiler \
+ *        src/main/resources/reference data/reference-data.bin
+ *
+ * El destino se escribe en un archivo temporal y se mueve de forma atómica,
+ * así el observador nunca lee un archivo a medio escribir.
+ * ============================================================================
+ */
+public final class ReferenceDataCompiler {
+
+    /** CSV de aeropuertos: iata,latitud,longitud,nombre */
+    public static final String RECURSO_AEROPUERTOS = "/reference/aeropuertos.csv";
+
+    /** CSV de aerolíneas: codigo,nombre,aeropuertos (IATA separados por espacios) */
+    public static final String RECURSO_AEROLINEAS = "/reference/aerolineas.csv";
+
+    private ReferenceDataCompiler() {
+    }
+
+    /**
+     * Uso: ReferenceDataCompiler &lt;directorio con los CSV&gt; &lt;archivo destino&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: ReferenceDataCompiler <directorio-csv> <archivo-destino>");
+            System.exit(2);
+        }
+        Path fuente = Path.of(args[0]);
+        Path destino = Path.of(args[1]).toAbsolutePath();
+
+        byte[] compilado;
+        try (Reader aeropuertos = Files.newBufferedReader(fuente.resolve(nombreArchivo(RECURSO_AEROPUERTOS)));
+             Reader aerolineas = Files.newBufferedReader(fuente.resolve(nombreArchivo(RECURSO_AEROLINEAS)))) {
+            compilado = compilar(aeropuertos, aerolineas);
+        }
+
+        Files.createDirectories(destino.getParent());
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try {
+            Files.write(temporal, compilado);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        System.out.println("Datos de referencia compilados: " + destino + " (" + compilado.length + " bytes)");
+    }
+
+    /**
+     * Compila los dos CSV al formato binario.
+     *
+     * @throws IllegalArgumentException si hay líneas mal formadas, códigos
+     *                                  duplicados o aeropuertos desconocidos
+     */
+    public static byte[] compilar(Reader aeropuertosCsv, Reader aerolineasCsv) throws IOException {
+        // ====================================================================
+        // AEROPUERTOS (ordenados por código)
+        // ====================================================================
+        TreeMap<String, String[]> aeropuertos = new TreeMap<>();
+        for (Linea linea : leerCsv(aeropuertosCsv, 4)) {
+            String codigo = linea.campos[0];
+            if (IataCode.pack(codigo) == IataCode.INVALIDO || !codigo.equals(codigo.toUpperCase())) {
+                throw linea.error("Código IATA no válido: " + codigo);
+            }
+            linea.decimal(1, -90, 90);
+            linea.decimal(2, -180, 180);
+            if (aeropuertos.put(codigo, linea.campos) != null) {
+                throw linea.error("Aeropuerto duplicado: " + codigo);
+            }
+        }
+        if (aeropuertos.isEmpty()) {
+            throw new IllegalArgumentException("No hay aeropuertos");
+        }
+
+        Map<String, Integer> indicePorCodigo = new HashMap<>();
+        for (String codigo : aeropuertos.keySet()) {
+            indicePorCodigo.put(codigo, indicePorCodigo.size());
+        }
+
+        // ====================================================================
+        // AEROLÍNEAS
+        // ====================================================================
+        Map<String, String[]> aerolineas = new LinkedHashMap<>();
+        Map<String, int[]> redes = new HashMap<>();
+        for (Linea linea : leerCsv(aerolineasCsv, 3)) {
+            String codigo = linea.campos[0];
+            if (codigo.isEmpty() || aerolineas.put(codigo, linea.campos) != null) {
+                throw linea.error("Código de aerolínea vacío o duplicado: " + codigo);
+            }
+            String[] red = linea.campos[2].trim().split("\\s+");
+            int[] indices = new int[red.length];
+            for (int k = 0; k < red.length; k++) {
+                Integer indice = indicePorCodigo.get(red[k]);
+                if (indice == null) {
+                    throw linea.error("Aerolínea " + codigo + " con aeropuerto desconocido: " + red[k]);
+                }
+                indices[k] = indice;
+            }
+            redes.put(codigo, indices);
+        }
+
+        // ====================================================================
+        // ESCRITURA: cabecera, registros, textos y CRC32
+        // ====================================================================
+        Textos textos = new Textos();
+        for (String[] campos : aeropuertos.values()) {
+            textos.agregar(campos[3]);
+        }
+        for (String[] campos : aerolineas.values()) {
+            textos.agregar(campos[0]);
+            textos.agregar(campos[1]);
+        }
+
+        int offsetTextos = ReferenceDataFormat.TAMANO_CABECERA
+                + aeropuertos.size() * ReferenceDataFormat.TAMANO_AEROPUERTO;
+        for (int[] red : redes.values()) {
+            offsetTextos += 12 + 2 * red.length;
+        }
+        int longitud = offsetTextos + textos.bytes.size() + 4;
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(longitud);
+        DataOutputStream salida = new DataOutputStream(buffer);
+        salida.write(ReferenceDataFormat.MAGIC);
+        salida.writeShort(ReferenceDataFormat.VERSION);
+        salida.writeShort(0);
+        salida.writeLong(System.currentTimeMillis());
+        salida.writeInt(aeropuertos.size());
+        salida.writeInt(aerolineas.size());
+        salida.writeInt(offsetTextos);
+        salida.writeInt(longitud);
+
+        for (String[] campos : aeropuertos.values()) {
+            salida.writeInt(IataCode.pack(campos[0]));
+            salida.writeDouble(Double.parseDouble(campos[1]));
+            salida.writeDouble(Double.parseDouble(campos[2]));
+            salida.writeInt(offsetTextos + textos.offset(campos[3]));
+        }
+        for (String[] campos : aerolineas.values()) {
+            int[] red = redes.get(campos[0]);
+            salida.writeInt(offsetTextos + textos.offset(campos[0]));
+            salida.writeInt(offsetTextos + textos.offset(campos[1]));
+            salida.writeInt(red.length);
+            for (int indice : red) {
+                salida.writeShort(indice);
+            }
+        }
+        textos.bytes.writeTo(salida);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.toByteArray());
+        salida.writeInt((int) crc.getValue());
+        salida.flush();
+        return buffer.toByteArray();
+    }
+
+    private static String nombreArchivo(String recurso) {
+        return recurso.substring(recurso.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Lee las líneas de datos de un CSV: omite vacías, comentarios (#) y la
+     * cabecera. El último campo puede contener comas.
+     */
+    private static List<Linea> leerCsv(Reader csv, int numCampos) throws IOException {
+        List<Linea> lineas = new ArrayList<>();
+        BufferedReader lector = new BufferedReader(csv);
+        boolean cabecera = true;
+        int numero = 0;
+        String texto;
+        while ((texto = lector.readLine()) != null) {
+            numero++;
+            String limpio = texto.strip();
+            if (limpio.isEmpty() || limpio.startsWith("#")) {
+                continue;
+            }
+            if (cabecera) {
+                cabecera = false;
+                continue;
+            }
+            String[] campos = limpio.split(",", numCampos);
+            Linea linea = new Linea(numero, campos);
+            if (campos.length != numCampos) {
+                throw linea.error("Se esperaban " + numCampos + " campos");
+            }
+            for (int i = 0; i < campos.length; i++) {
+                campos[i] = campos[i].strip();
+            }
+            lineas.add(linea);
+        }
+        return lineas;
+    }
+
+    private record Linea(int numero, String[] campos) {
+
+        IllegalArgumentException error(String mensaje) {
+            return new IllegalArgumentException("Línea " + numero + ": " + mensaje);
+        }
+
+        void decimal(int campo, double minimo, double maximo) {
+            double valor;
+            try {
+                valor = Double.parseDouble(campos[campo]);
+            } catch (NumberFormatException e) {
+                throw error("Número no válido: " + campos[campo]);
+            }
+            if (!(valor >= minimo && valor <= maximo)) {
+                throw error("Coordenada fuera de rango: " + campos[campo]);
+            }
+        }
+    }
+
+    /**
+     * Tabla de textos sin duplicados (u16 longitud + UTF-8).
+     */
+    private static final class Textos {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, Integer> offsets = new HashMap<>();
+
+        void agregar(String texto) {
+            offsets.computeIfAbsent(texto, t -> {
+                byte[] utf8 = t.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > 0xFFFF) {
+                    throw new IllegalArgumentException("Texto demasiado largo: " + t.substring(0, 40) + "...");
+                }
+                int offset = bytes.size();
+                bytes.write(utf8.length >>> 8);
+                bytes.write(utf8.length);
+                bytes.write(utf8, 0, utf8.length);
+                return offset;
+            });
+        }
+
+        int offset(String texto) {
+            return offsets.get(texto);
+        }
+    }
+}
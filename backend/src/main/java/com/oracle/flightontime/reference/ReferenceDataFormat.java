@@ -0,0 +1,170 @@
+package com.oracle.flightontime.reference;
+
+import com.oracle.flightontime.util.AirportBitSet;
+import com.oracle.flightontime.util.IataCode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * ============================================================================
+ * FORMATO BINARIO DE LOS DATOS DE REFERENCIA (reference-data.bin)
+ * ============================================================================
+ * Archivo compacto generado por {@link ReferenceDataCompiler} y leído sin
+ * copiarlo (mapeado en memoria si es externo). Enteros y dobles en
+ * big-endian; los offsets son absolutos desde el inicio del archivo.
+ *
+ * Cabecera (32 bytes):
+ *   'F' 'O' 'T' 'R' | u16 versión (1) | u16 reservado | i64 generado (epoch ms)
+ *   | i32 aeropuertos | i32 aerolíneas | i32 offset de textos | i32 longitud total
+ *
+ * Aeropuerto (24 bytes, ordenados por código):
+ *   i32 código IATA empaquetado ({@link IataCode}) | f64 latitud | f64 longitud
+ *   | i32 offset del nombre
+ *
+ * Aerolínea (12 + 2·M bytes):
+ *   i32 offset del código | i32 offset del nombre | i32 M
+ *   | M × u16 índice del aeropuerto en el archivo
+ *
+ * Textos: u16 longitud en bytes + UTF-8.
+ * Al final, i32 CRC32 de todos los bytes anteriores: un archivo incompleto
+ * o modificado se rechaza y se conserva la instantánea vigente.
+ * ============================================================================
+ */
+final class ReferenceDataFormat {
+
+    static final byte[] MAGIC = {'F', 'O', 'T', 'R'};
+    static final int VERSION = 1;
+    static final int TAMANO_CABECERA = 32;
+    static final int TAMANO_AEROPUERTO = 24;
+
+    private ReferenceDataFormat() {
+    }
+
+    /**
+     * Lee un archivo completo y construye la instantánea. Los ordinales de
+     * los aeropuertos que ya estaban en la instantánea anterior se conservan.
+     *
+     * @param datos    Contenido del archivo (se lee con accesos absolutos)
+     * @param origen   Descripción del archivo para estadísticas y logs
+     * @param anterior Instantánea vigente, o null en la carga inicial
+     * @throws IllegalArgumentException si el archivo no es válido
+     */
+    static ReferenceData leer(ByteBuffer datos, String origen, ReferenceData anterior) {
+        int longitud = datos.limit();
+        if (longitud < TAMANO_CABECERA + 4) {
+            throw new IllegalArgumentException("Archivo de referencia truncado (" + longitud + " bytes)");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (datos.get(i) != MAGIC[i]) {
+                throw new IllegalArgumentException("No es un archivo de datos de referencia");
+            }
+        }
+        int version = datos.getShort(4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de formato no soportada: " + version);
+        }
+        if (datos.getInt(28) != longitud) {
+            throw new IllegalArgumentException("Longitud declarada " + datos.getInt(28)
+                    + " distinta de la del archivo " + longitud + " (¿escritura incompleta?)");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos.duplicate().position(0).limit(longitud - 4));
+        if ((int) crc.getValue() != datos.getInt(longitud - 4)) {
+            throw new IllegalArgumentException("CRC32 no coincide (¿escritura incompleta?)");
+        }
+
+        long generadoMs = datos.getLong(8);
+        int enArchivo = datos.getInt(16);
+        int numAerolineas = datos.getInt(20);
+
+        // ====================================================================
+        // ORDINALES: los conocidos se conservan, los nuevos van al final
+        // ====================================================================
+        int[] ordinalDe = new int[enArchivo];
+        int previos = anterior != null ? anterior.getNumeroAeropuertos() : 0;
+        int total = previos;
+        for (int i = 0; i < enArchivo; i++) {
+            int empaquetado = datos.getInt(TAMANO_CABECERA + i * TAMANO_AEROPUERTO);
+            int ordinal = anterior != null ? anterior.getOrdinalEmpaquetado(empaquetado) : -1;
+            ordinalDe[i] = ordinal >= 0 ? ordinal : total++;
+        }
+
+        String[] codigos = new String[total];
+        double[] latitudes = new double[total];
+        double[] longitudes = new double[total];
+        int[] offsetNombre = new int[total];
+        String[] nombres = new String[total];
+        for (int i = 0; i < enArchivo; i++) {
+            int base = TAMANO_CABECERA + i * TAMANO_AEROPUERTO;
+            int ordinal = ordinalDe[i];
+            if (codigos[ordinal] != null) {
+                throw new IllegalArgumentException("Aeropuerto duplicado: " + codigos[ordinal]);
+            }
+            codigos[ordinal] = IataCode.unpack(datos.getInt(base));
+            latitudes[ordinal] = datos.getDouble(base + 4);
+            longitudes[ordinal] = datos.getDouble(base + 12);
+            offsetNombre[ordinal] = datos.getInt(base + 20);
+        }
+
+        // Aeropuertos que ya no están en el archivo: se copian de la anterior
+        int eliminados = 0;
+        for (int ordinal = 0; ordinal < previos; ordinal++) {
+            if (codigos[ordinal] == null) {
+                codigos[ordinal] = anterior.getCodigo(ordinal);
+                latitudes[ordinal] = anterior.getLatitud(ordinal);
+                longitudes[ordinal] = anterior.getLongitud(ordinal);
+                nombres[ordinal] = anterior.getNombre(ordinal);
+                offsetNombre[ordinal] = -1;
+                eliminados++;
+            }
+        }
+
+        // ====================================================================
+        // AEROLÍNEAS
+        // ====================================================================
+        Map<String, ReferenceData.Aerolinea> aerolineas = new HashMap<>();
+        int posicion = TAMANO_CABECERA + enArchivo * TAMANO_AEROPUERTO;
+        for (int a = 0; a < numAerolineas; a++) {
+            String codigo = leerTexto(datos, datos.getInt(posicion));
+            String nombre = leerTexto(datos, datos.getInt(posicion + 4));
+            int cantidad = datos.getInt(posicion + 8);
+            posicion += 12;
+
+            Set<String> aeropuertos = new HashSet<>();
+            int[] ordinales = new int[cantidad];
+            for (int k = 0; k < cantidad; k++) {
+                int indice = datos.getShort(posicion + 2 * k) & 0xFFFF;
+                if (indice >= enArchivo) {
+                    throw new IllegalArgumentException("Aerolínea " + codigo + " con aeropuerto fuera de rango");
+                }
+                ordinales[k] = ordinalDe[indice];
+                aeropuertos.add(codigos[ordinalDe[indice]]);
+            }
+            posicion += 2 * cantidad;
+
+            aerolineas.put(codigo, new ReferenceData.Aerolinea(codigo, nombre,
+                    Collections.unmodifiableSet(aeropuertos), AirportBitSet.deOrdinales(ordinales, total)));
+        }
+
+        long numeroCarga = anterior != null ? anterior.getVersion() + 1 : 1;
+        return new ReferenceData(numeroCarga, origen, generadoMs, eliminados, codigos, latitudes, longitudes,
+                datos, offsetNombre, nombres, aerolineas);
+    }
+
+    /**
+     * Decodifica el texto que empieza en un offset absoluto.
+     */
+    static String leerTexto(ByteBuffer datos, int offset) {
+        int longitud = datos.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[longitud];
+        datos.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package com.oracle.flightontime.reference;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * CARGA Y RECARGA EN CALIENTE DE LOS DATOS DE REFERENCIA
+ * ============================================================================
+ * Si existe reference.data.path, al iniciar lo mapea en memoria y lo
+ * publica en lugar de los datos empaquetados en el jar. Con
+ * reference.data.watch, un hilo en segundo plano observa el directorio y,
+ * cuando el archivo se crea o se modifica (tras reference.data.debounce-ms
+ * sin eventos nuevos), lo vuelve a leer y publica la nueva instantánea.
+ *
+ * - Un archivo no válido (CRC, formato, referencias) se rechaza y se
+ *   conserva la instantánea vigente; el error queda en /api/health.
+ * - El archivo debe reemplazarse con un movimiento atómico (como hace
+ *   ReferenceDataCompiler): la instantánea anterior sigue leyendo nombres
+ *   del mapeo del archivo reemplazado, que no debe truncarse en el sitio.
+ *
+ * Estado en /api/health (datos_referencia) y en Micrometer
+ * (flightontime.reference.reloads por resultado).
+ * ============================================================================
+ */
+@Component
+public class ReferenceDataWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataWatcher.class);
+
+    private final Path archivo;
+    private final long debounceMs;
+
+    private final Thread observador;
+    private final WatchService watchService;
+    private volatile boolean detenido;
+
+    private final AtomicLong recargas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile String ultimoError;
+
+    public ReferenceDataWatcher(
+            @Value("${reference.data.path:data/reference-data.bin}") String path,
+            @Value("${reference.data.watch:true}") boolean watch,
+            @Value("${reference.data.debounce-ms:500}") long debounceMs,
+            MeterRegistry registry) throws IOException {
+        this.archivo = Path.of(path).toAbsolutePath();
+        this.debounceMs = Math.max(0, debounceMs);
+
+        registrarContador(registry, "ok", recargas);
+        registrarContador(registry, "error", errores);
+
+        if (Files.exists(archivo)) {
+            recargar();
+        }
+
+        ReferenceData datos = ReferenceData.actual();
+        logger.info("🗺️ Datos de referencia: {} aeropuertos, {} aerolíneas ({})",
+                datos.getNumeroAeropuertos(), datos.getAerolineas().size(), datos.getOrigen());
+
+        Path directorio = archivo.getParent();
+        if (watch && directorio != null && Files.isDirectory(directorio)) {
+            this.watchService = directorio.getFileSystem().newWatchService();
+            directorio.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            this.observador = new Thread(this::ejecutarObservador, "reference-data-watcher");
+            this.observador.setDaemon(true);
+            this.observador.start();
+            logger.info("👀 Observando {} para recarga en caliente", archivo);
+        } else {
+            this.watchService = null;
+            this.observador = null;
+        }
+    }
+
+    private void registrarContador(MeterRegistry registry, String resultado, AtomicLong contador) {
+        FunctionCounter.builder("flightontime.reference.reloads", contador, AtomicLong::get)
+                .tag("resultado", resultado)
+                .description("Recargas de los datos de referencia")
+                .register(registry);
+    }
+
+    /**
+     * Lee el archivo y publica la instantánea; si no es válido conserva la
+     * vigente.
+     *
+     * @return true si se publicó una instantánea nueva
+     */
+    public synchronized boolean recargar() {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            ReferenceData anterior = ReferenceData.actual();
+            ReferenceData nueva = ReferenceDataFormat.leer(datos, archivo.toString(), anterior);
+            ReferenceData.publicar(nueva);
+            recargas.incrementAndGet();
+            ultimoError = null;
+            logger.info("🔄 Datos de referencia v{}: {} aeropuertos ({} nuevos, {} retirados), {} aerolíneas",
+                    nueva.getVersion(), nueva.getNumeroAeropuertos(),
+                    nueva.getNumeroAeropuertos() - anterior.getNumeroAeropuertos(),
+                    nueva.getEliminados(), nueva.getAerolineas().size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            errores.incrementAndGet();
+            ultimoError = e.getMessage();
+            logger.error("❌ No se pudieron recargar los datos de referencia desde {}: {}", archivo, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ========================================================================
+     * HILO OBSERVADOR
+     * ========================================================================
+     * Espera eventos del directorio; ante uno sobre el archivo, sigue
+     * consumiendo eventos hasta debounce-ms de silencio y recarga una vez.
+     * ========================================================================
+     */
+    private void ejecutarObservador() {
+        try {
+            while (!detenido) {
+                WatchKey clave = watchService.take();
+                boolean cambio = consumir(clave);
+                while (cambio) {
+                    WatchKey siguiente = watchService.poll(debounceMs, TimeUnit.MILLISECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    consumir(siguiente);
+                }
+                if (cambio && !detenido && Files.exists(archivo)) {
+                    recargar();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Cierre
+        }
+    }
+
+    private boolean consumir(WatchKey clave) {
+        boolean cambio = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW
+                    || archivo.getFileName().equals(evento.context())) {
+                cambio = true;
+            }
+        }
+        clave.reset();
+        return cambio;
+    }
+
+    /**
+     * Estadísticas para /api/health.
+     */
+    public Map<String, Object> getStats() {
+        ReferenceData datos = ReferenceData.actual();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("version", datos.getVersion());
+        stats.put("origen", datos.getOrigen());
+        stats.put("generado_ms", datos.getGeneradoMs());
+        stats.put("aeropuertos", datos.getNumeroAeropuertos());
+        stats.put("aeropuertos_retirados", datos.getEliminados());
+        stats.put("aerolineas", datos.getAerolineas().size());
+        stats.put("archivo", archivo.toString());
+        stats.put("observando", observador != null);
+        stats.put("recargas", recargas.get());
+        stats.put("errores", errores.get());
+        stats.put("ultimo_error", ultimoError);
+        return stats;
+    }
+
+    /**
+     * Detiene el hilo observador.
+     */
+    @PreDestroy
+    public void detener() {
+        if (observador == null) {
+            return;
+        }
+        detenido = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Error al cerrar el WatchService: {}", e.getMessage());
+        }
+        observador.interrupt();
+    }
+}
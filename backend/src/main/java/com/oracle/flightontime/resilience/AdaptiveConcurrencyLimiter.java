@@ -0,0 +1,356 @@
+package com.oracle.flightontime.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * LÍMITE ADAPTATIVO DE CONCURRENCIA
+ * ============================================================================
+ * Limita las llamadas simultáneas a una dependencia con un límite que se
+ * ajusta solo según el tiempo de respuesta observado (control por
+ * gradiente, al estilo TCP Vegas):
+ * - RTT sin carga: el mínimo observado. Cada 1000 muestras se vuelve a
+ *   medir desde el RTT actual, para seguir a un servicio que se volvió
+ *   más lento (p. ej. un modelo nuevo). RTT actual: media móvil de las
+ *   últimas ~10 llamadas.
+ * - Tras cada llamada: gradiente = clamp(tolerancia · RTT sin carga / RTT
+ *   actual, 0,5, 1); límite nuevo = límite · gradiente + √límite. Mientras
+ *   el RTT no sube más allá de la tolerancia el límite crece en √límite;
+ *   cuando sube (se forma cola en el servicio) baja, hasta la mitad por
+ *   paso. El cambio se suaviza, y solo crece si el límite está en uso (al
+ *   menos la mitad en vuelo).
+ * - Caídas (timeout, error de conexión, 5xx): reducción multiplicativa
+ *   (AIMD), límite · backoff.
+ * Las llamadas que exceden el límite esperan en una cola FIFO acotada con
+ * plazo; si la cola está llena o vence el plazo fallan con
+ * {@link LimiteConcurrenciaException}. Todas las operaciones son síncronas
+ * sobre el propio limitador y de coste constante; los permisos se
+ * entregan fuera del monitor.
+ * ============================================================================
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double ALFA_RTT = 2.0 / (10 + 1);
+    private static final double SUAVIZADO = 0.2;
+    private static final int MUESTRAS_POR_SONDEO = 1000;
+
+    /**
+     * Resultado de una llamada, para ajustar el límite.
+     */
+    public enum Resultado {
+        /** El servicio respondió: el RTT es una muestra válida */
+        EXITO,
+        /** Timeout, error de conexión o 5xx: el servicio no da abasto */
+        CAIDA,
+        /** Cancelada o no realizada: solo libera el permiso */
+        IGNORAR
+    }
+
+    /**
+     * Permiso de una llamada. Liberarlo más de una vez no tiene efecto.
+     */
+    public static final class Permiso {
+        private final long inicioNanos;
+        private final int enVueloAlAdquirir;
+        private final boolean muestra;
+        private boolean liberado;
+
+        private Permiso(int enVueloAlAdquirir, boolean muestra) {
+            this.inicioNanos = System.nanoTime();
+            this.enVueloAlAdquirir = enVueloAlAdquirir;
+            this.muestra = muestra;
+        }
+    }
+
+    private final class Espera {
+        private final MonoSink<Permiso> sink;
+        private final boolean muestra;
+        private Disposable plazo;
+        private Permiso permiso;
+        private boolean terminada;
+
+        private Espera(MonoSink<Permiso> sink, boolean muestra) {
+            this.sink = sink;
+            this.muestra = muestra;
+        }
+    }
+
+    private final String nombre;
+    private final boolean enabled;
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final double backoff;
+    private final int colaMaxima;
+    private final long esperaMaximaMs;
+
+    // Estado protegido por el monitor de la instancia
+    private double limite;
+    private int enVuelo;
+    private double rttNanos;
+    private long rttSinCargaNanos;
+    private int muestrasDesdeSondeo;
+    private final ArrayDeque<Espera> cola = new ArrayDeque<>();
+
+    private final AtomicLong llamadas = new AtomicLong();
+    private final AtomicLong encoladas = new AtomicLong();
+    private final AtomicLong caidas = new AtomicLong();
+    private final AtomicLong rechazadasColaLlena = new AtomicLong();
+    private final AtomicLong rechazadasPlazo = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(String nombre, boolean enabled, int limiteInicial, int limiteMinimo,
+                                      int limiteMaximo, double tolerancia, double backoff,
+                                      int colaMaxima, long esperaMaximaMs) {
+        this.nombre = nombre;
+        this.enabled = enabled;
+        this.limiteMinimo = Math.max(1, limiteMinimo);
+        this.limiteMaximo = Math.max(this.limiteMinimo, limiteMaximo);
+        this.tolerancia = Math.max(1.0, tolerancia);
+        this.backoff = Math.min(Math.max(backoff, 0.1), 1.0);
+        this.colaMaxima = Math.max(0, colaMaxima);
+        this.esperaMaximaMs = Math.max(0, esperaMaximaMs);
+        this.limite = Math.min(Math.max(limiteInicial, this.limiteMinimo), this.limiteMaximo);
+    }
+
+    /**
+     * Obtiene un permiso para una llamada, esperando en la cola si el
+     * límite está completo. El permiso se devuelve con
+     * {@link #liberar(Permiso, Resultado)} al terminar la llamada.
+     *
+     * @param muestra false si el RTT de la llamada no es comparable con el
+     *                resto (p. ej. lotes): ocupa permiso pero no ajusta el
+     *                límite por RTT
+     */
+    public Mono<Permiso> adquirir(boolean muestra) {
+        if (!enabled) {
+            return Mono.fromSupplier(() -> new Permiso(0, false));
+        }
+        return Mono.create(sink -> {
+            Permiso permiso = null;
+            Espera espera = null;
+            boolean colaLlena = false;
+            synchronized (this) {
+                if (enVuelo < (int) limite) {
+                    permiso = conceder(muestra);
+                } else if (cola.size() >= colaMaxima || esperaMaximaMs == 0) {
+                    colaLlena = true;
+                } else {
+                    espera = new Espera(sink, muestra);
+                    Espera pendiente = espera;
+                    espera.plazo = Schedulers.parallel().schedule(() -> vencer(pendiente),
+                            esperaMaximaMs, TimeUnit.MILLISECONDS);
+                    cola.addLast(espera);
+                    encoladas.incrementAndGet();
+                }
+            }
+            // El permiso se entrega fuera del monitor: la llamada arranca en este hilo
+            if (permiso != null) {
+                sink.success(permiso);
+            } else if (colaLlena) {
+                rechazadasColaLlena.incrementAndGet();
+                sink.error(new LimiteConcurrenciaException(nombre, "cola llena"));
+            } else {
+                Espera pendiente = espera;
+                sink.onCancel(() -> cancelar(pendiente));
+            }
+        });
+    }
+
+    /**
+     * Ocupa un permiso. Se invoca con el monitor tomado.
+     */
+    private Permiso conceder(boolean muestra) {
+        enVuelo++;
+        llamadas.incrementAndGet();
+        return new Permiso(enVuelo, muestra);
+    }
+
+    /**
+     * Libera el permiso, ajusta el límite con el resultado y entrega los
+     * permisos que queden libres a las llamadas en espera.
+     */
+    public void liberar(Permiso permiso, Resultado resultado) {
+        if (!enabled) {
+            return;
+        }
+        List<Espera> atendidas;
+        synchronized (this) {
+            if (permiso.liberado) {
+                return;
+            }
+            permiso.liberado = true;
+            enVuelo--;
+            if (resultado == Resultado.CAIDA) {
+                caidas.incrementAndGet();
+                limite = Math.max(limiteMinimo, limite * backoff);
+            } else if (resultado == Resultado.EXITO && permiso.muestra) {
+                ajustar(System.nanoTime() - permiso.inicioNanos, permiso.enVueloAlAdquirir);
+            }
+            atendidas = atenderCola();
+        }
+        for (Espera espera : atendidas) {
+            espera.plazo.dispose();
+            espera.sink.success(espera.permiso);
+        }
+    }
+
+    /**
+     * Control por gradiente con una muestra de RTT.
+     */
+    private void ajustar(long muestraNanos, int enVueloAlAdquirir) {
+        if (rttSinCargaNanos == 0) {
+            rttNanos = muestraNanos;
+            rttSinCargaNanos = muestraNanos;
+            return;
+        }
+        rttNanos += ALFA_RTT * (muestraNanos - rttNanos);
+        if (++muestrasDesdeSondeo >= MUESTRAS_POR_SONDEO) {
+            muestrasDesdeSondeo = 0;
+            rttSinCargaNanos = (long) rttNanos;
+        }
+        rttSinCargaNanos = Math.min(rttSinCargaNanos, muestraNanos);
+
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * rttSinCargaNanos / rttNanos));
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        nuevo = limite * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        // Sin demanda suficiente el RTT no dice nada sobre un límite mayor
+        if (nuevo > limite && enVueloAlAdquirir * 2 < limite) {
+            return;
+        }
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevo));
+    }
+
+    /**
+     * Saca de la cola tantas esperas como permisos libres haya.
+     * Se invoca con el monitor tomado.
+     */
+    private List<Espera> atenderCola() {
+        List<Espera> atendidas = null;
+        while (enVuelo < (int) limite && !cola.isEmpty()) {
+            Espera espera = cola.pollFirst();
+            if (espera.terminada) {
+                continue;
+            }
+            espera.terminada = true;
+            espera.permiso = conceder(espera.muestra);
+            if (atendidas == null) {
+                atendidas = new ArrayList<>();
+            }
+            atendidas.add(espera);
+        }
+        return atendidas != null ? atendidas : List.of();
+    }
+
+    private void vencer(Espera espera) {
+        synchronized (this) {
+            if (espera.terminada) {
+                return;
+            }
+            espera.terminada = true;
+            cola.remove(espera);
+        }
+        rechazadasPlazo.incrementAndGet();
+        espera.sink.error(new LimiteConcurrenciaException(nombre,
+                "sin permiso tras " + esperaMaximaMs + " ms en cola"));
+    }
+
+    /**
+     * Suscriptor cancelado mientras esperaba. Si el permiso ya se le había
+     * concedido, se devuelve.
+     */
+    private void cancelar(Espera espera) {
+        Permiso concedido;
+        synchronized (this) {
+            concedido = espera.permiso;
+            if (!espera.terminada) {
+                espera.terminada = true;
+                cola.remove(espera);
+            }
+        }
+        espera.plazo.dispose();
+        if (concedido != null) {
+            liberar(concedido, Resultado.IGNORAR);
+        }
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+
+    public synchronized int getEnVuelo() {
+        return enVuelo;
+    }
+
+    public synchronized int getEnCola() {
+        return cola.size();
+    }
+
+    /**
+     * Registra en Micrometer el límite actual, las llamadas en vuelo y en
+     * cola, y los rechazos.
+     */
+    public void registrarMetricas(MeterRegistry registry) {
+        Gauge.builder("flightontime.ml.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimite)
+                .tag("dependencia", nombre)
+                .description("Límite adaptativo de llamadas simultáneas")
+                .register(registry);
+        Gauge.builder("flightontime.ml.concurrency.in_flight", this, AdaptiveConcurrencyLimiter::getEnVuelo)
+                .tag("dependencia", nombre)
+                .description("Llamadas en vuelo")
+                .register(registry);
+        Gauge.builder("flightontime.ml.concurrency.queued", this, AdaptiveConcurrencyLimiter::getEnCola)
+                .tag("dependencia", nombre)
+                .description("Llamadas esperando permiso")
+                .register(registry);
+        registrarRechazos(registry, "cola_llena", rechazadasColaLlena);
+        registrarRechazos(registry, "plazo_vencido", rechazadasPlazo);
+    }
+
+    private void registrarRechazos(MeterRegistry registry, String motivo, AtomicLong contador) {
+        FunctionCounter.builder("flightontime.ml.concurrency.rejected", contador, AtomicLong::get)
+                .tag("dependencia", nombre)
+                .tag("motivo", motivo)
+                .description("Llamadas no realizadas por el límite de concurrencia")
+                .register(registry);
+    }
+
+    /**
+     * Estado y contadores para /api/health.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nombre", nombre);
+        stats.put("habilitado", enabled);
+        stats.put("limite", (int) limite);
+        stats.put("limite_minimo", limiteMinimo);
+        stats.put("limite_maximo", limiteMaximo);
+        stats.put("en_vuelo", enVuelo);
+        stats.put("en_cola", cola.size());
+        stats.put("rtt_ms", Math.round(rttNanos / 1e4) / 100.0);
+        stats.put("rtt_sin_carga_ms", Math.round(rttSinCargaNanos / 1e4) / 100.0);
+        stats.put("llamadas", llamadas.get());
+        stats.put("encoladas", encoladas.get());
+        stats.put("caidas", caidas.get());
+        stats.put("rechazadas_cola_llena", rechazadasColaLlena.get());
+        stats.put("rechazadas_plazo", rechazadasPlazo.get());
+        return stats;
+    }
+}
@@ -0,0 +1,264 @@
+package com.oracle.flightontime.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ============================================================================
+ * CONTROL DE ADMISIÓN Y DESCARTE DE CARGA
+ * ============================================================================
+ * Decide, antes de predecir, si una solicitud se atiende, se degrada a mock
+ * o se rechaza (429):
+ * - Límite por cliente: token bucket de tasa por segundo y ráfaga máximas,
+ *   implementado como GCRA (un único instante teórico de llegada por
+ *   cubeta, actualizado con CAS, sin bloqueos). Las cubetas son franjas
+ *   fijas indexadas por el hash del cliente: la memoria no crece con el
+ *   número de clientes y dos clientes que caen en la misma franja la
+ *   comparten.
+ * - Límite global de solicitudes en vuelo: por encima del umbral de
+ *   descarte se aplica la política (reject → 429, mock → predicción
+ *   simulada, que no llama al servicio ML); al llegar al máximo se
+ *   rechaza siempre.
+ * Un cliente que excede su tasa recibe la misma política. Cada solicitud
+ * admitida o degradada debe liberarse con {@link #liberar()} al terminar.
+ * ============================================================================
+ */
+public class AdmissionControl {
+
+    public enum Politica {
+        REJECT,
+        MOCK;
+
+        public static Politica desdeParametro(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Política de admisión inválida: '" + valor + "'. Use reject o mock", e);
+            }
+        }
+    }
+
+    public enum Resultado {
+        ADMITIDA,
+        DEGRADADA,
+        RECHAZADA
+    }
+
+    /**
+     * Decisión para una solicitud. reintentarEnSegundos solo aplica a las
+     * rechazadas (cabecera Retry-After).
+     */
+    public record Decision(Resultado resultado, String motivo, long reintentarEnSegundos) {
+
+        public boolean isRechazada() {
+            return resultado == Resultado.RECHAZADA;
+        }
+
+        public boolean isDegradada() {
+            return resultado == Resultado.DEGRADADA;
+        }
+    }
+
+    private static final Decision ADMITIDA = new Decision(Resultado.ADMITIDA, null, 0);
+
+    private final boolean enabled;
+    private final Politica politica;
+    private final int maxEnVuelo;
+    private final int umbralDescarte;
+
+    // GCRA: intervalo entre tokens y tolerancia de ráfaga, en nanos
+    private final boolean limitePorCliente;
+    private final double tasaPorSegundo;
+    private final int rafaga;
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLongArray llegadaTeorica;
+    private final int mascaraFranjas;
+    private final long origenNanos = System.nanoTime();
+
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final AtomicInteger picoEnVuelo = new AtomicInteger();
+
+    private final AtomicLong admitidas = new AtomicLong();
+    private final AtomicLong degradadasCliente = new AtomicLong();
+    private final AtomicLong degradadasSobrecarga = new AtomicLong();
+    private final AtomicLong rechazadasCliente = new AtomicLong();
+    private final AtomicLong rechazadasSobrecarga = new AtomicLong();
+
+    /**
+     * @param tasaPorSegundo Solicitudes por segundo por cliente (≤ 0 = sin límite por cliente)
+     * @param rafaga         Solicitudes que un cliente inactivo puede enviar de golpe
+     * @param franjas        Cubetas de clientes (se redondea a potencia de 2)
+     * @param maxEnVuelo     Máximo de solicitudes en vuelo; por encima se rechaza
+     * @param umbralDescarte En vuelo a partir de las cuales se aplica la política
+     */
+    public AdmissionControl(boolean enabled, String politica, double tasaPorSegundo, int rafaga, int franjas,
+                            int maxEnVuelo, int umbralDescarte) {
+        this.enabled = enabled;
+        this.politica = Politica.desdeParametro(politica);
+        this.maxEnVuelo = Math.max(1, maxEnVuelo);
+        this.umbralDescarte = Math.max(1, Math.min(umbralDescarte, this.maxEnVuelo));
+
+        this.limitePorCliente = tasaPorSegundo > 0;
+        this.tasaPorSegundo = tasaPorSegundo;
+        this.rafaga = Math.max(1, rafaga);
+        this.intervaloNanos = limitePorCliente ? Math.max(1L, (long) (1_000_000_000L / tasaPorSegundo)) : 0L;
+        this.toleranciaNanos = intervaloNanos * this.rafaga;
+        int tamano = Integer.highestOneBit(Math.max(1, franjas) * 2 - 1);
+        this.llegadaTeorica = new AtomicLongArray(tamano);
+        this.mascaraFranjas = tamano - 1;
+    }
+
+    /**
+     * Decide si la solicitud del cliente se atiende. Si no se rechaza,
+     * queda contada en vuelo hasta {@link #liberar()}.
+     *
+     * @param cliente Identificador del cliente (IP o cabecera configurada)
+     */
+    public Decision admitir(String cliente) {
+        if (!enabled) {
+            return ADMITIDA;
+        }
+
+        // Límite por cliente
+        if (limitePorCliente) {
+            long espera = consumirToken(cliente);
+            if (espera > 0) {
+                if (politica == Politica.REJECT) {
+                    rechazadasCliente.incrementAndGet();
+                    return new Decision(Resultado.RECHAZADA, "Límite de solicitudes del cliente excedido",
+                            Math.max(1L, (espera + 999_999_999L) / 1_000_000_000L));
+                }
+                if (entrar() > maxEnVuelo) {
+                    return rechazarPorSobrecarga();
+                }
+                degradadasCliente.incrementAndGet();
+                return new Decision(Resultado.DEGRADADA, "Límite de solicitudes del cliente excedido", 0);
+            }
+        }
+
+        // Límite global
+        int actuales = entrar();
+        if (actuales > maxEnVuelo) {
+            return rechazarPorSobrecarga();
+        }
+        if (actuales > umbralDescarte) {
+            if (politica == Politica.REJECT) {
+                return rechazarPorSobrecarga();
+            }
+            degradadasSobrecarga.incrementAndGet();
+            return new Decision(Resultado.DEGRADADA, "Servicio sobrecargado", 0);
+        }
+        admitidas.incrementAndGet();
+        return ADMITIDA;
+    }
+
+    /**
+     * Marca como terminada una solicitud admitida o degradada.
+     */
+    public void liberar() {
+        if (enabled) {
+            enVuelo.decrementAndGet();
+        }
+    }
+
+    private int entrar() {
+        int actuales = enVuelo.incrementAndGet();
+        picoEnVuelo.accumulateAndGet(actuales, Math::max);
+        return actuales;
+    }
+
+    private Decision rechazarPorSobrecarga() {
+        enVuelo.decrementAndGet();
+        rechazadasSobrecarga.incrementAndGet();
+        return new Decision(Resultado.RECHAZADA, "Servicio sobrecargado", 1);
+    }
+
+    /**
+     * GCRA sobre la franja del cliente: la llegada teórica avanza un
+     * intervalo por solicitud y nunca queda en el pasado; la solicitud se
+     * acepta si no adelanta la llegada teórica más allá de la ráfaga.
+     *
+     * @return 0 si hay token; si no, nanos hasta el siguiente token
+     */
+    private long consumirToken(String cliente) {
+        int franja = franja(cliente);
+        long ahora = System.nanoTime() - origenNanos;
+        while (true) {
+            long actual = llegadaTeorica.get(franja);
+            long nueva = Math.max(actual, ahora) + intervaloNanos;
+            long exceso = nueva - ahora - toleranciaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llegadaTeorica.compareAndSet(franja, actual, nueva)) {
+                return 0;
+            }
+        }
+    }
+
+    private int franja(String cliente) {
+        long h = cliente != null ? cliente.hashCode() : 0;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascaraFranjas;
+    }
+
+    /**
+     * Solicitudes en vuelo / máximo (0 a 1).
+     */
+    public double getPresion() {
+        return (double) enVuelo.get() / maxEnVuelo;
+    }
+
+    /**
+     * Registra en Micrometer las solicitudes descartadas y la presión.
+     */
+    public void registrarMetricas(MeterRegistry registry) {
+        registrarDescartes(registry, "cliente", "mock", degradadasCliente);
+        registrarDescartes(registry, "cliente", "429", rechazadasCliente);
+        registrarDescartes(registry, "sobrecarga", "mock", degradadasSobrecarga);
+        registrarDescartes(registry, "sobrecarga", "429", rechazadasSobrecarga);
+        Gauge.builder("flightontime.admission.in_flight", enVuelo, AtomicInteger::get)
+                .description("Solicitudes de predicción en vuelo")
+                .register(registry);
+    }
+
+    private void registrarDescartes(MeterRegistry registry, String motivo, String accion, AtomicLong contador) {
+        FunctionCounter.builder("flightontime.admission.shed", contador, AtomicLong::get)
+                .tag("motivo", motivo)
+                .tag("accion", accion)
+                .description("Solicitudes descartadas por el control de admisión")
+                .register(registry);
+    }
+
+    /**
+     * Estado para /api/health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("habilitado", enabled);
+        stats.put("politica", politica.name().toLowerCase(Locale.ROOT));
+        stats.put("en_vuelo", enVuelo.get());
+        stats.put("pico_en_vuelo", picoEnVuelo.get());
+        stats.put("max_en_vuelo", maxEnVuelo);
+        stats.put("umbral_descarte", umbralDescarte);
+        stats.put("presion", Math.round(getPresion() * 1000) / 1000.0);
+        stats.put("tasa_por_cliente", limitePorCliente ? tasaPorSegundo : 0);
+        stats.put("rafaga_por_cliente", rafaga);
+        stats.put("admitidas", admitidas.get());
+        stats.put("degradadas_cliente", degradadasCliente.get());
+        stats.put("degradadas_sobrecarga", degradadasSobrecarga.get());
+        stats.put("rechazadas_cliente", rechazadasCliente.get());
+        stats.put("rechazadas_sobrecarga", rechazadasSobrecarga.get());
+        return stats;
+    }
+}
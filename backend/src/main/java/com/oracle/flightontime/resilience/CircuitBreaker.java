@@ -0,0 +1,307 @@
+package com.oracle.flightontime.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ * CIRCUIT BREAKER
+ * ============================================================================
+ * Protege una dependencia remota con tres estados:
+ * - CERRADO: las llamadas pasan; se registra el resultado de las últimas
+ *   N llamadas (ventana deslizante por conteo). Si el porcentaje de fallos o
+ *   de llamadas lentas supera el umbral, el circuito se abre.
+ * - ABIERTO: las llamadas se rechazan sin intentar la conexión hasta que
+ *   vence la espera. Cada reapertura consecutiva duplica la espera, hasta
+ *   un máximo.
+ * - SEMIABIERTO: se permiten unas pocas llamadas de prueba; si todas
+ *   terminan bien y a tiempo el circuito se cierra, si alguna falla vuelve
+ *   a abrirse.
+ * Cada permiso indica si es una llamada de prueba: solo las pruebas de la
+ * ronda SEMIABIERTO en curso cierran o reabren el circuito, y los resultados
+ * tardíos de llamadas concedidas en otro estado se descartan.
+ * Todas las operaciones son síncronas sobre el propio breaker y de coste
+ * constante.
+ * ============================================================================
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int MAX_TRANSICIONES = 20;
+
+    public enum Estado {
+        CERRADO,
+        ABIERTO,
+        SEMIABIERTO
+    }
+
+    private final String nombre;
+    private final int minimoLlamadas;
+    private final int umbralFallosPorcentaje;
+    private final long llamadaLentaNanos;
+    private final int umbralLentasPorcentaje;
+    private final long esperaAbiertoNanos;
+    private final long esperaAbiertoMaxNanos;
+    private final int llamadasPrueba;
+
+    // Ventana deslizante (anillo) de las últimas llamadas
+    private final boolean[] ventanaFallos;
+    private final boolean[] ventanaLentas;
+    private int posicion;
+    private int llamadasEnVentana;
+    private int fallosEnVentana;
+    private int lentasEnVentana;
+
+    private Estado estado = Estado.CERRADO;
+    private long abiertoHasta;
+    private long esperaActualNanos;
+    private int pruebasEmitidas;
+    private int pruebasExitosas;
+    private long ronda;
+
+    private final Deque<Map<String, Object>> transiciones = new ArrayDeque<>();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong totalTransiciones = new AtomicLong();
+
+    /**
+     * Permiso de una llamada concedido por {@link #intentarAdquirir()}.
+     * Los de llamadas de prueba pertenecen a una ronda SEMIABIERTO y solo
+     * cuentan una vez; los del estado CERRADO se comparten.
+     */
+    public static final class Permiso {
+        private final boolean prueba;
+        private final long ronda;
+        private boolean terminado;
+
+        private Permiso(boolean prueba, long ronda) {
+            this.prueba = prueba;
+            this.ronda = ronda;
+        }
+
+        public boolean isPrueba() {
+            return prueba;
+        }
+    }
+
+    private static final Permiso NORMAL = new Permiso(false, 0);
+
+    public CircuitBreaker(String nombre, int tamanoVentana, int minimoLlamadas, int umbralFallosPorcentaje,
+                          long llamadaLentaMs, int umbralLentasPorcentaje, long esperaAbiertoMs,
+                          long esperaAbiertoMaxMs, int llamadasPrueba) {
+        this.nombre = nombre;
+        this.minimoLlamadas = Math.min(minimoLlamadas, tamanoVentana);
+        this.umbralFallosPorcentaje = umbralFallosPorcentaje;
+        this.llamadaLentaNanos = llamadaLentaMs * 1_000_000L;
+        this.umbralLentasPorcentaje = umbralLentasPorcentaje;
+        this.esperaAbiertoNanos = esperaAbiertoMs * 1_000_000L;
+        this.esperaAbiertoMaxNanos = Math.max(esperaAbiertoMaxMs, esperaAbiertoMs) * 1_000_000L;
+        this.llamadasPrueba = Math.max(1, llamadasPrueba);
+        this.ventanaFallos = new boolean[tamanoVentana];
+        this.ventanaLentas = new boolean[tamanoVentana];
+        this.esperaActualNanos = esperaAbiertoNanos;
+    }
+
+    /**
+     * Solicita permiso para realizar una llamada.
+     *
+     * @return Permiso de la llamada, o null si el circuito la rechaza
+     */
+    public synchronized Permiso intentarAdquirir() {
+        switch (estado) {
+            case CERRADO:
+                return NORMAL;
+            case ABIERTO:
+                if (System.nanoTime() - abiertoHasta < 0) {
+                    rechazadas.incrementAndGet();
+                    return null;
+                }
+                ronda++;
+                transicion(Estado.SEMIABIERTO, "espera de apertura cumplida");
+                // continúa como SEMIABIERTO
+            default:
+                if (pruebasEmitidas < llamadasPrueba) {
+                    pruebasEmitidas++;
+                    return new Permiso(true, ronda);
+                }
+                rechazadas.incrementAndGet();
+                return null;
+        }
+    }
+
+    /**
+     * Registra una llamada terminada correctamente.
+     *
+     * @param permiso       Permiso concedido a la llamada
+     * @param duracionNanos Duración de la llamada
+     */
+    public synchronized void registrarExito(Permiso permiso, long duracionNanos) {
+        boolean lenta = duracionNanos >= llamadaLentaNanos;
+        if (!permiso.prueba) {
+            // Fuera de CERRADO es el resultado tardío de una llamada anterior
+            if (estado == Estado.CERRADO) {
+                registrar(false, lenta);
+                evaluar();
+            }
+        } else if (terminarPrueba(permiso)) {
+            if (lenta) {
+                reabrir("llamada de prueba lenta");
+            } else if (++pruebasExitosas >= llamadasPrueba) {
+                esperaActualNanos = esperaAbiertoNanos;
+                reiniciarVentana();
+                transicion(Estado.CERRADO, "llamadas de prueba exitosas");
+            }
+        }
+    }
+
+    /**
+     * Registra una llamada fallida (error de conexión, timeout, 5xx).
+     *
+     * @param permiso Permiso concedido a la llamada
+     */
+    public synchronized void registrarFallo(Permiso permiso) {
+        if (!permiso.prueba) {
+            if (estado == Estado.CERRADO) {
+                registrar(true, false);
+                evaluar();
+            }
+        } else if (terminarPrueba(permiso)) {
+            reabrir("fallo en llamada de prueba");
+        }
+    }
+
+    /**
+     * Libera el permiso de una llamada cancelada antes de terminar, para que
+     * no consuma una llamada de prueba. Sin efecto para las demás llamadas.
+     *
+     * @param permiso Permiso concedido a la llamada
+     */
+    public synchronized void liberar(Permiso permiso) {
+        if (permiso.prueba && terminarPrueba(permiso)) {
+            pruebasEmitidas--;
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Estado, contadores y últimas transiciones.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nombre", nombre);
+        stats.put("estado", estado.name());
+        stats.put("llamadas_en_ventana", llamadasEnVentana);
+        stats.put("tasa_fallos_pct", llamadasEnVentana > 0 ? fallosEnVentana * 100 / llamadasEnVentana : 0);
+        stats.put("tasa_lentas_pct", llamadasEnVentana > 0 ? lentasEnVentana * 100 / llamadasEnVentana : 0);
+        stats.put("llamadas_rechazadas", rechazadas.get());
+        stats.put("transiciones", totalTransiciones.get());
+        stats.put("espera_apertura_ms", esperaActualNanos / 1_000_000L);
+        if (estado == Estado.ABIERTO) {
+            stats.put("reintento_en_ms", Math.max(0, (abiertoHasta - System.nanoTime()) / 1_000_000L));
+        }
+        List<Map<String, Object>> ultimas = new ArrayList<>(transiciones);
+        stats.put("ultimas_transiciones", ultimas);
+        return stats;
+    }
+
+    /**
+     * Marca la prueba como terminada; true si pertenece a la ronda
+     * SEMIABIERTO en curso y no había terminado antes.
+     */
+    private boolean terminarPrueba(Permiso permiso) {
+        if (permiso.terminado) {
+            return false;
+        }
+        permiso.terminado = true;
+        return estado == Estado.SEMIABIERTO && permiso.ronda == ronda;
+    }
+
+    private void registrar(boolean fallo, boolean lenta) {
+        if (llamadasEnVentana == ventanaFallos.length) {
+            if (ventanaFallos[posicion]) {
+                fallosEnVentana--;
+            }
+            if (ventanaLentas[posicion]) {
+                lentasEnVentana--;
+            }
+        } else {
+            llamadasEnVentana++;
+        }
+        ventanaFallos[posicion] = fallo;
+        ventanaLentas[posicion] = lenta;
+        if (fallo) {
+            fallosEnVentana++;
+        }
+        if (lenta) {
+            lentasEnVentana++;
+        }
+        posicion = (posicion + 1) % ventanaFallos.length;
+    }
+
+    private void evaluar() {
+        if (llamadasEnVentana < minimoLlamadas) {
+            return;
+        }
+        int tasaFallos = fallosEnVentana * 100 / llamadasEnVentana;
+        int tasaLentas = lentasEnVentana * 100 / llamadasEnVentana;
+        if (tasaFallos >= umbralFallosPorcentaje) {
+            abrir(String.format("tasa de fallos %d%% en %d llamadas", tasaFallos, llamadasEnVentana));
+        } else if (tasaLentas >= umbralLentasPorcentaje) {
+            abrir(String.format("tasa de llamadas lentas %d%% en %d llamadas", tasaLentas, llamadasEnVentana));
+        }
+    }
+
+    private void abrir(String motivo) {
+        abiertoHasta = System.nanoTime() + esperaActualNanos;
+        reiniciarVentana();
+        transicion(Estado.ABIERTO, motivo);
+    }
+
+    private void reabrir(String motivo) {
+        esperaActualNanos = Math.min(esperaActualNanos * 2, esperaAbiertoMaxNanos);
+        abrir(motivo);
+    }
+
+    private void reiniciarVentana() {
+        posicion = 0;
+        llamadasEnVentana = 0;
+        fallosEnVentana = 0;
+        lentasEnVentana = 0;
+        pruebasEmitidas = 0;
+        pruebasExitosas = 0;
+    }
+
+    private void transicion(Estado nuevo, String motivo) {
+        Estado anterior = estado;
+        estado = nuevo;
+        totalTransiciones.incrementAndGet();
+
+        Map<String, Object> registro = new HashMap<>();
+        registro.put("desde", anterior.name());
+        registro.put("hacia", nuevo.name());
+        registro.put("motivo", motivo);
+        registro.put("timestamp", Instant.now().toString());
+        if (transiciones.size() == MAX_TRANSICIONES) {
+            transiciones.removeFirst();
+        }
+        transiciones.addLast(registro);
+
+        logger.warn("🔌 Circuito {}: {} → {} ({})", nombre, anterior, nuevo, motivo);
+    }
+}
@@ -0,0 +1,12 @@
+package com.oracle.flightontime.resilience;
+
+/**
+ * Señala que una llamada no se realizó porque el circuito de la
+ * dependencia está abierto.
+ */
+public class CircuitoAbiertoException extends RuntimeException {
+
+    public CircuitoAbiertoException(String nombre) {
+        super("Circuito " + nombre + " abierto, llamada no realizada");
+    }
+}
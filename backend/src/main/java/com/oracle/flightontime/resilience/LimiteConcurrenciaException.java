@@ -0,0 +1,12 @@
+package com.oracle.flightontime.resilience;
+
+/**
+ * Señala que una llamada no se realizó porque el límite de concurrencia de
+ * la dependencia estaba completo y no hubo permiso a tiempo.
+ */
+public class LimiteConcurrenciaException extends RuntimeException {
+
+    public LimiteConcurrenciaException(String nombre, String motivo) {
+        super("Límite de concurrencia de " + nombre + " completo (" + motivo + "), llamada no realizada");
+    }
+}
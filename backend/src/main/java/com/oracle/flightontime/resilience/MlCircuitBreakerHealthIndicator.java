@@ -0,0 +1,30 @@
+package com.oracle.flightontime.resilience;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * ============================================================================
+ * INDICADOR DE SALUD DEL CIRCUITO ML (ACTUATOR)
+ * ============================================================================
+ * Publica el estado del circuit breaker del servicio ML en
+ * /actuator/health. Un circuito abierto no marca el backend como caído,
+ * porque las predicciones siguen atendiéndose con el fallback mock.
+ * ============================================================================
+ */
+@Component("mlCircuitBreaker")
+public class MlCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    private final CircuitBreaker circuitBreaker;
+
+    public MlCircuitBreakerHealthIndicator(@Qualifier("mlServiceCircuitBreaker") CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        return Health.up().withDetails(circuitBreaker.getStats()).build();
+    }
+}
@@ -0,0 +1,969 @@
+package com.oracle.flightontime.schedule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.dto.PredictionRequestDTO;
+import com.oracle.flightontime.dto.PredictionResponseDTO;
+import com.oracle.flightontime.dto.ScheduleImportResultDTO;
+import com.oracle.flightontime.dto.ScheduleQueryResponseDTO;
+import com.oracle.flightontime.dto.ScheduledFlightDTO;
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.service.PredictionMode;
+import com.oracle.flightontime.service.PredictionService;
+import com.oracle.flightontime.util.FechaUtils;
+import com.oracle.flightontime.util.GeoUtils;
+import com.oracle.flightontime.weather.WeatherService;
+import com.oracle.flightontime.weather.WeatherSnapshot;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * ============================================================================
+ * SERVICIO DE HORARIO CON PREDICCIÓN INCREMENTAL
+ * ============================================================================
+ * Mantiene el horario publicado (filas con la forma de PredictionRequestDTO
+ * y un número de vuelo opcional) con una predicción materializada por
+ * vuelo, y la recalcula solo cuando cambia alguna de sus entradas:
+ * - Clima del aeropuerto de origen: en cada revisión se compara el clima
+ *   de la instantánea vigente con el último usado por aeropuerto. Los
+ *   modos actuales puntúan con clima neutro (igual que
+ *   preparar_features_modelo), así que un cambio solo actualiza el
+ *   clima_origen de los vuelos que salen de él, sin recalcularlos. Con
+ *   schedule.weather-affects-score=true (un modelo que use el clima real)
+ *   se invalidan, salvo en modo mock.
+ * - Versión del modelo: local (LocalModelService), la del servicio ML
+ *   (ml.service.model-version o la que informe en sus respuestas) o mock.
+ *   Los vuelos calculados con otra versión, o con el fallback mock cuando
+ *   se pidió el modo real, se invalidan.
+ * - Hora de partida: al reimportar, un vuelo cuya ruta o cuya hora de
+ *   partida cambió se invalida; un cambio solo de minutos no cambia las
+ *   features del modelo (igual que la clave de PredictionCache).
+ *
+ * La identidad de un vuelo es aerolínea + número de vuelo + día si la fila
+ * trae "vuelo", o aerolínea + ruta + fecha de partida si no. Los vuelos
+ * invalidados esperan en una cola y una única pasada a la vez los
+ * recalcula: en modo local, en paralelo dentro de la JVM; en modos real y
+ * mock, por bloques con el mismo camino que /api/predict/batch. Cada vuelo
+ * lleva una generación: un resultado calculado con entradas que cambiaron
+ * mientras tanto se descarta y el vuelo vuelve a calcularse.
+ *
+ * Los vuelos ya partidos no se recalculan y se eliminan pasadas
+ * schedule.retention-hours. Índices por aeropuerto de origen y de destino,
+ * ordenados por hora de partida, resuelven las consultas por ventana.
+ * ============================================================================
+ */
+@Service
+public class ScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleService.class);
+
+    /** Errores de validación incluidos en el resultado de una importación */
+    private static final int MAX_ERRORES_INFORMADOS = 20;
+
+    /** Vuelos por tarea paralela en modo local */
+    private static final int VUELOS_POR_TAREA = 256;
+
+    private static final String[] MOTIVOS = {"nuevo", "ruta", "salida", "clima", "modelo", "fallback"};
+
+    private final PredictionService predictionService;
+    private final LocalModelService localModelService;
+    private final WeatherService weatherService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${schedule.enabled:true}")
+    private boolean enabled;
+
+    @Value("${schedule.file.path:data/schedule.ndjson}")
+    private String filePath;
+
+    @Value("${schedule.mode:local}")
+    private String mode;
+
+    @Value("${schedule.max-flights:200000}")
+    private int maxFlights;
+
+    @Value("${schedule.retention-hours:48}")
+    private long retentionHours;
+
+    @Value("${schedule.fallback-retry-ms:60000}")
+    private long fallbackRetryMs;
+
+    @Value("${schedule.weather-affects-score:false}")
+    private boolean weatherAffectsScore;
+
+    @Value("${ml.batch.chunk-size:50}")
+    private int batchChunkSize;
+
+    @Value("${ml.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    /**
+     * Versión vigente del modelo del servicio ML: la configurada hasta que
+     * el servicio informe otra en sus respuestas
+     */
+    private volatile String versionReal;
+
+    // Estado del horario (protegido por this)
+    private final Map<String, Vuelo> vuelos = new HashMap<>();
+    private final Map<String, NavigableSet<Vuelo>> porOrigen = new HashMap<>();
+    private final Map<String, NavigableSet<Vuelo>> porDestino = new HashMap<>();
+    private final ArrayDeque<Vuelo> cola = new ArrayDeque<>();
+    /** Último clima usado por aeropuerto de origen (puede ser null) */
+    private final Map<String, WeatherDataDTO> climaVigente = new HashMap<>();
+    private WeatherSnapshot ultimaInstantanea;
+    private long secuencia;
+    private int pendientes;
+
+    private final AtomicBoolean recalculando = new AtomicBoolean();
+    private volatile FileTime archivoModificado;
+    private volatile ScheduleImportResultDTO ultimaImportacion;
+
+    private final Map<String, AtomicLong> recalculadas = new LinkedHashMap<>();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong pasadas = new AtomicLong();
+    private final AtomicLong climasActualizados = new AtomicLong();
+    private final AtomicInteger bloquesFallback = new AtomicInteger();
+    private volatile int ultimaPasadaVuelos;
+    private volatile long ultimaPasadaMs;
+
+    public ScheduleService(PredictionService predictionService, LocalModelService localModelService,
+                           WeatherService weatherService, ObjectMapper objectMapper,
+                           @Value("${ml.service.model-version:random_forest_v1}") String modeloVersion) {
+        this.predictionService = predictionService;
+        this.localModelService = localModelService;
+        this.weatherService = weatherService;
+        this.objectMapper = objectMapper;
+        this.versionReal = modeloVersion;
+        for (String motivo : MOTIVOS) {
+            recalculadas.put(motivo, new AtomicLong());
+        }
+    }
+
+    @PostConstruct
+    void inicializar() {
+        PredictionMode.desdeParametro(mode);
+    }
+
+    /**
+     * ========================================================================
+     * IMPORTACIÓN
+     * ========================================================================
+     */
+
+    /**
+     * Importa filas NDJSON (una por línea; las vacías se ignoran).
+     *
+     * @param reemplazar true: los vuelos que no aparecen se eliminan;
+     *                   false: solo se agregan o actualizan
+     * @throws ResponseStatusException 400 si el horario superaría schedule.max-flights
+     */
+    public ScheduleImportResultDTO importarLineas(List<String> lineas, boolean reemplazar, String fuente) {
+        long inicio = System.currentTimeMillis();
+        Lectura lectura = new Lectura();
+        for (int i = 0; i < lineas.size(); i++) {
+            String linea = lineas.get(i);
+            if (linea.isBlank()) {
+                continue;
+            }
+            JsonNode nodo;
+            try {
+                nodo = objectMapper.readTree(linea);
+            } catch (JsonProcessingException e) {
+                lectura.leidas++;
+                lectura.rechazar(i + 1, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            lectura.agregar(i + 1, nodo);
+        }
+        return aplicarImportacion(lectura, reemplazar, fuente, inicio);
+    }
+
+    /**
+     * Importa un archivo de horario: un arreglo JSON de filas o NDJSON.
+     * Reemplaza el horario vigente.
+     */
+    public ScheduleImportResultDTO importarArchivo(Path ruta) throws IOException {
+        long inicio = System.currentTimeMillis();
+        String contenido = Files.readString(ruta);
+        if (!contenido.stripLeading().startsWith("[")) {
+            return importarLineas(contenido.lines().toList(), true, ruta.toString());
+        }
+
+        Lectura lectura = new Lectura();
+        JsonNode filas = objectMapper.readTree(contenido);
+        for (int i = 0; i < filas.size(); i++) {
+            lectura.agregar(i + 1, filas.get(i));
+        }
+        return aplicarImportacion(lectura, true, ruta.toString(), inicio);
+    }
+
+    /**
+     * Filas leídas y validadas de una importación.
+     */
+    private final class Lectura {
+        final List<Fila> filas = new ArrayList<>();
+        final List<String> errores = new ArrayList<>();
+        int leidas;
+        int rechazadas;
+
+        void agregar(int linea, JsonNode nodo) {
+            leidas++;
+            PredictionRequestDTO solicitud;
+            try {
+                solicitud = objectMapper.treeToValue(nodo, PredictionRequestDTO.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                rechazar(linea, "Fila inválida: " + e.getMessage());
+                return;
+            }
+            String error = predictionService.validar(solicitud);
+            LocalDateTime salida = FechaUtils.intentarParsear(solicitud.getFechaPartida());
+            if (error == null && salida == null) {
+                error = "fecha_partida obligatoria en formato ISO-8601";
+            }
+            if (error != null) {
+                rechazar(linea, error);
+                return;
+            }
+            String vuelo = nodo.hasNonNull("vuelo") ? nodo.get("vuelo").asText().trim() : null;
+            filas.add(new Fila(linea, vuelo == null || vuelo.isEmpty() ? null : vuelo, solicitud, salida));
+        }
+
+        void rechazar(int linea, String error) {
+            rechazadas++;
+            if (errores.size() < MAX_ERRORES_INFORMADOS) {
+                errores.add("línea " + linea + ": " + error);
+            }
+        }
+    }
+
+    private record Fila(int linea, String vuelo, PredictionRequestDTO solicitud, LocalDateTime salida) {
+
+        String clave() {
+            return vuelo != null
+                    ? solicitud.getAerolinea() + "|" + vuelo + "|" + salida.toLocalDate()
+                    : solicitud.getAerolinea() + "|" + solicitud.getOrigen() + "|" + solicitud.getDestino()
+                    + "|" + salida;
+        }
+    }
+
+    /**
+     * Compara las filas con el horario vigente: solo los vuelos nuevos y los
+     * que cambiaron de ruta o de hora de partida quedan pendientes.
+     */
+    private ScheduleImportResultDTO aplicarImportacion(Lectura lectura, boolean reemplazar, String fuente,
+                                                       long inicio) {
+        int nuevas = 0;
+        int modificadas = 0;
+        int sinCambios = 0;
+        int eliminadas = 0;
+        int total;
+        int pendientesTras;
+
+        synchronized (this) {
+            Map<String, Fila> porClave = new LinkedHashMap<>();
+            for (Fila fila : lectura.filas) {
+                if (porClave.putIfAbsent(fila.clave(), fila) != null) {
+                    lectura.rechazar(fila.linea(), "vuelo duplicado en el horario");
+                }
+            }
+
+            int resultante = porClave.size();
+            if (!reemplazar) {
+                for (String clave : vuelos.keySet()) {
+                    if (!porClave.containsKey(clave)) {
+                        resultante++;
+                    }
+                }
+            }
+            if (resultante > maxFlights) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                        "El horario tendría %d vuelos; el máximo es %d (schedule.max-flights)",
+                        resultante, maxFlights));
+            }
+
+            if (reemplazar) {
+                Iterator<Vuelo> iterador = vuelos.values().iterator();
+                while (iterador.hasNext()) {
+                    Vuelo vuelo = iterador.next();
+                    if (!porClave.containsKey(vuelo.clave)) {
+                        iterador.remove();
+                        desindexar(vuelo);
+                        retirar(vuelo);
+                        eliminadas++;
+                    }
+                }
+            }
+
+            for (Fila fila : porClave.values()) {
+                Vuelo existente = vuelos.get(fila.clave());
+                if (existente == null) {
+                    Vuelo vuelo = new Vuelo(fila.clave(), secuencia++, fila);
+                    vuelos.put(vuelo.clave, vuelo);
+                    indexar(vuelo);
+                    invalidar(vuelo, "nuevo");
+                    nuevas++;
+                    continue;
+                }
+
+                if (existente.mismaSalida(fila)) {
+                    existente.fechaPartida = fila.solicitud().getFechaPartida();
+                    sinCambios++;
+                    continue;
+                }
+                // Ruta u hora cambian: fuera de los índices mientras se modifica
+                String motivo = existente.motivoCambio(fila);
+                desindexar(existente);
+                existente.asignar(fila);
+                indexar(existente);
+                if (motivo != null) {
+                    invalidar(existente, motivo);
+                    modificadas++;
+                } else {
+                    sinCambios++;
+                }
+            }
+            total = vuelos.size();
+            pendientesTras = pendientes;
+        }
+
+        ScheduleImportResultDTO resultado = ScheduleImportResultDTO.builder()
+                .fuente(fuente)
+                .filas(lectura.leidas)
+                .rechazadas(lectura.rechazadas)
+                .errores(lectura.errores.isEmpty() ? null : lectura.errores)
+                .nuevas(nuevas)
+                .modificadas(modificadas)
+                .sinCambios(sinCambios)
+                .eliminadas(eliminadas)
+                .vuelos(total)
+                .pendientes(pendientesTras)
+                .duracionMs(System.currentTimeMillis() - inicio)
+                .build();
+        ultimaImportacion = resultado;
+
+        logger.info("🗓️ Horario importado ({}): {} nuevos, {} modificados, {} sin cambios, {} eliminados, "
+                        + "{} rechazados - {} vuelos, {} pendientes",
+                fuente, nuevas, modificadas, sinCambios, eliminadas, lectura.rechazadas, total, pendientesTras);
+
+        procesarPendientes();
+        return resultado;
+    }
+
+    /**
+     * ========================================================================
+     * REVISIÓN DE ENTRADAS
+     * ========================================================================
+     * Vuelve a importar el archivo si cambió, invalida los vuelos cuyo clima
+     * de origen o versión de modelo cambiaron y lanza una pasada de
+     * recálculo si hay pendientes.
+     * ========================================================================
+     */
+    @Scheduled(fixedDelayString = "${schedule.check-interval-ms:30000}",
+            initialDelayString = "${schedule.initial-delay-ms:5000}")
+    public void revisar() {
+        if (!enabled) {
+            return;
+        }
+        revisarArchivo();
+
+        PredictionMode modo = modoEfectivo();
+        String version = versionModelo(modo);
+        int porClima;
+        int porModelo;
+        int depurados;
+        synchronized (this) {
+            LocalDateTime ahora = LocalDateTime.now();
+            depurados = depurar(ahora.minusHours(retentionHours));
+            porClima = revisarClima(ahora, modo);
+            porModelo = invalidarPorModelo(ahora, modo, version);
+            reencolar();
+        }
+        if (porClima + porModelo + depurados > 0) {
+            logger.info("🗓️ Horario revisado: {} vuelos invalidados por clima, {} por modelo ({}), {} depurados",
+                    porClima, porModelo, version, depurados);
+        }
+        procesarPendientes();
+    }
+
+    private void revisarArchivo() {
+        if (filePath == null || filePath.isBlank()) {
+            return;
+        }
+        Path ruta = Path.of(filePath);
+        if (!Files.isRegularFile(ruta)) {
+            return;
+        }
+        try {
+            FileTime modificado = Files.getLastModifiedTime(ruta);
+            if (modificado.equals(archivoModificado)) {
+                return;
+            }
+            archivoModificado = modificado;
+            importarArchivo(ruta);
+        } catch (IOException | ResponseStatusException e) {
+            logger.error("❌ Horario {} no importado: {}", ruta, e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica el clima de los aeropuertos que cambió desde el último usado a
+     * sus vuelos futuros: los invalida si el modo vigente puntúa con el
+     * clima, o solo actualiza su clima_origen si no.
+     *
+     * @return Vuelos invalidados
+     */
+    private int revisarClima(LocalDateTime ahora, PredictionMode modo) {
+        WeatherSnapshot instantanea = weatherService.getSnapshot();
+        if (instantanea == ultimaInstantanea) {
+            return 0;
+        }
+        ultimaInstantanea = instantanea;
+
+        boolean recalcular = weatherAffectsScore && modo != PredictionMode.MOCK;
+        int invalidados = 0;
+        long actualizados = 0;
+        Vuelo sonda = Vuelo.sonda(ahora);
+        for (Map.Entry<String, NavigableSet<Vuelo>> entrada : porOrigen.entrySet()) {
+            String aeropuerto = entrada.getKey();
+            WeatherDataDTO clima = instantanea.get(GeoUtils.getOrdinal(aeropuerto));
+            if (Objects.equals(clima, climaVigente.get(aeropuerto))) {
+                continue;
+            }
+            climaVigente.put(aeropuerto, clima);
+            for (Vuelo vuelo : entrada.getValue().tailSet(sonda, true)) {
+                if (recalcular) {
+                    invalidar(vuelo, "clima");
+                    invalidados++;
+                } else if (vuelo.calculado != null) {
+                    vuelo.climaOrigen = clima;
+                    actualizados++;
+                }
+            }
+        }
+        climasActualizados.addAndGet(actualizados);
+        return invalidados;
+    }
+
+    /**
+     * Invalida los vuelos futuros calculados con otra versión del modelo.
+     * Los resueltos con el fallback mock cuando el modo vigente no es mock
+     * se reintentan como mucho cada schedule.fallback-retry-ms.
+     */
+    private int invalidarPorModelo(LocalDateTime ahora, PredictionMode modo, String version) {
+        if (version == null) {
+            return 0;
+        }
+        Instant reintento = Instant.now().minusMillis(fallbackRetryMs);
+        int invalidados = 0;
+        for (Vuelo vuelo : vuelos.values()) {
+            if (vuelo.pendiente || vuelo.modeloVersion == null || vuelo.salida.isBefore(ahora)
+                    || version.equals(vuelo.modeloVersion)) {
+                continue;
+            }
+            boolean fallback = "MOCK".equals(vuelo.modo) && modo != PredictionMode.MOCK;
+            if (fallback && vuelo.calculado.isAfter(reintento)) {
+                continue;
+            }
+            invalidar(vuelo, fallback ? "fallback" : "modelo");
+            invalidados++;
+        }
+        return invalidados;
+    }
+
+    /**
+     * Elimina los vuelos con partida anterior al límite de retención.
+     */
+    private int depurar(LocalDateTime limite) {
+        int depurados = 0;
+        Iterator<Vuelo> iterador = vuelos.values().iterator();
+        while (iterador.hasNext()) {
+            Vuelo vuelo = iterador.next();
+            if (vuelo.salida.isBefore(limite)) {
+                iterador.remove();
+                desindexar(vuelo);
+                retirar(vuelo);
+                depurados++;
+            }
+        }
+        return depurados;
+    }
+
+    /**
+     * Devuelve a la cola los vuelos pendientes cuya pasada falló.
+     */
+    private void reencolar() {
+        if (pendientes == 0) {
+            return;
+        }
+        for (Vuelo vuelo : vuelos.values()) {
+            if (vuelo.pendiente && !vuelo.enCola) {
+                vuelo.enCola = true;
+                cola.add(vuelo);
+            }
+        }
+    }
+
+    /**
+     * ========================================================================
+     * DEPENDENCIAS E ÍNDICES
+     * ========================================================================
+     */
+    private void invalidar(Vuelo vuelo, String motivo) {
+        vuelo.generacion++;
+        if (!vuelo.pendiente) {
+            vuelo.pendiente = true;
+            vuelo.motivoPendiente = motivo;
+            pendientes++;
+        }
+        if (!vuelo.enCola) {
+            vuelo.enCola = true;
+            cola.add(vuelo);
+        }
+    }
+
+    /**
+     * Saca un vuelo eliminado del conteo de pendientes; la generación nueva
+     * descarta un resultado en curso.
+     */
+    private void retirar(Vuelo vuelo) {
+        vuelo.generacion++;
+        if (vuelo.pendiente) {
+            vuelo.pendiente = false;
+            pendientes--;
+        }
+    }
+
+    private void indexar(Vuelo vuelo) {
+        porOrigen.computeIfAbsent(vuelo.origen, k -> new TreeSet<>(Vuelo.ORDEN)).add(vuelo);
+        porDestino.computeIfAbsent(vuelo.destino, k -> new TreeSet<>(Vuelo.ORDEN)).add(vuelo);
+        if (!climaVigente.containsKey(vuelo.origen)) {
+            climaVigente.put(vuelo.origen, weatherService.getSnapshot().get(GeoUtils.getOrdinal(vuelo.origen)));
+        }
+    }
+
+    private void desindexar(Vuelo vuelo) {
+        quitar(porOrigen, vuelo.origen, vuelo);
+        quitar(porDestino, vuelo.destino, vuelo);
+    }
+
+    private static void quitar(Map<String, NavigableSet<Vuelo>> indice, String aeropuerto, Vuelo vuelo) {
+        NavigableSet<Vuelo> conjunto = indice.get(aeropuerto);
+        if (conjunto != null && conjunto.remove(vuelo) && conjunto.isEmpty()) {
+            indice.remove(aeropuerto);
+        }
+    }
+
+    /**
+     * ========================================================================
+     * RECÁLCULO
+     * ========================================================================
+     * Una sola pasada a la vez toma todos los vuelos en cola. Al terminar,
+     * si se invalidaron más mientras tanto, empieza otra.
+     * ========================================================================
+     */
+    private void procesarPendientes() {
+        if (!enabled || !recalculando.compareAndSet(false, true)) {
+            return;
+        }
+
+        PredictionMode modo = modoEfectivo();
+        List<Tarea> tareas;
+        synchronized (this) {
+            tareas = new ArrayList<>(cola.size());
+            Vuelo vuelo;
+            while ((vuelo = cola.poll()) != null) {
+                vuelo.enCola = false;
+                if (vuelo.pendiente && vuelos.get(vuelo.clave) == vuelo) {
+                    tareas.add(new Tarea(vuelo, vuelo.generacion, vuelo.motivoPendiente, vuelo.solicitud(),
+                            vuelo.salida));
+                }
+            }
+        }
+        if (tareas.isEmpty()) {
+            recalculando.set(false);
+            synchronized (this) {
+                if (cola.isEmpty()) {
+                    return;
+                }
+            }
+            procesarPendientes();
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        Mono<Void> pasada = modo == PredictionMode.LOCAL
+                ? puntuarLocal(tareas)
+                : puntuarPorBloques(tareas, modo == PredictionMode.MOCK);
+        pasada.doFinally(senal -> {
+                    pasadas.incrementAndGet();
+                    ultimaPasadaVuelos = tareas.size();
+                    ultimaPasadaMs = (System.nanoTime() - inicio) / 1_000_000L;
+                    logger.info("🗓️ Horario: {} vuelos recalculados en {}ms (modo {})",
+                            tareas.size(), ultimaPasadaMs, modo);
+                    recalculando.set(false);
+                    boolean hayMas;
+                    synchronized (this) {
+                        hayMas = !cola.isEmpty();
+                    }
+                    if (hayMas) {
+                        procesarPendientes();
+                    }
+                })
+                .subscribe(null, error -> logger.error("❌ Recálculo del horario fallido: {}", error.getMessage()));
+    }
+
+    /**
+     * Modo local: el modelo en la JVM evalúa bloques de vuelos en paralelo
+     * (mismas features que el servicio ML, clima neutro).
+     */
+    private Mono<Void> puntuarLocal(List<Tarea> tareas) {
+        String version = localModelService.getVersion();
+        int bloques = (tareas.size() + VUELOS_POR_TAREA - 1) / VUELOS_POR_TAREA;
+        return Flux.range(0, bloques)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .doOnNext(bloque -> {
+                    int desde = bloque * VUELOS_POR_TAREA;
+                    int hasta = Math.min(tareas.size(), desde + VUELOS_POR_TAREA);
+                    double[] probabilidades = new double[hasta - desde];
+                    for (int i = desde; i < hasta; i++) {
+                        Tarea tarea = tareas.get(i);
+                        PredictionRequestDTO solicitud = tarea.solicitud();
+                        probabilidades[i - desde] = localModelService.predecirProbabilidad(solicitud.getAerolinea(),
+                                GeoUtils.getOrdinal(solicitud.getOrigen()), GeoUtils.getOrdinal(solicitud.getDestino()),
+                                tarea.salida());
+                    }
+                    aplicar(tareas.subList(desde, hasta), i -> {
+                        double probabilidad = probabilidades[i];
+                        return new Resultado(probabilidad > 0.5 ? 1 : 0, probabilidad,
+                                Math.max(probabilidad, 1.0 - probabilidad), version, "LOCAL");
+                    });
+                })
+                .sequential()
+                .then();
+    }
+
+    /**
+     * Modos real y mock: bloques de ml.batch.chunk-size con
+     * ml.batch.concurrency en vuelo; un bloque que falla en modo real se
+     * resuelve con el fallback mock y queda marcado para recalcularse.
+     */
+    private Mono<Void> puntuarPorBloques(List<Tarea> tareas, boolean useMock) {
+        return Flux.fromIterable(tareas)
+                .buffer(batchChunkSize)
+                .flatMap(bloque -> {
+                    List<PredictionRequestDTO> solicitudes = new ArrayList<>(bloque.size());
+                    for (Tarea tarea : bloque) {
+                        solicitudes.add(tarea.solicitud());
+                    }
+                    return predictionService.predecirBloque(solicitudes, useMock, bloquesFallback)
+                            .doOnNext(respuestas -> aplicar(bloque, i -> desdeRespuesta(respuestas.get(i))));
+                }, batchConcurrency)
+                .then();
+    }
+
+    private Resultado desdeRespuesta(PredictionResponseDTO respuesta) {
+        if (respuesta.isModoMock()) {
+            return new Resultado(respuesta.getPrediccion(), respuesta.getProbabilidadRetraso(),
+                    respuesta.getConfianza(), "mock", "MOCK");
+        }
+        String informada = respuesta.getMetadata() != null ? respuesta.getMetadata().getModeloVersion() : null;
+        if (informada != null && !informada.equals(versionReal)) {
+            logger.info("🗓️ El servicio ML informa el modelo {} (antes {})", informada, versionReal);
+            versionReal = informada;
+        }
+        return new Resultado(respuesta.getPrediccion(), respuesta.getProbabilidadRetraso(),
+                respuesta.getConfianza(), informada != null ? informada : versionReal, "REAL");
+    }
+
+    /**
+     * Materializa los resultados de un bloque. Un vuelo eliminado o
+     * invalidado durante el cálculo conserva su estado (sigue pendiente).
+     */
+    private synchronized void aplicar(List<Tarea> bloque, IntFunction<Resultado> resultados) {
+        Instant ahora = Instant.now();
+        for (int i = 0; i < bloque.size(); i++) {
+            Tarea tarea = bloque.get(i);
+            Vuelo vuelo = tarea.vuelo();
+            if (vuelos.get(vuelo.clave) != vuelo || vuelo.generacion != tarea.generacion()) {
+                descartadas.incrementAndGet();
+                continue;
+            }
+            Resultado resultado = resultados.apply(i);
+            vuelo.prediccion = resultado.prediccion();
+            vuelo.probabilidad = Math.round(resultado.probabilidad() * 10000.0) / 10000.0;
+            vuelo.confianza = Math.round(resultado.confianza() * 10000.0) / 10000.0;
+            vuelo.climaOrigen = climaVigente.get(vuelo.origen);
+            vuelo.modeloVersion = resultado.modeloVersion();
+            vuelo.modo = resultado.modo();
+            vuelo.motivo = tarea.motivo();
+            vuelo.calculado = ahora;
+            vuelo.recalculos++;
+            vuelo.pendiente = false;
+            pendientes--;
+            recalculadas.get(tarea.motivo()).incrementAndGet();
+        }
+    }
+
+    private PredictionMode modoEfectivo() {
+        PredictionMode configurado = PredictionMode.desdeParametro(mode);
+        if (configurado == PredictionMode.LOCAL && !localModelService.isDisponible()) {
+            return PredictionMode.REAL;
+        }
+        return configurado;
+    }
+
+    private String versionModelo(PredictionMode modo) {
+        return switch (modo) {
+            case LOCAL -> localModelService.getVersion();
+            case REAL -> versionReal;
+            case MOCK -> "mock";
+        };
+    }
+
+    /**
+     * ========================================================================
+     * CONSULTA
+     * ========================================================================
+     */
+
+    /**
+     * Vuelos de un aeropuerto con partida en [desde, hasta), por hora de
+     * partida.
+     *
+     * @param sentido salidas (origen), llegadas (destino) o todos
+     * @param limite  Máximo de vuelos devueltos
+     */
+    public synchronized ScheduleQueryResponseDTO consultar(String aeropuerto, String sentido,
+                                                           LocalDateTime desde, LocalDateTime hasta, int limite) {
+        List<Vuelo> encontrados = new ArrayList<>();
+        Vuelo inicio = Vuelo.sonda(desde);
+        Vuelo fin = Vuelo.sonda(hasta);
+        if (!sentido.equals("llegadas")) {
+            agregarVentana(encontrados, porOrigen.get(aeropuerto), inicio, fin);
+        }
+        if (!sentido.equals("salidas")) {
+            agregarVentana(encontrados, porDestino.get(aeropuerto), inicio, fin);
+            encontrados.sort(Vuelo.ORDEN);
+        }
+
+        int pendientesVentana = 0;
+        List<ScheduledFlightDTO> resultado = new ArrayList<>(Math.min(limite, encontrados.size()));
+        for (Vuelo vuelo : encontrados) {
+            if (vuelo.pendiente) {
+                pendientesVentana++;
+            }
+            if (resultado.size() < limite) {
+                resultado.add(vuelo.aDto());
+            }
+        }
+
+        return ScheduleQueryResponseDTO.builder()
+                .aeropuerto(aeropuerto)
+                .sentido(sentido)
+                .desde(desde.toString())
+                .hasta(hasta.toString())
+                .total(encontrados.size())
+                .pendientes(pendientesVentana)
+                .vuelos(resultado)
+                .build();
+    }
+
+    private static void agregarVentana(List<Vuelo> destino, NavigableSet<Vuelo> indice, Vuelo inicio, Vuelo fin) {
+        if (indice != null) {
+            destino.addAll(indice.subSet(inicio, true, fin, false));
+        }
+    }
+
+    /**
+     * Estado del horario para /api/schedule/status y /api/health.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("vuelos", vuelos.size());
+            stats.put("pendientes", pendientes);
+            stats.put("aeropuertos_origen", porOrigen.size());
+        }
+        PredictionMode modo = modoEfectivo();
+        stats.put("habilitado", enabled);
+        stats.put("modo", mode);
+        stats.put("modo_efectivo", modo.name());
+        stats.put("modelo_version", versionModelo(modo));
+        stats.put("archivo", filePath);
+        Map<String, Long> porMotivo = new LinkedHashMap<>();
+        recalculadas.forEach((motivo, contador) -> porMotivo.put(motivo, contador.get()));
+        stats.put("recalculados", porMotivo);
+        stats.put("clima_recalcula", weatherAffectsScore && modo != PredictionMode.MOCK);
+        stats.put("climas_actualizados", climasActualizados.get());
+        stats.put("resultados_descartados", descartadas.get());
+        stats.put("bloques_fallback", bloquesFallback.get());
+        stats.put("pasadas", pasadas.get());
+        stats.put("ultima_pasada_vuelos", ultimaPasadaVuelos);
+        stats.put("ultima_pasada_ms", ultimaPasadaMs);
+        stats.put("ultima_importacion", ultimaImportacion);
+        return stats;
+    }
+
+    /**
+     * ========================================================================
+     * MODELO INTERNO
+     * ========================================================================
+     */
+    private record Tarea(Vuelo vuelo, int generacion, String motivo, PredictionRequestDTO solicitud,
+                         LocalDateTime salida) {
+    }
+
+    private record Resultado(int prediccion, double probabilidad, double confianza, String modeloVersion,
+                             String modo) {
+    }
+
+    /**
+     * Vuelo del horario: entradas, predicción materializada y control de
+     * recálculo. Se modifica solo con el monitor del servicio tomado.
+     */
+    private static final class Vuelo {
+
+        /** Orden de los índices por aeropuerto: hora de partida y secuencia */
+        static final Comparator<Vuelo> ORDEN = Comparator.<Vuelo, LocalDateTime>comparing(v -> v.salida)
+                .thenComparingLong(v -> v.secuencia);
+
+        final String clave;
+        final long secuencia;
+        String numero;
+        String aerolinea;
+        String origen;
+        String destino;
+        String fechaPartida;
+        LocalDateTime salida;
+
+        // Predicción materializada
+        Integer prediccion;
+        Double probabilidad;
+        Double confianza;
+        WeatherDataDTO climaOrigen;
+        String modeloVersion;
+        String modo;
+        String motivo;
+        Instant calculado;
+        int recalculos;
+
+        // Control de recálculo
+        int generacion;
+        boolean pendiente;
+        boolean enCola;
+        String motivoPendiente;
+
+        private Vuelo(String clave, long secuencia) {
+            this.clave = clave;
+            this.secuencia = secuencia;
+        }
+
+        Vuelo(String clave, long secuencia, Fila fila) {
+            this(clave, secuencia);
+            this.numero = fila.vuelo();
+            this.aerolinea = fila.solicitud().getAerolinea();
+            asignar(fila);
+        }
+
+        /**
+         * Límite de ventana para los índices (antes de cualquier vuelo con
+         * esa hora de partida).
+         */
+        static Vuelo sonda(LocalDateTime salida) {
+            Vuelo sonda = new Vuelo(null, Long.MIN_VALUE);
+            sonda.salida = salida;
+            return sonda;
+        }
+
+        void asignar(Fila fila) {
+            origen = fila.solicitud().getOrigen();
+            destino = fila.solicitud().getDestino();
+            fechaPartida = fila.solicitud().getFechaPartida();
+            salida = fila.salida();
+        }
+
+        boolean mismaSalida(Fila fila) {
+            return origen.equals(fila.solicitud().getOrigen()) && destino.equals(fila.solicitud().getDestino())
+                    && salida.equals(fila.salida());
+        }
+
+        /**
+         * Motivo de invalidación de una fila reimportada con la misma
+         * identidad: ruta, salida (otra hora de partida) o null si solo
+         * cambian los minutos, que no son features del modelo.
+         */
+        String motivoCambio(Fila fila) {
+            if (!origen.equals(fila.solicitud().getOrigen()) || !destino.equals(fila.solicitud().getDestino())) {
+                return "ruta";
+            }
+            boolean mismaHora = salida.truncatedTo(ChronoUnit.HOURS)
+                    .equals(fila.salida().truncatedTo(ChronoUnit.HOURS));
+            return mismaHora ? null : "salida";
+        }
+
+        PredictionRequestDTO solicitud() {
+            return PredictionRequestDTO.builder()
+                    .aerolinea(aerolinea)
+                    .origen(origen)
+                    .destino(destino)
+                    .fechaPartida(fechaPartida)
+                    .build();
+        }
+
+        ScheduledFlightDTO aDto() {
+            return ScheduledFlightDTO.builder()
+                    .vuelo(numero)
+                    .aerolinea(aerolinea)
+                    .origen(origen)
+                    .destino(destino)
+                    .fechaPartida(fechaPartida)
+                    .prediccion(prediccion)
+                    .probabilidadRetraso(probabilidad)
+                    .confianza(confianza)
+                    .climaOrigen(climaOrigen)
+                    .modeloVersion(modeloVersion)
+                    .modo(modo)
+                    .motivo(motivo)
+                    .calculado(calculado != null ? calculado.atOffset(ZoneOffset.UTC).toString() : null)
+                    .recalculos(recalculos)
+                    .pendiente(pendiente)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.oracle.flightontime.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * ============================================================================
+ * MODOS DE PREDICCIÓN
+ * ============================================================================
+ * MOCK:  predicción simulada local, sin modelo
+ * REAL:  llamada HTTP al servicio ML Python
+ * LOCAL: modelo random forest evaluado dentro de la JVM
+ * ============================================================================
+ */
+public enum PredictionMode {
+    MOCK,
+    REAL,
+    LOCAL;
+
+    /**
+     * Interpreta el parámetro ?modo= (mock, real o local, sin distinguir
+     * mayúsculas).
+     *
+     * @throws ResponseStatusException 400 si el valor no es un modo conocido
+     */
+    public static PredictionMode desdeParametro(String modo) {
+        for (PredictionMode valor : values()) {
+            if (valor.name().equalsIgnoreCase(modo)) {
+                return valor;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Modo de predicción no válido. Use: mock, real o local");
+    }
+}
@@ -1,20 +1,55 @@
 package com.oracle.flightontime.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.audit.PredictionAuditLog;
+import com.oracle.flightontime.cache.PersistentPredictionCache;
+import com.oracle.flightontime.cache.PredictionCache;
+import com.oracle.flightontime.cache.PredictionCacheKey;
+import com.oracle.flightontime.cache.SingleFlight;
 import com.oracle.flightontime.config.AirlineConfig;
+import com.oracle.flightontime.dto.BatchPredictionItemDTO;
+import com.oracle.flightontime.dto.BatchPredictionResponseDTO;
+import com.oracle.flightontime.dto.PredictionMetadata;
 import com.oracle.flightontime.dto.PredictionRequestDTO;
 import com.oracle.flightontime.dto.PredictionResponseDTO;
-import com.oracle.flightontime.dto.WeatherDataDTO;
+import com.oracle.flightontime.inference.LocalModelService;
+import com.oracle.flightontime.metrics.PredictionMetrics;
+import com.oracle.flightontime.mock.MockPredictionEngine;
+import com.oracle.flightontime.protocol.BinaryPredictionCodec;
+import com.oracle.flightontime.protocol.RespuestasBinarias;
+import com.oracle.flightontime.resilience.AdaptiveConcurrencyLimiter;
+import com.oracle.flightontime.resilience.CircuitBreaker;
+import com.oracle.flightontime.resilience.CircuitoAbiertoException;
+import com.oracle.flightontime.resilience.LimiteConcurrenciaException;
+import com.oracle.flightontime.util.FechaUtils;
 import com.oracle.flightontime.util.GeoUtils;
+import com.oracle.flightontime.weather.WeatherService;
+import com.oracle.flightontime.weather.WeatherSnapshot;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -23,9 +58,13 @@ import org.springframework.web.server.ResponseStatusException;
  * SERVICIO DE PREDICCIÓN - ORQUESTADOR EMPRESARIAL
  * ============================================================================
  * Este servicio actúa como orquestador entre el frontend y el servicio ML.
- * Implementa dos modos:
+ * Implementa tres modos:
  * 1. Modo Mock: Respuesta estática para pruebas rápidas
  * 2. Modo Real: Integración con el servicio ML Python
+ * 3. Modo Local: Modelo exportado evaluado dentro de la JVM
+ *
+ * Todas las operaciones públicas devuelven {@link Mono}: ningún hilo del
+ * servidor (event loop de Netty) queda bloqueado esperando al servicio ML.
  * ============================================================================
  */
 @Service
@@ -41,8 +80,80 @@ public class PredictionService {
     @Value("${ml.service.timeout:10}")
     private int mlServiceTimeout;
 
-    public PredictionService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    @Value("${ml.batch.chunk-size:50}")
+    private int batchChunkSize;
+
+    @Value("${ml.batch.concurrency:4}")
+    private int batchConcurrency;
+
+    @Value("${ml.batch.max-items:1000}")
+    private int batchMaxItems;
+
+    private final Validator validator;
+
+    @Value("${ml.service.default-mode:real}")
+    private String defaultMode;
+
+    @Value("${ml.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${ml.stream.concurrency:32}")
+    private int streamConcurrency;
+
+    /** json | binary: codificación de las llamadas a /predict_internal(_batch) */
+    @Value("${ml.client.protocol:json}")
+    private String mlProtocol;
+
+    /** Pasa a false si el servicio ML rechaza el protocolo binario (415) */
+    private final AtomicBoolean binarioAceptado = new AtomicBoolean(true);
+
+    /** true mientras el modo local responde con el modo real por falta de modelo */
+    private final AtomicBoolean modeloLocalAusente = new AtomicBoolean();
+
+    private final PredictionCache predictionCache;
+
+    private final PersistentPredictionCache persistentCache;
+
+    private final LocalModelService localModelService;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final PredictionMetrics metrics;
+
+    private final WeatherService weatherService;
+
+    private final ObjectMapper objectMapper;
+
+    private final PredictionAuditLog auditLog;
+
+    private final MockPredictionEngine mockEngine;
+
+    /** Llamadas a /predict_internal en vuelo, por (aerolínea, ruta, hora de partida) */
+    private final SingleFlight<PredictionCacheKey, PredictionResponseDTO> llamadasEnVuelo = new SingleFlight<>();
+
+    public PredictionService(@Qualifier("mlWebClient") WebClient webClient, Validator validator,
+                             PredictionCache predictionCache, PersistentPredictionCache persistentCache,
+                             LocalModelService localModelService,
+                             @Qualifier("mlServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+                             @Qualifier("mlConcurrencyLimiter") AdaptiveConcurrencyLimiter concurrencyLimiter,
+                             PredictionMetrics metrics, WeatherService weatherService,
+                             ObjectMapper objectMapper, PredictionAuditLog auditLog,
+                             MockPredictionEngine mockEngine) {
+        this.webClient = webClient;
+        this.validator = validator;
+        this.predictionCache = predictionCache;
+        this.persistentCache = persistentCache;
+        this.localModelService = localModelService;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.metrics = metrics;
+        this.weatherService = weatherService;
+        this.objectMapper = objectMapper;
+        this.auditLog = auditLog;
+        this.mockEngine = mockEngine;
+        metrics.registrarLlamadasAhorradas(llamadasEnVuelo, SingleFlight::getAhorradas);
     }
 
     /**
@@ -54,150 +165,154 @@ public class PredictionService {
      * ========================================================================
      */
     private void validarDatosEntrada(PredictionRequestDTO request) {
+        long inicio = System.nanoTime();
+        String error = buscarErrorNegocio(request);
+        metrics.registrarValidacion(System.nanoTime() - inicio);
+        if (error != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+        }
+    }
+
+    /**
+     * Reglas de negocio de una solicitud: origen distinto de destino, aerolínea
+     * conocida y aeropuertos operados por esa aerolínea. Cada rechazo se
+     * cuenta en la métrica de validación con su motivo.
+     *
+     * @return Mensaje de error, o null si la solicitud es válida
+     */
+    private String buscarErrorNegocio(PredictionRequestDTO request) {
         String aerolinea = request.getAerolinea();
         String origen = request.getOrigen();
         String destino = request.getDestino();
 
         // Validar que origen y destino no sean iguales
         if (origen != null && origen.equals(destino)) {
-            logger.warn("⚠️ Origen y destino son iguales: {}", origen);
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "El aeropuerto de origen y destino no pueden ser el mismo.");
+            metrics.registrarRechazoValidacion("origen_igual_destino");
+            return "El aeropuerto de origen y destino no pueden ser el mismo.";
         }
 
         // Validar que la aerolínea exista
         if (!AirlineConfig.esAerolineaValida(aerolinea)) {
-            logger.warn("⚠️ Aerolínea no válida: {}", aerolinea);
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Aerolínea no válida. Use: 1 (Delta Air Lines) o 2 (Southwest Airlines)");
+            metrics.registrarRechazoValidacion("aerolinea_invalida");
+            return "Aerolínea no válida. Use: 1 (Delta Air Lines) o 2 (Southwest Airlines)";
         }
 
         // Validar aeropuerto de origen
         if (!AirlineConfig.esAeropuertoValido(aerolinea, origen)) {
-            logger.warn("⚠️ Aeropuerto de origen {} no disponible para aerolínea {}", 
-                       origen, AirlineConfig.getNombreAerolinea(aerolinea));
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    String.format("El aeropuerto de origen %s no está disponible para %s",
-                                origen, AirlineConfig.getNombreAerolinea(aerolinea)));
+            metrics.registrarRechazoValidacion("origen_no_operado");
+            return String.format("El aeropuerto de origen %s no está disponible para %s",
+                    origen, AirlineConfig.getNombreAerolinea(aerolinea));
         }
 
         // Validar aeropuerto de destino
         if (!AirlineConfig.esAeropuertoValido(aerolinea, destino)) {
-            logger.warn("⚠️ Aeropuerto de destino {} no disponible para aerolínea {}", 
-                       destino, AirlineConfig.getNombreAerolinea(aerolinea));
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    String.format("El aeropuerto de destino %s no está disponible para %s",
-                                destino, AirlineConfig.getNombreAerolinea(aerolinea)));
+            metrics.registrarRechazoValidacion("destino_no_operado");
+            return String.format("El aeropuerto de destino %s no está disponible para %s",
+                    destino, AirlineConfig.getNombreAerolinea(aerolinea));
+        }
+
+        return null;
+    }
+
+    /**
+     * Validación de un elemento de lote: primero las anotaciones del DTO
+     * (en lote no pasan por @Valid) y después las reglas de negocio.
+     * No registra logs por elemento.
+     *
+     * @return Mensaje de error, o null si el elemento es válido
+     */
+    private String validarElementoLote(PredictionRequestDTO request) {
+        if (request == null) {
+            metrics.registrarRechazoValidacion("elemento_nulo");
+            return "Elemento nulo";
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            Set<ConstraintViolation<PredictionRequestDTO>> violaciones = validator.validate(request);
+            if (!violaciones.isEmpty()) {
+                metrics.registrarRechazoValidacion("campos");
+                StringJoiner mensaje = new StringJoiner("; ");
+                violaciones.forEach(v -> mensaje.add(v.getPropertyPath() + ": " + v.getMessage()));
+                return mensaje.toString();
+            }
+
+            return buscarErrorNegocio(request);
+        } finally {
+            metrics.registrarValidacion(System.nanoTime() - inicio);
         }
+    }
 
-        logger.info("✅ Validación exitosa: {} {} → {}",
-                AirlineConfig.getNombreAerolinea(aerolinea), origen, destino);
+    /**
+     * Validación de una solicitud sin predecir, con las mismas reglas que un
+     * elemento de lote (p. ej. filas de un horario importado).
+     *
+     * @return Mensaje de error, o null si la solicitud es válida
+     */
+    public String validar(PredictionRequestDTO request) {
+        return validarElementoLote(request);
     }
 
     /**
      * ========================================================================
      * MODO MOCK - PREDICCIÓN SIMULADA LOCAL
      * ========================================================================
-     * Genera una respuesta simulada sin llamar al servicio ML.
-     * Utiliza heurísticas básicas para demostración si el servicio real no está disponible.
+     * Genera una respuesta simulada sin llamar al servicio ML con
+     * {@link MockPredictionEngine}: determinista por aerolínea, ruta y hora.
+     * Si ml.mock.latency.type no es none, la respuesta se retrasa con la
+     * latencia sintética configurada (los fallbacks no la aplican).
      * ========================================================================
      */
-    public PredictionResponseDTO predictMock(PredictionRequestDTO request) {
-        logger.info("🔧 Generando predicción simulada (MOCK LOCAL)");
-        logger.info("📋 Request: {} {} → {}", request.getAerolinea(), request.getOrigen(), request.getDestino());
-
-        // Validar datos de entrada
-        validarDatosEntrada(request);
+    public Mono<PredictionResponseDTO> predictMock(PredictionRequestDTO request) {
+        return predictMock(request, true);
+    }
 
-        long startTime = System.currentTimeMillis();
+    private Mono<PredictionResponseDTO> predictMock(PredictionRequestDTO request, boolean validar) {
+        return Mono.defer(() -> {
+            Mono<PredictionResponseDTO> prediccion = Mono.fromCallable(() -> generarPrediccionMock(request, validar));
+            Duration latencia = mockEngine.latenciaSintetica();
+            return latencia.isZero() ? prediccion : prediccion.delayElement(latencia);
+        });
+    }
 
-        // Calcular distancia real usando GeoUtils
-        Double distanciaKm = GeoUtils.calcularDistancia(request.getOrigen(), request.getDestino());
-        if (distanciaKm == null) {
-            logger.warn("⚠️ No se pudo calcular distancia para {} → {}, usando valor por defecto",
-                    request.getOrigen(), request.getDestino());
-            distanciaKm = 1000.0;
+    /**
+     * Núcleo síncrono del modo mock. Solo realiza cálculo en memoria, por lo que
+     * puede ejecutarse directamente en el event loop.
+     */
+    private PredictionResponseDTO generarPrediccionMock(PredictionRequestDTO request, boolean validar) {
+        // Validar datos de entrada
+        if (validar) {
+            validarDatosEntrada(request);
         }
 
-        // Obtener nombres de aeropuertos
-        String origenNombre = GeoUtils.getAirportName(request.getOrigen());
-        String destinoNombre = GeoUtils.getAirportName(request.getDestino());
-
-        // Generar clima simulado
-        Random random = new Random();
-        WeatherDataDTO climaOrigen = generarClimaSimulado(random);
-        WeatherDataDTO climaDestino = generarClimaSimulado(random);
+        return construirPrediccionMock(request);
+    }
 
-        // CÁLCULO DINÁMICO DE PROBABILIDAD (SIMULADO)
-        double probabilidadRetraso = 0.15; // Probabilidad base
+    /**
+     * Predicción simulada de una solicitud ya validada.
+     */
+    private PredictionResponseDTO construirPrediccionMock(PredictionRequestDTO request) {
+        return mockEngine.predecir(request, weatherService.getSnapshot());
+    }
 
-        // Factor: Distancia (vuelos largos tienen más probabilidad de retraso)
-        if (distanciaKm > 5000) {
-            probabilidadRetraso += 0.15;
-        } else if (distanciaKm > 2000) {
-            probabilidadRetraso += 0.05;
+    /**
+     * Agrega la fuente y la antigüedad del clima si ambos aeropuertos tienen
+     * datos en la instantánea. La antigüedad es la de la observación más
+     * antigua de las dos.
+     *
+     * @return true si se agregó la metadata de clima
+     */
+    private boolean agregarMetadataClima(PredictionMetadata.Builder metadata, WeatherSnapshot snapshot,
+                                         int origenOrdinal, int destinoOrdinal) {
+        long ahora = System.currentTimeMillis();
+        long antiguedadOrigen = snapshot.antiguedadSegundos(origenOrdinal, ahora);
+        long antiguedadDestino = snapshot.antiguedadSegundos(destinoOrdinal, ahora);
+        if (antiguedadOrigen < 0 || antiguedadDestino < 0) {
+            return false;
         }
-
-        // Variación aleatoria
-        probabilidadRetraso += (random.nextDouble() * 0.10 - 0.05); // ±5%
-
-        // Limitar entre 0.0 y 1.0
-        probabilidadRetraso = Math.max(0.0, Math.min(1.0, probabilidadRetraso));
-
-        // Determinar predicción binaria: 0 = Puntual, 1 = Retrasado
-        Integer prediccion = probabilidadRetraso > 0.5 ? 1 : 0;
-
-        // Calcular confianza
-        double confianza = Math.max(probabilidadRetraso, 1.0 - probabilidadRetraso);
-        confianza = Math.round(confianza * 10000.0) / 10000.0;
-        probabilidadRetraso = Math.round(probabilidadRetraso * 10000.0) / 10000.0;
-
-        // Metadata
-        Map<String, Object> metadata = new HashMap<>();
-        metadata.put("aerolinea", request.getAerolinea());
-        metadata.put("ruta", request.getOrigen() + " → " + request.getDestino());
-        metadata.put("origen_nombre", origenNombre != null ? origenNombre : request.getOrigen());
-        metadata.put("destino_nombre", destinoNombre != null ? destinoNombre : request.getDestino());
-        metadata.put("fecha_partida", request.getFechaPartida());
-        metadata.put("timestamp_prediccion", LocalDateTime.now().toString());
-        metadata.put("modo", "MOCK_LOCAL");
-        metadata.put("mensaje", "Predicción simulada (sin servicio ML)");
-        metadata.put("tiempo_respuesta_ms", System.currentTimeMillis() - startTime);
-
-        // Construir respuesta usando Setters (evitar Builder)
-        PredictionResponseDTO response = new PredictionResponseDTO();
-        response.setPrediccion(prediccion);
-        response.setProbabilidadRetraso(probabilidadRetraso);
-        response.setConfianza(confianza);
-        response.setDistanciaKm(distanciaKm);
-        response.setClimaOrigen(climaOrigen);
-        response.setClimaDestino(climaDestino);
-        response.setMetadata(metadata);
-        response.setModoMock(true);
-
-        logger.info("✅ Mock generado: {} (Prob: {}%, Conf: {}%)", prediccion, probabilidadRetraso*100, confianza*100);
-        return response;
-    }
-
-    private WeatherDataDTO generarClimaSimulado(Random random) {
-        double temperatura = 15.0 + random.nextDouble() * 20.0; // 15-35°C
-        int humedad = 40 + random.nextInt(50); // 40-90%
-        double vientoVelocidad = 2.0 + random.nextDouble() * 15.0; // 2-17 m/s
-        int visibilidad = 5000 + random.nextInt(5000); // 5-10 km
-
-        WeatherDataDTO clima = new WeatherDataDTO();
-        clima.setTemperatura(Math.round(temperatura * 10.0) / 10.0);
-        clima.setHumedad(humedad);
-        clima.setPresion(1013);
-        clima.setVisibilidad(visibilidad);
-        clima.setVientoVelocidad(Math.round(vientoVelocidad * 10.0) / 10.0);
-        clima.setCondicion(humedad > 70 ? "Clouds" : "Clear");
-        clima.setDescripcion(humedad > 70 ? "nublado" : "cielo claro");
-        return clima;
+        metadata.climaFuente(snapshot.getFuente())
+                .climaAntiguedadS(Math.max(antiguedadOrigen, antiguedadDestino));
+        return true;
     }
 
     /**
@@ -206,60 +321,591 @@ public class PredictionService {
      * ========================================================================
      * Realiza una llamada HTTP al servicio ML Python para obtener la predicción
      * real basada en el modelo entrenado y datos meteorológicos actuales.
+     * Las solicitudes concurrentes con la misma aerolínea, ruta y hora de
+     * partida comparten una sola llamada (ml.coalescing.enabled) y la
+     * misma respuesta inmutable, copiada solo para su tiempo de respuesta.
      * ========================================================================
      */
-    public PredictionResponseDTO predictReal(PredictionRequestDTO request) {
-        logger.info("🚀 Ejecutando predicción en MODO REAL");
-        logger.info("📋 Request: {} {} → {}", request.getAerolinea(), request.getOrigen(), request.getDestino());
+    public Mono<PredictionResponseDTO> predictReal(PredictionRequestDTO request) {
+        return predictReal(request, true);
+    }
 
-        // Validar datos de entrada
-        validarDatosEntrada(request);
+    private Mono<PredictionResponseDTO> predictReal(PredictionRequestDTO request, boolean validar) {
+        return Mono.defer(() -> {
+            // Validar datos de entrada (los errores viajan como señal del Mono)
+            if (validar) {
+                validarDatosEntrada(request);
+            }
 
-        long startTime = System.currentTimeMillis();
+            long startTime = System.currentTimeMillis();
 
-        try {
-            // Construir URL del endpoint ML
-            String mlEndpoint = mlServiceUrl + "/predict_internal";
-            logger.info("🔗 Llamando a ML Service: {}", mlEndpoint);
-
-            // Realizar llamada HTTP POST al servicio ML
-            PredictionResponseDTO response = webClient.post()
-                    .uri(mlEndpoint)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(PredictionResponseDTO.class)
-                    .timeout(Duration.ofSeconds(mlServiceTimeout))
-                    .doOnError(error -> logger.error("❌ Error al llamar al servicio ML: {}", error.getMessage()))
-                    .onErrorResume(error -> {
-                        logger.warn("⚠️ Fallback a modo mock debido a error: {}", error.getMessage());
-                        return Mono.just(predictMock(request));
+            // Consultar caché de predicciones reales
+            PredictionCacheKey cacheKey = predictionCache.isEnabled() || persistentCache.isEnabled()
+                    || coalescingEnabled ? PredictionCacheKey.of(request) : null;
+            PredictionResponseDTO cached = predictionCache.get(cacheKey);
+            if (cached != null) {
+                if (!predictionCache.isSerialized()) {
+                    cached = cached.conMetadata(cached.getMetadata()
+                            .conTiempoRespuesta(System.currentTimeMillis() - startTime));
+                }
+                return Mono.just(cached);
+            }
+            PredictionResponseDTO persistida = buscarEnCachePersistente(request, cacheKey, startTime);
+            if (persistida != null) {
+                return Mono.just(persistida);
+            }
+
+            Mono<PredictionResponseDTO> prediccion = coalescingEnabled
+                    ? llamadasEnVuelo.ejecutar(cacheKey, () -> llamarServicioMl(request, cacheKey))
+                    : llamarServicioMl(request, cacheKey);
+
+            return prediccion
+                    .map(response -> {
+                        long duration = System.currentTimeMillis() - startTime;
+
+                        // Agregar tiempo de respuesta a metadata
+                        return response.conMetadata(response.getMetadata().conTiempoRespuesta(duration));
                     })
-                    .block();
+                    .onErrorResume(error -> {
+                        // Sin log por solicitud: lo cuentan la métrica y el evento de auditoría,
+                        // y el circuit breaker registra sus cambios de estado
+                        metrics.registrarFallback("real", motivoFallback(error));
+                        return Mono.fromCallable(() -> construirPrediccionMock(request));
+                    });
+        });
+    }
+
+    /**
+     * Llamada HTTP POST a /predict_internal protegida por el circuit breaker.
+     * La respuesta se marca como real y se guarda en caché.
+     */
+    private Mono<PredictionResponseDTO> llamarServicioMl(PredictionRequestDTO request, PredictionCacheKey cacheKey) {
+        // Construir URL del endpoint ML
+        String mlEndpoint = mlServiceUrl + "/predict_internal";
+
+        // Realizar llamada HTTP POST al servicio ML sin bloquear
+        Mono<PredictionResponseDTO> json = webClient.post()
+                .uri(mlEndpoint)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(PredictionResponseDTO.class);
+        Mono<PredictionResponseDTO> llamada = (usarBinario()
+                ? llamarServicioMlBinario(mlEndpoint, List.of(request), json.map(List::of)).map(lista -> lista.get(0))
+                : json)
+                .timeout(Duration.ofSeconds(mlServiceTimeout))
+                .doOnError(error -> logger.error("❌ Error al llamar al servicio ML: {}", error.getMessage()));
+
+        return conCircuitBreaker(llamada, "individual")
+                .map(respuesta -> {
+                    PredictionResponseDTO response = respuesta.comoRespuestaReal(false);
+                    predictionCache.put(cacheKey, response);
+                    persistentCache.put(cacheKey, response.getMetadata().getModeloVersion(),
+                            response.getPrediccion(), response.getProbabilidadRetraso(),
+                            response.getConfianza(), response.getDistanciaKm());
+                    return response;
+                });
+    }
+
+    /**
+     * Segundo nivel de caché: predicción guardada en la caché persistente
+     * (p. ej. antes de un reinicio), con clima y metadata reconstruidos. Se
+     * copia a la caché en memoria para los siguientes aciertos.
+     *
+     * @return Respuesta con metadata.cache_hit = true, o null si no hay una vigente
+     */
+    private PredictionResponseDTO buscarEnCachePersistente(PredictionRequestDTO request,
+                                                          PredictionCacheKey cacheKey, long startTime) {
+        PersistentPredictionCache.Registro registro = persistentCache.get(cacheKey);
+        if (registro == null) {
+            return null;
+        }
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(registro.guardadoMs()),
+                ZoneId.systemDefault()).toString();
+        PredictionResponseDTO response = construirRespuesta(request, registro.prediccion(),
+                registro.probabilidadRetraso(), registro.confianza(), registro.distanciaKm(),
+                weatherService.getSnapshot(), timestamp, persistentCache.getModeloVersion()).comoRespuestaReal(true);
+        predictionCache.put(cacheKey, response);
+        return response.conMetadata(response.getMetadata()
+                .conTiempoRespuesta(System.currentTimeMillis() - startTime));
+    }
+
+    private boolean usarBinario() {
+        return "binary".equalsIgnoreCase(mlProtocol) && binarioAceptado.get();
+    }
+
+    /**
+     * ========================================================================
+     * LLAMADA AL SERVICIO ML CON PROTOCOLO BINARIO
+     * ========================================================================
+     * Envía las solicitudes codificadas con {@link BinaryPredictionCodec} y
+     * acepta respuesta binaria o JSON (negociación por Accept/Content-Type).
+     * La respuesta binaria se decodifica directamente del buffer de Netty y
+     * se completa con el clima de la instantánea y la metadata local.
+     * Si el servicio responde 415, se desactiva el protocolo binario y la
+     * llamada se repite en JSON.
+     * ========================================================================
+     */
+    private Mono<List<PredictionResponseDTO>> llamarServicioMlBinario(String endpoint,
+                                                                     List<PredictionRequestDTO> solicitudes,
+                                                                     Mono<List<PredictionResponseDTO>> json) {
+        return webClient.post()
+                .uri(endpoint)
+                .contentType(BinaryPredictionCodec.MEDIA_TYPE)
+                .accept(BinaryPredictionCodec.MEDIA_TYPE, MediaType.APPLICATION_JSON)
+                .bodyValue(BinaryPredictionCodec.codificarSolicitudes(solicitudes))
+                .exchangeToMono(respuesta -> {
+                    if (respuesta.statusCode().value() == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()) {
+                        if (binarioAceptado.compareAndSet(true, false)) {
+                            logger.warn("⚠️ El servicio ML no acepta {}; se usará JSON",
+                                    BinaryPredictionCodec.MEDIA_TYPE_VALUE);
+                        }
+                        return respuesta.releaseBody().then(json);
+                    }
+                    if (!respuesta.statusCode().is2xxSuccessful()) {
+                        return respuesta.createError();
+                    }
+                    MediaType tipo = respuesta.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+                    if (!BinaryPredictionCodec.MEDIA_TYPE.isCompatibleWith(tipo)) {
+                        return respuesta.bodyToFlux(PredictionResponseDTO.class).collectList();
+                    }
+                    return DataBufferUtils.join(respuesta.body(BodyExtractors.toDataBuffers()))
+                            .map(datos -> {
+                                try {
+                                    return construirRespuestasBinarias(solicitudes,
+                                            BinaryPredictionCodec.decodificarRespuestas(datos, solicitudes.size()),
+                                            respuesta.headers().header(BinaryPredictionCodec.CABECERA_VERSION_MODELO)
+                                                    .stream().findFirst().orElse(null));
+                                } finally {
+                                    DataBufferUtils.release(datos);
+                                }
+                            });
+                });
+    }
+
+    private List<PredictionResponseDTO> construirRespuestasBinarias(List<PredictionRequestDTO> solicitudes,
+                                                                  RespuestasBinarias binarias,
+                                                                  String modeloVersion) {
+        WeatherSnapshot snapshot = weatherService.getSnapshot();
+        String timestamp = LocalDateTime.now().toString();
+        List<PredictionResponseDTO> respuestas = new ArrayList<>(solicitudes.size());
+        for (int i = 0; i < solicitudes.size(); i++) {
+            respuestas.add(construirRespuesta(solicitudes.get(i),
+                    binarias.prediccion()[i],
+                    binarias.probabilidadRetraso()[i],
+                    binarias.confianza()[i],
+                    binarias.distanciaKm()[i],
+                    snapshot, timestamp, modeloVersion));
+        }
+        return respuestas;
+    }
+
+    /**
+     * Respuesta completa a partir de los números de una predicción: el
+     * clima sale de la instantánea y la metadata de los datos de referencia.
+     */
+    private PredictionResponseDTO construirRespuesta(PredictionRequestDTO request, int prediccion,
+                                                     double probabilidadRetraso, double confianza,
+                                                     double distanciaKm, WeatherSnapshot snapshot,
+                                                     String timestamp, String modeloVersion) {
+        int origen = GeoUtils.getOrdinal(request.getOrigen());
+        int destino = GeoUtils.getOrdinal(request.getDestino());
+        boolean conocidos = origen >= 0 && destino >= 0;
+
+        PredictionMetadata.Builder metadata = PredictionMetadata.builder()
+                .aerolinea(request.getAerolinea())
+                .ruta(conocidos ? GeoUtils.getRuta(origen, destino)
+                        : request.getOrigen() + " → " + request.getDestino())
+                .origenNombre(origen >= 0 ? GeoUtils.getAirportName(origen) : null)
+                .destinoNombre(destino >= 0 ? GeoUtils.getAirportName(destino) : null)
+                .fechaPartida(request.getFechaPartida())
+                .timestampPrediccion(timestamp)
+                .modeloVersion(modeloVersion);
+        if (conocidos) {
+            agregarMetadataClima(metadata, snapshot, origen, destino);
+        }
+
+        return new PredictionResponseDTO(
+                prediccion,
+                probabilidadRetraso,
+                confianza,
+                distanciaKm,
+                origen >= 0 ? snapshot.get(origen) : null,
+                destino >= 0 ? snapshot.get(destino) : null,
+                metadata.build(),
+                false);
+    }
+
+    /**
+     * Estado de la coalescencia de llamadas al servicio ML.
+     */
+    public Map<String, Object> getCoalescenciaStats() {
+        Map<String, Object> stats = llamadasEnVuelo.getStats();
+        stats.put("habilitada", coalescingEnabled);
+        return stats;
+    }
+
+    /**
+     * ========================================================================
+     * MODO LOCAL - MODELO EVALUADO EN LA JVM
+     * ========================================================================
+     * Evalúa el random forest exportado sin salir del proceso, con las mismas
+     * features que el servicio ML (clima neutro). clima_origen y
+     * clima_destino se toman de la instantánea de clima (vacíos si no hay
+     * datos del aeropuerto). Si no hay modelo cargado, delega en el modo real.
+     * ========================================================================
+     */
+    public Mono<PredictionResponseDTO> predictLocal(PredictionRequestDTO request) {
+        return predictLocal(request, true);
+    }
+
+    private Mono<PredictionResponseDTO> predictLocal(PredictionRequestDTO request, boolean validar) {
+        return Mono.defer(() -> {
+            if (!localModelService.isDisponible()) {
+                if (modeloLocalAusente.compareAndSet(false, true)) {
+                    logger.warn("⚠️ Modelo local no disponible, usando modo real");
+                }
+                metrics.registrarFallback("local", "modelo_no_disponible");
+                return predictReal(request, validar);
+            }
+            if (modeloLocalAusente.get() && modeloLocalAusente.compareAndSet(true, false)) {
+                logger.info("✅ Modelo local disponible, modo local activo");
+            }
 
-            long duration = System.currentTimeMillis() - startTime;
+            // Validar datos de entrada
+            if (validar) {
+                validarDatosEntrada(request);
+            }
+
+            long startTime = System.currentTimeMillis();
+
+            int origen = GeoUtils.getOrdinal(request.getOrigen());
+            int destino = GeoUtils.getOrdinal(request.getDestino());
+
+            double probabilidadRetraso = localModelService.predecirProbabilidad(
+                    request.getAerolinea(), origen, destino,
+                    FechaUtils.parsearFechaPartida(request.getFechaPartida()));
+
+            int prediccion = probabilidadRetraso > 0.5 ? 1 : 0;
+            double confianza = Math.max(probabilidadRetraso, 1.0 - probabilidadRetraso);
+
+            long inicioDistancia = System.nanoTime();
+            double distanciaKm = GeoUtils.calcularDistancia(origen, destino);
+            metrics.registrarDistancia(System.nanoTime() - inicioDistancia);
+
+            // Metadata
+            PredictionMetadata.Builder metadata = PredictionMetadata.builder()
+                    .aerolinea(request.getAerolinea())
+                    .ruta(GeoUtils.getRuta(origen, destino))
+                    .origenNombre(GeoUtils.getAirportName(origen))
+                    .destinoNombre(GeoUtils.getAirportName(destino))
+                    .fechaPartida(request.getFechaPartida())
+                    .timestampPrediccion(LocalDateTime.now().toString())
+                    .modo("LOCAL")
+                    .modeloVersion(localModelService.getVersion());
+            WeatherSnapshot snapshot = weatherService.getSnapshot();
+            agregarMetadataClima(metadata, snapshot, origen, destino);
+            metadata.tiempoRespuestaMs(System.currentTimeMillis() - startTime);
+
+            return Mono.just(new PredictionResponseDTO(
+                    prediccion,
+                    Math.round(probabilidadRetraso * 10000.0) / 10000.0,
+                    Math.round(confianza * 10000.0) / 10000.0,
+                    distanciaKm,
+                    snapshot.get(origen),
+                    snapshot.get(destino),
+                    metadata.build(),
+                    false));
+        });
+    }
+
+    /**
+     * ========================================================================
+     * PREDICCIÓN POR LOTES
+     * ========================================================================
+     * Valida todos los elementos de una vez, agrupa los válidos en bloques de
+     * ml.batch.chunk-size y los envía al endpoint /predict_internal_batch del
+     * servicio ML con un máximo de ml.batch.concurrency bloques en vuelo.
+     * Un bloque que falla hace fallback a mock sin afectar a los demás.
+     * Los resultados se devuelven en el orden de entrada.
+     * ========================================================================
+     */
+    public Mono<BatchPredictionResponseDTO> predictBatch(List<PredictionRequestDTO> requests, boolean useMock) {
+        return Mono.defer(() -> {
+            if (requests == null || requests.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El lote no puede estar vacío.");
+            }
+            if (requests.size() > batchMaxItems) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        String.format("El lote excede el máximo de %d elementos.", batchMaxItems));
+            }
 
-            if (response != null) {
-                response.setModoMock(false);
-                
-                // Agregar tiempo de respuesta a metadata
-                if (response.getMetadata() == null) {
-                    response.setMetadata(new HashMap<>());
+            long startTime = System.currentTimeMillis();
+            long inicio = System.nanoTime();
+            int total = requests.size();
+            BatchPredictionItemDTO[] resultados = new BatchPredictionItemDTO[total];
+
+            // Validación conjunta: los errores quedan registrados por elemento
+            List<Integer> indicesValidos = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                String error = validarElementoLote(requests.get(i));
+                if (error != null) {
+                    resultados[i] = BatchPredictionItemDTO.builder().indice(i).error(error).build();
+                } else {
+                    indicesValidos.add(i);
                 }
-                response.getMetadata().put("tiempo_respuesta_ms", duration);
+            }
+
+            int fallidos = total - indicesValidos.size();
+            AtomicInteger bloquesFallback = new AtomicInteger();
+
+            logger.debug("📦 Lote recibido: {} elementos ({} válidos) - Modo: {}",
+                    total, indicesValidos.size(), useMock ? "MOCK" : "REAL");
+
+            return Flux.fromIterable(indicesValidos)
+                    .buffer(batchChunkSize)
+                    .flatMap(indices -> predecirBloque(seleccionar(requests, indices), useMock, bloquesFallback)
+                            .doOnNext(respuestas -> {
+                                for (int j = 0; j < indices.size(); j++) {
+                                    int indice = indices.get(j);
+                                    resultados[indice] = BatchPredictionItemDTO.builder()
+                                            .indice(indice)
+                                            .resultado(respuestas.get(j))
+                                            .build();
+                                }
+                            }), batchConcurrency)
+                    .then(Mono.fromCallable(() -> {
+                        long duration = System.currentTimeMillis() - startTime;
+
+                        Map<String, Object> metadata = new HashMap<>();
+                        metadata.put("modo", useMock ? "MOCK_LOCAL" : "REAL");
+                        metadata.put("tamano_bloque", batchChunkSize);
+                        metadata.put("bloques", (indicesValidos.size() + batchChunkSize - 1) / batchChunkSize);
+                        metadata.put("bloques_fallback", bloquesFallback.get());
+                        metadata.put("timestamp_prediccion", LocalDateTime.now().toString());
+                        metadata.put("tiempo_respuesta_ms", duration);
+
+                        logger.debug("✅ Lote completado: {} exitosos, {} fallidos - Tiempo: {}ms",
+                                indicesValidos.size(), fallidos, duration);
+
+                        return BatchPredictionResponseDTO.builder()
+                                .total(total)
+                                .exitosos(indicesValidos.size())
+                                .fallidos(fallidos)
+                                .resultados(Arrays.asList(resultados))
+                                .metadata(metadata)
+                                .build();
+                    }))
+                    .doFinally(senal -> metrics.registrarTotal("lote", resultadoDeSenal(senal),
+                            System.nanoTime() - inicio));
+        });
+    }
+
+    /**
+     * ========================================================================
+     * PREDICCIÓN EN FLUJO (NDJSON)
+     * ========================================================================
+     * Procesa un flujo de líneas JSON (una PredictionRequestDTO por línea) y
+     * emite un resultado por línea a medida que se completa, no en el orden
+     * de entrada: cada resultado lleva el número de línea en "indice".
+     * Como máximo ml.stream.concurrency predicciones quedan en vuelo y solo
+     * se piden más líneas al cliente a medida que terminan, por lo que la
+     * memoria no depende del tamaño de la entrada. Las líneas vacías se
+     * ignoran; un JSON inválido, un error de validación o un fallo de
+     * predicción se informan en la línea correspondiente sin cortar el flujo.
+     * ========================================================================
+     *
+     * @param lineas Líneas del cuerpo de la solicitud, sin delimitadores
+     * @param modo   Modo de predicción, o null para el modo por defecto
+     */
+    public Flux<BatchPredictionItemDTO> predictStream(Flux<String> lineas, PredictionMode modo) {
+        PredictionMode modoEfectivo = modo != null ? modo : PredictionMode.desdeParametro(defaultMode);
+        return lineas
+                .index()
+                .filter(linea -> !linea.getT2().isBlank())
+                .flatMap(linea -> predecirLinea(linea.getT1().intValue(), linea.getT2(), modoEfectivo),
+                        streamConcurrency)
+                .onErrorResume(error -> {
+                    // Error al leer el cuerpo (p. ej. línea mayor que el límite en memoria)
+                    logger.warn("⚠️ Flujo de predicción interrumpido: {}", error.getMessage());
+                    return Mono.just(BatchPredictionItemDTO.builder()
+                            .error("Flujo interrumpido: " + error.getMessage())
+                            .build());
+                });
+    }
+
+    private Mono<BatchPredictionItemDTO> predecirLinea(int indice, String linea, PredictionMode modo) {
+        PredictionRequestDTO request;
+        try {
+            request = objectMapper.readValue(linea, PredictionRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            metrics.registrarRechazoValidacion("json_invalido");
+            return Mono.just(BatchPredictionItemDTO.builder()
+                    .indice(indice)
+                    .error("JSON inválido: " + e.getOriginalMessage())
+                    .build());
+        }
+
+        String error = validarElementoLote(request);
+        if (error != null) {
+            return Mono.just(BatchPredictionItemDTO.builder().indice(indice).error(error).build());
+        }
+
+        // Ya validada: predict no repite las reglas de negocio ni la métrica de validación
+        return predict(request, modo, false)
+                .map(response -> BatchPredictionItemDTO.builder().indice(indice).resultado(response).build())
+                .onErrorResume(e -> Mono.just(BatchPredictionItemDTO.builder()
+                        .indice(indice)
+                        .error(e instanceof ResponseStatusException rse ? rse.getReason() : e.getMessage())
+                        .build()));
+    }
+
+    private static List<PredictionRequestDTO> seleccionar(List<PredictionRequestDTO> requests, List<Integer> indices) {
+        List<PredictionRequestDTO> bloque = new ArrayList<>(indices.size());
+        for (Integer indice : indices) {
+            bloque.add(requests.get(indice));
+        }
+        return bloque;
+    }
+
+    /**
+     * Predice un bloque de solicitudes ya validadas. En modo real realiza una
+     * única llamada HTTP al servicio ML; si falla, el bloque completo se
+     * resuelve en modo mock y se incrementa bloquesFallback.
+     *
+     * @return Respuestas en el mismo orden que las solicitudes del bloque
+     */
+    public Mono<List<PredictionResponseDTO>> predecirBloque(List<PredictionRequestDTO> bloque,
+                                                           boolean useMock,
+                                                           AtomicInteger bloquesFallback) {
+        Mono<List<PredictionResponseDTO>> mock = Mono.fromCallable(() -> {
+            List<PredictionResponseDTO> respuestas = new ArrayList<>(bloque.size());
+            for (PredictionRequestDTO request : bloque) {
+                respuestas.add(construirPrediccionMock(request));
+            }
+            return respuestas;
+        });
+
+        if (useMock) {
+            Duration latencia = mockEngine.latenciaSintetica();
+            return latencia.isZero() ? mock : mock.delayElement(latencia);
+        }
 
-                logger.info("✅ Predicción Real: {} (Probabilidad retraso: {}%) - Tiempo: {}ms",
-                        response.getPrediccion(),
-                        response.getProbabilidadRetraso() * 100,
-                        duration);
+        String endpoint = mlServiceUrl + "/predict_internal_batch";
+        Mono<List<PredictionResponseDTO>> json = webClient.post()
+                .uri(endpoint)
+                .bodyValue(bloque)
+                .retrieve()
+                .bodyToFlux(PredictionResponseDTO.class)
+                .collectList();
+        Mono<List<PredictionResponseDTO>> llamada = (usarBinario()
+                ? llamarServicioMlBinario(endpoint, bloque, json)
+                : json)
+                .timeout(Duration.ofSeconds(mlServiceTimeout));
+
+        return conCircuitBreaker(llamada, "lote")
+                .map(respuestas -> {
+                    if (respuestas.size() != bloque.size()) {
+                        throw new IllegalStateException(String.format(
+                                "El servicio ML devolvió %d respuestas para %d solicitudes",
+                                respuestas.size(), bloque.size()));
+                    }
+                    // modo_mock no forma parte de la respuesta del servicio ML:
+                    // las respuestas deserializadas o binarias ya llegan con false
+                    return respuestas;
+                })
+                .onErrorResume(error -> {
+                    logger.debug("⚠️ Fallback a modo mock para bloque de {} elementos: {}",
+                            bloque.size(), error.getMessage());
+                    bloquesFallback.incrementAndGet();
+                    metrics.registrarFallback("lote", motivoFallback(error));
+                    return mock;
+                });
+    }
+
+    /**
+     * ========================================================================
+     * LÍMITE DE CONCURRENCIA Y CIRCUIT BREAKER DEL SERVICIO ML
+     * ========================================================================
+     * Envuelve una llamada al servicio ML:
+     * - Primero consulta el circuito: abierto, la llamada no se realiza y el
+     *   Mono falla de inmediato con {@link CircuitoAbiertoException}, sin
+     *   esperar en la cola del límite ni el timeout, para que el fallback
+     *   mock responda en el acto.
+     * - Después espera un permiso del límite adaptativo de concurrencia
+     *   (ml.limiter.*); si no lo obtiene a tiempo libera el permiso del
+     *   circuito y falla con {@link LimiteConcurrenciaException}, que
+     *   también responde el fallback mock. Solo las llamadas individuales
+     *   ajustan el límite por RTT (los lotes tardan más por tamaño, no por
+     *   cola).
+     * Las respuestas 4xx del servicio ML son errores de la solicitud, no del
+     * servicio, y no cuentan como fallos ni caídas.
+     * La duración de cada llamada realizada se registra en la métrica
+     * flightontime.prediction.ml.call.
+     * ========================================================================
+     */
+    private <T> Mono<T> conCircuitBreaker(Mono<T> llamada, String tipo) {
+        return Mono.defer(() -> {
+            CircuitBreaker.Permiso permisoCircuito = circuitBreaker.intentarAdquirir();
+            if (permisoCircuito == null) {
+                return Mono.error(new CircuitoAbiertoException(circuitBreaker.getNombre()));
             }
+            return concurrencyLimiter.adquirir("individual".equals(tipo))
+                    // Sin permiso del límite la llamada no se realiza: no consume una prueba
+                    .doOnError(error -> circuitBreaker.liberar(permisoCircuito))
+                    .doOnCancel(() -> circuitBreaker.liberar(permisoCircuito))
+                    .flatMap(permiso -> llamarConPermisos(llamada, tipo, permisoCircuito, permiso));
+        });
+    }
 
-            return response;
+    private <T> Mono<T> llamarConPermisos(Mono<T> llamada, String tipo, CircuitBreaker.Permiso permisoCircuito,
+                                          AdaptiveConcurrencyLimiter.Permiso permiso) {
+        long inicio = System.nanoTime();
+        return llamada
+                .doOnSuccess(resultado -> {
+                    long duracion = System.nanoTime() - inicio;
+                    circuitBreaker.registrarExito(permisoCircuito, duracion);
+                    concurrencyLimiter.liberar(permiso, AdaptiveConcurrencyLimiter.Resultado.EXITO);
+                    metrics.registrarLlamadaMl(tipo, "exito", duracion);
+                })
+                .doOnError(error -> {
+                    long duracion = System.nanoTime() - inicio;
+                    if (error instanceof WebClientResponseException respuesta
+                            && respuesta.getStatusCode().is4xxClientError()) {
+                        circuitBreaker.registrarExito(permisoCircuito, duracion);
+                        concurrencyLimiter.liberar(permiso, AdaptiveConcurrencyLimiter.Resultado.EXITO);
+                    } else {
+                        circuitBreaker.registrarFallo(permisoCircuito);
+                        concurrencyLimiter.liberar(permiso, AdaptiveConcurrencyLimiter.Resultado.CAIDA);
+                    }
+                    metrics.registrarLlamadaMl(tipo, "error", duracion);
+                })
+                .doOnCancel(() -> {
+                    circuitBreaker.liberar(permisoCircuito);
+                    concurrencyLimiter.liberar(permiso, AdaptiveConcurrencyLimiter.Resultado.IGNORAR);
+                });
+    }
 
-        } catch (Exception e) {
-            logger.error("❌ Error inesperado en predicción real: {}", e.getMessage(), e);
-            logger.warn("⚠️ Fallback a modo mock");
-            return predictMock(request);
+    /**
+     * Estado del límite de concurrencia hacia el servicio ML.
+     */
+    public Map<String, Object> getLimiteConcurrenciaStats() {
+        return concurrencyLimiter.getStats();
+    }
+
+    /**
+     * Motivo corto de un fallback, para la etiqueta de la métrica.
+     */
+    private static String motivoFallback(Throwable error) {
+        if (error instanceof CircuitoAbiertoException) {
+            return "circuito_abierto";
+        }
+        if (error instanceof LimiteConcurrenciaException) {
+            return "limite_concurrencia";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
         }
+        return "error";
     }
 
     /**
@@ -270,11 +916,56 @@ public class PredictionService {
      * Este es el método recomendado para producción.
      * ========================================================================
      */
-    public PredictionResponseDTO predict(PredictionRequestDTO request, boolean useMock) {
+    public Mono<PredictionResponseDTO> predict(PredictionRequestDTO request, boolean useMock) {
         if (useMock) {
-            return predictMock(request);
-        } else {
-            return predictReal(request);
+            return predict(request, PredictionMode.MOCK);
         }
+        return predict(request, PredictionMode.desdeParametro(defaultMode));
+    }
+
+    /**
+     * Ejecuta la predicción en el modo indicado. Registra las métricas de la
+     * solicitud y un evento de auditoría con el id de correlación del
+     * contexto de Reactor ({@link PredictionAuditLog#CORRELACION}).
+     */
+    public Mono<PredictionResponseDTO> predict(PredictionRequestDTO request, PredictionMode modo) {
+        return predict(request, modo, true);
+    }
+
+    /**
+     * @param validar false si la solicitud ya pasó {@link #validarElementoLote}
+     */
+    private Mono<PredictionResponseDTO> predict(PredictionRequestDTO request, PredictionMode modo, boolean validar) {
+        return Mono.deferContextual(contexto -> {
+            metrics.registrarSolicitud(request.getAerolinea(), request.getOrigen(), request.getDestino());
+            long inicio = System.nanoTime();
+            String nombreModo = modo.name().toLowerCase();
+
+            Mono<PredictionResponseDTO> prediccion = switch (modo) {
+                case MOCK -> predictMock(request, validar);
+                case REAL -> predictReal(request, validar);
+                case LOCAL -> predictLocal(request, validar);
+            };
+            if (auditLog.isEnabled()) {
+                String correlacion = contexto.getOrDefault(PredictionAuditLog.CORRELACION, null);
+                prediccion = prediccion
+                        .doOnNext(respuesta -> auditLog.registrar(correlacion, request, nombreModo,
+                                respuesta, null, "ok", System.nanoTime() - inicio))
+                        .doOnError(error -> auditLog.registrar(correlacion, request, nombreModo,
+                                null, error, "error", System.nanoTime() - inicio))
+                        .doOnCancel(() -> auditLog.registrar(correlacion, request, nombreModo,
+                                null, null, "cancelado", System.nanoTime() - inicio));
+            }
+            return prediccion.doFinally(senal -> metrics.registrarTotal(nombreModo,
+                    resultadoDeSenal(senal), System.nanoTime() - inicio));
+        });
+    }
+
+    private static String resultadoDeSenal(SignalType senal) {
+        return switch (senal) {
+            case ON_COMPLETE -> "ok";
+            case CANCEL -> "cancelado";
+            default -> "error";
+        };
     }
 }
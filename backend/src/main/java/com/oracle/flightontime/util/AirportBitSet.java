@@ -0,0 +1,120 @@
+package com.oracle.flightontime.util;
+
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * CONJUNTO INMUTABLE DE AEROPUERTOS (BITSET SOBRE ORDINALES)
+ * ============================================================================
+ * Conjunto de aeropuertos representado como long[] sobre los ordinales
+ * densos de {@link GeoUtils}. Pertenencia, intersección y recorrido son
+ * operaciones de bits sin asignación de memoria.
+ * ============================================================================
+ */
+public final class AirportBitSet {
+
+    /**
+     * Conjunto vacío
+     */
+    public static final AirportBitSet VACIO = new AirportBitSet(new long[0]);
+
+    private final long[] palabras;
+    private final int cardinalidad;
+
+    private AirportBitSet(long[] palabras) {
+        this.palabras = palabras;
+        int total = 0;
+        for (long palabra : palabras) {
+            total += Long.bitCount(palabra);
+        }
+        this.cardinalidad = total;
+    }
+
+    /**
+     * Construye el conjunto a partir de ordinales ya resueltos.
+     *
+     * @param ordinales       Ordinales de los aeropuertos (0..numAeropuertos-1)
+     * @param numAeropuertos  Número total de ordinales (dimensiona el bitset)
+     */
+    public static AirportBitSet deOrdinales(int[] ordinales, int numAeropuertos) {
+        long[] palabras = new long[(numAeropuertos + 63) >>> 6];
+        for (int ordinal : ordinales) {
+            if (ordinal < 0 || ordinal >= numAeropuertos) {
+                throw new IllegalArgumentException("Ordinal de aeropuerto fuera de rango: " + ordinal);
+            }
+            palabras[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return new AirportBitSet(palabras);
+    }
+
+    /**
+     * Verifica si el aeropuerto con el ordinal dado pertenece al conjunto.
+     */
+    public boolean contiene(int ordinal) {
+        int indice = ordinal >>> 6;
+        return ordinal >= 0 && indice < palabras.length && (palabras[indice] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Verifica si el aeropuerto pertenece a este conjunto y a otro.
+     */
+    public boolean contieneAmbos(AirportBitSet otro, int ordinal) {
+        return contiene(ordinal) && otro.contiene(ordinal);
+    }
+
+    /**
+     * Cuenta los aeropuertos comunes con otro conjunto.
+     */
+    public int contarComunes(AirportBitSet otro) {
+        int limite = Math.min(palabras.length, otro.palabras.length);
+        int total = 0;
+        for (int i = 0; i < limite; i++) {
+            total += Long.bitCount(palabras[i] & otro.palabras[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Siguiente ordinal del conjunto a partir de {@code desde} (inclusive).
+     * Permite recorrer sin asignar memoria:
+     * {@code for (int i = s.siguiente(0); i >= 0; i = s.siguiente(i + 1))}
+     *
+     * @return Ordinal encontrado, o -1 si no hay más
+     */
+    public int siguiente(int desde) {
+        if (desde < 0) {
+            desde = 0;
+        }
+        int indice = desde >>> 6;
+        if (indice >= palabras.length) {
+            return -1;
+        }
+        long palabra = palabras[indice] & (-1L << desde);
+        while (true) {
+            if (palabra != 0) {
+                return (indice << 6) + Long.numberOfTrailingZeros(palabra);
+            }
+            if (++indice == palabras.length) {
+                return -1;
+            }
+            palabra = palabras[indice];
+        }
+    }
+
+    /**
+     * Número de aeropuertos del conjunto.
+     */
+    public int cardinalidad() {
+        return cardinalidad;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AirportBitSet otro && Arrays.equals(palabras, otro.palabras);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(palabras);
+    }
+}
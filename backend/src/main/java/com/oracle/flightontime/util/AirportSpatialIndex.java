@@ -0,0 +1,374 @@
+package com.oracle.flightontime.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * ÍNDICE ESPACIAL DE AEROPUERTOS (K-D TREE SOBRE LA ESFERA)
+ * ============================================================================
+ * Árbol k-d implícito sobre los aeropuertos convertidos a vectores
+ * unitarios (x, y, z). La distancia euclídea entre dos vectores (cuerda)
+ * crece con la distancia sobre la esfera, así que el árbol resuelve
+ * "los k más cercanos" y "dentro de un radio" sin casos especiales en el
+ * antimeridiano ni en los polos, visitando O(log N + resultados) nodos en
+ * lugar de calcular haversine contra todos los aeropuertos.
+ *
+ * - El árbol se guarda en arreglos paralelos ordenados como un árbol
+ *   balanceado implícito: el nodo de un rango [lo, hi) está en su mitad.
+ * - Es inmutable; lo construye cada instantánea de datos de referencia.
+ * - Las distancias devueltas son las de
+ *   {@link GeoUtils#calcularDistanciaHaversine} (km, 2 decimales).
+ * ============================================================================
+ */
+public final class AirportSpatialIndex {
+
+    /** Radio de la Tierra en km (el mismo de calcularDistanciaHaversine) */
+    private static final double RADIO_TIERRA_KM = 6371.0;
+
+    /**
+     * Aeropuerto encontrado por una consulta.
+     *
+     * @param ordinal     Ordinal del aeropuerto
+     * @param distanciaKm Distancia al punto de consulta
+     */
+    public record Vecino(int ordinal, double distanciaKm) {
+    }
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    /** Nodos del árbol, en orden implícito */
+    private final int[] ordinales;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    /** Eje de corte de cada nodo (0 = x, 1 = y, 2 = z) */
+    private final byte[] ejes;
+
+    /**
+     * Indexa los aeropuertos indicados.
+     *
+     * @param latitudes  Latitud por ordinal
+     * @param longitudes Longitud por ordinal
+     * @param incluidos  Ordinales que se indexan
+     */
+    public AirportSpatialIndex(double[] latitudes, double[] longitudes, int[] incluidos) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        int n = incluidos.length;
+        this.ordinales = incluidos.clone();
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.ejes = new byte[n];
+
+        double[][] puntos = new double[3][n];
+        for (int i = 0; i < n; i++) {
+            int o = ordinales[i];
+            double lat = Math.toRadians(latitudes[o]);
+            double lon = Math.toRadians(longitudes[o]);
+            puntos[0][i] = Math.cos(lat) * Math.cos(lon);
+            puntos[1][i] = Math.cos(lat) * Math.sin(lon);
+            puntos[2][i] = Math.sin(lat);
+        }
+        construir(puntos, 0, n);
+        for (int i = 0; i < n; i++) {
+            x[i] = puntos[0][i];
+            y[i] = puntos[1][i];
+            z[i] = puntos[2][i];
+        }
+    }
+
+    /**
+     * Indexa todos los ordinales 0..N-1.
+     */
+    public static AirportSpatialIndex deTodos(double[] latitudes, double[] longitudes) {
+        int[] todos = new int[latitudes.length];
+        Arrays.setAll(todos, i -> i);
+        return new AirportSpatialIndex(latitudes, longitudes, todos);
+    }
+
+    public int getTamano() {
+        return ordinales.length;
+    }
+
+    // ========================================================================
+    // CONSTRUCCIÓN
+    // ========================================================================
+
+    private void construir(double[][] puntos, int lo, int hi) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int eje = ejeDeMayorDispersion(puntos, lo, hi);
+        int medio = (lo + hi) >>> 1;
+        seleccionar(puntos, eje, lo, hi - 1, medio);
+        ejes[medio] = (byte) eje;
+        construir(puntos, lo, medio);
+        construir(puntos, medio + 1, hi);
+    }
+
+    private static int ejeDeMayorDispersion(double[][] puntos, int lo, int hi) {
+        int mejor = 0;
+        double mayor = -1;
+        for (int eje = 0; eje < 3; eje++) {
+            double minimo = Double.POSITIVE_INFINITY;
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                minimo = Math.min(minimo, puntos[eje][i]);
+                maximo = Math.max(maximo, puntos[eje][i]);
+            }
+            if (maximo - minimo > mayor) {
+                mayor = maximo - minimo;
+                mejor = eje;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Quickselect: deja en k el elemento que ocuparía esa posición si
+     * [lo, hi] estuviera ordenado por el eje, con los menores a la izquierda.
+     */
+    private void seleccionar(double[][] puntos, int eje, int lo, int hi, int k) {
+        double[] clave = puntos[eje];
+        while (hi > lo) {
+            double pivote = clave[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (clave[i] < pivote) {
+                    i++;
+                }
+                while (clave[j] > pivote) {
+                    j--;
+                }
+                if (i <= j) {
+                    intercambiar(puntos, i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void intercambiar(double[][] puntos, int a, int b) {
+        for (double[] eje : puntos) {
+            double t = eje[a];
+            eje[a] = eje[b];
+            eje[b] = t;
+        }
+        int t = ordinales[a];
+        ordinales[a] = ordinales[b];
+        ordinales[b] = t;
+    }
+
+    // ========================================================================
+    // CONSULTAS
+    // ========================================================================
+
+    /**
+     * Los k aeropuertos más cercanos a un punto, del más cercano al más lejano.
+     *
+     * @param excluir Ordinal que no se devuelve (el propio aeropuerto), o -1
+     */
+    public List<Vecino> cercanos(double latitud, double longitud, int k, int excluir) {
+        if (k <= 0 || ordinales.length == 0) {
+            return List.of();
+        }
+        Consulta consulta = new Consulta(latitud, longitud);
+        Monticulo mejores = new Monticulo(Math.min(k, ordinales.length));
+        buscarCercanos(consulta, 0, ordinales.length, mejores, excluir);
+
+        int[] encontrados = new int[mejores.tamano];
+        System.arraycopy(mejores.ordinales, 0, encontrados, 0, mejores.tamano);
+        return aVecinos(latitud, longitud, encontrados, encontrados.length, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Aeropuertos a radioKm o menos de un punto, del más cercano al más lejano.
+     */
+    public List<Vecino> dentroDeRadio(double latitud, double longitud, double radioKm) {
+        if (!(radioKm >= 0) || ordinales.length == 0) {
+            return List.of();
+        }
+        Consulta consulta = new Consulta(latitud, longitud);
+        double angulo = radioKm / RADIO_TIERRA_KM;
+        double cuerda = angulo >= Math.PI ? 2.0 : 2.0 * Math.sin(angulo / 2.0);
+        // Holgura para el redondeo; el filtro final usa la distancia haversine
+        double limite = cuerda * cuerda * (1.0 + 1e-9) + 1e-12;
+
+        int[] encontrados = new int[16];
+        int[] cantidad = new int[1];
+        encontrados = buscarEnRadio(consulta, 0, ordinales.length, limite, encontrados, cantidad);
+        return aVecinos(latitud, longitud, encontrados, cantidad[0], radioKm);
+    }
+
+    private void buscarCercanos(Consulta consulta, int lo, int hi, Monticulo mejores, int excluir) {
+        if (lo >= hi) {
+            return;
+        }
+        int medio = (lo + hi) >>> 1;
+        if (ordinales[medio] != excluir) {
+            mejores.ofrecer(consulta.distancia2(x[medio], y[medio], z[medio]), ordinales[medio]);
+        }
+        if (hi - lo == 1) {
+            return;
+        }
+        double diferencia = consulta.coordenada(ejes[medio]) - coordenada(ejes[medio], medio);
+        boolean izquierdaPrimero = diferencia < 0;
+        if (izquierdaPrimero) {
+            buscarCercanos(consulta, lo, medio, mejores, excluir);
+        } else {
+            buscarCercanos(consulta, medio + 1, hi, mejores, excluir);
+        }
+        if (!mejores.lleno() || diferencia * diferencia <= mejores.peor()) {
+            if (izquierdaPrimero) {
+                buscarCercanos(consulta, medio + 1, hi, mejores, excluir);
+            } else {
+                buscarCercanos(consulta, lo, medio, mejores, excluir);
+            }
+        }
+    }
+
+    private int[] buscarEnRadio(Consulta consulta, int lo, int hi, double limite, int[] encontrados, int[] cantidad) {
+        if (lo >= hi) {
+            return encontrados;
+        }
+        int medio = (lo + hi) >>> 1;
+        if (consulta.distancia2(x[medio], y[medio], z[medio]) <= limite) {
+            if (cantidad[0] == encontrados.length) {
+                encontrados = Arrays.copyOf(encontrados, encontrados.length * 2);
+            }
+            encontrados[cantidad[0]++] = ordinales[medio];
+        }
+        if (hi - lo == 1) {
+            return encontrados;
+        }
+        double diferencia = consulta.coordenada(ejes[medio]) - coordenada(ejes[medio], medio);
+        if (diferencia < 0 || diferencia * diferencia <= limite) {
+            encontrados = buscarEnRadio(consulta, lo, medio, limite, encontrados, cantidad);
+        }
+        if (diferencia >= 0 || diferencia * diferencia <= limite) {
+            encontrados = buscarEnRadio(consulta, medio + 1, hi, limite, encontrados, cantidad);
+        }
+        return encontrados;
+    }
+
+    private double coordenada(int eje, int nodo) {
+        return eje == 0 ? x[nodo] : eje == 1 ? y[nodo] : z[nodo];
+    }
+
+    /**
+     * Calcula la distancia haversine de los candidatos, descarta los que
+     * superan el máximo y ordena por distancia (y ordinal, para desempatar).
+     */
+    private List<Vecino> aVecinos(double latitud, double longitud, int[] candidatos, int cantidad, double maximoKm) {
+        List<Vecino> vecinos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int o = candidatos[i];
+            double distancia = GeoUtils.calcularDistanciaHaversine(latitud, longitud, latitudes[o], longitudes[o]);
+            if (distancia <= maximoKm) {
+                vecinos.add(new Vecino(o, distancia));
+            }
+        }
+        vecinos.sort((a, b) -> a.distanciaKm() != b.distanciaKm()
+                ? Double.compare(a.distanciaKm(), b.distanciaKm())
+                : Integer.compare(a.ordinal(), b.ordinal()));
+        return vecinos;
+    }
+
+    /**
+     * Punto de consulta como vector unitario.
+     */
+    private static final class Consulta {
+        private final double x;
+        private final double y;
+        private final double z;
+
+        Consulta(double latitud, double longitud) {
+            double lat = Math.toRadians(latitud);
+            double lon = Math.toRadians(longitud);
+            this.x = Math.cos(lat) * Math.cos(lon);
+            this.y = Math.cos(lat) * Math.sin(lon);
+            this.z = Math.sin(lat);
+        }
+
+        double coordenada(int eje) {
+            return eje == 0 ? x : eje == 1 ? y : z;
+        }
+
+        double distancia2(double px, double py, double pz) {
+            double dx = x - px;
+            double dy = y - py;
+            double dz = z - pz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * Montículo de máximos de tamaño fijo con los k mejores candidatos
+     * (distancia al cuadrado de la cuerda).
+     */
+    private static final class Monticulo {
+        private final double[] distancias;
+        private final int[] ordinales;
+        private int tamano;
+
+        Monticulo(int capacidad) {
+            this.distancias = new double[capacidad];
+            this.ordinales = new int[capacidad];
+        }
+
+        boolean lleno() {
+            return tamano == distancias.length;
+        }
+
+        double peor() {
+            return distancias[0];
+        }
+
+        void ofrecer(double distancia, int ordinal) {
+            if (!lleno()) {
+                int i = tamano++;
+                while (i > 0) {
+                    int padre = (i - 1) >>> 1;
+                    if (distancias[padre] >= distancia) {
+                        break;
+                    }
+                    distancias[i] = distancias[padre];
+                    ordinales[i] = ordinales[padre];
+                    i = padre;
+                }
+                distancias[i] = distancia;
+                ordinales[i] = ordinal;
+            } else if (distancia < distancias[0]) {
+                int i = 0;
+                while (true) {
+                    int hijo = 2 * i + 1;
+                    if (hijo >= tamano) {
+                        break;
+                    }
+                    if (hijo + 1 < tamano && distancias[hijo + 1] > distancias[hijo]) {
+                        hijo++;
+                    }
+                    if (distancias[hijo] <= distancia) {
+                        break;
+                    }
+                    distancias[i] = distancias[hijo];
+                    ordinales[i] = ordinales[hijo];
+                    i = hijo;
+                }
+                distancias[i] = distancia;
+                ordinales[i] = ordinal;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.oracle.flightontime.util;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * ============================================================================
+ * UTILIDADES DE FECHA DE PARTIDA
+ * ============================================================================
+ * Interpreta fecha_partida con las mismas reglas que el servicio ML
+ * (datetime.fromisoformat): ISO-8601 con o sin zona horaria y, si falta o no
+ * se puede interpretar, la hora actual.
+ * ============================================================================
+ */
+public final class FechaUtils {
+
+    private FechaUtils() {
+    }
+
+    /**
+     * Interpreta la fecha de partida de una solicitud.
+     *
+     * @param fechaPartida Fecha en formato ISO-8601 (puede ser null)
+     * @return Fecha local de partida, o la hora actual si no es válida
+     */
+    public static LocalDateTime parsearFechaPartida(String fechaPartida) {
+        LocalDateTime fecha = intentarParsear(fechaPartida);
+        // Igual que el servicio ML: si no se puede interpretar, la hora actual
+        return fecha != null ? fecha : LocalDateTime.now();
+    }
+
+    /**
+     * Interpreta la fecha de partida sin valor por defecto.
+     *
+     * @param fechaPartida Fecha en formato ISO-8601 (puede ser null)
+     * @return Fecha local de partida, o null si falta o no es válida
+     */
+    public static LocalDateTime intentarParsear(String fechaPartida) {
+        if (fechaPartida == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(fechaPartida);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(fechaPartida).toLocalDateTime();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.oracle.flightontime.util;
+
+/**
+ * ============================================================================
+ * CÓDIGO IATA EMPAQUETADO EN UN INT
+ * ============================================================================
+ * Representa un código IATA de 3 letras como un entero en base 26
+ * (AAA = 0 ... ZZZ = 17575), sin crear objetos. Acepta minúsculas, por lo
+ * que evita el toUpperCase() previo a cada búsqueda.
+ * ============================================================================
+ */
+public final class IataCode {
+
+    /**
+     * Número de códigos posibles (26^3); los códigos empaquetados válidos
+     * están en el rango 0..CARDINALIDAD-1.
+     */
+    public static final int CARDINALIDAD = 26 * 26 * 26;
+
+    /**
+     * Valor devuelto para códigos no válidos
+     */
+    public static final int INVALIDO = -1;
+
+    private IataCode() {
+    }
+
+    /**
+     * Empaqueta un código IATA de 3 letras (mayúsculas o minúsculas).
+     *
+     * @param codigo Código IATA
+     * @return Código empaquetado, o {@link #INVALIDO} si no son exactamente 3 letras
+     */
+    public static int pack(CharSequence codigo) {
+        if (codigo == null || codigo.length() != 3) {
+            return INVALIDO;
+        }
+        int empaquetado = 0;
+        for (int i = 0; i < 3; i++) {
+            int letra = codigo.charAt(i) - 'A';
+            if (letra >= 32 && letra < 32 + 26) {
+                letra -= 32; // minúscula
+            }
+            if (letra < 0 || letra >= 26) {
+                return INVALIDO;
+            }
+            empaquetado = empaquetado * 26 + letra;
+        }
+        return empaquetado;
+    }
+
+    /**
+     * Reconstruye el código IATA en mayúsculas.
+     *
+     * @param empaquetado Código empaquetado válido
+     * @return Código IATA de 3 letras
+     */
+    public static String unpack(int empaquetado) {
+        if (empaquetado < 0 || empaquetado >= CARDINALIDAD) {
+            throw new IllegalArgumentException("Código IATA empaquetado fuera de rango: " + empaquetado);
+        }
+        char[] letras = new char[3];
+        letras[2] = (char) ('A' + empaquetado % 26);
+        letras[1] = (char) ('A' + (empaquetado / 26) % 26);
+        letras[0] = (char) ('A' + empaquetado / (26 * 26));
+        return new String(letras);
+    }
+}
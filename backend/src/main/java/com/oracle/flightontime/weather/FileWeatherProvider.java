@@ -0,0 +1,77 @@
+package com.oracle.flightontime.weather;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ * PROVEEDOR DE CLIMA DESDE ARCHIVO
+ * ============================================================================
+ * Lee el clima de un archivo JSON local (weather.file.path) con el formato
+ * { "ATL": { "temperatura": 24.3, "humedad": 55, ... }, ... }, usando los
+ * mismos nombres de campo que la respuesta de la API. El archivo se vuelve
+ * a leer al inicio de cada actualización si cambió. Pensado para pruebas y
+ * entornos sin acceso a la API (weather.provider=file).
+ * ============================================================================
+ */
+@Component
+@ConditionalOnProperty(name = "weather.provider", havingValue = "file")
+public class FileWeatherProvider implements WeatherProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileWeatherProvider.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path ruta;
+
+    private volatile Map<String, WeatherDataDTO> climas = Map.of();
+    private long ultimaModificacion = -1L;
+
+    public FileWeatherProvider(ObjectMapper objectMapper,
+                               @Value("${weather.file.path:weather/clima.json}") String ruta) {
+        this.objectMapper = objectMapper;
+        this.ruta = Paths.get(ruta);
+    }
+
+    @Override
+    public String getNombre() {
+        return "ARCHIVO";
+    }
+
+    @Override
+    public void iniciarActualizacion() {
+        try {
+            if (!Files.exists(ruta)) {
+                logger.warn("⚠️ Archivo de clima no encontrado: {}", ruta.toAbsolutePath());
+                return;
+            }
+            long modificado = Files.getLastModifiedTime(ruta).toMillis();
+            if (modificado == ultimaModificacion) {
+                return;
+            }
+            Map<String, WeatherDataDTO> leidos = objectMapper.readValue(ruta.toFile(),
+                    new TypeReference<Map<String, WeatherDataDTO>>() { });
+            climas = leidos;
+            ultimaModificacion = modificado;
+            logger.info("🌦️ Clima cargado desde {}: {} aeropuertos", ruta, leidos.size());
+        } catch (Exception e) {
+            logger.error("❌ Error leyendo archivo de clima {}: {}", ruta, e.getMessage());
+        }
+    }
+
+    @Override
+    public Mono<WeatherDataDTO> obtenerClima(String codigoIATA, double latitud, double longitud) {
+        return Mono.justOrEmpty(climas.get(codigoIATA));
+    }
+}
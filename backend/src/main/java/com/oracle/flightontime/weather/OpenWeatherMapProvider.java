@@ -0,0 +1,69 @@
+package com.oracle.flightontime.weather;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * PROVEEDOR DE CLIMA OPENWEATHERMAP
+ * ============================================================================
+ * Consulta el clima actual por coordenadas en la API de OpenWeatherMap
+ * (unidades métricas, descripciones en español), con el mismo mapeo que
+ * obtener_clima_aeropuerto del servicio ML (weather.provider=openweathermap).
+ * La API key se toma de weather.openweathermap.api-key.
+ * ============================================================================
+ */
+@Component
+@ConditionalOnProperty(name = "weather.provider", havingValue = "openweathermap")
+public class OpenWeatherMapProvider implements WeatherProvider {
+
+    private final WebClient webClient;
+    private final String apiKey;
+
+    public OpenWeatherMapProvider(WebClient.Builder webClientBuilder,
+                                  @Value("${weather.openweathermap.url:https://api.openweathermap.org/data/2.5/weather}") String url,
+                                  @Value("${weather.openweathermap.api-key:}") String apiKey) {
+        this.webClient = webClientBuilder.clone().baseUrl(url).build();
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public String getNombre() {
+        return "OPENWEATHERMAP";
+    }
+
+    @Override
+    public Mono<WeatherDataDTO> obtenerClima(String codigoIATA, double latitud, double longitud) {
+        return webClient.get()
+                .uri(uri -> uri
+                        .queryParam("lat", latitud)
+                        .queryParam("lon", longitud)
+                        .queryParam("appid", apiKey)
+                        .queryParam("units", "metric")
+                        .queryParam("lang", "es")
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(OpenWeatherMapProvider::mapear);
+    }
+
+    private static WeatherDataDTO mapear(JsonNode data) {
+        JsonNode main = data.path("main");
+        JsonNode weather = data.path("weather").path(0);
+
+        return WeatherDataDTO.builder()
+                .temperatura(main.path("temp").asDouble())
+                .humedad(main.path("humidity").asInt())
+                .presion(main.path("pressure").asInt())
+                .visibilidad(data.path("visibility").asInt(10000))
+                .vientoVelocidad(data.path("wind").path("speed").asDouble())
+                .condicion(weather.path("main").asText(null))
+                .descripcion(weather.path("description").asText(null))
+                .build();
+    }
+}
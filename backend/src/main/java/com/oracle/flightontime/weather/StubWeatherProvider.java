@@ -0,0 +1,51 @@
+package com.oracle.flightontime.weather;
+
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Random;
+
+/**
+ * ============================================================================
+ * PROVEEDOR DE CLIMA SIMULADO
+ * ============================================================================
+ * Genera clima plausible sin red, con los mismos rangos que el modo mock.
+ * Los valores son deterministas por aeropuerto y hora, así que dos
+ * actualizaciones dentro de la misma hora producen el mismo resultado.
+ * Proveedor por defecto (weather.provider=stub).
+ * ============================================================================
+ */
+@Component
+@ConditionalOnProperty(name = "weather.provider", havingValue = "stub", matchIfMissing = true)
+public class StubWeatherProvider implements WeatherProvider {
+
+    @Override
+    public String getNombre() {
+        return "SIMULADO";
+    }
+
+    @Override
+    public Mono<WeatherDataDTO> obtenerClima(String codigoIATA, double latitud, double longitud) {
+        return Mono.fromCallable(() -> {
+            long hora = System.currentTimeMillis() / 3_600_000L;
+            Random random = new Random(codigoIATA.hashCode() * 31L + hora);
+
+            double temperatura = 15.0 + random.nextDouble() * 20.0; // 15-35°C
+            int humedad = 40 + random.nextInt(50); // 40-90%
+            double vientoVelocidad = 2.0 + random.nextDouble() * 15.0; // 2-17 m/s
+            int visibilidad = 5000 + random.nextInt(5000); // 5-10 km
+
+            return WeatherDataDTO.builder()
+                    .temperatura(Math.round(temperatura * 10.0) / 10.0)
+                    .humedad(humedad)
+                    .presion(1013)
+                    .visibilidad(visibilidad)
+                    .vientoVelocidad(Math.round(vientoVelocidad * 10.0) / 10.0)
+                    .condicion(humedad > 70 ? "Clouds" : "Clear")
+                    .descripcion(humedad > 70 ? "nublado" : "cielo claro")
+                    .build();
+        });
+    }
+}
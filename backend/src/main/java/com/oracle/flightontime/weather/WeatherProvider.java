@@ -0,0 +1,36 @@
+package com.oracle.flightontime.weather;
+
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * ============================================================================
+ * PROVEEDOR DE DATOS METEOROLÓGICOS
+ * ============================================================================
+ * Fuente de clima actual por aeropuerto. WeatherService lo consulta para
+ * todos los aeropuertos en cada actualización programada; nunca se usa en
+ * el camino de una solicitud de predicción.
+ * ============================================================================
+ */
+public interface WeatherProvider {
+
+    /**
+     * Nombre de la fuente, publicado en la metadata como clima_fuente.
+     */
+    String getNombre();
+
+    /**
+     * Se invoca una vez al inicio de cada actualización completa, antes de
+     * consultar los aeropuertos.
+     */
+    default void iniciarActualizacion() {
+    }
+
+    /**
+     * Clima actual de un aeropuerto.
+     *
+     * @return Mono con el clima, vacío si la fuente no tiene datos para el
+     *         aeropuerto, o con error si la consulta falla
+     */
+    Mono<WeatherDataDTO> obtenerClima(String codigoIATA, double latitud, double longitud);
+}
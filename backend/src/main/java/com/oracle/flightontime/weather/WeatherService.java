@@ -0,0 +1,151 @@
+package com.oracle.flightontime.weather;
+
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import com.oracle.flightontime.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ============================================================================
+ * SERVICIO DE CLIMA POR AEROPUERTO
+ * ============================================================================
+ * Mantiene en memoria el clima de todos los aeropuertos de GeoUtils. Una
+ * tarea programada consulta el proveedor configurado para todos los
+ * aeropuertos en paralelo (weather.refresh-concurrency consultas en vuelo)
+ * y publica una {@link WeatherSnapshot} nueva de forma atómica.
+ *
+ * Las predicciones solo leen la instantánea vigente: ninguna solicitud
+ * realiza llamadas de red para obtener clima. Si un aeropuerto falla en una
+ * actualización se conserva su observación anterior, cuya antigüedad queda
+ * reflejada en la metadata (clima_antiguedad_s).
+ * ============================================================================
+ */
+@Service
+public class WeatherService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeatherService.class);
+
+    private final WeatherProvider provider;
+
+    @Value("${weather.enabled:true}")
+    private boolean enabled;
+
+    @Value("${weather.refresh-concurrency:16}")
+    private int refreshConcurrency;
+
+    @Value("${weather.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    private final AtomicReference<WeatherSnapshot> snapshot = new AtomicReference<>(WeatherSnapshot.VACIA);
+    private final AtomicBoolean actualizando = new AtomicBoolean();
+    private final AtomicLong actualizaciones = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile long ultimaDuracionMs;
+
+    public WeatherService(WeatherProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Instantánea vigente. Nunca es null.
+     */
+    public WeatherSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * ========================================================================
+     * ACTUALIZACIÓN PROGRAMADA
+     * ========================================================================
+     * Consulta todos los aeropuertos sin bloquear el hilo del planificador.
+     * Si la actualización anterior sigue en curso, se omite esta ejecución.
+     * ========================================================================
+     */
+    @Scheduled(fixedDelayString = "${weather.refresh-interval-ms:600000}", initialDelay = 0)
+    public void actualizar() {
+        if (!enabled || !actualizando.compareAndSet(false, true)) {
+            return;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            provider.iniciarActualizacion();
+        } catch (RuntimeException e) {
+            logger.error("❌ Error preparando actualización de clima: {}", e.getMessage());
+        }
+
+        Flux.range(0, GeoUtils.getNumeroAeropuertos())
+                .flatMap(this::consultar, refreshConcurrency)
+                .collectList()
+                .doFinally(senal -> actualizando.set(false))
+                .subscribe(observaciones -> publicar(observaciones, inicio),
+                        error -> logger.error("❌ Actualización de clima fallida: {}", error.getMessage()));
+    }
+
+    private Mono<Observacion> consultar(int ordinal) {
+        String codigo = GeoUtils.getCodigoIATA(ordinal);
+        double[] coordenadas = GeoUtils.getCoordinates(codigo);
+        return Mono.defer(() -> provider.obtenerClima(codigo, coordenadas[0], coordenadas[1]))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .map(clima -> new Observacion(ordinal, clima, System.currentTimeMillis()))
+                .onErrorResume(error -> {
+                    errores.incrementAndGet();
+                    logger.debug("Clima no disponible para {}: {}", codigo, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void publicar(List<Observacion> observaciones, long inicio) {
+        WeatherSnapshot anterior = snapshot.get();
+        int numAeropuertos = GeoUtils.getNumeroAeropuertos();
+        WeatherDataDTO[] climas = anterior.copiarClimas(numAeropuertos);
+        long[] obtenido = anterior.copiarObtenido(numAeropuertos);
+        for (Observacion observacion : observaciones) {
+            climas[observacion.ordinal()] = observacion.clima();
+            obtenido[observacion.ordinal()] = observacion.obtenidoMs();
+        }
+
+        WeatherSnapshot nueva = new WeatherSnapshot(provider.getNombre(), climas, obtenido,
+                System.currentTimeMillis());
+        snapshot.set(nueva);
+        actualizaciones.incrementAndGet();
+        ultimaDuracionMs = System.currentTimeMillis() - inicio;
+
+        logger.info("🌦️ Clima actualizado ({}): {} de {} aeropuertos en {}ms",
+                provider.getNombre(), observaciones.size(), GeoUtils.getNumeroAeropuertos(), ultimaDuracionMs);
+    }
+
+    /**
+     * Estado de la instantánea y de las actualizaciones.
+     */
+    public Map<String, Object> getStats() {
+        WeatherSnapshot actual = snapshot.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("habilitado", enabled);
+        stats.put("proveedor", provider.getNombre());
+        stats.put("cobertura", actual.getCobertura());
+        stats.put("aeropuertos", GeoUtils.getNumeroAeropuertos());
+        stats.put("actualizaciones", actualizaciones.get());
+        stats.put("errores", errores.get());
+        stats.put("ultima_duracion_ms", ultimaDuracionMs);
+        stats.put("antiguedad_s", actual.getGeneradaMs() > 0
+                ? (System.currentTimeMillis() - actual.getGeneradaMs()) / 1000L : -1L);
+        return stats;
+    }
+
+    private record Observacion(int ordinal, WeatherDataDTO clima, long obtenidoMs) {
+    }
+}
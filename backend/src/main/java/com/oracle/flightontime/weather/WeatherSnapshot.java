@@ -0,0 +1,93 @@
+package com.oracle.flightontime.weather;
+
+import com.oracle.flightontime.dto.WeatherDataDTO;
+import com.oracle.flightontime.util.GeoUtils;
+
+import java.util.Arrays;
+
+/**
+ * ============================================================================
+ * INSTANTÁNEA DE CLIMA
+ * ============================================================================
+ * Clima de todos los aeropuertos indexado por ordinal de GeoUtils, con la
+ * hora en que se obtuvo cada observación. Es inmutable: cada actualización
+ * construye una instantánea nueva y WeatherService la publica de forma
+ * atómica. Los WeatherDataDTO (inmutables) se comparten entre respuestas.
+ * ============================================================================
+ */
+public final class WeatherSnapshot {
+
+    public static final WeatherSnapshot VACIA = new WeatherSnapshot(null,
+            new WeatherDataDTO[GeoUtils.getNumeroAeropuertos()],
+            new long[GeoUtils.getNumeroAeropuertos()], 0L);
+
+    private final String fuente;
+    private final WeatherDataDTO[] climas;
+    private final long[] obtenidoMs;
+    private final long generadaMs;
+    private final int cobertura;
+
+    WeatherSnapshot(String fuente, WeatherDataDTO[] climas, long[] obtenidoMs, long generadaMs) {
+        this.fuente = fuente;
+        this.climas = climas;
+        this.obtenidoMs = obtenidoMs;
+        this.generadaMs = generadaMs;
+        int conDatos = 0;
+        for (WeatherDataDTO clima : climas) {
+            if (clima != null) {
+                conDatos++;
+            }
+        }
+        this.cobertura = conDatos;
+    }
+
+    /**
+     * Clima de un aeropuerto.
+     *
+     * @param ordinal Ordinal de GeoUtils
+     * @return Clima, o null si no hay datos o el ordinal no es válido
+     */
+    public WeatherDataDTO get(int ordinal) {
+        if (ordinal < 0 || ordinal >= climas.length) {
+            return null;
+        }
+        return climas[ordinal];
+    }
+
+    /**
+     * Antigüedad en segundos de la observación de un aeropuerto.
+     *
+     * @return Segundos desde que se obtuvo, o -1 si no hay datos
+     */
+    public long antiguedadSegundos(int ordinal, long ahoraMs) {
+        if (get(ordinal) == null) {
+            return -1;
+        }
+        return Math.max(0L, (ahoraMs - obtenidoMs[ordinal]) / 1000L);
+    }
+
+    public String getFuente() {
+        return fuente;
+    }
+
+    public long getGeneradaMs() {
+        return generadaMs;
+    }
+
+    public int getCobertura() {
+        return cobertura;
+    }
+
+    /**
+     * Copia de los climas con al menos {@code longitud} posiciones (los
+     * aeropuertos agregados por una recarga de datos de referencia quedan
+     * sin datos).
+     */
+    WeatherDataDTO[] copiarClimas(int longitud) {
+        return Arrays.copyOf(climas, Math.max(longitud, climas.length));
+    }
+
+    long[] copiarObtenido(int longitud) {
+        return Arrays.copyOf(obtenidoMs, Math.max(longitud, obtenidoMs.length));
+    }
+}
@@ -0,0 +1,138 @@
+# ============================================================================
+# EXPORTACIÓN DEL MODELO PARA INFERENCIA EN EL BACKEND (MODO LOCAL)
+# ============================================================================
+# Convierte random_forest_v1.pkl al formato "flightontime-rf/1" que carga
+# LocalModelService en el backend Java: árboles aplanados en arrays de
+# feature, umbral, hijos y probabilidad de retraso en hojas.
+#
+# Incluye filas de comprobación (fixtures) calculadas con predict_proba, con
+# sus entradas originales (aerolínea, origen, destino, fecha_partida) y el
+# vector de features de preparar_features_modelo. El backend rechaza el
+# archivo si el árbol aplanado no da la misma probabilidad para ese vector
+# o si su propia construcción de features (distancia, fecha, aerolínea) a
+# partir de las entradas no coincide.
+#
+# Uso:
+#   python export_model.py [modelo.pkl] [salida.json] [num_fixtures]
+# ============================================================================
+
+import json
+import os
+import sys
+
+import joblib
+import numpy as np
+import pandas as pd
+
+from airport_coords import AIRPORT_COORDINATES
+from main import MODEL_PATH, WeatherData, calcular_distancia_haversine, preparar_features_modelo
+
+FORMATO = "flightontime-rf/1"
+
+# Aeropuertos que acepta el backend (sus datos de referencia)
+AEROPUERTOS_BACKEND = os.path.join(os.path.dirname(os.path.abspath(__file__)), "..", "backend", "src",
+                                   "main", "resources", "reference", "aeropuertos.csv")
+AEROPUERTOS_POR_DEFECTO = ["ATL", "LAX", "ORD", "DFW", "DEN", "JFK", "SFO", "SEA", "LAS", "MCO",
+                           "MIA", "BOS", "PHX", "MSP", "DTW", "HNL", "ANC", "SJU", "BWI", "SLC"]
+
+
+def codigos_aeropuertos():
+    """
+    Códigos IATA de los datos de referencia del backend, si el script se
+    ejecuta dentro del repositorio; si no, una lista fija de aeropuertos
+    principales.
+    """
+    codigos = AEROPUERTOS_POR_DEFECTO
+    if os.path.isfile(AEROPUERTOS_BACKEND):
+        with open(AEROPUERTOS_BACKEND, encoding="utf-8") as f:
+            lineas = [l.strip() for l in f if l.strip() and not l.startswith("#")]
+        codigos = [l.split(",", 1)[0] for l in lineas[1:]]
+    return sorted(c for c in codigos if c in AIRPORT_COORDINATES)
+
+
+def exportar_arbol(estimador, indice_clase_retraso):
+    """
+    Aplana un DecisionTreeClassifier. En hojas, scikit-learn marca feature
+    con -2 y los hijos con -1; el valor es la fracción de la clase 1.
+    """
+    arbol = estimador.tree_
+    valores = arbol.value[:, 0, :]
+    totales = valores.sum(axis=1)
+    totales[totales == 0] = 1.0
+    return {
+        "feature": arbol.feature.astype(int).tolist(),
+        "threshold": arbol.threshold.astype(float).tolist(),
+        "izquierdo": arbol.children_left.astype(int).tolist(),
+        "derecho": arbol.children_right.astype(int).tolist(),
+        "valor": (valores[:, indice_clase_retraso] / totales).astype(float).tolist(),
+    }
+
+
+def generar_fixtures(modelo, columnas, cantidad, semilla=42):
+    """
+    Solicitudes con aerolínea, ruta y fecha de partida aleatorias, con la
+    misma construcción de features que /predict_internal: distancia
+    haversine entre los aeropuertos y preparar_features_modelo (clima
+    neutro).
+    """
+    rng = np.random.default_rng(semilla)
+    codigos = codigos_aeropuertos()
+    clima_neutro = WeatherData(
+        temperatura=20.0, humedad=60, presion=1013, visibilidad=10000,
+        viento_velocidad=5.0, condicion="Clear", descripcion="cielo claro"
+    )
+    entradas = []
+    filas = []
+    for _ in range(cantidad):
+        aerolinea = str(rng.integers(1, 3))
+        origen, destino = (str(c) for c in rng.choice(codigos, size=2, replace=False))
+        fecha = (f"2026-{int(rng.integers(1, 13)):02d}-{int(rng.integers(1, 29)):02d}"
+                 f"T{int(rng.integers(0, 24)):02d}:{int(rng.integers(0, 60)):02d}:00")
+        coords_origen = AIRPORT_COORDINATES[origen]
+        coords_destino = AIRPORT_COORDINATES[destino]
+        distancia = calcular_distancia_haversine(
+            coords_origen["lat"], coords_origen["lon"], coords_destino["lat"], coords_destino["lon"]
+        )
+        entradas.append({"aerolinea": aerolinea, "origen": origen, "destino": destino, "fecha_partida": fecha})
+        filas.append(preparar_features_modelo(aerolinea, distancia, clima_neutro, fecha))
+
+    df = pd.concat(filas, ignore_index=True)[columnas]
+    indice = list(modelo.classes_).index(1)
+    probabilidades = modelo.predict_proba(df)[:, indice]
+    return [
+        {**entradas[i], "x": [float(v) for v in df.iloc[i].tolist()], "probabilidad": float(probabilidades[i])}
+        for i in range(len(df))
+    ]
+
+
+def main():
+    ruta_modelo = sys.argv[1] if len(sys.argv) > 1 else MODEL_PATH
+    ruta_salida = sys.argv[2] if len(sys.argv) > 2 else "random_forest_v1.json"
+    num_fixtures = int(sys.argv[3]) if len(sys.argv) > 3 else 500
+
+    modelo = joblib.load(ruta_modelo)
+    if hasattr(modelo, "feature_names_in_"):
+        columnas = [str(c) for c in modelo.feature_names_in_]
+    else:
+        columnas = list(preparar_features_modelo("1", 0.0, None, None).columns)
+
+    indice_clase_retraso = list(modelo.classes_).index(1)
+
+    exportado = {
+        "formato": FORMATO,
+        "version": ruta_modelo.rsplit("/", 1)[-1].rsplit(".", 1)[0],
+        "features": columnas,
+        "arboles": [exportar_arbol(e, indice_clase_retraso) for e in modelo.estimators_],
+        "fixtures": generar_fixtures(modelo, columnas, num_fixtures),
+    }
+
+    with open(ruta_salida, "w") as f:
+        json.dump(exportado, f)
+
+    nodos = sum(len(a["feature"]) for a in exportado["arboles"])
+    print(f"✅ Modelo exportado a {ruta_salida}: {len(exportado['arboles'])} árboles, "
+          f"{nodos} nodos, {len(columnas)} features, {num_fixtures} fixtures")
+
+
+if __name__ == "__main__":
+    main()
@@ -6,20 +6,23 @@
 # predicciones enriquecidas con datos meteorológicos en tiempo real.
 # ============================================================================
 
-from fastapi import FastAPI, HTTPException
+from fastapi import FastAPI, HTTPException, Request, Response
 from fastapi.middleware.cors import CORSMiddleware
-from pydantic import BaseModel, Field
-from typing import Optional, Dict, Any
+from pydantic import BaseModel, Field, ValidationError
+from typing import Optional, Dict, Any, List
 import joblib
 import pandas as pd
 import numpy as np
 from math import radians, sin, cos, sqrt, atan2
 import requests
 from datetime import datetime
+import json
+import hashlib
 import logging
 import os
 
 from airport_coords import AIRPORT_COORDINATES
+import protocolo_binario
 
 # ============================================================================
 # CONFIGURACIÓN DE LOGGING
@@ -44,7 +47,7 @@ async def health_check():
     """
     Endpoint de salud para Docker Healthcheck
     """
-    return {"status": "UP", "service": "FlightOnTime ML Service"}
+    return {"status": "UP", "service": "FlightOnTime ML Service", "modelo_version": MODELO_VERSION}
 
 # Configuración CORS para permitir llamadas desde el backend
 app.add_middleware(
@@ -66,6 +69,29 @@ except Exception as e:
     logger.error(f" Error al cargar el modelo: {e}")
     model = None
 
+
+def calcular_version_modelo(ruta: str) -> str:
+    """
+    Versión informada en metadata.modelo_version y en la cabecera
+    X-Model-Version: MODEL_VERSION si está definida; si no, el nombre del
+    archivo más los 12 primeros dígitos de su SHA-256, así que reentrenar
+    (otro model.pkl) cambia la versión sin tocar la configuración.
+    El backend descarta su caché persistente al ver una versión distinta.
+    """
+    if os.environ.get("MODEL_VERSION"):
+        return os.environ["MODEL_VERSION"]
+    try:
+        with open(ruta, "rb") as archivo:
+            huella = hashlib.sha256(archivo.read()).hexdigest()[:12]
+        return f"{os.path.splitext(os.path.basename(ruta))[0]}-{huella}"
+    except OSError:
+        return os.path.splitext(os.path.basename(ruta))[0]
+
+
+MODELO_VERSION = calcular_version_modelo(MODEL_PATH)
+CABECERA_VERSION = {"X-Model-Version": MODELO_VERSION}
+logger.info(f" Versión del modelo: {MODELO_VERSION}")
+
 # ============================================================================
 # CONFIGURACIÓN DE API METEOROLÓGICA
 # ============================================================================
@@ -207,11 +233,63 @@ def obtener_clima_aeropuerto(iata_code: str) -> Optional[WeatherData]:
         return None
 
 
+# ============================================================================
+# NEGOCIACIÓN DE CONTENIDO (JSON O BINARIO)
+# ============================================================================
+# /predict_internal y /predict_internal_batch aceptan JSON o el protocolo
+# binario (Content-Type application/x-flightontime-bin, ver
+# protocolo_binario.py). La respuesta es binaria si el encabezado Accept lo
+# incluye; los errores siempre son JSON.
+# ============================================================================
+
+async def leer_solicitudes(http_request: Request, lote: bool) -> List[PredictionRequest]:
+    cuerpo = await http_request.body()
+    content_type = http_request.headers.get("content-type")
+
+    if protocolo_binario.es_binario(content_type):
+        try:
+            registros = protocolo_binario.decodificar_solicitudes(cuerpo)
+        except protocolo_binario.ErrorProtocolo as e:
+            raise HTTPException(status_code=400, detail=str(e))
+        if not lote and len(registros) != 1:
+            raise HTTPException(status_code=400, detail="Se esperaba un único registro")
+        return [PredictionRequest(aerolinea=a, origen=o, destino=d, fecha_partida=f)
+                for a, o, d, f in registros]
+
+    if content_type and not content_type.lower().startswith("application/json"):
+        raise HTTPException(status_code=415, detail=f"Content-Type no soportado: {content_type}")
+    try:
+        datos = json.loads(cuerpo)
+        if lote:
+            if not isinstance(datos, list):
+                raise ValueError("Se esperaba una lista de solicitudes")
+            return [PredictionRequest.model_validate(item) for item in datos]
+        return [PredictionRequest.model_validate(datos)]
+    except ValueError as e:  # incluye JSONDecodeError y ValidationError
+        raise HTTPException(status_code=422, detail=str(e))
+
+
+def acepta_binario(http_request: Request) -> bool:
+    return protocolo_binario.MEDIA_TYPE in http_request.headers.get("accept", "")
+
+
+def respuesta_binaria(respuestas: List[PredictionResponse]) -> Response:
+    return Response(
+        content=protocolo_binario.codificar_respuestas([
+            (r.prediccion, r.probabilidad_retraso, r.confianza, r.distancia_km) for r in respuestas
+        ]),
+        media_type=protocolo_binario.MEDIA_TYPE,
+        headers=CABECERA_VERSION
+    )
+
+
 @app.post("/predict_internal", response_model=PredictionResponse)
-async def predict_internal(request: PredictionRequest):
+async def predict_internal(http_request: Request, http_response: Response):
     """
     Endpoint principal de predicción con enriquecimiento meteorológico.
+    Cuerpo: PredictionRequest en JSON o un registro del protocolo binario.
     """
+    request = (await leer_solicitudes(http_request, lote=False))[0]
     logger.info(f"🔍 Iniciando predicción para: Aerolínea={request.aerolinea}, {request.origen} → {request.destino}")
 
     
@@ -322,9 +400,13 @@ async def predict_internal(request: PredictionRequest):
                 "origen_nombre": origen_coords["name"],
                 "destino_nombre": destino_coords["name"],
                 "fecha_partida": request.fecha_partida,
-                "timestamp_prediccion": datetime.now().isoformat()
+                "timestamp_prediccion": datetime.now().isoformat(),
+                "modelo_version": MODELO_VERSION
             }
         )
+        if acepta_binario(http_request):
+            return respuesta_binaria([response])
+        http_response.headers.update(CABECERA_VERSION)
         return response
         
     except HTTPException:
@@ -334,6 +416,90 @@ async def predict_internal(request: PredictionRequest):
         raise HTTPException(status_code=500, detail=f"Error interno del servidor: {str(e)}")
 
 
+@app.post("/predict_internal_batch", response_model=List[PredictionResponse])
+async def predict_internal_batch(http_request: Request, http_response: Response):
+    """
+    Predicción por lotes: misma lógica que /predict_internal, pero el clima se
+    consulta una sola vez por aeropuerto del lote y el modelo se evalúa una
+    única vez sobre todas las filas. Devuelve las respuestas en el orden de entrada.
+    Cuerpo: lista JSON de PredictionRequest o mensaje del protocolo binario.
+    """
+    requests_lote = await leer_solicitudes(http_request, lote=True)
+    logger.info(f"📦 Iniciando predicción por lotes: {len(requests_lote)} elementos")
+
+    if model is None:
+        logger.error("❌ Modelo ML no está cargado")
+        raise HTTPException(status_code=503, detail="Modelo ML no disponible")
+
+    for request in requests_lote:
+        if request.origen not in AIRPORT_COORDINATES:
+            raise HTTPException(status_code=400, detail=f"Aeropuerto de origen '{request.origen}' no encontrado.")
+        if request.destino not in AIRPORT_COORDINATES:
+            raise HTTPException(status_code=400, detail=f"Aeropuerto de destino '{request.destino}' no encontrado.")
+
+    # Clima por aeropuerto, consultado una vez por lote
+    clima_por_aeropuerto: Dict[str, WeatherData] = {}
+
+    def clima(iata_code: str) -> WeatherData:
+        if iata_code not in clima_por_aeropuerto:
+            clima_por_aeropuerto[iata_code] = obtener_clima_aeropuerto(iata_code) or WeatherData(
+                temperatura=20.0, humedad=60, presion=1013, visibilidad=10000,
+                viento_velocidad=5.0, condicion="Clear", descripcion="cielo claro"
+            )
+        return clima_por_aeropuerto[iata_code]
+
+    distancias = []
+    filas = []
+    for request in requests_lote:
+        origen_coords = AIRPORT_COORDINATES[request.origen]
+        destino_coords = AIRPORT_COORDINATES[request.destino]
+        distancia_km = calcular_distancia_haversine(
+            origen_coords["lat"], origen_coords["lon"],
+            destino_coords["lat"], destino_coords["lon"]
+        )
+        distancias.append(distancia_km)
+        filas.append(preparar_features_modelo(
+            request.aerolinea, distancia_km, clima(request.origen), request.fecha_partida
+        ))
+
+    try:
+        features_df = pd.concat(filas, ignore_index=True)
+        probabilidades = model.predict_proba(features_df)
+        predicciones = model.predict(features_df)
+    except Exception as e:
+        logger.error(f"❌ Error en predicción por lotes: {e}")
+        raise HTTPException(status_code=500, detail=f"Error en predicción del modelo: {str(e)}")
+
+    timestamp = datetime.now().isoformat()
+    respuestas = []
+    for i, request in enumerate(requests_lote):
+        origen_coords = AIRPORT_COORDINATES[request.origen]
+        destino_coords = AIRPORT_COORDINATES[request.destino]
+        respuestas.append(PredictionResponse(
+            prediccion=int(predicciones[i]),
+            probabilidad_retraso=round(float(probabilidades[i][1]), 4),
+            confianza=round(float(max(probabilidades[i])), 4),
+            distancia_km=distancias[i],
+            clima_origen=clima(request.origen),
+            clima_destino=clima(request.destino),
+            metadata={
+                "aerolinea": request.aerolinea,
+                "ruta": f"{request.origen} → {request.destino}",
+                "origen_nombre": origen_coords["name"],
+                "destino_nombre": destino_coords["name"],
+                "fecha_partida": request.fecha_partida,
+                "timestamp_prediccion": timestamp,
+                "modelo_version": MODELO_VERSION
+            }
+        ))
+
+    logger.info(f"✅ Lote completado: {len(respuestas)} predicciones")
+    if acepta_binario(http_request):
+        return respuesta_binaria(respuestas)
+    http_response.headers.update(CABECERA_VERSION)
+    return respuestas
+
+
 def preparar_features_modelo(aerolinea: str, distancia_km: float, clima: WeatherData, fecha_partida_str: str = None) -> pd.DataFrame:
     """
     Prepara el DataFrame de features para el modelo Random Forest.
@@ -0,0 +1,83 @@
+# ============================================================================
+# PROTOCOLO BINARIO BACKEND ↔ SERVICIO ML
+# ============================================================================
+# Codificación opcional de /predict_internal y /predict_internal_batch
+# (Content-Type application/x-flightontime-bin), equivalente a
+# BinaryPredictionCodec del backend. Todo en big-endian.
+#
+# Cabecera (8 bytes):  'FOT' | u8 versión (1) | u32 número de registros
+# Solicitud (16 bytes): u8 aerolínea | u8 flags (bit 0: hay fecha)
+#                       | u16 origen | u16 destino | u16 reservado
+#                       | i64 fecha de partida (segundos epoch, hora local como UTC)
+# Respuesta (28 bytes): u8 predicción | u8 reservado | u16 reservado
+#                       | f64 probabilidad_retraso | f64 confianza | f64 distancia_km
+#
+# Los códigos IATA van empaquetados en base 26 (AAA = 0 ... ZZZ = 17575).
+# ============================================================================
+
+import struct
+from datetime import datetime, timedelta
+from typing import List, Optional, Tuple
+
+MEDIA_TYPE = "application/x-flightontime-bin"
+VERSION = 1
+
+CABECERA = struct.Struct(">3sBI")
+SOLICITUD = struct.Struct(">BBHHHq")
+RESPUESTA = struct.Struct(">BBHddd")
+
+FLAG_FECHA = 1
+EPOCH = datetime(1970, 1, 1)
+
+
+class ErrorProtocolo(ValueError):
+    """Mensaje binario mal formado"""
+
+
+def empaquetar_iata(codigo: str) -> int:
+    valor = 0
+    for letra in codigo.upper():
+        valor = valor * 26 + (ord(letra) - ord("A"))
+    return valor
+
+
+def desempaquetar_iata(valor: int) -> str:
+    if not 0 <= valor < 26 ** 3:
+        raise ErrorProtocolo(f"Código IATA empaquetado fuera de rango: {valor}")
+    return chr(65 + valor // 676) + chr(65 + (valor // 26) % 26) + chr(65 + valor % 26)
+
+
+def es_binario(content_type: Optional[str]) -> bool:
+    return content_type is not None and content_type.split(";")[0].strip().lower() == MEDIA_TYPE
+
+
+def decodificar_solicitudes(cuerpo: bytes) -> List[Tuple[str, str, str, Optional[str]]]:
+    """
+    Devuelve (aerolinea, origen, destino, fecha_partida ISO-8601 o None) por registro.
+    """
+    if len(cuerpo) < CABECERA.size:
+        raise ErrorProtocolo("Mensaje binario incompleto")
+    magia, version, registros = CABECERA.unpack_from(cuerpo, 0)
+    if magia != b"FOT" or version != VERSION:
+        raise ErrorProtocolo("Cabecera binaria no válida")
+    if len(cuerpo) != CABECERA.size + registros * SOLICITUD.size:
+        raise ErrorProtocolo(f"Tamaño de mensaje no válido para {registros} registros")
+
+    solicitudes = []
+    for aerolinea, flags, origen, destino, _, segundos in SOLICITUD.iter_unpack(cuerpo[CABECERA.size:]):
+        fecha = (EPOCH + timedelta(seconds=segundos)).isoformat() if flags & FLAG_FECHA else None
+        solicitudes.append((str(aerolinea), desempaquetar_iata(origen), desempaquetar_iata(destino), fecha))
+    return solicitudes
+
+
+def codificar_respuestas(respuestas: List[Tuple[int, float, float, float]]) -> bytes:
+    """
+    Codifica (prediccion, probabilidad_retraso, confianza, distancia_km) por registro.
+    """
+    salida = bytearray(CABECERA.size + len(respuestas) * RESPUESTA.size)
+    CABECERA.pack_into(salida, 0, b"FOT", VERSION, len(respuestas))
+    posicion = CABECERA.size
+    for prediccion, probabilidad, confianza, distancia in respuestas:
+        RESPUESTA.pack_into(salida, posicion, prediccion, 0, 0, probabilidad, confianza, distancia)
+        posicion += RESPUESTA.size
+    return bytes(salida)
@@ -0,0 +1,146 @@
+# ============================================================================
+# SERVIDOR STUB DEL SERVICIO ML - PRUEBAS DEL BACKEND
+# ============================================================================
+# Implementa /health, /predict_internal y /predict_internal_batch con el
+# mismo contrato que main.py (JSON y protocolo binario con negociación por
+# Content-Type/Accept), sin modelo ni dependencias externas: la predicción
+# es determinista a partir de aerolínea, ruta y hora de partida.
+#
+# Uso: python stub_server.py [--port 8001] [--delay-ms 0] [--model-version random_forest_v1]
+# ============================================================================
+
+import argparse
+import asyncio
+import hashlib
+import json
+from datetime import datetime
+from math import radians, sin, cos, sqrt, atan2
+
+import protocolo_binario
+
+try:
+    from airport_coords import AIRPORT_COORDINATES
+except ImportError:  # airportsdata no instalado: distancia 0
+    AIRPORT_COORDINATES = {}
+
+MODELO_VERSION = "random_forest_v1"
+
+RAZONES = {200: "OK", 400: "Bad Request", 404: "Not Found", 415: "Unsupported Media Type",
+           422: "Unprocessable Entity"}
+
+
+def distancia(origen: str, destino: str) -> float:
+    a = AIRPORT_COORDINATES.get(origen)
+    b = AIRPORT_COORDINATES.get(destino)
+    if not a or not b:
+        return 0.0
+    dlat = radians(b["lat"] - a["lat"])
+    dlon = radians(b["lon"] - a["lon"])
+    h = sin(dlat / 2) ** 2 + cos(radians(a["lat"])) * cos(radians(b["lat"])) * sin(dlon / 2) ** 2
+    return 6371.0 * 2 * atan2(sqrt(h), sqrt(1 - h))
+
+
+def predecir(aerolinea: str, origen: str, destino: str, fecha: str):
+    """(prediccion, probabilidad_retraso, confianza, distancia_km) deterministas"""
+    clave = f"{aerolinea}|{origen}|{destino}|{(fecha or '')[:13]}".encode()
+    u = int.from_bytes(hashlib.blake2b(clave, digest_size=8).digest(), "big") / 2 ** 64
+    probabilidad = round(0.05 + 0.6 * u, 4)
+    return int(probabilidad > 0.5), probabilidad, round(max(probabilidad, 1 - probabilidad), 4), \
+        distancia(origen, destino)
+
+
+def respuesta_json(aerolinea, origen, destino, fecha, resultado):
+    prediccion, probabilidad, confianza, distancia_km = resultado
+    return {
+        "prediccion": prediccion,
+        "probabilidad_retraso": probabilidad,
+        "confianza": confianza,
+        "distancia_km": distancia_km,
+        "clima_origen": None,
+        "clima_destino": None,
+        "metadata": {
+            "aerolinea": aerolinea,
+            "ruta": f"{origen} → {destino}",
+            "fecha_partida": fecha,
+            "timestamp_prediccion": datetime.now().isoformat(),
+            "modo": "STUB",
+            "modelo_version": MODELO_VERSION,
+        },
+    }
+
+
+def atender(ruta: str, encabezados: dict, cuerpo: bytes):
+    """Devuelve (status, content_type, cuerpo)"""
+    if ruta == "/health":
+        return 200, "application/json", b'{"status":"UP","service":"FlightOnTime ML Stub"}'
+    if ruta not in ("/predict_internal", "/predict_internal_batch"):
+        return 404, "application/json", b'{"detail":"Not Found"}'
+    lote = ruta.endswith("_batch")
+
+    content_type = encabezados.get("content-type", "application/json")
+    try:
+        if protocolo_binario.es_binario(content_type):
+            solicitudes = protocolo_binario.decodificar_solicitudes(cuerpo)
+        elif content_type.lower().startswith("application/json"):
+            datos = json.loads(cuerpo)
+            datos = datos if lote else [datos]
+            solicitudes = [(d["aerolinea"], d["origen"], d["destino"], d.get("fecha_partida")) for d in datos]
+        else:
+            return 415, "application/json", json.dumps({"detail": "Content-Type no soportado"}).encode()
+    except (ValueError, KeyError, TypeError) as e:
+        return 422, "application/json", json.dumps({"detail": str(e)}).encode()
+    if not lote and len(solicitudes) != 1:
+        return 400, "application/json", b'{"detail":"Se esperaba un unico registro"}'
+
+    resultados = [predecir(*s) for s in solicitudes]
+    if protocolo_binario.MEDIA_TYPE in encabezados.get("accept", ""):
+        return 200, protocolo_binario.MEDIA_TYPE, protocolo_binario.codificar_respuestas(resultados)
+    respuestas = [respuesta_json(*s, r) for s, r in zip(solicitudes, resultados)]
+    return 200, "application/json", json.dumps(respuestas if lote else respuestas[0]).encode()
+
+
+async def conexion(lector, escritor, retardo):
+    try:
+        while True:
+            cabecera = await lector.readuntil(b"\r\n\r\n")
+            lineas = cabecera.decode("latin-1").split("\r\n")
+            ruta = lineas[0].split(" ")[1].split("?")[0]
+            encabezados = {}
+            for linea in lineas[1:]:
+                if ":" in linea:
+                    nombre, valor = linea.split(":", 1)
+                    encabezados[nombre.strip().lower()] = valor.strip()
+            cuerpo = await lector.readexactly(int(encabezados.get("content-length", 0)))
+            if retardo:
+                await asyncio.sleep(retardo)
+            status, tipo, datos = atender(ruta, encabezados, cuerpo)
+            escritor.write(f"HTTP/1.1 {status} {RAZONES.get(status, '')}\r\nContent-Type: {tipo}\r\n"
+                           f"X-Model-Version: {MODELO_VERSION}\r\n"
+                           f"Content-Length: {len(datos)}\r\n\r\n".encode() + datos)
+            await escritor.drain()
+    except (asyncio.IncompleteReadError, ConnectionError):
+        pass
+    finally:
+        escritor.close()
+
+
+async def main():
+    global MODELO_VERSION
+    parser = argparse.ArgumentParser(description="Stub del servicio ML de FlightOnTime")
+    parser.add_argument("--port", type=int, default=8001)
+    parser.add_argument("--delay-ms", type=float, default=0.0, help="Latencia añadida por solicitud")
+    parser.add_argument("--model-version", default=MODELO_VERSION,
+                        help="Versión informada en metadata.modelo_version y X-Model-Version")
+    args = parser.parse_args()
+
+    MODELO_VERSION = args.model_version
+
+    servidor = await asyncio.start_server(lambda r, w: conexion(r, w, args.delay_ms / 1000.0),
+                                          "0.0.0.0", args.port, backlog=2048)
+    print(f"Stub ML escuchando en el puerto {args.port} (retardo {args.delay_ms} ms)")
+    async with servidor:
+        await servidor.serve_forever()
+
+
+if __name__ == "__main__":
+    asyncio.run(main())